@@ -10,6 +10,7 @@ package org.elasticsearch.benchmark.vector;
 
 import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.index.IndexVersion;
+import org.elasticsearch.index.mapper.vectors.VectorEncoderDecoder;
 import org.elasticsearch.script.field.vectors.BinaryDenseVector;
 import org.elasticsearch.script.field.vectors.ByteBinaryDenseVector;
 import org.elasticsearch.script.field.vectors.ByteKnnDenseVector;
@@ -26,9 +27,11 @@ import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
@@ -133,7 +136,7 @@ public class DistanceFunctionBenchmark {
             docMagnitude /= dims;
             queryMagnitude /= dims;
 
-            ByteBuffer byteBuffer = ByteBuffer.allocate(dims * 4 + 4);
+            ByteBuffer byteBuffer = ByteBuffer.allocate(dims * 4 + 4).order(ByteOrder.LITTLE_ENDIAN);
 
             for (int i = 0; i < dims; ++i) {
                 if (normalize) {
@@ -147,6 +150,14 @@ public class DistanceFunctionBenchmark {
             byteBuffer.putFloat(docMagnitude);
             this.docVector = new BytesRef(byteBuffer.array());
         }
+
+        /**
+         * Decodes the stored vector like the doc values field does for every scored document.
+         */
+        BinaryDenseVector decode() {
+            VectorEncoderDecoder.decodeDenseVector(IndexVersion.current(), docVector, docFloatVector);
+            return new BinaryDenseVector(docFloatVector, docVector, dims, IndexVersion.current());
+        }
     }
 
     private abstract static class KnnByteBenchmarkFunction extends BenchmarkFunction {
@@ -206,7 +217,14 @@ public class DistanceFunctionBenchmark {
             docVector.putFloat(docMagnitude / dims);
             this.docVector = new BytesRef(docVector.array());
             this.queryMagnitude = queryMagnitude / dims;
+        }
 
+        /**
+         * Decodes the stored vector like the doc values field does for every scored document.
+         */
+        ByteBinaryDenseVector decode() {
+            System.arraycopy(docVector.bytes, docVector.offset, vectorValue, 0, dims);
+            return new ByteBinaryDenseVector(vectorValue, docVector, dims);
         }
     }
 
@@ -218,7 +236,7 @@ public class DistanceFunctionBenchmark {
 
         @Override
         public void execute(Consumer<Object> consumer) {
-            new KnnDenseVector(docVector).dotProduct(queryVector);
+            consumer.accept(new KnnDenseVector(docVector).dotProduct(queryVector));
         }
     }
 
@@ -230,7 +248,7 @@ public class DistanceFunctionBenchmark {
 
         @Override
         public void execute(Consumer<Object> consumer) {
-            new ByteKnnDenseVector(docVector).dotProduct(queryVector);
+            consumer.accept(new ByteKnnDenseVector(docVector).dotProduct(queryVector));
         }
     }
 
@@ -242,7 +260,7 @@ public class DistanceFunctionBenchmark {
 
         @Override
         public void execute(Consumer<Object> consumer) {
-            new BinaryDenseVector(docFloatVector, docVector, dims, IndexVersion.current()).dotProduct(queryVector);
+            consumer.accept(decode().dotProduct(queryVector));
         }
     }
 
@@ -254,7 +272,7 @@ public class DistanceFunctionBenchmark {
 
         @Override
         public void execute(Consumer<Object> consumer) {
-            new ByteBinaryDenseVector(vectorValue, docVector, dims).dotProduct(queryVector);
+            consumer.accept(decode().dotProduct(queryVector));
         }
     }
 
@@ -266,7 +284,7 @@ public class DistanceFunctionBenchmark {
 
         @Override
         public void execute(Consumer<Object> consumer) {
-            new KnnDenseVector(docVector).cosineSimilarity(queryVector, false);
+            consumer.accept(new KnnDenseVector(docVector).cosineSimilarity(queryVector, false));
         }
     }
 
@@ -278,7 +296,7 @@ public class DistanceFunctionBenchmark {
 
         @Override
         public void execute(Consumer<Object> consumer) {
-            new ByteKnnDenseVector(docVector).cosineSimilarity(queryVector, queryMagnitude);
+            consumer.accept(new ByteKnnDenseVector(docVector).cosineSimilarity(queryVector, queryMagnitude));
         }
     }
 
@@ -290,7 +308,7 @@ public class DistanceFunctionBenchmark {
 
         @Override
         public void execute(Consumer<Object> consumer) {
-            new BinaryDenseVector(docFloatVector, docVector, dims, IndexVersion.current()).cosineSimilarity(queryVector, false);
+            consumer.accept(decode().cosineSimilarity(queryVector, false));
         }
     }
 
@@ -302,7 +320,7 @@ public class DistanceFunctionBenchmark {
 
         @Override
         public void execute(Consumer<Object> consumer) {
-            new ByteBinaryDenseVector(vectorValue, docVector, dims).cosineSimilarity(queryVector, queryMagnitude);
+            consumer.accept(decode().cosineSimilarity(queryVector, queryMagnitude));
         }
     }
 
@@ -314,7 +332,7 @@ public class DistanceFunctionBenchmark {
 
         @Override
         public void execute(Consumer<Object> consumer) {
-            new KnnDenseVector(docVector).l1Norm(queryVector);
+            consumer.accept(new KnnDenseVector(docVector).l1Norm(queryVector));
         }
     }
 
@@ -326,7 +344,7 @@ public class DistanceFunctionBenchmark {
 
         @Override
         public void execute(Consumer<Object> consumer) {
-            new ByteKnnDenseVector(docVector).l1Norm(queryVector);
+            consumer.accept(new ByteKnnDenseVector(docVector).l1Norm(queryVector));
         }
     }
 
@@ -338,7 +356,7 @@ public class DistanceFunctionBenchmark {
 
         @Override
         public void execute(Consumer<Object> consumer) {
-            new BinaryDenseVector(docFloatVector, docVector, dims, IndexVersion.current()).l1Norm(queryVector);
+            consumer.accept(decode().l1Norm(queryVector));
         }
     }
 
@@ -350,7 +368,7 @@ public class DistanceFunctionBenchmark {
 
         @Override
         public void execute(Consumer<Object> consumer) {
-            new ByteBinaryDenseVector(vectorValue, docVector, dims).l1Norm(queryVector);
+            consumer.accept(decode().l1Norm(queryVector));
         }
     }
 
@@ -362,7 +380,7 @@ public class DistanceFunctionBenchmark {
 
         @Override
         public void execute(Consumer<Object> consumer) {
-            new KnnDenseVector(docVector).l2Norm(queryVector);
+            consumer.accept(new KnnDenseVector(docVector).l2Norm(queryVector));
         }
     }
 
@@ -374,7 +392,7 @@ public class DistanceFunctionBenchmark {
 
         @Override
         public void execute(Consumer<Object> consumer) {
-            new ByteKnnDenseVector(docVector).l2Norm(queryVector);
+            consumer.accept(new ByteKnnDenseVector(docVector).l2Norm(queryVector));
         }
     }
 
@@ -386,7 +404,7 @@ public class DistanceFunctionBenchmark {
 
         @Override
         public void execute(Consumer<Object> consumer) {
-            new BinaryDenseVector(docFloatVector, docVector, dims, IndexVersion.current()).l1Norm(queryVector);
+            consumer.accept(decode().l2Norm(queryVector));
         }
     }
 
@@ -398,7 +416,7 @@ public class DistanceFunctionBenchmark {
 
         @Override
         public void execute(Consumer<Object> consumer) {
-            consumer.accept(new ByteBinaryDenseVector(vectorValue, docVector, dims).l2Norm(queryVector));
+            consumer.accept(decode().l2Norm(queryVector));
         }
     }
 
@@ -463,9 +481,9 @@ public class DistanceFunctionBenchmark {
     }
 
     @Benchmark
-    public void benchmark() throws IOException {
+    public void benchmark(Blackhole blackhole) throws IOException {
         for (int i = 0; i < 25000; ++i) {
-            benchmarkFunction.execute(Object::toString);
+            benchmarkFunction.execute(blackhole::consume);
         }
     }
 }
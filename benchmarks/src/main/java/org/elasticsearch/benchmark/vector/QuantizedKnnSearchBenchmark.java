@@ -0,0 +1,196 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.benchmark.vector;
+
+import org.apache.lucene.codecs.KnnVectorsFormat;
+import org.apache.lucene.codecs.lucene99.Lucene99Codec;
+import org.apache.lucene.codecs.lucene99.Lucene99HnswScalarQuantizedVectorsFormat;
+import org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsFormat;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.KnnFloatVectorField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.VectorUtil;
+import org.elasticsearch.core.IOUtils;
+import org.elasticsearch.core.SuppressForbidden;
+import org.elasticsearch.index.codec.vectors.ES813Int8FlatVectorFormat;
+import org.elasticsearch.search.vectors.ESKnnFloatVectorQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the latency of approximate knn searches over raw, int8 and int4 quantized vectors, with and without
+ * rescoring the candidates from the raw vectors. The recall of every configuration against an exact search is
+ * printed once the trial is over, so that the latency can be weighed against the accuracy that is lost.
+ */
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class QuantizedKnnSearchBenchmark {
+
+    private static final String FIELD = "vector";
+
+    @Param({ "hnsw", "int8_hnsw", "int4_hnsw", "int8_flat", "int4_flat" })
+    private String indexType;
+
+    @Param({ "false", "true" })
+    private boolean rescore;
+
+    @Param({ "768" })
+    private int dims;
+
+    @Param({ "10000" })
+    private int numDocs;
+
+    @Param({ "10" })
+    private int k;
+
+    @Param({ "100" })
+    private int numCandidates;
+
+    private static final int NUM_QUERIES = 100;
+
+    private Directory directory;
+    private DirectoryReader reader;
+    private IndexSearcher searcher;
+    private float[][] docVectors;
+    private float[][] queryVectors;
+    private int nextQuery;
+
+    @Setup
+    public void setup() throws IOException {
+        Random random = new Random(42);
+        docVectors = new float[numDocs][];
+        for (int i = 0; i < numDocs; i++) {
+            docVectors[i] = randomUnitVector(random, dims);
+        }
+        queryVectors = new float[NUM_QUERIES][];
+        for (int i = 0; i < NUM_QUERIES; i++) {
+            queryVectors[i] = randomUnitVector(random, dims);
+        }
+
+        KnnVectorsFormat format = vectorsFormat(indexType);
+        IndexWriterConfig config = new IndexWriterConfig().setCodec(new Lucene99Codec() {
+            @Override
+            public KnnVectorsFormat getKnnVectorsFormatForField(String field) {
+                return format;
+            }
+        });
+        directory = new ByteBuffersDirectory();
+        try (IndexWriter writer = new IndexWriter(directory, config)) {
+            for (float[] vector : docVectors) {
+                Document document = new Document();
+                document.add(new KnnFloatVectorField(FIELD, vector, VectorSimilarityFunction.DOT_PRODUCT));
+                writer.addDocument(document);
+            }
+            writer.forceMerge(1);
+        }
+        reader = DirectoryReader.open(directory);
+        searcher = new IndexSearcher(reader);
+    }
+
+    @TearDown(Level.Trial)
+    @SuppressForbidden(reason = "reports the recall next to the jmh results")
+    public void tearDown() throws IOException {
+        System.out.println("recall@" + k + " for [" + indexType + "], rescore [" + rescore + "]: " + recall());
+        IOUtils.close(reader, directory);
+    }
+
+    @Benchmark
+    public TopDocs search() throws IOException {
+        float[] queryVector = queryVectors[nextQuery++ % NUM_QUERIES];
+        return searcher.search(new ESKnnFloatVectorQuery(FIELD, queryVector, numCandidates, null, rescore), k);
+    }
+
+    private double recall() throws IOException {
+        int found = 0;
+        for (float[] queryVector : queryVectors) {
+            Set<Integer> expected = exactTopK(queryVector);
+            TopDocs topDocs = searcher.search(new ESKnnFloatVectorQuery(FIELD, queryVector, numCandidates, null, rescore), k);
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                if (expected.contains(scoreDoc.doc)) {
+                    found++;
+                }
+            }
+        }
+        return (double) found / (NUM_QUERIES * k);
+    }
+
+    private Set<Integer> exactTopK(float[] queryVector) {
+        float[] scores = new float[numDocs];
+        Integer[] docs = new Integer[numDocs];
+        for (int i = 0; i < numDocs; i++) {
+            scores[i] = VectorUtil.dotProduct(queryVector, docVectors[i]);
+            docs[i] = i;
+        }
+        // documents are added in order to a single segment, so their index is their doc id
+        Arrays.sort(docs, (a, b) -> Float.compare(scores[b], scores[a]));
+        Set<Integer> topK = new HashSet<>();
+        for (int i = 0; i < k; i++) {
+            topK.add(docs[i]);
+        }
+        return topK;
+    }
+
+    private static KnnVectorsFormat vectorsFormat(String indexType) {
+        return switch (indexType) {
+            case "hnsw" -> new Lucene99HnswVectorsFormat();
+            case "int8_hnsw" -> new Lucene99HnswScalarQuantizedVectorsFormat();
+            case "int4_hnsw" -> new Lucene99HnswScalarQuantizedVectorsFormat(
+                Lucene99HnswVectorsFormat.DEFAULT_MAX_CONN,
+                Lucene99HnswVectorsFormat.DEFAULT_BEAM_WIDTH,
+                1,
+                4,
+                true,
+                0f,
+                null
+            );
+            case "int8_flat" -> new ES813Int8FlatVectorFormat();
+            case "int4_flat" -> new ES813Int8FlatVectorFormat(0f, 4, true);
+            default -> throw new IllegalArgumentException("unknown index type [" + indexType + "]");
+        };
+    }
+
+    private static float[] randomUnitVector(Random random, int dims) {
+        float[] vector = new float[dims];
+        for (int i = 0; i < dims; i++) {
+            vector[i] = random.nextFloat() * 2 - 1;
+        }
+        VectorUtil.l2normalize(vector);
+        return vector;
+    }
+}
@@ -65,6 +65,35 @@ public class Streams {
         return copy(in, out, LOCAL_BUFFER.get(), close);
     }
 
+    /**
+     * Copy the contents of the given InputStream to the given OutputStream using {@link InputStream#transferTo}. Streams
+     * over in-memory buffers can implement that by writing their buffers to {@code out} directly, skipping the intermediate
+     * copy that {@link #copy(InputStream, OutputStream, boolean)} makes. Streams that don't override it allocate a buffer
+     * on every call, so prefer {@link #copy} unless {@code in} is usually backed by memory. Optionally, closes both streams
+     * when done.
+     *
+     * @param in     the stream to copy from
+     * @param out    the stream to copy to
+     * @param close  whether to close both streams after copying
+     * @return the number of bytes copied
+     * @throws IOException in case of I/O errors
+     */
+    public static long transfer(final InputStream in, final OutputStream out, boolean close) throws IOException {
+        Exception err = null;
+        try {
+            long byteCount = in.transferTo(out);
+            out.flush();
+            return byteCount;
+        } catch (IOException | RuntimeException e) {
+            err = e;
+            throw e;
+        } finally {
+            if (close) {
+                IOUtils.close(err, in, out);
+            }
+        }
+    }
+
     /**
      * @see #copy(InputStream, OutputStream, byte[], boolean)
      */
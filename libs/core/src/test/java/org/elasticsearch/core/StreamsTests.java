@@ -28,4 +28,14 @@ public class StreamsTests extends ESTestCase {
         assertThat(count, equalTo((long) content.length));
         assertThat(Arrays.equals(content, out.toByteArray()), equalTo(true));
     }
+
+    public void testTransferFromInputStream() throws IOException {
+        byte[] content = "content".getBytes(StandardCharsets.UTF_8);
+        ByteArrayInputStream in = new ByteArrayInputStream(content);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length);
+        long count = Streams.transfer(in, out, true);
+
+        assertThat(count, equalTo((long) content.length));
+        assertThat(Arrays.equals(content, out.toByteArray()), equalTo(true));
+    }
 }
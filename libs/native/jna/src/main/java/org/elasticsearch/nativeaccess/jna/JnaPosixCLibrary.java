@@ -10,13 +10,74 @@ package org.elasticsearch.nativeaccess.jna;
 
 import com.sun.jna.Library;
 import com.sun.jna.Native;
+import com.sun.jna.NativeLong;
+import com.sun.jna.Structure;
 
 import org.elasticsearch.nativeaccess.lib.PosixCLibrary;
 
+import java.util.List;
+
 class JnaPosixCLibrary implements PosixCLibrary {
 
     private interface NativeFunctions extends Library {
         int geteuid();
+
+        int getrusage(int who, JnaRUsage usage);
+    }
+
+    public static class JnaRUsage extends Structure implements Structure.ByReference, RUsage {
+        public NativeLong ru_utime_sec = new NativeLong(0);
+        public NativeLong ru_utime_usec = new NativeLong(0);
+        public NativeLong ru_stime_sec = new NativeLong(0);
+        public NativeLong ru_stime_usec = new NativeLong(0);
+        public NativeLong ru_maxrss = new NativeLong(0);
+        public NativeLong ru_ixrss = new NativeLong(0);
+        public NativeLong ru_idrss = new NativeLong(0);
+        public NativeLong ru_isrss = new NativeLong(0);
+        public NativeLong ru_minflt = new NativeLong(0);
+        public NativeLong ru_majflt = new NativeLong(0);
+        public NativeLong ru_nswap = new NativeLong(0);
+        public NativeLong ru_inblock = new NativeLong(0);
+        public NativeLong ru_oublock = new NativeLong(0);
+        public NativeLong ru_msgsnd = new NativeLong(0);
+        public NativeLong ru_msgrcv = new NativeLong(0);
+        public NativeLong ru_nsignals = new NativeLong(0);
+        public NativeLong ru_nvcsw = new NativeLong(0);
+        public NativeLong ru_nivcsw = new NativeLong(0);
+
+        @Override
+        protected List<String> getFieldOrder() {
+            return List.of(
+                "ru_utime_sec",
+                "ru_utime_usec",
+                "ru_stime_sec",
+                "ru_stime_usec",
+                "ru_maxrss",
+                "ru_ixrss",
+                "ru_idrss",
+                "ru_isrss",
+                "ru_minflt",
+                "ru_majflt",
+                "ru_nswap",
+                "ru_inblock",
+                "ru_oublock",
+                "ru_msgsnd",
+                "ru_msgrcv",
+                "ru_nsignals",
+                "ru_nvcsw",
+                "ru_nivcsw"
+            );
+        }
+
+        @Override
+        public long ru_minflt() {
+            return ru_minflt.longValue();
+        }
+
+        @Override
+        public long ru_majflt() {
+            return ru_majflt.longValue();
+        }
     }
 
     private final NativeFunctions functions;
@@ -29,4 +90,15 @@ class JnaPosixCLibrary implements PosixCLibrary {
     public int geteuid() {
         return functions.geteuid();
     }
+
+    @Override
+    public RUsage newRUsage() {
+        return new JnaRUsage();
+    }
+
+    @Override
+    public int getrusage(int who, RUsage usage) {
+        assert usage instanceof JnaRUsage;
+        return functions.getrusage(who, (JnaRUsage) usage);
+    }
 }
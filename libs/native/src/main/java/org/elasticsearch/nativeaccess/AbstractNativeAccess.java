@@ -37,6 +37,11 @@ abstract class AbstractNativeAccess implements NativeAccess {
         return null;
     }
 
+    @Override
+    public long getThreadMajorPageFaults() {
+        return -1;
+    }
+
     @Override
     public Zstd getZstd() {
         return zstd;
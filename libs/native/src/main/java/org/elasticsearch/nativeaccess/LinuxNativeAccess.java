@@ -9,12 +9,18 @@
 package org.elasticsearch.nativeaccess;
 
 import org.elasticsearch.nativeaccess.lib.NativeLibraryProvider;
+import org.elasticsearch.nativeaccess.lib.PosixCLibrary;
 import org.elasticsearch.nativeaccess.lib.SystemdLibrary;
 
 class LinuxNativeAccess extends PosixNativeAccess {
 
+    /** the statistics of the calling thread, only available on Linux */
+    private static final int RUSAGE_THREAD = 1;
+
     Systemd systemd;
 
+    private final ThreadLocal<PosixCLibrary.RUsage> rusage = ThreadLocal.withInitial(libc::newRUsage);
+
     LinuxNativeAccess(NativeLibraryProvider libraryProvider) {
         super("Linux", libraryProvider);
         this.systemd = new Systemd(libraryProvider.getLibrary(SystemdLibrary.class));
@@ -24,4 +30,13 @@ class LinuxNativeAccess extends PosixNativeAccess {
     public Systemd systemd() {
         return systemd;
     }
+
+    @Override
+    public long getThreadMajorPageFaults() {
+        PosixCLibrary.RUsage usage = rusage.get();
+        if (libc.getrusage(RUSAGE_THREAD, usage) != 0) {
+            return -1;
+        }
+        return usage.ru_majflt();
+    }
 }
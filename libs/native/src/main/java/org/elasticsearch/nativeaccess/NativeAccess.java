@@ -29,6 +29,14 @@ public interface NativeAccess {
 
     Systemd systemd();
 
+    /**
+     * Returns the number of major page faults, those that had to read from disk, incurred by the
+     * calling thread so far.
+     *
+     * @return the number of major page faults, or -1 if it can't be determined on this platform
+     */
+    long getThreadMajorPageFaults();
+
     /**
      * Returns an accessor to zstd compression functions.
      * @return an object used to compress and decompress bytes using zstd
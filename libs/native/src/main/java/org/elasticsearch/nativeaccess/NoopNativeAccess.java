@@ -29,6 +29,12 @@ class NoopNativeAccess implements NativeAccess {
         return null;
     }
 
+    @Override
+    public long getThreadMajorPageFaults() {
+        // no warning, this is polled while searching
+        return -1;
+    }
+
     @Override
     public Zstd getZstd() {
         logger.warn("cannot compress with zstd because native access is not available");
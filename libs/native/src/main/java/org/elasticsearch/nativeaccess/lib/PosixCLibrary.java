@@ -20,4 +20,26 @@ public non-sealed interface PosixCLibrary extends NativeLibrary {
      * @see <a href="https://pubs.opengroup.org/onlinepubs/9699919799/functions/geteuid.html">geteuid</a>
      */
     int geteuid();
+
+    /** corresponds to struct rusage */
+    interface RUsage {
+        long ru_minflt();
+
+        long ru_majflt();
+    }
+
+    /**
+     * Create a new RUsage struct for use by getrusage.
+     */
+    RUsage newRUsage();
+
+    /**
+     * Retrieve resource usage statistics of the process or of the calling thread.
+     *
+     * @param who which statistics to retrieve, eg RUSAGE_SELF
+     * @param usage a struct to be filled with the statistics
+     * @return 0 on success, -1 on failure
+     * @see <a href="https://man7.org/linux/man-pages/man2/getrusage.2.html">getrusage</a>
+     */
+    int getrusage(int who, RUsage usage);
 }
@@ -12,10 +12,14 @@ import org.elasticsearch.logging.LogManager;
 import org.elasticsearch.logging.Logger;
 import org.elasticsearch.nativeaccess.lib.PosixCLibrary;
 
+import java.lang.foreign.Arena;
 import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.MemorySegment;
 import java.lang.invoke.MethodHandle;
 
+import static java.lang.foreign.ValueLayout.ADDRESS;
 import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
 import static org.elasticsearch.nativeaccess.jdk.LinkerHelper.downcallHandle;
 
 class JdkPosixCLibrary implements PosixCLibrary {
@@ -23,6 +27,7 @@ class JdkPosixCLibrary implements PosixCLibrary {
     private static final Logger logger = LogManager.getLogger(JdkPosixCLibrary.class);
 
     private static final MethodHandle geteuid$mh = downcallHandle("geteuid", FunctionDescriptor.of(JAVA_INT));
+    private static final MethodHandle getrusage$mh = downcallHandle("getrusage", FunctionDescriptor.of(JAVA_INT, JAVA_INT, ADDRESS));
 
     @Override
     public int geteuid() {
@@ -32,4 +37,39 @@ class JdkPosixCLibrary implements PosixCLibrary {
             throw new AssertionError(t);
         }
     }
+
+    @Override
+    public RUsage newRUsage() {
+        return new JdkRUsage();
+    }
+
+    @Override
+    public int getrusage(int who, RUsage usage) {
+        assert usage instanceof JdkRUsage;
+        var jdkUsage = (JdkRUsage) usage;
+        try {
+            return (int) getrusage$mh.invokeExact(who, jdkUsage.segment);
+        } catch (Throwable t) {
+            throw new AssertionError(t);
+        }
+    }
+
+    static class JdkRUsage implements RUsage {
+        // two struct timevals followed by 14 longs, we only support 64 bit platforms
+        private static final long STRUCT_SIZE = 18 * JAVA_LONG.byteSize();
+        private static final long MINFLT_OFFSET = 8 * JAVA_LONG.byteSize();
+        private static final long MAJFLT_OFFSET = 9 * JAVA_LONG.byteSize();
+
+        final MemorySegment segment = Arena.ofAuto().allocate(STRUCT_SIZE, JAVA_LONG.byteAlignment());
+
+        @Override
+        public long ru_minflt() {
+            return segment.get(JAVA_LONG, MINFLT_OFFSET);
+        }
+
+        @Override
+        public long ru_majflt() {
+            return segment.get(JAVA_LONG, MAJFLT_OFFSET);
+        }
+    }
 }
@@ -476,7 +476,7 @@ public class JsonXContentGenerator implements XContentGenerator {
         } else {
             writeStartRaw(name);
             flush();
-            Streams.copy(content, os);
+            Streams.transfer(content, os, true);
             writeEndRaw();
         }
     }
@@ -491,7 +491,7 @@ public class JsonXContentGenerator implements XContentGenerator {
                 generator.writeRaw(':');
             }
             flush();
-            Streams.copy(stream, os, false);
+            Streams.transfer(stream, os, false);
             writeEndRaw();
         }
     }
@@ -16,6 +16,7 @@ import org.elasticsearch.cluster.node.DiscoveryNodes;
 import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
 import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.IndexScopedSettings;
+import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.settings.SettingsFilter;
 import org.elasticsearch.features.NodeFeature;
@@ -46,6 +47,22 @@ public class MustachePlugin extends Plugin implements ScriptPlugin, ActionPlugin
         return new MustacheScriptEngine();
     }
 
+    @Override
+    public Collection<?> createComponents(PluginServices services) {
+        return List.of(
+            new SearchTemplateSourceCache(
+                services.environment().settings(),
+                services.threadPool().getThreadContext(),
+                services.namedWriteableRegistry()
+            )
+        );
+    }
+
+    @Override
+    public List<Setting<?>> getSettings() {
+        return List.of(SearchTemplateSourceCache.CACHE_SIZE_SETTING);
+    }
+
     @Override
     public List<ActionHandler<? extends ActionRequest, ? extends ActionResponse>> getActions() {
         return Arrays.asList(
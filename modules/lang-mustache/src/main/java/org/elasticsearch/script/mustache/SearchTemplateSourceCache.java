@@ -0,0 +1,163 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.script.mustache;
+
+import org.elasticsearch.action.admin.cluster.stats.SearchUsageStats;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.NamedWriteableAwareStreamInput;
+import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
+import org.elasticsearch.script.TemplateScript;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.usage.SearchUsage;
+import org.elasticsearch.usage.SearchUsageHolder;
+import org.elasticsearch.usage.UsageService;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Node level cache of the search requests produced by compiled search templates for given parameters. Applications that
+ * send the same template with the same parameters many times per second can then skip rendering the template and parsing
+ * the rendered source. Entries are serialized, so every request gets its own deep copy of the cached search request, and
+ * the cache is bounded by the size of the serialized entries. It is disabled by default.
+ */
+public final class SearchTemplateSourceCache {
+
+    public static final Setting<ByteSizeValue> CACHE_SIZE_SETTING = Setting.byteSizeSetting(
+        "search.template.parsed_source_cache.size",
+        ByteSizeValue.ZERO,
+        Setting.Property.NodeScope
+    );
+
+    private final Cache<Key, Entry> cache;
+    private final ThreadContext threadContext;
+    private final NamedWriteableRegistry namedWriteableRegistry;
+
+    public SearchTemplateSourceCache(Settings settings, ThreadContext threadContext, NamedWriteableRegistry namedWriteableRegistry) {
+        this(CACHE_SIZE_SETTING.get(settings), threadContext, namedWriteableRegistry);
+    }
+
+    SearchTemplateSourceCache(ByteSizeValue size, ThreadContext threadContext, NamedWriteableRegistry namedWriteableRegistry) {
+        this.cache = size.getBytes() == 0
+            ? null
+            : CacheBuilder.<Key, Entry>builder().setMaximumWeight(size.getBytes()).weigher((k, e) -> e.ramBytesUsed()).build();
+        this.threadContext = threadContext;
+        this.namedWriteableRegistry = namedWriteableRegistry;
+    }
+
+    /**
+     * Returns the rendered source and the parsed {@link SearchSourceBuilder} of the provided compiled <code>template</code> for
+     * the provided <code>params</code>, rendering and parsing it with <code>parser</code> if it isn't cached yet. The returned
+     * builder is a deep copy that callers are free to modify. Search usage statistics are recorded into
+     * <code>searchUsageHolder</code> whether the source was cached or not.
+     */
+    RenderedSource getOrRender(
+        TemplateScript.Factory template,
+        Map<String, Object> params,
+        SearchUsageHolder searchUsageHolder,
+        Parser parser
+    ) throws IOException {
+        if (cache == null) {
+            String source = template.newInstance(params).execute();
+            SearchSourceBuilder builder = SearchSourceBuilder.searchSource();
+            parser.parse(source, builder, searchUsageHolder);
+            return new RenderedSource(new BytesArray(source), builder);
+        }
+        Key key = new Key(template, params);
+        Entry entry = cache.get(key);
+        if (entry == null) {
+            String source = template.newInstance(params).execute();
+            SearchSourceBuilder builder = SearchSourceBuilder.searchSource();
+            SearchUsageHolder usageHolder = new UsageService().getSearchUsageHolder();
+            final boolean deprecated;
+            try (ThreadContext.StoredContext ignored = threadContext.newStoredContextPreservingResponseHeaders()) {
+                // parse with empty response headers to see the warnings of this source, even if they were already emitted
+                threadContext.stashContextPreservingRequestHeaders(threadContext.getRequestHeadersOnly().keySet());
+                parser.parse(source, builder, usageHolder);
+                deprecated = threadContext.getResponseHeaders().containsKey("Warning");
+            }
+            entry = new Entry(new BytesArray(source), serialize(builder), searchUsage(usageHolder.getSearchUsageStats()));
+            // sources that emit deprecation warnings need to be parsed on every request for the warnings to be returned
+            if (deprecated == false) {
+                cache.put(key, entry);
+            }
+            searchUsageHolder.updateUsage(entry.usage);
+            return new RenderedSource(entry.source, builder);
+        }
+        searchUsageHolder.updateUsage(entry.usage);
+        return new RenderedSource(entry.source, deserialize(entry.builder));
+    }
+
+    private static BytesReference serialize(SearchSourceBuilder builder) throws IOException {
+        try (BytesStreamOutput out = new BytesStreamOutput()) {
+            builder.writeTo(out);
+            return out.copyBytes();
+        }
+    }
+
+    private SearchSourceBuilder deserialize(BytesReference bytes) throws IOException {
+        try (StreamInput in = new NamedWriteableAwareStreamInput(bytes.streamInput(), namedWriteableRegistry)) {
+            return new SearchSourceBuilder(in);
+        }
+    }
+
+    private static SearchUsage searchUsage(SearchUsageStats stats) {
+        SearchUsage usage = new SearchUsage();
+        stats.getQueryUsage().keySet().forEach(usage::trackQueryUsage);
+        stats.getRescorerUsage().keySet().forEach(usage::trackRescorerUsage);
+        stats.getSectionsUsage().keySet().forEach(usage::trackSectionUsage);
+        return usage;
+    }
+
+    /**
+     * Returns the number of cached sources.
+     */
+    int count() {
+        return cache == null ? 0 : cache.count();
+    }
+
+    @FunctionalInterface
+    interface Parser {
+        void parse(String source, SearchSourceBuilder builder, SearchUsageHolder searchUsageHolder) throws IOException;
+    }
+
+    record RenderedSource(BytesReference source, SearchSourceBuilder builder) {}
+
+    /**
+     * Compiled templates are cached by the script service and get compiled again when their stored script changes, so they
+     * can be compared by identity.
+     */
+    private record Key(TemplateScript.Factory template, Map<String, Object> params) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && template == other.template && params.equals(other.params);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(template) + params.hashCode();
+        }
+    }
+
+    private record Entry(BytesReference source, BytesReference builder, SearchUsage usage) {
+        long ramBytesUsed() {
+            // the parameters are part of the rendered source so they are accounted for as well
+            return source.length() + builder.length();
+        }
+    }
+}
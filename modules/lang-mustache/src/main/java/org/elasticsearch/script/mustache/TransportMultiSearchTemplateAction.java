@@ -46,6 +46,7 @@ public class TransportMultiSearchTemplateAction extends HandledTransportAction<M
     private final Predicate<NodeFeature> clusterSupportsFeature;
     private final NodeClient client;
     private final SearchUsageHolder searchUsageHolder;
+    private final SearchTemplateSourceCache sourceCache;
 
     @Inject
     public TransportMultiSearchTemplateAction(
@@ -56,7 +57,8 @@ public class TransportMultiSearchTemplateAction extends HandledTransportAction<M
         NodeClient client,
         UsageService usageService,
         ClusterService clusterService,
-        FeatureService featureService
+        FeatureService featureService,
+        SearchTemplateSourceCache sourceCache
     ) {
         super(
             MustachePlugin.MULTI_SEARCH_TEMPLATE_ACTION.name(),
@@ -73,6 +75,7 @@ public class TransportMultiSearchTemplateAction extends HandledTransportAction<M
         };
         this.client = client;
         this.searchUsageHolder = usageService.getSearchUsageHolder();
+        this.sourceCache = sourceCache;
     }
 
     @Override
@@ -96,7 +99,8 @@ public class TransportMultiSearchTemplateAction extends HandledTransportAction<M
                     scriptService,
                     xContentRegistry,
                     clusterSupportsFeature,
-                    searchUsageHolder
+                    searchUsageHolder,
+                    sourceCache
                 );
             } catch (Exception e) {
                 searchTemplateResponse.decRef();
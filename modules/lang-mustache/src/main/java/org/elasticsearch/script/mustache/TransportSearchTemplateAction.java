@@ -15,7 +15,6 @@ import org.elasticsearch.action.support.HandledTransportAction;
 import org.elasticsearch.client.internal.node.NodeClient;
 import org.elasticsearch.cluster.ClusterState;
 import org.elasticsearch.cluster.service.ClusterService;
-import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.util.concurrent.EsExecutors;
 import org.elasticsearch.common.xcontent.LoggingDeprecationHandler;
@@ -51,6 +50,7 @@ public class TransportSearchTemplateAction extends HandledTransportAction<Search
     private final Predicate<NodeFeature> clusterSupportsFeature;
     private final NodeClient client;
     private final SearchUsageHolder searchUsageHolder;
+    private final SearchTemplateSourceCache sourceCache;
 
     @Inject
     public TransportSearchTemplateAction(
@@ -61,7 +61,8 @@ public class TransportSearchTemplateAction extends HandledTransportAction<Search
         NodeClient client,
         UsageService usageService,
         ClusterService clusterService,
-        FeatureService featureService
+        FeatureService featureService,
+        SearchTemplateSourceCache sourceCache
     ) {
         super(
             MustachePlugin.SEARCH_TEMPLATE_ACTION.name(),
@@ -78,6 +79,7 @@ public class TransportSearchTemplateAction extends HandledTransportAction<Search
         };
         this.client = client;
         this.searchUsageHolder = usageService.getSearchUsageHolder();
+        this.sourceCache = sourceCache;
     }
 
     @Override
@@ -91,7 +93,8 @@ public class TransportSearchTemplateAction extends HandledTransportAction<Search
                 scriptService,
                 xContentRegistry,
                 clusterSupportsFeature,
-                searchUsageHolder
+                searchUsageHolder,
+                sourceCache
             );
             if (searchRequest != null) {
                 client.search(searchRequest, listener.delegateResponse((l, e) -> {
@@ -122,7 +125,8 @@ public class TransportSearchTemplateAction extends HandledTransportAction<Search
         ScriptService scriptService,
         NamedXContentRegistry xContentRegistry,
         Predicate<NodeFeature> clusterSupportsFeature,
-        SearchUsageHolder searchUsageHolder
+        SearchUsageHolder searchUsageHolder,
+        SearchTemplateSourceCache sourceCache
     ) throws IOException {
         Script script = new Script(
             searchTemplateRequest.getScriptType(),
@@ -130,19 +134,24 @@ public class TransportSearchTemplateAction extends HandledTransportAction<Search
             searchTemplateRequest.getScript(),
             searchTemplateRequest.getScriptParams() == null ? Collections.emptyMap() : searchTemplateRequest.getScriptParams()
         );
-        TemplateScript compiledScript = scriptService.compile(script, TemplateScript.CONTEXT).newInstance(script.getParams());
-        String source = compiledScript.execute();
-        response.setSource(new BytesArray(source));
+        TemplateScript.Factory template = scriptService.compile(script, TemplateScript.CONTEXT);
 
         SearchRequest searchRequest = searchTemplateRequest.getRequest();
 
-        SearchSourceBuilder builder = SearchSourceBuilder.searchSource();
-
         XContentParserConfiguration parserConfig = XContentParserConfiguration.EMPTY.withRegistry(xContentRegistry)
             .withDeprecationHandler(LoggingDeprecationHandler.INSTANCE);
-        try (XContentParser parser = XContentFactory.xContent(XContentType.JSON).createParser(parserConfig, source)) {
-            builder.parseXContent(parser, false, searchUsageHolder, clusterSupportsFeature);
-        }
+        SearchTemplateSourceCache.RenderedSource rendered = sourceCache.getOrRender(
+            template,
+            script.getParams(),
+            searchUsageHolder,
+            (source, builder, usageHolder) -> {
+                try (XContentParser parser = XContentFactory.xContent(XContentType.JSON).createParser(parserConfig, source)) {
+                    builder.parseXContent(parser, false, usageHolder, clusterSupportsFeature);
+                }
+            }
+        );
+        response.setSource(rendered.source());
+        SearchSourceBuilder builder = rendered.builder();
 
         if (searchTemplateRequest.isSimulate()) {
             return null;
@@ -0,0 +1,124 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.script.mustache;
+
+import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.index.query.TermQueryBuilder;
+import org.elasticsearch.script.TemplateScript;
+import org.elasticsearch.search.SearchModule;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.sort.FieldSortBuilder;
+import org.elasticsearch.search.sort.SortOrder;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.usage.SearchUsage;
+import org.elasticsearch.usage.SearchUsageHolder;
+import org.elasticsearch.usage.UsageService;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class SearchTemplateSourceCacheTests extends ESTestCase {
+
+    private static final TemplateScript.Factory TEMPLATE = params -> new TemplateScript(params) {
+        @Override
+        public String execute() {
+            return params.get("value").toString();
+        }
+    };
+
+    private final NamedWriteableRegistry namedWriteableRegistry = new NamedWriteableRegistry(
+        new SearchModule(Settings.EMPTY, List.of()).getNamedWriteables()
+    );
+
+    public void testCachedTemplateIsRenderedAndParsedOnce() throws IOException {
+        ThreadContext threadContext = new ThreadContext(Settings.EMPTY);
+        SearchTemplateSourceCache cache = new SearchTemplateSourceCache(ByteSizeValue.ofKb(10), threadContext, namedWriteableRegistry);
+        SearchUsageHolder searchUsageHolder = new UsageService().getSearchUsageHolder();
+        AtomicInteger parseCount = new AtomicInteger();
+        SearchTemplateSourceCache.Parser parser = (source, builder, usageHolder) -> {
+            parseCount.incrementAndGet();
+            builder.query(QueryBuilders.termQuery("field", source));
+            builder.sort(new FieldSortBuilder("field"));
+            SearchUsage searchUsage = new SearchUsage();
+            searchUsage.trackQueryUsage("term");
+            usageHolder.updateUsage(searchUsage);
+        };
+
+        SearchTemplateSourceCache.RenderedSource first = cache.getOrRender(TEMPLATE, Map.of("value", "foo"), searchUsageHolder, parser);
+        SearchTemplateSourceCache.RenderedSource second = cache.getOrRender(TEMPLATE, Map.of("value", "foo"), searchUsageHolder, parser);
+        assertThat(parseCount.get(), equalTo(1));
+        assertThat(cache.count(), equalTo(1));
+        assertThat(second.source().utf8ToString(), equalTo("foo"));
+        assertThat(second.builder(), equalTo(first.builder()));
+        assertThat(second.builder(), not(sameInstance(first.builder())));
+        // usage is recorded for every request, including the ones served from the cache
+        assertThat(searchUsageHolder.getSearchUsageStats().getTotalSearchCount(), equalTo(2L));
+        assertThat(searchUsageHolder.getSearchUsageStats().getQueryUsage().get("term"), equalTo(2L));
+
+        // modifying a returned builder, including its nested builders, doesn't modify the cached one
+        second.builder().size(42);
+        ((TermQueryBuilder) second.builder().query()).boost(2f);
+        ((FieldSortBuilder) second.builder().sorts().get(0)).order(SortOrder.DESC);
+        SearchSourceBuilder third = cache.getOrRender(TEMPLATE, Map.of("value", "foo"), searchUsageHolder, parser).builder();
+        assertThat(third, equalTo(first.builder()));
+        assertThat(third.query().boost(), equalTo(1f));
+        assertThat(((FieldSortBuilder) third.sorts().get(0)).order(), equalTo(SortOrder.ASC));
+
+        cache.getOrRender(TEMPLATE, Map.of("value", "bar"), searchUsageHolder, parser);
+        assertThat(parseCount.get(), equalTo(2));
+        assertThat(cache.count(), equalTo(2));
+    }
+
+    public void testCacheIsDisabledByDefault() throws IOException {
+        ThreadContext threadContext = new ThreadContext(Settings.EMPTY);
+        SearchTemplateSourceCache cache = new SearchTemplateSourceCache(Settings.EMPTY, threadContext, namedWriteableRegistry);
+        SearchUsageHolder searchUsageHolder = new UsageService().getSearchUsageHolder();
+        AtomicInteger parseCount = new AtomicInteger();
+        SearchTemplateSourceCache.Parser parser = (source, builder, usageHolder) -> {
+            parseCount.incrementAndGet();
+            usageHolder.updateUsage(new SearchUsage());
+        };
+        int numRequests = randomIntBetween(1, 5);
+        for (int i = 0; i < numRequests; i++) {
+            cache.getOrRender(TEMPLATE, Map.of("value", "foo"), searchUsageHolder, parser);
+        }
+        assertThat(parseCount.get(), equalTo(numRequests));
+        assertThat(cache.count(), equalTo(0));
+        assertThat(searchUsageHolder.getSearchUsageStats().getTotalSearchCount(), equalTo((long) numRequests));
+    }
+
+    public void testTemplatesWithWarningsAreNotCached() throws IOException {
+        ThreadContext threadContext = new ThreadContext(Settings.EMPTY);
+        SearchTemplateSourceCache cache = new SearchTemplateSourceCache(ByteSizeValue.ofKb(10), threadContext, namedWriteableRegistry);
+        SearchUsageHolder searchUsageHolder = new UsageService().getSearchUsageHolder();
+        AtomicInteger parseCount = new AtomicInteger();
+        SearchTemplateSourceCache.Parser parser = (source, builder, usageHolder) -> {
+            parseCount.incrementAndGet();
+            threadContext.addResponseHeader("Warning", "deprecated");
+            usageHolder.updateUsage(new SearchUsage());
+        };
+        // the same warning was already emitted by this request, so it doesn't get added again
+        threadContext.addResponseHeader("Warning", "deprecated");
+        cache.getOrRender(TEMPLATE, Map.of("value", "foo"), searchUsageHolder, parser);
+        cache.getOrRender(TEMPLATE, Map.of("value", "foo"), searchUsageHolder, parser);
+        assertThat(parseCount.get(), equalTo(2));
+        assertThat(cache.count(), equalTo(0));
+        assertThat(threadContext.getResponseHeaders().get("Warning"), equalTo(List.of("deprecated")));
+    }
+}
@@ -524,6 +524,9 @@ public class PercolateQueryBuilder extends AbstractQueryBuilder<PercolateQueryBu
                 && docs.stream().map(ParsedDocument::docs).mapToInt(List::size).anyMatch(size -> size > 1);
         } else {
             MemoryIndex memoryIndex = MemoryIndex.fromDocument(docs.get(0).rootDoc(), analyzer, true, false);
+            // Candidate matches get verified concurrently when the search runs over multiple slices
+            // of the shard, freezing makes it safe to read the memory index from multiple threads
+            memoryIndex.freeze();
             docSearcher = memoryIndex.createSearcher();
             docSearcher.setQueryCache(null);
             excludeNestedDocuments = false;
@@ -531,9 +534,14 @@ public class PercolateQueryBuilder extends AbstractQueryBuilder<PercolateQueryBu
 
         PercolatorFieldMapper.PercolatorFieldType pft = (PercolatorFieldMapper.PercolatorFieldType) fieldType;
         String queryName = this.name != null ? this.name : pft.name();
-        SearchExecutionContext percolateShardContext = wrap(context);
-        percolateShardContext = PercolatorFieldMapper.configureContext(percolateShardContext, pft.mapUnmappedFieldsAsText);
-        PercolateQuery.QueryStore queryStore = createStore(pft.queryBuilderField, percolateShardContext);
+        SearchExecutionContext wrappedContext = wrap(context);
+        SearchExecutionContext percolateShardContext = PercolatorFieldMapper.configureContext(wrappedContext, pft.mapUnmappedFieldsAsText);
+        PercolateQuery.QueryStore queryStore = pft.queryCache.wrap(
+            createStore(pft.queryBuilderField, percolateShardContext),
+            pft.name(),
+            percolateShardContext.mappingCacheKey(),
+            () -> wrappedContext.isCacheable() && percolateShardContext.isCacheable()
+        );
 
         return pft.percolateQuery(queryName, queryStore, documents, docSearcher, excludeNestedDocuments, context.indexVersionCreated());
     }
@@ -557,7 +565,9 @@ public class PercolateQueryBuilder extends AbstractQueryBuilder<PercolateQueryBu
 
     static IndexSearcher createMultiDocumentSearcher(Analyzer analyzer, Collection<ParsedDocument> docs) {
         Directory directory = new ByteBuffersDirectory();
-        try (IndexWriter indexWriter = new IndexWriter(directory, new IndexWriterConfig(analyzer))) {
+        // The index only lives for the duration of the request, so don't spend time on packing it into a compound file
+        IndexWriterConfig config = new IndexWriterConfig(analyzer).setUseCompoundFile(false);
+        try (IndexWriter indexWriter = new IndexWriter(directory, config)) {
             // Indexing in order here, so that the user provided order matches with the docid sequencing:
             Iterable<LuceneDocument> iterable = () -> docs.stream().map(ParsedDocument::docs).flatMap(Collection::stream).iterator();
             indexWriter.addDocuments(iterable);
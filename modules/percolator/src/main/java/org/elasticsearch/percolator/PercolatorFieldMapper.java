@@ -100,8 +100,14 @@ public class PercolatorFieldMapper extends FieldMapper {
 
     @Override
     public FieldMapper.Builder getMergeBuilder() {
-        return new Builder(simpleName(), searchExecutionContext, mapUnmappedFieldsAsText, indexCreatedVersion, clusterTransportVersion)
-            .init(this);
+        return new Builder(
+            simpleName(),
+            searchExecutionContext,
+            mapUnmappedFieldsAsText,
+            indexCreatedVersion,
+            clusterTransportVersion,
+            ((PercolatorFieldType) fieldType()).queryCache
+        ).init(this);
     }
 
     static class Builder extends FieldMapper.Builder {
@@ -113,19 +119,22 @@ public class PercolatorFieldMapper extends FieldMapper {
 
         private final IndexVersion indexCreatedVersion;
         private final Supplier<TransportVersion> clusterTransportVersion;
+        private final PercolatorQueryCache queryCache;
 
         Builder(
             String fieldName,
             Supplier<SearchExecutionContext> searchExecutionContext,
             boolean mapUnmappedFieldsAsText,
             IndexVersion indexCreatedVersion,
-            Supplier<TransportVersion> clusterTransportVersion
+            Supplier<TransportVersion> clusterTransportVersion,
+            PercolatorQueryCache queryCache
         ) {
             super(fieldName);
             this.searchExecutionContext = searchExecutionContext;
             this.mapUnmappedFieldsAsText = mapUnmappedFieldsAsText;
             this.indexCreatedVersion = Objects.requireNonNull(indexCreatedVersion);
             this.clusterTransportVersion = clusterTransportVersion;
+            this.queryCache = Objects.requireNonNull(queryCache);
         }
 
         @Override
@@ -160,6 +169,7 @@ public class PercolatorFieldMapper extends FieldMapper {
             NumberFieldMapper minimumShouldMatchFieldMapper = createMinimumShouldMatchField(context, indexCreatedVersion);
             fieldType.minimumShouldMatchField = minimumShouldMatchFieldMapper.fieldType();
             fieldType.mapUnmappedFieldsAsText = mapUnmappedFieldsAsText;
+            fieldType.queryCache = queryCache;
 
             return new PercolatorFieldMapper(
                 name(),
@@ -213,6 +223,12 @@ public class PercolatorFieldMapper extends FieldMapper {
 
     static class TypeParser implements Mapper.TypeParser {
 
+        private final PercolatorQueryCache queryCache;
+
+        TypeParser(PercolatorQueryCache queryCache) {
+            this.queryCache = queryCache;
+        }
+
         @Override
         public Builder parse(String name, Map<String, Object> node, MappingParserContext parserContext) throws MapperParsingException {
             return new Builder(
@@ -220,7 +236,8 @@ public class PercolatorFieldMapper extends FieldMapper {
                 parserContext.searchExecutionContext(),
                 getMapUnmappedFieldAsText(parserContext.getSettings()),
                 parserContext.indexVersionCreated(),
-                parserContext.clusterTransportVersion()
+                parserContext.clusterTransportVersion(),
+                queryCache
             );
         }
     }
@@ -238,6 +255,7 @@ public class PercolatorFieldMapper extends FieldMapper {
 
         RangeFieldMapper.RangeFieldType rangeField;
         boolean mapUnmappedFieldsAsText;
+        PercolatorQueryCache queryCache;
 
         private PercolatorFieldType(String name, Map<String, String> meta) {
             super(name, false, false, false, TextSearchInfo.NONE, meta);
@@ -10,17 +10,19 @@ package org.elasticsearch.percolator;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.DocIdSetIterator;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.NamedMatches;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.search.Scorer;
-import org.apache.lucene.search.Sort;
-import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
 import org.apache.lucene.search.Weight;
 import org.apache.lucene.util.BitSet;
 import org.apache.lucene.util.BitSetIterator;
+import org.apache.lucene.util.Bits;
 import org.elasticsearch.common.document.DocumentField;
 import org.elasticsearch.common.lucene.search.Queries;
 import org.elasticsearch.index.IndexVersion;
@@ -87,8 +89,15 @@ final class PercolatorMatchedSlotSubFetchPhase implements FetchSubPhase {
                     }
                     query = pc.filterNestedDocs(query, fetchContext.getSearchExecutionContext().indexVersionCreated());
                     IndexSearcher percolatorIndexSearcher = pc.percolateQuery.getPercolatorIndexSearcher();
-                    int memoryIndexMaxDoc = percolatorIndexSearcher.getIndexReader().maxDoc();
-                    TopDocs topDocs = percolatorIndexSearcher.search(query, memoryIndexMaxDoc, new Sort(SortField.FIELD_DOC));
+                    List<LeafReaderContext> leafContexts = percolatorIndexSearcher.getLeafContexts();
+                    assert leafContexts.size() == 1 : "Expected single leaf, but got [" + leafContexts.size() + "]";
+                    LeafReaderContext memoryReaderContext = leafContexts.get(0);
+                    Weight weight = percolatorIndexSearcher.createWeight(
+                        percolatorIndexSearcher.rewrite(query),
+                        ScoreMode.COMPLETE_NO_SCORES,
+                        1
+                    );
+                    TopDocs topDocs = matchingDocs(weight, memoryReaderContext);
                     if (topDocs.totalHits.value == 0) {
                         // This hit didn't match with a percolate query,
                         // likely to happen when percolating multiple documents
@@ -102,10 +111,6 @@ final class PercolatorMatchedSlotSubFetchPhase implements FetchSubPhase {
 
                     // Add info what sub-queries of percolator query matched this each percolated document
                     if (fetchContext.getSearchExecutionContext().hasNamedQueries()) {
-                        List<LeafReaderContext> leafContexts = percolatorIndexSearcher.getLeafContexts();
-                        assert leafContexts.size() == 1 : "Expected single leaf, but got [" + leafContexts.size() + "]";
-                        LeafReaderContext memoryReaderContext = leafContexts.get(0);
-                        Weight weight = percolatorIndexSearcher.createWeight(query, ScoreMode.COMPLETE_NO_SCORES, 1);
                         for (int i = 0; i < topDocs.scoreDocs.length; i++) {
                             List<NamedMatches> namedMatchesList = NamedMatches.findNamedMatches(
                                 weight.matches(memoryReaderContext, topDocs.scoreDocs[i].doc)
@@ -163,6 +168,27 @@ final class PercolatorMatchedSlotSubFetchPhase implements FetchSubPhase {
         }
     }
 
+    /**
+     * Find all percolated documents that match, in doc id order. The percolated documents
+     * are in a single segment so iterating its matches directly is much cheaper than
+     * collecting them sorted by doc id.
+     */
+    static TopDocs matchingDocs(Weight weight, LeafReaderContext leaf) throws IOException {
+        Scorer scorer = weight.scorer(leaf);
+        if (scorer == null) {
+            return new TopDocs(new TotalHits(0, TotalHits.Relation.EQUAL_TO), new ScoreDoc[0]);
+        }
+        Bits liveDocs = leaf.reader().getLiveDocs();
+        List<ScoreDoc> matches = new ArrayList<>();
+        DocIdSetIterator iterator = scorer.iterator();
+        for (int docId = iterator.nextDoc(); docId != NO_MORE_DOCS; docId = iterator.nextDoc()) {
+            if (liveDocs == null || liveDocs.get(docId)) {
+                matches.add(new ScoreDoc(docId, Float.NaN));
+            }
+        }
+        return new TopDocs(new TotalHits(matches.size(), TotalHits.Relation.EQUAL_TO), matches.toArray(new ScoreDoc[0]));
+    }
+
     static IntStream convertTopDocsToSlots(TopDocs topDocs, int[] rootDocsBySlot) {
         IntStream stream = Arrays.stream(topDocs.scoreDocs).mapToInt(scoreDoc -> scoreDoc.doc);
         if (rootDocsBySlot != null) {
@@ -9,6 +9,7 @@
 package org.elasticsearch.percolator;
 
 import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.index.mapper.Mapper;
 import org.elasticsearch.plugins.MapperPlugin;
 import org.elasticsearch.plugins.Plugin;
@@ -23,6 +24,13 @@ import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 
 public class PercolatorPlugin extends Plugin implements MapperPlugin, SearchPlugin {
+
+    private final PercolatorQueryCache queryCache;
+
+    public PercolatorPlugin(Settings settings) {
+        this.queryCache = new PercolatorQueryCache(settings);
+    }
+
     @Override
     public List<QuerySpec<?>> getQueries() {
         return singletonList(new QuerySpec<>(PercolateQueryBuilder.NAME, PercolateQueryBuilder::new, PercolateQueryBuilder::fromXContent));
@@ -35,12 +43,17 @@ public class PercolatorPlugin extends Plugin implements MapperPlugin, SearchPlug
 
     @Override
     public List<Setting<?>> getSettings() {
-        return Arrays.asList(PercolatorFieldMapper.INDEX_MAP_UNMAPPED_FIELDS_AS_TEXT_SETTING);
+        return Arrays.asList(PercolatorFieldMapper.INDEX_MAP_UNMAPPED_FIELDS_AS_TEXT_SETTING, PercolatorQueryCache.SIZE_SETTING);
     }
 
     @Override
     public Map<String, Mapper.TypeParser> getMappers() {
-        return singletonMap(PercolatorFieldMapper.CONTENT_TYPE, new PercolatorFieldMapper.TypeParser());
+        return singletonMap(PercolatorFieldMapper.CONTENT_TYPE, new PercolatorFieldMapper.TypeParser(queryCache));
+    }
+
+    @Override
+    public void close() {
+        queryCache.close();
     }
 
 }
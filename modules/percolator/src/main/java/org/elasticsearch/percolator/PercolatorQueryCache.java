@@ -0,0 +1,157 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.percolator;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryVisitor;
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.apache.lucene.util.automaton.ByteRunAutomaton;
+import org.elasticsearch.common.lucene.index.ReaderKeyedCache;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.core.CheckedFunction;
+import org.elasticsearch.core.Releasable;
+import org.elasticsearch.index.mapper.MappingLookup;
+
+import java.io.IOException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Node level cache of the Lucene queries that percolator queries compile to. Without it
+ * every candidate match of every percolate request reads the query builder from doc values,
+ * rewrites it and converts it to a Lucene query before it can be verified against the
+ * document.
+ * <p>
+ * Queries are keyed on the {@link IndexReader#getCoreCacheHelper() core cache key} of the
+ * segment, the name of the percolator field they are stored in, the
+ * {@link MappingLookup.CacheKey cache key} of the mapping they were compiled with and their
+ * doc id in the segment. Mapping updates create a new mapping cache key so queries compiled
+ * against a previous mapping are never reused, and all queries of a segment are invalidated
+ * when the segment is closed. Only queries that are made of plain Lucene queries and didn't
+ * depend on anything that changes from request to request, like {@code now}, are cached.
+ * The cache is disabled unless {@link #SIZE_SETTING} is set.
+ */
+final class PercolatorQueryCache implements Releasable {
+    static final Setting<ByteSizeValue> SIZE_SETTING = ReaderKeyedCache.sizeSetting("indices.percolator.query_cache.size");
+
+    private static final long KEY_RAM_BYTES_USED = RamUsageEstimator.shallowSizeOfInstance(Key.class);
+
+    private final ReaderKeyedCache<Key, Query> cache;
+
+    PercolatorQueryCache(Settings settings) {
+        this(SIZE_SETTING.get(settings).getBytes());
+    }
+
+    PercolatorQueryCache(long sizeInBytes) {
+        cache = new ReaderKeyedCache<>(sizeInBytes, (k, v) -> KEY_RAM_BYTES_USED + ramBytesUsed(v));
+    }
+
+    /**
+     * Wrap a {@link PercolateQuery.QueryStore} so it serves the queries that it
+     * compiled before from this cache.
+     *
+     * @param field the name of the percolator field the queries are stored in
+     * @param mappingKey the cache key of the mapping the queries are compiled with
+     * @param cacheable whether the context used to compile queries is still cacheable
+     */
+    PercolateQuery.QueryStore wrap(
+        PercolateQuery.QueryStore store,
+        String field,
+        MappingLookup.CacheKey mappingKey,
+        BooleanSupplier cacheable
+    ) {
+        if (cache.enabled() == false) {
+            return store;
+        }
+        return ctx -> {
+            CheckedFunction<Integer, Query, IOException> queries = store.getQueries(ctx);
+            IndexReader.CacheHelper cacheHelper = ctx.reader().getCoreCacheHelper();
+            if (cacheHelper == null) {
+                return queries;
+            }
+            return docId -> {
+                Key key = new Key(field, mappingKey, docId);
+                Query query = cache.get(cacheHelper, key);
+                if (query != null) {
+                    return query;
+                }
+                // Once compiling a query made the context uncacheable we can't tell which of the queries depend on it
+                boolean cacheableBefore = cacheable.getAsBoolean();
+                query = queries.apply(docId);
+                if (query != null && cacheableBefore && cacheable.getAsBoolean() && isReusable(query)) {
+                    cache.put(cacheHelper, key, query);
+                }
+                return query;
+            };
+        };
+    }
+
+    /**
+     * The number of cached queries.
+     */
+    int count() {
+        return cache.count();
+    }
+
+    @Override
+    public void close() {
+        cache.close();
+    }
+
+    /**
+     * Can this query be shared between requests? Queries that Elasticsearch
+     * implements may hold on to the context of the request that created them,
+     * so only queries made of Lucene's own queries are.
+     */
+    static boolean isReusable(Query query) {
+        if (isLuceneQuery(query) == false) {
+            return false;
+        }
+        boolean[] reusable = new boolean[] { true };
+        query.visit(new QueryVisitor() {
+            @Override
+            public QueryVisitor getSubVisitor(Occur occur, Query parent) {
+                reusable[0] &= isLuceneQuery(parent);
+                return this;
+            }
+
+            @Override
+            public void visitLeaf(Query leaf) {
+                reusable[0] &= isLuceneQuery(leaf);
+            }
+
+            @Override
+            public void consumeTerms(Query leaf, Term... terms) {
+                reusable[0] &= isLuceneQuery(leaf);
+            }
+
+            @Override
+            public void consumeTermsMatching(Query leaf, String field, Supplier<ByteRunAutomaton> automaton) {
+                reusable[0] &= isLuceneQuery(leaf);
+            }
+        });
+        return reusable[0];
+    }
+
+    private static boolean isLuceneQuery(Query query) {
+        return query.getClass().getName().startsWith("org.apache.lucene.");
+    }
+
+    private static long ramBytesUsed(Query query) {
+        return query instanceof Accountable accountable ? accountable.ramBytesUsed() : RamUsageEstimator.QUERY_DEFAULT_RAM_BYTES_USED;
+    }
+
+    private record Key(String field, MappingLookup.CacheKey mappingKey, int docId) {}
+}
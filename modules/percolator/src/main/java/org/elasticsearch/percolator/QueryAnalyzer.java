@@ -18,6 +18,7 @@ import org.apache.lucene.search.ConstantScoreQuery;
 import org.apache.lucene.search.DisjunctionMaxQuery;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.PointInSetQuery;
 import org.apache.lucene.search.PointRangeQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.QueryVisitor;
@@ -180,6 +181,8 @@ final class QueryAnalyzer {
                 terms.add(Result.MATCH_NONE);
             } else if (query instanceof PointRangeQuery) {
                 terms.add(pointRangeQuery((PointRangeQuery) query));
+            } else if (query instanceof PointInSetQuery) {
+                terms.add(pointInSetQuery((PointInSetQuery) query));
             } else {
                 terms.add(Result.UNKNOWN);
             }
@@ -234,6 +237,24 @@ final class QueryAnalyzer {
         );
     }
 
+    private static Result pointInSetQuery(PointInSetQuery query) {
+        if (query.getNumDims() != 1) {
+            return Result.UNKNOWN;
+        }
+
+        // Each point is extracted as a range that only contains that point, the document only
+        // needs to match one of them. Ranges are never verified, see pointRangeQuery(...)
+        byte[] interval = new byte[16];
+        Set<QueryExtraction> extractions = new HashSet<>();
+        for (byte[] point : query.getPackedPoints()) {
+            extractions.add(new QueryExtraction(new Range(query.getField(), point, point, interval)));
+        }
+        if (extractions.isEmpty()) {
+            return new Result(true, Collections.emptySet(), 0);
+        }
+        return new Result(false, extractions, 1);
+    }
+
     private static byte[] prepad(byte[] original) {
         int offset = BinaryRange.BYTES - original.length;
         byte[] result = new byte[BinaryRange.BYTES];
@@ -9,17 +9,24 @@ package org.elasticsearch.percolator;
 
 import org.apache.lucene.analysis.core.WhitespaceAnalyzer;
 import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
 import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
 import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.index.memory.MemoryIndex;
+import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.MatchNoDocsQuery;
 import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.search.Weight;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.tests.index.RandomIndexWriter;
 import org.apache.lucene.util.FixedBitSet;
@@ -33,8 +40,12 @@ import org.elasticsearch.search.fetch.FetchSubPhaseProcessor;
 import org.elasticsearch.search.lookup.Source;
 import org.elasticsearch.test.ESTestCase;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.IntStream;
 
 import static org.mockito.Mockito.mock;
@@ -148,6 +159,30 @@ public class PercolatorMatchedSlotSubFetchPhaseTests extends ESTestCase {
         }
     }
 
+    public void testMatchingDocs() throws Exception {
+        try (Directory directory = newDirectory()) {
+            int numDocs = randomIntBetween(1, 64);
+            Set<Integer> expected = new TreeSet<>();
+            try (IndexWriter indexWriter = new IndexWriter(directory, new IndexWriterConfig(new WhitespaceAnalyzer()))) {
+                for (int i = 0; i < numDocs; i++) {
+                    Document document = new Document();
+                    if (randomBoolean()) {
+                        document.add(new StringField("field", "value", Field.Store.NO));
+                        expected.add(i);
+                    }
+                    indexWriter.addDocument(document);
+                }
+            }
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                IndexSearcher searcher = new IndexSearcher(reader);
+                Weight weight = searcher.createWeight(new TermQuery(new Term("field", "value")), ScoreMode.COMPLETE_NO_SCORES, 1);
+                TopDocs topDocs = PercolatorMatchedSlotSubFetchPhase.matchingDocs(weight, reader.leaves().get(0));
+                assertEquals(expected.size(), topDocs.totalHits.value);
+                assertEquals(List.copyOf(expected), Arrays.stream(topDocs.scoreDocs).map(scoreDoc -> scoreDoc.doc).toList());
+            }
+        }
+    }
+
     public void testConvertTopDocsToSlots() {
         ScoreDoc[] scoreDocs = new ScoreDoc[randomInt(128)];
         for (int i = 0; i < scoreDocs.length; i++) {
@@ -0,0 +1,114 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+package org.elasticsearch.percolator;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.join.QueryBitSetProducer;
+import org.apache.lucene.search.join.ScoreMode;
+import org.apache.lucene.store.Directory;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.core.CheckedFunction;
+import org.elasticsearch.index.mapper.Mapping;
+import org.elasticsearch.index.mapper.MappingLookup;
+import org.elasticsearch.index.search.ESToParentBlockJoinQuery;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class PercolatorQueryCacheTests extends ESTestCase {
+
+    public void testCachesCompiledQueries() throws IOException {
+        PercolatorQueryCache cache = new PercolatorQueryCache(ByteSizeValue.ofMb(1).getBytes());
+        MappingLookup.CacheKey mappingKey = MappingLookup.EMPTY.cacheKey();
+        AtomicInteger compiled = new AtomicInteger();
+        PercolateQuery.QueryStore store = ctx -> docId -> {
+            compiled.incrementAndGet();
+            return new TermQuery(new Term("field", Integer.toString(docId)));
+        };
+        try (Directory directory = newDirectory()) {
+            try (IndexWriter iw = new IndexWriter(directory, new IndexWriterConfig())) {
+                iw.addDocument(new Document());
+                iw.addDocument(new Document());
+            }
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                LeafReaderContext leaf = reader.leaves().get(0);
+                CheckedFunction<Integer, Query, IOException> queries = cache.wrap(store, "query", mappingKey, () -> true).getQueries(leaf);
+                Query query = queries.apply(0);
+                assertThat(compiled.get(), equalTo(1));
+                assertThat(cache.count(), equalTo(1));
+
+                // a later request reuses the compiled query
+                queries = cache.wrap(store, "query", mappingKey, () -> true).getQueries(leaf);
+                assertThat(queries.apply(0), sameInstance(query));
+                assertThat(compiled.get(), equalTo(1));
+                queries.apply(1);
+                assertThat(compiled.get(), equalTo(2));
+
+                // queries compiled for another version of the mapping or stored in another field aren't
+                MappingLookup.CacheKey otherMappingKey = MappingLookup.fromMappers(Mapping.EMPTY, List.of(), List.of(), List.of())
+                    .cacheKey();
+                cache.wrap(store, "query", otherMappingKey, () -> true).getQueries(leaf).apply(0);
+                assertThat(compiled.get(), equalTo(3));
+                cache.wrap(store, "other_query", mappingKey, () -> true).getQueries(leaf).apply(0);
+                assertThat(compiled.get(), equalTo(4));
+            }
+            // closing the segment invalidates its queries
+            assertThat(cache.count(), equalTo(0));
+        }
+    }
+
+    public void testDoesNotCacheQueriesThatMadeTheContextUncacheable() throws IOException {
+        PercolatorQueryCache cache = new PercolatorQueryCache(ByteSizeValue.ofMb(1).getBytes());
+        AtomicBoolean cacheable = new AtomicBoolean(true);
+        PercolateQuery.QueryStore store = ctx -> docId -> {
+            // like a range query on now
+            cacheable.set(false);
+            return new TermQuery(new Term("field", "value"));
+        };
+        try (Directory directory = newDirectory()) {
+            try (IndexWriter iw = new IndexWriter(directory, new IndexWriterConfig())) {
+                iw.addDocument(new Document());
+            }
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                cache.wrap(store, "query", MappingLookup.EMPTY.cacheKey(), cacheable::get).getQueries(reader.leaves().get(0)).apply(0);
+                assertThat(cache.count(), equalTo(0));
+            }
+        }
+    }
+
+    public void testIsReusable() {
+        Query term = new TermQuery(new Term("field", "value"));
+        assertTrue(PercolatorQueryCache.isReusable(term));
+        assertTrue(
+            PercolatorQueryCache.isReusable(new BooleanQuery.Builder().add(term, Occur.MUST).add(term, Occur.MUST_NOT).build())
+        );
+        Query nested = new ESToParentBlockJoinQuery(
+            term,
+            new QueryBitSetProducer(new TermQuery(new Term("_nested_path", "nested"))),
+            ScoreMode.None,
+            "nested"
+        );
+        assertFalse(PercolatorQueryCache.isReusable(nested));
+        assertFalse(PercolatorQueryCache.isReusable(new BooleanQuery.Builder().add(nested, Occur.SHOULD).build()));
+    }
+}
@@ -933,6 +933,26 @@ public class QueryAnalyzerTests extends ESTestCase {
         assertDimension(ranges.get(0).range.upperPoint, bytes -> IntPoint.encodeDimension(20, bytes, 0));
     }
 
+    public void testPointInSetQuery() {
+        Query query = LongPoint.newSetQuery("_field", 10L, 20L);
+        Result result = analyze(query);
+        assertFalse(result.verified);
+        assertThat(result.minimumShouldMatch, equalTo(1));
+        List<QueryAnalyzer.QueryExtraction> ranges = new ArrayList<>(result.extractions);
+        ranges.sort(Comparator.comparing(e -> new BytesRef(e.range.lowerPoint)));
+        assertThat(ranges.size(), equalTo(2));
+        assertNull(ranges.get(0).term);
+        assertEquals("_field", ranges.get(0).range.fieldName);
+        assertDimension(ranges.get(0).range.lowerPoint, bytes -> LongPoint.encodeDimension(10L, bytes, 0));
+        assertDimension(ranges.get(0).range.upperPoint, bytes -> LongPoint.encodeDimension(10L, bytes, 0));
+        assertDimension(ranges.get(1).range.lowerPoint, bytes -> LongPoint.encodeDimension(20L, bytes, 0));
+        assertDimension(ranges.get(1).range.upperPoint, bytes -> LongPoint.encodeDimension(20L, bytes, 0));
+
+        result = analyze(IntPoint.newSetQuery("_field"));
+        assertTrue(result.verified);
+        assertTrue(result.isMatchNoDocs());
+    }
+
     public void testToParentBlockJoinQuery() {
         TermQuery termQuery = new TermQuery(new Term("field", "value"));
         QueryBitSetProducer queryBitSetProducer = new QueryBitSetProducer(new TermQuery(new Term("_nested_path", "nested")));
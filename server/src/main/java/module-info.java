@@ -128,6 +128,7 @@ module org.elasticsearch.server {
     exports org.elasticsearch.action.admin.indices.template.post;
     exports org.elasticsearch.action.admin.indices.template.put;
     exports org.elasticsearch.action.admin.indices.validate.query;
+    exports org.elasticsearch.action.admin.indices.vectors;
     exports org.elasticsearch.action.bulk;
     exports org.elasticsearch.action.datastreams;
     exports org.elasticsearch.action.delete;
@@ -136,6 +137,7 @@ module org.elasticsearch.server {
     exports org.elasticsearch.action.get;
     exports org.elasticsearch.action.index;
     exports org.elasticsearch.action.ingest;
+    exports org.elasticsearch.action.knn;
     exports org.elasticsearch.action.resync;
     exports org.elasticsearch.action.search;
     exports org.elasticsearch.action.support;
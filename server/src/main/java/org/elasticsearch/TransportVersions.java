@@ -151,6 +151,13 @@ public class TransportVersions {
     public static final TransportVersion AUTO_SHARDING_ROLLOVER_CONDITION = def(8_611_00_0);
     public static final TransportVersion KNN_QUERY_VECTOR_BUILDER = def(8_612_00_0);
     public static final TransportVersion USE_DATA_STREAM_GLOBAL_RETENTION = def(8_613_00_0);
+    public static final TransportVersion PROFILE_SKIPPED_SEGMENTS = def(8_614_00_0);
+    public static final TransportVersion RANDOM_SAMPLER_SHARD_SAMPLE_SIZE = def(8_615_00_0);
+    public static final TransportVersion PROFILE_KNN_SEARCH_STRATEGIES = def(8_616_00_0);
+    public static final TransportVersion MAX_SIM_QUERY = def(8_617_00_0);
+    public static final TransportVersion PROFILE_VECTOR_PAGE_FAULTS = def(8_618_00_0);
+    public static final TransportVersion DFS_KNN_MIN_SCORES = def(8_619_00_0);
+    public static final TransportVersion KNN_VECTORS_MERGE_STATS = def(8_620_00_0);
 
     /*
      * STOP! READ THIS FIRST! No, really,
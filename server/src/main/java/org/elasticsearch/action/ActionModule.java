@@ -172,6 +172,8 @@ import org.elasticsearch.action.admin.indices.template.put.TransportPutComposabl
 import org.elasticsearch.action.admin.indices.template.put.TransportPutIndexTemplateAction;
 import org.elasticsearch.action.admin.indices.validate.query.TransportValidateQueryAction;
 import org.elasticsearch.action.admin.indices.validate.query.ValidateQueryAction;
+import org.elasticsearch.action.admin.indices.vectors.AnalyzeIndexVectorsAction;
+import org.elasticsearch.action.admin.indices.vectors.TransportAnalyzeIndexVectorsAction;
 import org.elasticsearch.action.bulk.BulkAction;
 import org.elasticsearch.action.bulk.SimulateBulkAction;
 import org.elasticsearch.action.bulk.TransportBulkAction;
@@ -190,6 +192,8 @@ import org.elasticsearch.action.ingest.GetPipelineTransportAction;
 import org.elasticsearch.action.ingest.PutPipelineTransportAction;
 import org.elasticsearch.action.ingest.SimulatePipelineAction;
 import org.elasticsearch.action.ingest.SimulatePipelineTransportAction;
+import org.elasticsearch.action.knn.KnnBatchAction;
+import org.elasticsearch.action.knn.TransportKnnBatchAction;
 import org.elasticsearch.action.search.RestClosePointInTimeAction;
 import org.elasticsearch.action.search.RestOpenPointInTimeAction;
 import org.elasticsearch.action.search.TransportClearScrollAction;
@@ -323,6 +327,7 @@ import org.elasticsearch.rest.action.admin.cluster.dangling.RestListDanglingIndi
 import org.elasticsearch.rest.action.admin.indices.RestAddIndexBlockAction;
 import org.elasticsearch.rest.action.admin.indices.RestAnalyzeAction;
 import org.elasticsearch.rest.action.admin.indices.RestAnalyzeIndexDiskUsageAction;
+import org.elasticsearch.rest.action.admin.indices.RestAnalyzeIndexVectorsAction;
 import org.elasticsearch.rest.action.admin.indices.RestClearIndicesCacheAction;
 import org.elasticsearch.rest.action.admin.indices.RestCloseIndexAction;
 import org.elasticsearch.rest.action.admin.indices.RestCreateIndexAction;
@@ -405,6 +410,7 @@ import org.elasticsearch.rest.action.ingest.RestSimulatePipelineAction;
 import org.elasticsearch.rest.action.search.RestClearScrollAction;
 import org.elasticsearch.rest.action.search.RestCountAction;
 import org.elasticsearch.rest.action.search.RestExplainAction;
+import org.elasticsearch.rest.action.search.RestKnnBatchAction;
 import org.elasticsearch.rest.action.search.RestKnnSearchAction;
 import org.elasticsearch.rest.action.search.RestMultiSearchAction;
 import org.elasticsearch.rest.action.search.RestSearchAction;
@@ -730,6 +736,7 @@ public class ActionModule extends AbstractModule {
         actions.register(TransportSearchAction.TYPE, TransportSearchAction.class);
         actions.register(TransportSearchScrollAction.TYPE, TransportSearchScrollAction.class);
         actions.register(TransportOpenPointInTimeAction.TYPE, TransportOpenPointInTimeAction.class);
+        actions.register(KnnBatchAction.INSTANCE, TransportKnnBatchAction.class);
         actions.register(TransportClosePointInTimeAction.TYPE, TransportClosePointInTimeAction.class);
         actions.register(TransportSearchShardsAction.TYPE, TransportSearchShardsAction.class);
         actions.register(TransportMultiSearchAction.TYPE, TransportMultiSearchAction.class);
@@ -741,6 +748,7 @@ public class ActionModule extends AbstractModule {
         actions.register(ResolveIndexAction.INSTANCE, ResolveIndexAction.TransportAction.class);
         actions.register(TransportResolveClusterAction.TYPE, TransportResolveClusterAction.class);
         actions.register(AnalyzeIndexDiskUsageAction.INSTANCE, TransportAnalyzeIndexDiskUsageAction.class);
+        actions.register(AnalyzeIndexVectorsAction.INSTANCE, TransportAnalyzeIndexVectorsAction.class);
         actions.register(FieldUsageStatsAction.INSTANCE, TransportFieldUsageAction.class);
         actions.register(MasterHistoryAction.INSTANCE, MasterHistoryAction.TransportAction.class);
         actions.register(CoordinationDiagnosticsAction.INSTANCE, CoordinationDiagnosticsAction.TransportAction.class);
@@ -950,6 +958,7 @@ public class ActionModule extends AbstractModule {
             new RestMultiSearchAction(settings, restController.getSearchUsageHolder(), namedWriteableRegistry, clusterSupportsFeature)
         );
         registerHandler.accept(new RestKnnSearchAction());
+        registerHandler.accept(new RestKnnBatchAction());
 
         registerHandler.accept(new RestValidateQueryAction());
 
@@ -1009,6 +1018,7 @@ public class ActionModule extends AbstractModule {
         registerHandler.accept(new RestTemplatesAction());
         registerHandler.accept(new RestCatComponentTemplateAction());
         registerHandler.accept(new RestAnalyzeIndexDiskUsageAction());
+        registerHandler.accept(new RestAnalyzeIndexVectorsAction());
         registerHandler.accept(new RestFieldUsageStatsAction());
 
         registerHandler.accept(new RestUpgradeActionDeprecated());
@@ -0,0 +1,105 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.action.admin.indices.vectors;
+
+import org.elasticsearch.action.ActionRequestValidationException;
+import org.elasticsearch.action.support.IndicesOptions;
+import org.elasticsearch.action.support.broadcast.BroadcastRequest;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.tasks.CancellableTask;
+import org.elasticsearch.tasks.Task;
+import org.elasticsearch.tasks.TaskId;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.elasticsearch.action.ValidateActions.addValidationError;
+
+public class AnalyzeIndexVectorsRequest extends BroadcastRequest<AnalyzeIndexVectorsRequest> {
+    public static final IndicesOptions DEFAULT_INDICES_OPTIONS = IndicesOptions.fromOptions(false, false, true, true);
+    public static final int DEFAULT_K = 10;
+    public static final int DEFAULT_NUM_CANDIDATES = 100;
+    public static final int DEFAULT_NUM_QUERIES = 100;
+    static final int MAX_NUM_CANDIDATES = 10_000;
+    static final int MAX_NUM_QUERIES = 10_000;
+
+    final int k;
+    final int numCandidates;
+    final int numQueries;
+
+    public AnalyzeIndexVectorsRequest(String[] indices, IndicesOptions indicesOptions, int k, int numCandidates, int numQueries) {
+        super(indices, indicesOptions);
+        this.k = k;
+        this.numCandidates = numCandidates;
+        this.numQueries = numQueries;
+    }
+
+    public AnalyzeIndexVectorsRequest(StreamInput in) throws IOException {
+        super(in);
+        this.k = in.readVInt();
+        this.numCandidates = in.readVInt();
+        this.numQueries = in.readVInt();
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeVInt(k);
+        out.writeVInt(numCandidates);
+        out.writeVInt(numQueries);
+    }
+
+    @Override
+    public ActionRequestValidationException validate() {
+        ActionRequestValidationException validationError = super.validate();
+        if (indices.length == 0) {
+            validationError = addValidationError("indices must be specified for analyze vectors request", validationError);
+        }
+        if (k < 1) {
+            validationError = addValidationError("[k] must be greater than 0", validationError);
+        }
+        if (numCandidates < k || numCandidates > MAX_NUM_CANDIDATES) {
+            validationError = addValidationError(
+                "[num_candidates] must be between [k] and [" + MAX_NUM_CANDIDATES + "], got [" + numCandidates + "]",
+                validationError
+            );
+        }
+        if (numQueries < 1 || numQueries > MAX_NUM_QUERIES) {
+            validationError = addValidationError(
+                "[num_queries] must be between [1] and [" + MAX_NUM_QUERIES + "], got [" + numQueries + "]",
+                validationError
+            );
+        }
+        return validationError;
+    }
+
+    @Override
+    public Task createTask(long id, String type, String action, TaskId parentTaskId, Map<String, String> headers) {
+        return new CancellableTask(id, AnalyzeIndexVectorsAction.NAME, type, "", parentTaskId, headers) {
+            @Override
+            public String getDescription() {
+                return AnalyzeIndexVectorsRequest.this.getDescription();
+            }
+        };
+    }
+
+    @Override
+    public String getDescription() {
+        return "analyze vectors indices ["
+            + String.join(",", indices)
+            + "], k ["
+            + k
+            + "], num_candidates ["
+            + numCandidates
+            + "], num_queries ["
+            + numQueries
+            + "]";
+    }
+}
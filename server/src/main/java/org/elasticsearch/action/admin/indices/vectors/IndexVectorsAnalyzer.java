@@ -0,0 +1,281 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.action.admin.indices.vectors;
+
+import org.apache.lucene.codecs.HnswGraphProvider;
+import org.apache.lucene.codecs.KnnVectorsReader;
+import org.apache.lucene.codecs.perfield.PerFieldKnnVectorsFormat;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.FloatVectorValues;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SegmentReader;
+import org.apache.lucene.index.VectorEncoding;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.KnnFloatVectorQuery;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.FixedBitSet;
+import org.apache.lucene.util.hnsw.HnswGraph;
+import org.elasticsearch.common.lucene.Lucene;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+import static org.apache.lucene.search.DocIdSetIterator.NO_MORE_DOCS;
+
+/**
+ * Analyzes the approximate kNN search of each float vector field of a shard. Query vectors are sampled from the indexed
+ * vectors, and the top k hits of the approximate search of each of them are compared to the top k hits of an exact search
+ * over the raw vectors. This tells how much recall the HNSW graph and the quantization of the vectors cost, and how far
+ * the quantized scores are from the raw ones. The HNSW graph of each segment is also checked for nodes that searches
+ * can't reach.
+ */
+final class IndexVectorsAnalyzer {
+    private static final int CHECK_FOR_CANCELLATION_INTERVAL = 1 << 16;
+    // the least competitive hit first
+    private static final Comparator<ScoreDoc> EXACT_HITS_ORDER = Comparator.<ScoreDoc>comparingDouble(hit -> hit.score)
+        .thenComparingInt(hit -> -hit.doc);
+
+    private final IndexSearcher searcher;
+    private final int k;
+    private final int numCandidates;
+    private final int numQueries;
+    private final Random random;
+    private final Runnable checkForCancellation;
+
+    private IndexVectorsAnalyzer(
+        IndexSearcher searcher,
+        int k,
+        int numCandidates,
+        int numQueries,
+        Random random,
+        Runnable checkForCancellation
+    ) {
+        this.searcher = searcher;
+        this.k = k;
+        this.numCandidates = numCandidates;
+        this.numQueries = numQueries;
+        this.random = random;
+        this.checkForCancellation = checkForCancellation;
+    }
+
+    static IndexVectorsStats analyze(
+        IndexSearcher searcher,
+        int k,
+        int numCandidates,
+        int numQueries,
+        Random random,
+        Runnable checkForCancellation
+    ) throws IOException {
+        final IndexVectorsAnalyzer analyzer = new IndexVectorsAnalyzer(
+            searcher,
+            k,
+            numCandidates,
+            numQueries,
+            random,
+            checkForCancellation
+        );
+        final IndexVectorsStats stats = new IndexVectorsStats();
+        for (FieldInfo field : vectorFields(searcher.getIndexReader())) {
+            analyzer.analyzeSearches(field.name, field.getVectorSimilarityFunction(), stats);
+            analyzer.analyzeGraphs(field.name, stats);
+        }
+        return stats;
+    }
+
+    private static Iterable<FieldInfo> vectorFields(IndexReader reader) {
+        final Map<String, FieldInfo> fields = new TreeMap<>();
+        for (LeafReaderContext leaf : reader.leaves()) {
+            for (FieldInfo field : leaf.reader().getFieldInfos()) {
+                if (field.getVectorDimension() > 0 && field.getVectorEncoding() == VectorEncoding.FLOAT32) {
+                    fields.putIfAbsent(field.name, field);
+                }
+            }
+        }
+        return fields.values();
+    }
+
+    void analyzeSearches(String field, VectorSimilarityFunction similarity, IndexVectorsStats stats) throws IOException {
+        final List<LeafReaderContext> leaves = searcher.getIndexReader().leaves();
+        int numVectors = 0;
+        for (LeafReaderContext leaf : leaves) {
+            FloatVectorValues values = leaf.reader().getFloatVectorValues(field);
+            if (values != null) {
+                numVectors += values.size();
+            }
+        }
+        // the query vectors are left out of their own hits, so there must be other vectors to find
+        if (numVectors < 2) {
+            return;
+        }
+
+        final int[] positions = samplePositions(numVectors, Math.min(numQueries, numVectors), random);
+        final float[][] queries = new float[positions.length][];
+        final int[] queryDocs = new int[positions.length];
+        int position = 0;
+        int next = 0;
+        for (LeafReaderContext leaf : leaves) {
+            FloatVectorValues values = leaf.reader().getFloatVectorValues(field);
+            if (values == null) {
+                continue;
+            }
+            for (int doc = values.nextDoc(); doc != NO_MORE_DOCS && next < positions.length; doc = values.nextDoc()) {
+                if (position++ == positions[next]) {
+                    queries[next] = values.vectorValue().clone();
+                    queryDocs[next] = leaf.docBase + doc;
+                    next++;
+                }
+            }
+        }
+
+        // score all the vectors against all the query vectors at once, so that they are only read once
+        final List<PriorityQueue<ScoreDoc>> exactHits = new ArrayList<>(queries.length);
+        for (int i = 0; i < queries.length; i++) {
+            exactHits.add(new PriorityQueue<>(k, EXACT_HITS_ORDER));
+        }
+        for (LeafReaderContext leaf : leaves) {
+            checkForCancellation.run();
+            FloatVectorValues values = leaf.reader().getFloatVectorValues(field);
+            if (values == null) {
+                continue;
+            }
+            final Bits liveDocs = leaf.reader().getLiveDocs();
+            for (int doc = values.nextDoc(); doc != NO_MORE_DOCS; doc = values.nextDoc()) {
+                if (liveDocs != null && liveDocs.get(doc) == false) {
+                    continue;
+                }
+                final float[] vector = values.vectorValue();
+                final int globalDoc = leaf.docBase + doc;
+                for (int i = 0; i < queries.length; i++) {
+                    if (globalDoc == queryDocs[i]) {
+                        continue;
+                    }
+                    final float score = similarity.compare(queries[i], vector);
+                    final PriorityQueue<ScoreDoc> hits = exactHits.get(i);
+                    if (hits.size() < k) {
+                        hits.add(new ScoreDoc(globalDoc, score));
+                    } else if (score > hits.peek().score) {
+                        // on ties, the document that comes first wins like with top docs collectors
+                        hits.poll();
+                        hits.add(new ScoreDoc(globalDoc, score));
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < queries.length; i++) {
+            checkForCancellation.run();
+            final Map<Integer, Float> exactScores = new HashMap<>();
+            for (ScoreDoc hit : exactHits.get(i)) {
+                exactScores.put(hit.doc, hit.score);
+            }
+            if (exactScores.isEmpty()) {
+                continue;
+            }
+            // one more hit than needed since the query vector finds itself
+            final TopDocs approximateHits = searcher.search(new KnnFloatVectorQuery(field, queries[i], numCandidates + 1), k + 1);
+            int numHits = 0;
+            int matchedHits = 0;
+            double scoreErrorSum = 0;
+            double maxScoreError = 0;
+            for (ScoreDoc hit : approximateHits.scoreDocs) {
+                if (hit.doc == queryDocs[i]) {
+                    continue;
+                }
+                if (numHits++ == k) {
+                    break;
+                }
+                final Float exactScore = exactScores.get(hit.doc);
+                if (exactScore != null) {
+                    matchedHits++;
+                    final double scoreError = Math.abs(hit.score - exactScore);
+                    scoreErrorSum += scoreError;
+                    maxScoreError = Math.max(maxScoreError, scoreError);
+                }
+            }
+            stats.addQuery(field, exactScores.size(), matchedHits, scoreErrorSum, maxScoreError);
+        }
+    }
+
+    /**
+     * Returns <code>count</code> distinct positions out of <code>total</code>, in ascending order.
+     */
+    static int[] samplePositions(int total, int count, Random random) {
+        assert count <= total;
+        if (count == total) {
+            return IntStream.range(0, total).toArray();
+        }
+        return random.ints(0, total).distinct().limit(count).sorted().toArray();
+    }
+
+    void analyzeGraphs(String field, IndexVectorsStats stats) throws IOException {
+        for (LeafReaderContext leaf : searcher.getIndexReader().leaves()) {
+            checkForCancellation.run();
+            final SegmentReader segmentReader = Lucene.segmentReader(leaf.reader());
+            KnnVectorsReader vectorsReader = segmentReader.getVectorReader();
+            if (vectorsReader instanceof PerFieldKnnVectorsFormat.FieldsReader perFieldReader) {
+                vectorsReader = perFieldReader.getFieldReader(field);
+            }
+            // flat formats don't have a graph
+            if (vectorsReader instanceof HnswGraphProvider graphProvider) {
+                final HnswGraph graph = graphProvider.getGraph(field);
+                if (graph != null && graph.size() > 0) {
+                    analyzeGraph(field, graph, stats);
+                }
+            }
+        }
+    }
+
+    private void analyzeGraph(String field, HnswGraph graph, IndexVectorsStats stats) throws IOException {
+        final int size = graph.size();
+        // walk the bottom level from the entry point, like searches do
+        final FixedBitSet reached = new FixedBitSet(size);
+        final int[] queue = new int[size];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = graph.entryNode();
+        reached.set(graph.entryNode());
+        long edges = 0;
+        while (head < tail) {
+            if (head % CHECK_FOR_CANCELLATION_INTERVAL == 0) {
+                checkForCancellation.run();
+            }
+            graph.seek(0, queue[head++]);
+            for (int neighbor = graph.nextNeighbor(); neighbor != NO_MORE_DOCS; neighbor = graph.nextNeighbor()) {
+                edges++;
+                if (reached.getAndSet(neighbor) == false) {
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        final int unreachable = size - tail;
+        if (unreachable > 0) {
+            for (int node = 0; node < size; node++) {
+                if (reached.get(node) == false) {
+                    graph.seek(0, node);
+                    while (graph.nextNeighbor() != NO_MORE_DOCS) {
+                        edges++;
+                    }
+                }
+            }
+        }
+        stats.addGraph(field, size, edges, unreachable, graph.numLevels());
+    }
+}
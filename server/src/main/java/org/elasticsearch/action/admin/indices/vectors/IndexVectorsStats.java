@@ -0,0 +1,300 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.action.admin.indices.vectors;
+
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.xcontent.ToXContentFragment;
+import org.elasticsearch.xcontent.XContentBuilder;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The result of analyzing the approximate kNN search of each vector field in a shard/index
+ */
+public final class IndexVectorsStats implements ToXContentFragment, Writeable {
+    public static final String QUERIES = "queries";
+    public static final String RECALL = "recall";
+    public static final String SCORE_ERROR = "score_error";
+    public static final String MEAN = "mean";
+    public static final String MAX = "max";
+    public static final String GRAPH = "graph";
+    public static final String SEGMENTS = "segments";
+    public static final String NODES = "nodes";
+    public static final String MEAN_NEIGHBORS = "mean_neighbors";
+    public static final String UNREACHABLE_NODES = "unreachable_nodes";
+    public static final String MAX_LEVELS = "max_levels";
+
+    private final Map<String, PerFieldVectorsStats> fields;
+
+    public IndexVectorsStats() {
+        fields = new HashMap<>();
+    }
+
+    public IndexVectorsStats(StreamInput in) throws IOException {
+        this.fields = new HashMap<>(in.readMap(PerFieldVectorsStats::new));
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeMap(fields, StreamOutput::writeWriteable);
+    }
+
+    Map<String, PerFieldVectorsStats> getFields() {
+        return fields;
+    }
+
+    private PerFieldVectorsStats getOrAdd(String fieldName) {
+        Objects.requireNonNull(fieldName, "fieldName must be non-null");
+        return fields.computeIfAbsent(fieldName, k -> new PerFieldVectorsStats());
+    }
+
+    /**
+     * Records the outcome of an approximate search compared to the exact search for the same query vector.
+     *
+     * @param exactHits the number of hits of the exact search
+     * @param matchedHits the number of hits of the exact search that the approximate search found too
+     * @param scoreErrorSum the sum of the differences between the approximate and exact scores of the matched hits
+     * @param maxScoreError the largest of these differences
+     */
+    public void addQuery(String fieldName, int exactHits, int matchedHits, double scoreErrorSum, double maxScoreError) {
+        if (exactHits <= 0 || matchedHits < 0 || matchedHits > exactHits) {
+            throw new IllegalArgumentException("Invalid hits; got [" + matchedHits + "] of [" + exactHits + "]");
+        }
+        PerFieldVectorsStats stats = getOrAdd(fieldName);
+        stats.queries++;
+        stats.recallSum += (double) matchedHits / exactHits;
+        stats.matchedHits += matchedHits;
+        stats.scoreErrorSum += scoreErrorSum;
+        stats.maxScoreError = Math.max(stats.maxScoreError, maxScoreError);
+    }
+
+    /**
+     * Records the connectivity of the HNSW graph of a segment.
+     *
+     * @param nodes the number of nodes of the graph
+     * @param edges the number of edges of its bottom level
+     * @param unreachableNodes the number of nodes of the bottom level that can't be reached from the entry point
+     * @param levels the number of levels of the graph
+     */
+    public void addGraph(String fieldName, long nodes, long edges, long unreachableNodes, int levels) {
+        PerFieldVectorsStats stats = getOrAdd(fieldName);
+        stats.graphSegments++;
+        stats.graphNodes += nodes;
+        stats.graphEdges += edges;
+        stats.unreachableNodes += unreachableNodes;
+        stats.maxLevels = Math.max(stats.maxLevels, levels);
+    }
+
+    public IndexVectorsStats add(IndexVectorsStats other) {
+        other.fields.forEach((k, v) -> getOrAdd(k).add(v));
+        return this;
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        final List<Map.Entry<String, PerFieldVectorsStats>> entries = fields.entrySet()
+            .stream()
+            .sorted(Map.Entry.comparingByKey())
+            .toList();
+        builder.startObject("fields");
+        {
+            for (Map.Entry<String, PerFieldVectorsStats> entry : entries) {
+                builder.startObject(entry.getKey());
+                entry.getValue().toXContent(builder, params);
+                builder.endObject();
+            }
+        }
+        builder.endObject();
+        return builder;
+    }
+
+    @Override
+    public String toString() {
+        return Strings.toString(this);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IndexVectorsStats that = (IndexVectorsStats) o;
+        return fields.equals(that.fields);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fields);
+    }
+
+    /**
+     * Approximate kNN search statistics of a single vector field
+     */
+    public static final class PerFieldVectorsStats implements ToXContentFragment, Writeable {
+        private long queries;
+        private double recallSum;
+        private long matchedHits;
+        private double scoreErrorSum;
+        private double maxScoreError;
+        private long graphSegments;
+        private long graphNodes;
+        private long graphEdges;
+        private long unreachableNodes;
+        private int maxLevels;
+
+        private PerFieldVectorsStats() {}
+
+        private PerFieldVectorsStats(StreamInput in) throws IOException {
+            queries = in.readVLong();
+            recallSum = in.readDouble();
+            matchedHits = in.readVLong();
+            scoreErrorSum = in.readDouble();
+            maxScoreError = in.readDouble();
+            graphSegments = in.readVLong();
+            graphNodes = in.readVLong();
+            graphEdges = in.readVLong();
+            unreachableNodes = in.readVLong();
+            maxLevels = in.readVInt();
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeVLong(queries);
+            out.writeDouble(recallSum);
+            out.writeVLong(matchedHits);
+            out.writeDouble(scoreErrorSum);
+            out.writeDouble(maxScoreError);
+            out.writeVLong(graphSegments);
+            out.writeVLong(graphNodes);
+            out.writeVLong(graphEdges);
+            out.writeVLong(unreachableNodes);
+            out.writeVInt(maxLevels);
+        }
+
+        private void add(PerFieldVectorsStats other) {
+            queries += other.queries;
+            recallSum += other.recallSum;
+            matchedHits += other.matchedHits;
+            scoreErrorSum += other.scoreErrorSum;
+            maxScoreError = Math.max(maxScoreError, other.maxScoreError);
+            graphSegments += other.graphSegments;
+            graphNodes += other.graphNodes;
+            graphEdges += other.graphEdges;
+            unreachableNodes += other.unreachableNodes;
+            maxLevels = Math.max(maxLevels, other.maxLevels);
+        }
+
+        public long getQueries() {
+            return queries;
+        }
+
+        /**
+         * The mean fraction of the exact top k hits that the approximate search found
+         */
+        public double getRecall() {
+            return queries == 0 ? 0 : recallSum / queries;
+        }
+
+        /**
+         * The mean difference between the approximate and exact scores of the hits that the approximate search found. It
+         * is the error that quantization introduces in scores, 0 for fields whose vectors aren't quantized.
+         */
+        public double getMeanScoreError() {
+            return matchedHits == 0 ? 0 : scoreErrorSum / matchedHits;
+        }
+
+        public double getMaxScoreError() {
+            return maxScoreError;
+        }
+
+        public long getGraphSegments() {
+            return graphSegments;
+        }
+
+        public long getGraphNodes() {
+            return graphNodes;
+        }
+
+        public double getMeanNeighbors() {
+            return graphNodes == 0 ? 0 : (double) graphEdges / graphNodes;
+        }
+
+        public long getUnreachableNodes() {
+            return unreachableNodes;
+        }
+
+        public int getMaxLevels() {
+            return maxLevels;
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.field(QUERIES, queries);
+            builder.field(RECALL, getRecall());
+            builder.startObject(SCORE_ERROR);
+            builder.field(MEAN, getMeanScoreError());
+            builder.field(MAX, maxScoreError);
+            builder.endObject();
+            if (graphSegments > 0) {
+                builder.startObject(GRAPH);
+                builder.field(SEGMENTS, graphSegments);
+                builder.field(NODES, graphNodes);
+                builder.field(MEAN_NEIGHBORS, getMeanNeighbors());
+                builder.field(UNREACHABLE_NODES, unreachableNodes);
+                builder.field(MAX_LEVELS, maxLevels);
+                builder.endObject();
+            }
+            return builder;
+        }
+
+        @Override
+        public String toString() {
+            return Strings.toString(this);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            PerFieldVectorsStats that = (PerFieldVectorsStats) o;
+            return queries == that.queries
+                && Double.compare(recallSum, that.recallSum) == 0
+                && matchedHits == that.matchedHits
+                && Double.compare(scoreErrorSum, that.scoreErrorSum) == 0
+                && Double.compare(maxScoreError, that.maxScoreError) == 0
+                && graphSegments == that.graphSegments
+                && graphNodes == that.graphNodes
+                && graphEdges == that.graphEdges
+                && unreachableNodes == that.unreachableNodes
+                && maxLevels == that.maxLevels;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(
+                queries,
+                recallSum,
+                matchedHits,
+                scoreErrorSum,
+                maxScoreError,
+                graphSegments,
+                graphNodes,
+                graphEdges,
+                unreachableNodes,
+                maxLevels
+            );
+        }
+    }
+}
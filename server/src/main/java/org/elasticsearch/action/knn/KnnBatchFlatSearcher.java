@@ -0,0 +1,157 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.action.knn;
+
+import org.apache.lucene.index.ByteVectorValues;
+import org.apache.lucene.index.FloatVectorValues;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.search.ConjunctionUtils;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.PriorityQueue;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.index.mapper.vectors.DenseVectorFieldMapper;
+import org.elasticsearch.search.vectors.VectorData;
+import org.elasticsearch.tasks.CancellableTask;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Searches the nearest neighbors of many query vectors on a field that is indexed without a graph. Such fields are searched
+ * by scoring all their vectors anyway, so rather than doing so once per query vector, every vector is read once and scored
+ * against all the query vectors. Scores are computed on the raw vectors, including for quantized formats which keep them.
+ */
+final class KnnBatchFlatSearcher {
+
+    private final String field;
+    private final DenseVectorFieldMapper.ElementType elementType;
+    private final VectorSimilarityFunction similarityFunction;
+    private final int k;
+    private final HitQueue[] queues;
+    private final float[][] floatQueries;
+    private final byte[][] byteQueries;
+
+    /**
+     * @param queryVectors the query vectors, already validated and normalized by {@link DenseVectorFieldMapper.DenseVectorFieldType}
+     */
+    KnnBatchFlatSearcher(DenseVectorFieldMapper.DenseVectorFieldType fieldType, List<VectorData> queryVectors, int k) {
+        this.field = fieldType.name();
+        this.elementType = fieldType.getElementType();
+        this.similarityFunction = fieldType.vectorSimilarityFunction();
+        this.k = k;
+        this.queues = new HitQueue[queryVectors.size()];
+        this.floatQueries = elementType == DenseVectorFieldMapper.ElementType.FLOAT ? new float[queues.length][] : null;
+        this.byteQueries = elementType == DenseVectorFieldMapper.ElementType.BYTE ? new byte[queues.length][] : null;
+        for (int q = 0; q < queues.length; q++) {
+            queues[q] = new HitQueue(k);
+            switch (elementType) {
+                case FLOAT -> floatQueries[q] = queryVectors.get(q).asFloatVector();
+                case BYTE -> byteQueries[q] = queryVectors.get(q).asByteVector();
+            }
+        }
+    }
+
+    /**
+     * Returns the top {@code k} hits of each query vector, best first, among the live documents that match {@code filter}.
+     */
+    TopDocs[] search(IndexSearcher searcher, @Nullable Query filter, CancellableTask task) throws IOException {
+        final Weight filterWeight = filter == null
+            ? null
+            : searcher.createWeight(searcher.rewrite(filter), ScoreMode.COMPLETE_NO_SCORES, 1f);
+        for (LeafReaderContext leaf : searcher.getIndexReader().leaves()) {
+            task.ensureNotCancelled();
+            searchLeaf(leaf, filterWeight);
+        }
+        final TopDocs[] topDocs = new TopDocs[queues.length];
+        for (int q = 0; q < queues.length; q++) {
+            final ScoreDoc[] scoreDocs = new ScoreDoc[queues[q].size()];
+            for (int i = scoreDocs.length - 1; i >= 0; i--) {
+                scoreDocs[i] = queues[q].pop();
+            }
+            topDocs[q] = new TopDocs(new TotalHits(scoreDocs.length, TotalHits.Relation.GREATER_THAN_OR_EQUAL_TO), scoreDocs);
+        }
+        return topDocs;
+    }
+
+    private void searchLeaf(LeafReaderContext leaf, @Nullable Weight filterWeight) throws IOException {
+        final LeafReader reader = leaf.reader();
+        final FloatVectorValues floatValues = elementType == DenseVectorFieldMapper.ElementType.FLOAT
+            ? reader.getFloatVectorValues(field)
+            : null;
+        final ByteVectorValues byteValues = elementType == DenseVectorFieldMapper.ElementType.BYTE
+            ? reader.getByteVectorValues(field)
+            : null;
+        DocIdSetIterator iterator = floatValues != null ? floatValues : byteValues;
+        if (iterator == null) {
+            return;
+        }
+        if (filterWeight != null) {
+            final Scorer filterScorer = filterWeight.scorer(leaf);
+            if (filterScorer == null) {
+                return;
+            }
+            iterator = ConjunctionUtils.intersectIterators(List.of(iterator, filterScorer.iterator()));
+        }
+        final Bits liveDocs = reader.getLiveDocs();
+        for (int doc = iterator.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = iterator.nextDoc()) {
+            if (liveDocs != null && liveDocs.get(doc) == false) {
+                continue;
+            }
+            final int globalDoc = leaf.docBase + doc;
+            if (floatValues != null) {
+                final float[] vector = floatValues.vectorValue();
+                for (int q = 0; q < queues.length; q++) {
+                    collect(queues[q], globalDoc, similarityFunction.compare(floatQueries[q], vector));
+                }
+            } else {
+                final byte[] vector = byteValues.vectorValue();
+                for (int q = 0; q < queues.length; q++) {
+                    collect(queues[q], globalDoc, similarityFunction.compare(byteQueries[q], vector));
+                }
+            }
+        }
+    }
+
+    private void collect(HitQueue queue, int doc, float score) {
+        if (queue.size() < k) {
+            queue.add(new ScoreDoc(doc, score));
+        } else if (score > queue.top().score) {
+            // docs are visited in order, so ties keep the smallest doc ids like the other knn searches
+            final ScoreDoc top = queue.top();
+            top.doc = doc;
+            top.score = score;
+            queue.updateTop();
+        }
+    }
+
+    /**
+     * Keeps the best hits, the worst one on top.
+     */
+    private static final class HitQueue extends PriorityQueue<ScoreDoc> {
+        HitQueue(int size) {
+            super(size);
+        }
+
+        @Override
+        protected boolean lessThan(ScoreDoc a, ScoreDoc b) {
+            return a.score < b.score || (a.score == b.score && a.doc > b.doc);
+        }
+    }
+}
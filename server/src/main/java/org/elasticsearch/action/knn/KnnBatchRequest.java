@@ -0,0 +1,198 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.action.knn;
+
+import org.elasticsearch.action.ActionRequestValidationException;
+import org.elasticsearch.action.support.IndicesOptions;
+import org.elasticsearch.action.support.broadcast.BroadcastRequest;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.search.vectors.VectorData;
+import org.elasticsearch.tasks.CancellableTask;
+import org.elasticsearch.tasks.Task;
+import org.elasticsearch.tasks.TaskId;
+import org.elasticsearch.xcontent.ObjectParser;
+import org.elasticsearch.xcontent.ParseField;
+import org.elasticsearch.xcontent.XContentParser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.elasticsearch.action.ValidateActions.addValidationError;
+import static org.elasticsearch.search.vectors.KnnSearchBuilder.NUM_CANDS_LIMIT;
+import static org.elasticsearch.search.vectors.KnnSearchBuilder.NUM_CANDS_MULTIPLICATIVE_FACTOR;
+
+/**
+ * A request for the top k nearest neighbors of many query vectors in a vector field. All the query vectors are sent
+ * to each shard at once, which searches them with the same searcher and loads the ids of all their hits together.
+ */
+public class KnnBatchRequest extends BroadcastRequest<KnnBatchRequest> {
+    public static final IndicesOptions DEFAULT_INDICES_OPTIONS = IndicesOptions.strictExpandOpenAndForbidClosed();
+    public static final int DEFAULT_K = 10;
+    public static final int MAX_QUERY_VECTORS = 10_000;
+
+    static final ParseField FIELD_FIELD = new ParseField("field");
+    static final ParseField K_FIELD = new ParseField("k");
+    static final ParseField NUM_CANDS_FIELD = new ParseField("num_candidates");
+    static final ParseField QUERY_VECTORS_FIELD = new ParseField("query_vectors");
+
+    private static final ObjectParser<KnnBatchRequest, Void> PARSER = new ObjectParser<>("knn_batch");
+
+    static {
+        PARSER.declareString(KnnBatchRequest::field, FIELD_FIELD);
+        PARSER.declareInt(KnnBatchRequest::k, K_FIELD);
+        PARSER.declareInt(KnnBatchRequest::numCandidates, NUM_CANDS_FIELD);
+        PARSER.declareField(
+            KnnBatchRequest::queryVectors,
+            (p, c) -> parseQueryVectors(p),
+            QUERY_VECTORS_FIELD,
+            ObjectParser.ValueType.OBJECT_ARRAY
+        );
+    }
+
+    private String field;
+    private int k = DEFAULT_K;
+    @Nullable
+    private Integer numCandidates;
+    private List<VectorData> queryVectors = List.of();
+
+    public KnnBatchRequest(String... indices) {
+        super(indices, DEFAULT_INDICES_OPTIONS);
+    }
+
+    public KnnBatchRequest(StreamInput in) throws IOException {
+        super(in);
+        field = in.readString();
+        k = in.readVInt();
+        numCandidates = in.readOptionalVInt();
+        queryVectors = in.readCollectionAsList(VectorData::new);
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeString(field);
+        out.writeVInt(k);
+        out.writeOptionalVInt(numCandidates);
+        out.writeCollection(queryVectors);
+    }
+
+    /**
+     * Parses the body of a batched kNN request into this request.
+     */
+    public KnnBatchRequest parseBody(XContentParser parser) throws IOException {
+        return PARSER.parse(parser, this, null);
+    }
+
+    private static List<VectorData> parseQueryVectors(XContentParser parser) throws IOException {
+        List<VectorData> queryVectors = new ArrayList<>();
+        while (parser.nextToken() != XContentParser.Token.END_ARRAY) {
+            queryVectors.add(VectorData.parseXContent(parser));
+        }
+        return queryVectors;
+    }
+
+    public String field() {
+        return field;
+    }
+
+    public KnnBatchRequest field(String field) {
+        this.field = field;
+        return this;
+    }
+
+    public int k() {
+        return k;
+    }
+
+    public KnnBatchRequest k(int k) {
+        this.k = k;
+        return this;
+    }
+
+    /**
+     * The number of candidates each shard considers per query vector, which defaults to the one of kNN searches.
+     */
+    public int numCandidates() {
+        return numCandidates != null ? numCandidates : Math.round(Math.min(NUM_CANDS_LIMIT, NUM_CANDS_MULTIPLICATIVE_FACTOR * k));
+    }
+
+    public KnnBatchRequest numCandidates(int numCandidates) {
+        this.numCandidates = numCandidates;
+        return this;
+    }
+
+    public List<VectorData> queryVectors() {
+        return queryVectors;
+    }
+
+    public KnnBatchRequest queryVectors(List<VectorData> queryVectors) {
+        this.queryVectors = queryVectors;
+        return this;
+    }
+
+    @Override
+    public ActionRequestValidationException validate() {
+        ActionRequestValidationException validationError = super.validate();
+        if (field == null) {
+            validationError = addValidationError("[" + FIELD_FIELD.getPreferredName() + "] must be specified", validationError);
+        }
+        if (k < 1) {
+            validationError = addValidationError("[" + K_FIELD.getPreferredName() + "] must be greater than 0", validationError);
+        }
+        int numCands = numCandidates();
+        if (numCands < k) {
+            validationError = addValidationError(
+                "[" + NUM_CANDS_FIELD.getPreferredName() + "] cannot be less than [" + K_FIELD.getPreferredName() + "]",
+                validationError
+            );
+        }
+        if (numCands > NUM_CANDS_LIMIT) {
+            validationError = addValidationError(
+                "[" + NUM_CANDS_FIELD.getPreferredName() + "] cannot exceed [" + NUM_CANDS_LIMIT + "]",
+                validationError
+            );
+        }
+        if (queryVectors.isEmpty()) {
+            validationError = addValidationError("[" + QUERY_VECTORS_FIELD.getPreferredName() + "] must not be empty", validationError);
+        } else if (queryVectors.size() > MAX_QUERY_VECTORS) {
+            validationError = addValidationError(
+                "[" + QUERY_VECTORS_FIELD.getPreferredName() + "] cannot have more than [" + MAX_QUERY_VECTORS + "] vectors",
+                validationError
+            );
+        }
+        return validationError;
+    }
+
+    @Override
+    public Task createTask(long id, String type, String action, TaskId parentTaskId, Map<String, String> headers) {
+        return new CancellableTask(id, type, action, "", parentTaskId, headers) {
+            @Override
+            public String getDescription() {
+                return KnnBatchRequest.this.getDescription();
+            }
+        };
+    }
+
+    @Override
+    public String getDescription() {
+        return "knn batch indices ["
+            + String.join(",", indices)
+            + "], field ["
+            + field
+            + "], k ["
+            + k
+            + "], query vectors ["
+            + queryVectors.size()
+            + "]";
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.action.knn;
+
+import org.elasticsearch.action.support.DefaultShardOperationFailedException;
+import org.elasticsearch.action.support.broadcast.BroadcastResponse;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.xcontent.ToXContentObject;
+import org.elasticsearch.xcontent.XContentBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+
+public class KnnBatchResponse extends BroadcastResponse {
+    private final List<List<Hit>> hits;
+
+    KnnBatchResponse(
+        int totalShards,
+        int successfulShards,
+        int failedShards,
+        List<DefaultShardOperationFailedException> shardFailures,
+        List<List<Hit>> hits
+    ) {
+        super(totalShards, successfulShards, failedShards, shardFailures);
+        this.hits = hits;
+    }
+
+    public KnnBatchResponse(StreamInput in) throws IOException {
+        super(in);
+        hits = in.readCollectionAsList(i -> i.readCollectionAsList(Hit::new));
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeCollection(hits, StreamOutput::writeCollection);
+    }
+
+    /**
+     * Returns the top hits of each query vector, in the order of the query vectors of the request.
+     */
+    public List<List<Hit>> getHits() {
+        return hits;
+    }
+
+    @Override
+    protected void addCustomXContentFields(XContentBuilder builder, Params params) throws IOException {
+        builder.startArray("responses");
+        for (List<Hit> queryHits : hits) {
+            builder.startObject();
+            builder.startArray("hits");
+            for (Hit hit : queryHits) {
+                hit.toXContent(builder, params);
+            }
+            builder.endArray();
+            builder.endObject();
+        }
+        builder.endArray();
+    }
+
+    /**
+     * A nearest neighbor of a query vector
+     */
+    public static final class Hit implements Writeable, ToXContentObject {
+        private final String index;
+        private final String id;
+        private final float score;
+
+        public Hit(String index, String id, float score) {
+            this.index = index;
+            this.id = id;
+            this.score = score;
+        }
+
+        Hit(StreamInput in) throws IOException {
+            index = in.readString();
+            id = in.readString();
+            score = in.readFloat();
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeString(index);
+            out.writeString(id);
+            out.writeFloat(score);
+        }
+
+        public String getIndex() {
+            return index;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public float getScore() {
+            return score;
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.startObject();
+            builder.field("_index", index);
+            builder.field("_id", id);
+            builder.field("_score", score);
+            builder.endObject();
+            return builder;
+        }
+
+        @Override
+        public String toString() {
+            return Strings.toString(this);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Hit that = (Hit) o;
+            return index.equals(that.index) && id.equals(that.id) && Float.compare(score, that.score) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(index, id, score);
+        }
+    }
+}
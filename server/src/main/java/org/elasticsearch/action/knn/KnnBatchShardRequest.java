@@ -0,0 +1,74 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.action.knn;
+
+import org.elasticsearch.action.support.broadcast.BroadcastShardRequest;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.search.internal.AliasFilter;
+import org.elasticsearch.search.vectors.VectorData;
+import org.elasticsearch.tasks.CancellableTask;
+import org.elasticsearch.tasks.Task;
+import org.elasticsearch.tasks.TaskId;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+final class KnnBatchShardRequest extends BroadcastShardRequest {
+    final String field;
+    final int k;
+    final int numCandidates;
+    final List<VectorData> queryVectors;
+    final AliasFilter aliasFilter;
+
+    KnnBatchShardRequest(ShardId shardId, AliasFilter aliasFilter, KnnBatchRequest request) {
+        super(shardId, request);
+        this.field = request.field();
+        this.k = request.k();
+        this.numCandidates = request.numCandidates();
+        this.queryVectors = request.queryVectors();
+        this.aliasFilter = aliasFilter;
+    }
+
+    KnnBatchShardRequest(StreamInput in) throws IOException {
+        super(in);
+        this.field = in.readString();
+        this.k = in.readVInt();
+        this.numCandidates = in.readVInt();
+        this.queryVectors = in.readCollectionAsList(VectorData::new);
+        this.aliasFilter = AliasFilter.readFrom(in);
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeString(field);
+        out.writeVInt(k);
+        out.writeVInt(numCandidates);
+        out.writeCollection(queryVectors);
+        aliasFilter.writeTo(out);
+    }
+
+    @Override
+    public Task createTask(long id, String type, String action, TaskId parentTaskId, Map<String, String> headers) {
+        return new CancellableTask(id, type, action, "", parentTaskId, headers) {
+            @Override
+            public String getDescription() {
+                return KnnBatchShardRequest.this.getDescription();
+            }
+        };
+    }
+
+    @Override
+    public String getDescription() {
+        return "knn batch shard [" + shardId() + "], field [" + field + "], k [" + k + "], query vectors [" + queryVectors.size() + "]";
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.action.knn;
+
+import org.elasticsearch.action.support.broadcast.BroadcastShardResponse;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.index.shard.ShardId;
+
+import java.io.IOException;
+import java.util.List;
+
+final class KnnBatchShardResponse extends BroadcastShardResponse {
+    /**
+     * The top hits of the shard for each query vector, best first
+     */
+    final List<List<KnnBatchResponse.Hit>> hits;
+
+    KnnBatchShardResponse(StreamInput in) throws IOException {
+        super(in);
+        hits = in.readCollectionAsList(i -> i.readCollectionAsList(KnnBatchResponse.Hit::new));
+    }
+
+    KnnBatchShardResponse(ShardId shardId, List<List<KnnBatchResponse.Hit>> hits) {
+        super(shardId);
+        this.hits = hits;
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeCollection(hits, StreamOutput::writeCollection);
+    }
+}
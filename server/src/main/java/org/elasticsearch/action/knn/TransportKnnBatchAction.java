@@ -0,0 +1,330 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.action.knn;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.ReaderUtil;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.action.support.ActionFilters;
+import org.elasticsearch.action.support.DefaultShardOperationFailedException;
+import org.elasticsearch.action.support.broadcast.TransportBroadcastAction;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.block.ClusterBlockException;
+import org.elasticsearch.cluster.block.ClusterBlockLevel;
+import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
+import org.elasticsearch.cluster.routing.GroupShardsIterator;
+import org.elasticsearch.cluster.routing.ShardIterator;
+import org.elasticsearch.cluster.routing.ShardRouting;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.index.IndexService;
+import org.elasticsearch.index.IndexSettings;
+import org.elasticsearch.index.engine.Engine;
+import org.elasticsearch.index.fieldvisitor.LeafStoredFieldLoader;
+import org.elasticsearch.index.fieldvisitor.StoredFieldLoader;
+import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.index.mapper.MapperService;
+import org.elasticsearch.index.mapper.vectors.DenseVectorFieldMapper;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.Rewriteable;
+import org.elasticsearch.index.query.SearchExecutionContext;
+import org.elasticsearch.index.shard.IndexShard;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.indices.IndicesService;
+import org.elasticsearch.indices.breaker.CircuitBreakerService;
+import org.elasticsearch.search.internal.AliasFilter;
+import org.elasticsearch.search.vectors.VectorData;
+import org.elasticsearch.tasks.CancellableTask;
+import org.elasticsearch.tasks.Task;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.transport.TransportService;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Executes the query vectors of a {@link KnnBatchRequest} on one copy of each shard of the target indices. Each shard
+ * searches the nearest neighbors of all the query vectors with the same searcher, restricted to the documents of the filtering
+ * aliases the request resolved to, and then loads the ids of all their hits in a single pass over its segments. Fields indexed
+ * without a graph are searched with a single pass over their vectors, see {@link KnnBatchFlatSearcher}. The coordinating node
+ * merges the top hits of the shards per query vector.
+ * <p>
+ * The number of query vectors times {@code k} is bounded by {@link IndexSettings#MAX_RESULT_WINDOW_SETTING}, like the hits
+ * of a search, and the hits are accounted on the request circuit breaker both on the shards and on the coordinating node.
+ */
+public class TransportKnnBatchAction extends TransportBroadcastAction<
+    KnnBatchRequest,
+    KnnBatchResponse,
+    KnnBatchShardRequest,
+    KnnBatchShardResponse> {
+    private static final String BREAKER_LABEL = "<knn_batch>";
+    /**
+     * Rough size of a hit while it is collected and returned: its {@link ScoreDoc}, its {@link KnnBatchResponse.Hit} and
+     * its id, assuming ids of about 20 characters like auto-generated ones.
+     */
+    static final long ESTIMATED_HIT_BYTES = RamUsageEstimator.shallowSizeOfInstance(ScoreDoc.class)
+        + RamUsageEstimator.shallowSizeOfInstance(KnnBatchResponse.Hit.class)
+        + RamUsageEstimator.shallowSizeOfInstance(String.class)
+        + RamUsageEstimator.alignObjectSize(RamUsageEstimator.NUM_BYTES_ARRAY_HEADER + 20);
+
+    private final IndicesService indicesService;
+    private final CircuitBreaker breaker;
+
+    @Inject
+    public TransportKnnBatchAction(
+        ClusterService clusterService,
+        TransportService transportService,
+        IndicesService indicesService,
+        CircuitBreakerService circuitBreakerService,
+        ActionFilters actionFilters,
+        IndexNameExpressionResolver indexNameExpressionResolver
+    ) {
+        super(
+            KnnBatchAction.NAME,
+            clusterService,
+            transportService,
+            actionFilters,
+            indexNameExpressionResolver,
+            KnnBatchRequest::new,
+            KnnBatchShardRequest::new,
+            transportService.getThreadPool().executor(ThreadPool.Names.SEARCH)
+        );
+        this.indicesService = indicesService;
+        this.breaker = circuitBreakerService.getBreaker(CircuitBreaker.REQUEST);
+    }
+
+    @Override
+    protected KnnBatchShardRequest newShardRequest(int numShards, ShardRouting shard, KnnBatchRequest request) {
+        final ClusterState clusterState = clusterService.state();
+        final Set<String> indicesAndAliases = indexNameExpressionResolver.resolveExpressions(clusterState, request.indices());
+        final AliasFilter aliasFilter = indicesService.buildAliasFilter(clusterState, shard.getIndexName(), indicesAndAliases);
+        return new KnnBatchShardRequest(shard.shardId(), aliasFilter, request);
+    }
+
+    @Override
+    protected KnnBatchShardResponse readShardResponse(StreamInput in) throws IOException {
+        return new KnnBatchShardResponse(in);
+    }
+
+    @Override
+    protected KnnBatchShardResponse shardOperation(KnnBatchShardRequest request, Task task) throws IOException {
+        final ShardId shardId = request.shardId();
+        assert task instanceof CancellableTask : "KnnBatchShardRequest must create a cancellable task";
+        final CancellableTask cancellableTask = (CancellableTask) task;
+        final IndexService indexService = indicesService.indexServiceSafe(shardId.getIndex());
+        final IndexShard shard = indexService.getShard(shardId.id());
+        final long resultWindow = (long) request.queryVectors.size() * request.k;
+        final int maxResultWindow = indexService.getIndexSettings().getMaxResultWindow();
+        if (resultWindow > maxResultWindow) {
+            throw new IllegalArgumentException(
+                "Result window is too large, the number of query vectors * k must be less than or equal to: ["
+                    + maxResultWindow
+                    + "] but was ["
+                    + resultWindow
+                    + "]. This limit can be set by changing the ["
+                    + IndexSettings.MAX_RESULT_WINDOW_SETTING.getKey()
+                    + "] index level setting."
+            );
+        }
+        final DenseVectorFieldMapper.DenseVectorFieldType fieldType = vectorFieldType(shard.mapperService(), request.field);
+        // all the query vectors are validated before anything is searched
+        final List<VectorData> queryVectors = new ArrayList<>(request.queryVectors.size());
+        for (VectorData queryVector : request.queryVectors) {
+            queryVectors.add(fieldType.checkKnnQueryVector(queryVector));
+        }
+        final boolean flat = ((DenseVectorFieldMapper) shard.mapperService().mappingLookup().getMapper(fieldType.name())).usesFlatIndex();
+        // the queues of all the query vectors are allocated up front and their hits are kept until the response is sent
+        final long reserved = resultWindow * ESTIMATED_HIT_BYTES;
+        breaker.addEstimateBytesAndMaybeBreak(reserved, BREAKER_LABEL);
+        try (Engine.Searcher searcher = shard.acquireSearcher("knn_batch")) {
+            final Query filter = aliasFilter(indexService, shardId, searcher, request.aliasFilter);
+            final TopDocs[] topDocs;
+            if (flat) {
+                // all the vectors get scored anyway, so they are read once for all the query vectors
+                topDocs = new KnnBatchFlatSearcher(fieldType, queryVectors, request.k).search(searcher, filter, cancellableTask);
+            } else {
+                topDocs = new TopDocs[queryVectors.size()];
+                for (int i = 0; i < topDocs.length; i++) {
+                    cancellableTask.ensureNotCancelled();
+                    final Query query = fieldType.createKnnQuery(queryVectors.get(i), request.numCandidates, filter, null, null);
+                    topDocs[i] = searcher.search(query, request.k);
+                }
+            }
+            final Map<Integer, String> ids = loadIds(searcher, topDocs);
+            final String index = shardId.getIndexName();
+            final List<List<KnnBatchResponse.Hit>> hits = new ArrayList<>(topDocs.length);
+            for (TopDocs queryTopDocs : topDocs) {
+                final List<KnnBatchResponse.Hit> queryHits = new ArrayList<>(queryTopDocs.scoreDocs.length);
+                for (ScoreDoc scoreDoc : queryTopDocs.scoreDocs) {
+                    queryHits.add(new KnnBatchResponse.Hit(index, ids.get(scoreDoc.doc), scoreDoc.score));
+                }
+                hits.add(queryHits);
+            }
+            return new KnnBatchShardResponse(shardId, hits);
+        } finally {
+            breaker.addWithoutBreaking(-reserved);
+        }
+    }
+
+    /**
+     * Returns the filter of the aliases that the request resolved to for this shard, if any, so that their hits are
+     * restricted to the documents the aliases expose.
+     */
+    @Nullable
+    private static Query aliasFilter(IndexService indexService, ShardId shardId, IndexSearcher searcher, AliasFilter aliasFilter)
+        throws IOException {
+        final QueryBuilder queryBuilder = aliasFilter.getQueryBuilder();
+        if (queryBuilder == null) {
+            return null;
+        }
+        final SearchExecutionContext context = indexService.newSearchExecutionContext(
+            shardId.id(),
+            0,
+            searcher,
+            System::currentTimeMillis,
+            null,
+            Map.of()
+        );
+        return context.toQuery(Rewriteable.rewrite(queryBuilder, context, true)).query();
+    }
+
+    private static DenseVectorFieldMapper.DenseVectorFieldType vectorFieldType(MapperService mapperService, String field) {
+        final MappedFieldType fieldType = mapperService.fieldType(field);
+        if (fieldType == null) {
+            throw new IllegalArgumentException("field [" + field + "] does not exist in the mapping");
+        }
+        if (fieldType instanceof DenseVectorFieldMapper.DenseVectorFieldType == false) {
+            throw new IllegalArgumentException(
+                "[" + KnnBatchAction.NAME + "] is only supported on [" + DenseVectorFieldMapper.CONTENT_TYPE + "] fields"
+            );
+        }
+        // hits would be nested documents, which don't have an id
+        if (mapperService.mappingLookup().nestedLookup().getNestedParent(field) != null) {
+            throw new IllegalArgumentException("[" + KnnBatchAction.NAME + "] doesn't support fields in nested objects");
+        }
+        return (DenseVectorFieldMapper.DenseVectorFieldType) fieldType;
+    }
+
+    /**
+     * Loads the ids of the hits of all the query vectors at once, in doc id order, so that every segment is only visited once.
+     */
+    private static Map<Integer, String> loadIds(IndexSearcher searcher, TopDocs[] topDocs) throws IOException {
+        final int[] docs = Arrays.stream(topDocs)
+            .flatMap(t -> Arrays.stream(t.scoreDocs))
+            .mapToInt(scoreDoc -> scoreDoc.doc)
+            .distinct()
+            .sorted()
+            .toArray();
+        final Map<Integer, String> ids = new HashMap<>(docs.length);
+        final List<LeafReaderContext> leaves = searcher.getIndexReader().leaves();
+        final StoredFieldLoader storedFieldLoader = StoredFieldLoader.create(false, Set.of());
+        int start = 0;
+        while (start < docs.length) {
+            final LeafReaderContext leaf = leaves.get(ReaderUtil.subIndex(docs[start], leaves));
+            final int leafEnd = leaf.docBase + leaf.reader().maxDoc();
+            int end = start;
+            while (end < docs.length && docs[end] < leafEnd) {
+                end++;
+            }
+            final int[] leafDocs = new int[end - start];
+            for (int i = start; i < end; i++) {
+                leafDocs[i - start] = docs[i] - leaf.docBase;
+            }
+            final LeafStoredFieldLoader loader = storedFieldLoader.getLoader(leaf, leafDocs);
+            for (int i = start; i < end; i++) {
+                loader.advanceTo(docs[i] - leaf.docBase);
+                ids.put(docs[i], loader.id());
+            }
+            start = end;
+        }
+        return ids;
+    }
+
+    @Override
+    protected KnnBatchResponse newResponse(KnnBatchRequest request, AtomicReferenceArray<?> shardsResponses, ClusterState clusterState) {
+        long numHits = 0;
+        for (int i = 0; i < shardsResponses.length(); i++) {
+            if (shardsResponses.get(i) instanceof KnnBatchShardResponse resp) {
+                for (List<KnnBatchResponse.Hit> queryHits : resp.hits) {
+                    numHits += queryHits.size();
+                }
+            }
+        }
+        // the hits of all the shards are merged at once
+        final long reserved = numHits * ESTIMATED_HIT_BYTES;
+        breaker.addEstimateBytesAndMaybeBreak(reserved, BREAKER_LABEL);
+        try {
+            return mergeShardResponses(request, shardsResponses);
+        } finally {
+            breaker.addWithoutBreaking(-reserved);
+        }
+    }
+
+    private static KnnBatchResponse mergeShardResponses(KnnBatchRequest request, AtomicReferenceArray<?> shardsResponses) {
+        int successfulShards = 0;
+        final List<DefaultShardOperationFailedException> shardFailures = new ArrayList<>();
+        final List<List<KnnBatchResponse.Hit>> hits = new ArrayList<>(request.queryVectors().size());
+        for (int i = 0; i < request.queryVectors().size(); i++) {
+            hits.add(new ArrayList<>());
+        }
+        for (int i = 0; i < shardsResponses.length(); i++) {
+            final Object r = shardsResponses.get(i);
+            if (r instanceof KnnBatchShardResponse resp) {
+                ++successfulShards;
+                assert resp.hits.size() == hits.size() : resp.hits.size() + " != " + hits.size();
+                for (int q = 0; q < hits.size(); q++) {
+                    hits.get(q).addAll(resp.hits.get(q));
+                }
+            } else if (r instanceof DefaultShardOperationFailedException e) {
+                shardFailures.add(e);
+            } else if (r instanceof Exception e) {
+                shardFailures.add(new DefaultShardOperationFailedException(ExceptionsHelper.convertToElastic(e)));
+            } else {
+                assert false : "unknown response [" + r + "]";
+                throw new IllegalStateException("unknown response [" + r + "]");
+            }
+        }
+        final Comparator<KnnBatchResponse.Hit> byScore = Comparator.comparingDouble(hit -> -hit.getScore());
+        for (int q = 0; q < hits.size(); q++) {
+            // the sort is stable, so ties keep the order of the shards and of their hits
+            hits.set(q, hits.get(q).stream().sorted(byScore).limit(request.k()).toList());
+        }
+        return new KnnBatchResponse(shardsResponses.length(), successfulShards, shardFailures.size(), shardFailures, hits);
+    }
+
+    @Override
+    protected GroupShardsIterator<ShardIterator> shards(ClusterState clusterState, KnnBatchRequest request, String[] concreteIndices) {
+        return clusterService.operationRouting().searchShards(clusterState, concreteIndices, null, null);
+    }
+
+    @Override
+    protected ClusterBlockException checkGlobalBlock(ClusterState state, KnnBatchRequest request) {
+        return state.blocks().globalBlockedException(ClusterBlockLevel.READ);
+    }
+
+    @Override
+    protected ClusterBlockException checkRequestBlock(ClusterState state, KnnBatchRequest request, String[] concreteIndices) {
+        return state.blocks().indicesBlockedException(ClusterBlockLevel.READ, concreteIndices);
+    }
+}
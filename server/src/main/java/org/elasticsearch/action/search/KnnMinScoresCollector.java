@@ -0,0 +1,69 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.action.search;
+
+import org.apache.lucene.search.ScoreDoc;
+import org.elasticsearch.search.dfs.DfsKnnResults;
+import org.elasticsearch.search.vectors.KnnSearchBuilder;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Utility class to keep track of the k-th best score of each kNN search in a distributed dfs search.
+ * Results that score below it can't make it to the merged top k, so the shards that are searched
+ * after it is known don't need to return them.
+ */
+class KnnMinScoresCollector {
+    private final int[] ks;
+    // the best scores so far of each kNN search, at most k of them, ascending
+    private final float[][] topScores;
+
+    private volatile float[] minScores;
+
+    KnnMinScoresCollector(List<KnnSearchBuilder> knnSearch) {
+        this.ks = knnSearch.stream().mapToInt(KnnSearchBuilder::k).toArray();
+        this.topScores = new float[ks.length][0];
+    }
+
+    /**
+     * @return For each kNN search, the k-th best score consumed so far or {@link Float#NEGATIVE_INFINITY} if
+     * fewer than k results were consumed, or <code>null</code> if no kNN search has k results yet.
+     */
+    float[] getMinScores() {
+        return minScores;
+    }
+
+    synchronized void consumeKnnResults(List<DfsKnnResults> knnResults) {
+        if (knnResults == null || knnResults.size() != ks.length) {
+            return;
+        }
+        boolean changed = false;
+        for (int i = 0; i < ks.length; i++) {
+            ScoreDoc[] scoreDocs = knnResults.get(i).scoreDocs();
+            if (scoreDocs.length == 0) {
+                continue;
+            }
+            float[] merged = Arrays.copyOf(topScores[i], topScores[i].length + scoreDocs.length);
+            for (int j = 0; j < scoreDocs.length; j++) {
+                merged[topScores[i].length + j] = scoreDocs[j].score;
+            }
+            Arrays.sort(merged);
+            topScores[i] = Arrays.copyOfRange(merged, Math.max(0, merged.length - ks[i]), merged.length);
+            changed |= topScores[i].length == ks[i];
+        }
+        if (changed) {
+            float[] newMinScores = new float[ks.length];
+            for (int i = 0; i < ks.length; i++) {
+                newMinScores[i] = topScores[i].length == ks[i] ? topScores[i][0] : Float.NEGATIVE_INFINITY;
+            }
+            minScores = newMinScores;
+        }
+    }
+}
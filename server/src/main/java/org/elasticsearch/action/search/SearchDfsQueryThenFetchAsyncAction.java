@@ -19,6 +19,7 @@ import org.elasticsearch.search.dfs.AggregatedDfs;
 import org.elasticsearch.search.dfs.DfsKnnResults;
 import org.elasticsearch.search.dfs.DfsSearchResult;
 import org.elasticsearch.search.internal.AliasFilter;
+import org.elasticsearch.search.internal.ShardSearchRequest;
 import org.elasticsearch.transport.Transport;
 
 import java.util.List;
@@ -30,6 +31,7 @@ final class SearchDfsQueryThenFetchAsyncAction extends AbstractSearchAsyncAction
 
     private final SearchPhaseResults<SearchPhaseResult> queryPhaseResultConsumer;
     private final SearchProgressListener progressListener;
+    private final KnnMinScoresCollector knnMinScoresCollector;
 
     SearchDfsQueryThenFetchAsyncAction(
         Logger logger,
@@ -70,6 +72,7 @@ final class SearchDfsQueryThenFetchAsyncAction extends AbstractSearchAsyncAction
         this.queryPhaseResultConsumer = queryPhaseResultConsumer;
         addReleasable(queryPhaseResultConsumer);
         this.progressListener = task.getProgressListener();
+        this.knnMinScoresCollector = request.hasKnnSearch() ? new KnnMinScoresCollector(request.source().knnSearch()) : null;
         // don't build the SearchShard list (can be expensive) if the SearchProgressListener won't use it
         if (progressListener != SearchProgressListener.NOOP) {
             notifyListShards(progressListener, clusters, request.source());
@@ -82,12 +85,20 @@ final class SearchDfsQueryThenFetchAsyncAction extends AbstractSearchAsyncAction
         final SearchShardTarget shard,
         final SearchActionListener<DfsSearchResult> listener
     ) {
-        getSearchTransport().sendExecuteDfs(
-            getConnection(shard.getClusterAlias(), shard.getNodeId()),
-            buildShardSearchRequest(shardIt, listener.requestIndex),
-            getTask(),
-            listener
-        );
+        ShardSearchRequest request = buildShardSearchRequest(shardIt, listener.requestIndex);
+        if (knnMinScoresCollector != null) {
+            // shards that are searched once others returned k results only need to return better results
+            request.setKnnMinScores(knnMinScoresCollector.getMinScores());
+        }
+        getSearchTransport().sendExecuteDfs(getConnection(shard.getClusterAlias(), shard.getNodeId()), request, getTask(), listener);
+    }
+
+    @Override
+    protected void onShardResult(DfsSearchResult result, SearchShardIterator shardIt) {
+        if (knnMinScoresCollector != null) {
+            knnMinScoresCollector.consumeKnnResults(result.knnResults());
+        }
+        super.onShardResult(result, shardIt);
     }
 
     @Override
@@ -15,6 +15,7 @@ import org.elasticsearch.common.io.stream.StreamInput;
 
 import java.io.EOFException;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.util.Objects;
 
@@ -189,6 +190,24 @@ class BytesReferenceStreamInput extends StreamInput {
         return numBytesToCopy;
     }
 
+    @Override
+    public long transferTo(OutputStream out) throws IOException {
+        // write the remaining slices straight from their backing arrays rather than through an intermediate buffer
+        long transferred = 0;
+        while (true) {
+            final int remaining = slice.remaining();
+            if (remaining > 0) {
+                out.write(slice.array(), slice.arrayOffset() + slice.position(), remaining);
+                slice.position(slice.limit());
+                transferred += remaining;
+            }
+            if (offset() >= bytesReference.length()) {
+                return transferred;
+            }
+            moveToNextSlice();
+        }
+    }
+
     @Override
     public void close() {
         // do nothing
@@ -12,6 +12,7 @@ import org.elasticsearch.common.bytes.BytesReference;
 
 import java.io.EOFException;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 
@@ -166,6 +167,18 @@ public class ByteBufferStreamInput extends StreamInput {
         return len;
     }
 
+    @Override
+    public long transferTo(OutputStream out) throws IOException {
+        if (buffer.hasArray() == false) {
+            return super.transferTo(out);
+        }
+        // write straight from the backing array rather than through an intermediate buffer
+        int remaining = buffer.remaining();
+        out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), remaining);
+        buffer.position(buffer.limit());
+        return remaining;
+    }
+
     @Override
     public long skip(long n) throws IOException {
         int remaining = buffer.remaining();
@@ -0,0 +1,135 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.common.lucene.index;
+
+import org.apache.lucene.index.IndexReader;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.core.CheckedFunction;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.core.Releasable;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * Node level cache of values computed for an {@link IndexReader}. Entries are keyed on the
+ * {@link IndexReader.CacheKey} of the reader they were computed for, or of its core, and are
+ * invalidated when that reader is closed. The cache is bounded by the weight of its entries
+ * and is disabled when its size is {@code 0}, which is the default of {@link #sizeSetting}.
+ */
+public final class ReaderKeyedCache<K, V> implements IndexReader.ClosedListener, Releasable {
+
+    /**
+     * Build the node setting for the size of a cache, which disables it by default.
+     */
+    public static Setting<ByteSizeValue> sizeSetting(String key) {
+        return Setting.memorySizeSetting(key, ByteSizeValue.ZERO, Property.NodeScope);
+    }
+
+    @Nullable
+    private final Cache<Key<K>, V> cache;
+
+    /**
+     * @param weigher the weight in bytes of an entry, which is what {@code sizeInBytes} bounds
+     */
+    public ReaderKeyedCache(long sizeInBytes, ToLongBiFunction<K, V> weigher) {
+        if (sizeInBytes <= 0) {
+            cache = null;
+            return;
+        }
+        cache = CacheBuilder.<Key<K>, V>builder()
+            .setMaximumWeight(sizeInBytes)
+            .weigher((k, v) -> weigher.applyAsLong(k.key, v))
+            .build();
+    }
+
+    /**
+     * Is the cache enabled?
+     */
+    public boolean enabled() {
+        return cache != null;
+    }
+
+    /**
+     * Get the value cached for {@code key} on the reader of {@code cacheHelper} or {@code null} if there is none.
+     */
+    @Nullable
+    public V get(IndexReader.CacheHelper cacheHelper, K key) {
+        return cache == null ? null : cache.get(new Key<>(cacheHelper.getKey(), key));
+    }
+
+    /**
+     * Cache the value of {@code key} on the reader of {@code cacheHelper} until that reader is closed.
+     */
+    public void put(IndexReader.CacheHelper cacheHelper, K key, V value) {
+        if (cache == null) {
+            return;
+        }
+        cacheHelper.addClosedListener(this);
+        cache.put(new Key<>(cacheHelper.getKey(), key), value);
+    }
+
+    /**
+     * Get the value cached for {@code key} on the reader of {@code cacheHelper}, computing and caching it with
+     * {@code loader} if there is none. Concurrent calls for the same key only compute it once.
+     */
+    public V computeIfAbsent(IndexReader.CacheHelper cacheHelper, K key, CheckedFunction<K, V, IOException> loader) throws IOException {
+        if (cache == null) {
+            return loader.apply(key);
+        }
+        try {
+            return cache.computeIfAbsent(new Key<>(cacheHelper.getKey(), key), k -> {
+                cacheHelper.addClosedListener(this);
+                return loader.apply(k.key);
+            });
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioe) {
+                throw ioe;
+            }
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new ElasticsearchException(e.getCause());
+        }
+    }
+
+    /**
+     * The number of cached values.
+     */
+    public int count() {
+        return cache == null ? 0 : cache.count();
+    }
+
+    @Override
+    public void onClose(IndexReader.CacheKey readerKey) {
+        if (cache == null) {
+            return;
+        }
+        for (Key<K> key : cache.keys()) {
+            if (key.readerKey == readerKey) {
+                cache.invalidate(key);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    private record Key<K>(IndexReader.CacheKey readerKey, K key) {}
+}
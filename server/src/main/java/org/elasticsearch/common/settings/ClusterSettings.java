@@ -114,6 +114,8 @@ import org.elasticsearch.search.SearchModule;
 import org.elasticsearch.search.SearchService;
 import org.elasticsearch.search.aggregations.MultiBucketConsumerService;
 import org.elasticsearch.search.aggregations.metrics.TDigestExecutionHint;
+import org.elasticsearch.search.aggregations.support.SegmentRollupCache;
+import org.elasticsearch.search.dfs.DfsStatisticsCache;
 import org.elasticsearch.search.fetch.subphase.highlight.FastVectorHighlighter;
 import org.elasticsearch.snapshots.InternalSnapshotsInfoService;
 import org.elasticsearch.snapshots.RestoreService;
@@ -462,6 +464,8 @@ public final class ClusterSettings extends AbstractScopedSettings {
         SearchService.LOW_LEVEL_CANCELLATION_SETTING,
         SearchService.MAX_OPEN_SCROLL_CONTEXT,
         SearchService.ENABLE_REWRITE_AGGS_TO_FILTER_BY_FILTER,
+        SegmentRollupCache.SIZE_SETTING,
+        DfsStatisticsCache.SIZE_SETTING,
         SearchService.MAX_ASYNC_SEARCH_RESPONSE_SIZE_SETTING,
         Node.WRITE_PORTS_FILE_SETTING,
         Node.NODE_EXTERNAL_ID_SETTING,
@@ -493,6 +497,7 @@ public final class ClusterSettings extends AbstractScopedSettings {
         PageCacheRecycler.WEIGHT_INT_SETTING,
         PageCacheRecycler.WEIGHT_LONG_SETTING,
         PageCacheRecycler.WEIGHT_OBJECTS_SETTING,
+        PageCacheRecycler.OFF_HEAP_SETTING,
         PageCacheRecycler.TYPE_SETTING,
         PluginsService.MANDATORY_SETTING,
         BootstrapSettings.SECURITY_FILTER_BAD_DEFAULTS_SETTING,
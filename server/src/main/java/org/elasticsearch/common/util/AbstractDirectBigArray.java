@@ -0,0 +1,117 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.common.util;
+
+import org.apache.lucene.util.ArrayUtil;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Common implementation for big arrays of fixed-width primitives whose pages are off-heap {@link ByteBuffer}s
+ * obtained from {@link PageCacheRecycler#directBytePage(boolean)}.
+ */
+abstract class AbstractDirectBigArray extends AbstractBigArray {
+
+    protected ByteBuffer[] pages;
+
+    protected AbstractDirectBigArray(int pageSize, long size, BigArrays bigArrays, boolean clearOnResize) {
+        super(pageSize, bigArrays, clearOnResize);
+        this.size = size;
+        pages = new ByteBuffer[numPages(size)];
+        boolean success = false;
+        try {
+            for (int i = 0; i < pages.length; ++i) {
+                pages[i] = newDirectBytePage(i);
+            }
+            success = true;
+        } finally {
+            if (success == false) {
+                // off-heap pages may run out, release the pages obtained so far along with the breaker reservation
+                close();
+            }
+        }
+    }
+
+    /** Change the size of this array. Content between indexes <code>0</code> and <code>min(size(), newSize)</code> will be preserved. */
+    @Override
+    public final void resize(long newSize) {
+        final int numPages = numPages(newSize);
+        if (numPages > pages.length) {
+            pages = Arrays.copyOf(pages, ArrayUtil.oversize(numPages, RamUsageEstimator.NUM_BYTES_OBJECT_REF));
+        }
+        final int oldNumPages = numPages(size);
+        boolean success = false;
+        try {
+            for (int i = numPages - 1; i >= 0 && pages[i] == null; --i) {
+                pages[i] = newDirectBytePage(i);
+            }
+            success = true;
+        } finally {
+            if (success == false) {
+                // off-heap pages may run out, leave the array as it was
+                for (int i = oldNumPages; i < numPages; ++i) {
+                    if (pages[i] != null) {
+                        pages[i] = null;
+                        releasePage(i);
+                    }
+                }
+            }
+        }
+        for (int i = numPages; i < pages.length && pages[i] != null; ++i) {
+            pages[i] = null;
+            releasePage(i);
+        }
+        this.size = newSize;
+    }
+
+    /**
+     * Bulk copies values, encoded in native byte order in <code>buf</code>, to this array.
+     */
+    protected final void set(long index, byte[] buf, int offset, int len, int shift) {
+        assert index + len <= size();
+        int pageIndex = pageIndex(index);
+        int indexInPage = indexInPage(index);
+        while (len > 0) {
+            final int copyLen = Math.min(len, pageSize() - indexInPage);
+            pages[pageIndex].put(indexInPage << shift, buf, offset << shift, copyLen << shift);
+            offset += copyLen;
+            len -= copyLen;
+            ++pageIndex;
+            indexInPage = 0;
+        }
+    }
+
+    protected final void writePages(StreamOutput out, int bytesPerValue) throws IOException {
+        int remainedBytes = Math.toIntExact(size * bytesPerValue);
+        out.writeVInt(remainedBytes);
+        final byte[] buffer = new byte[Math.min(remainedBytes, PageCacheRecycler.BYTE_PAGE_SIZE)];
+        for (int i = 0; i < pages.length && remainedBytes > 0; i++) {
+            int len = Math.min(remainedBytes, PageCacheRecycler.BYTE_PAGE_SIZE);
+            pages[i].get(0, buffer, 0, len);
+            out.writeBytes(buffer, 0, len);
+            remainedBytes -= len;
+        }
+    }
+
+    protected final void readPages(StreamInput in) throws IOException {
+        int remainedBytes = in.readVInt();
+        final byte[] buffer = new byte[Math.min(remainedBytes, PageCacheRecycler.BYTE_PAGE_SIZE)];
+        for (int i = 0; i < pages.length && remainedBytes > 0; i++) {
+            int len = Math.min(remainedBytes, PageCacheRecycler.BYTE_PAGE_SIZE);
+            in.readBytes(buffer, 0, len);
+            pages[i].put(0, buffer, 0, len);
+            remainedBytes -= len;
+        }
+    }
+}
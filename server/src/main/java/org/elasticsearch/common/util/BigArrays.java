@@ -555,7 +555,16 @@ public class BigArrays {
                 + array.ramBytesEstimated(oldSize);
         final long estimatedIncreaseInBytes = array.ramBytesEstimated(newSize) - oldMemSize;
         adjustBreaker(estimatedIncreaseInBytes, false);
-        array.resize(newSize);
+        boolean success = false;
+        try {
+            array.resize(newSize);
+            success = true;
+        } finally {
+            if (success == false) {
+                // off-heap arrays can fail to get pages, they are left unchanged when they do
+                adjustBreaker(-estimatedIncreaseInBytes, true);
+            }
+        }
         return array;
     }
 
@@ -712,6 +721,10 @@ public class BigArrays {
         if (size > PageCacheRecycler.LONG_PAGE_SIZE || (size >= PageCacheRecycler.LONG_PAGE_SIZE / 2 && recycler != null)) {
             // when allocating big arrays, we want to first ensure we have the capacity by
             // checking with the circuit breaker before attempting to allocate
+            if (recycler != null && recycler.offHeap()) {
+                adjustBreaker(DirectBigLongArray.estimateRamBytes(size), false);
+                return new DirectBigLongArray(size, this, clearOnResize);
+            }
             adjustBreaker(BigLongArray.estimateRamBytes(size), false);
             return new BigLongArray(size, this, clearOnResize);
         } else {
@@ -731,6 +744,8 @@ public class BigArrays {
     public LongArray resize(LongArray array, long size) {
         if (array instanceof BigLongArray) {
             return resizeInPlace((BigLongArray) array, size);
+        } else if (array instanceof DirectBigLongArray) {
+            return resizeInPlace((DirectBigLongArray) array, size);
         } else {
             AbstractArray arr = (AbstractArray) array;
             final LongArray newArray = newLongArray(size, arr.clearOnResize);
@@ -759,6 +774,10 @@ public class BigArrays {
         if (size > PageCacheRecycler.DOUBLE_PAGE_SIZE || (size >= PageCacheRecycler.DOUBLE_PAGE_SIZE / 2 && recycler != null)) {
             // when allocating big arrays, we want to first ensure we have the capacity by
             // checking with the circuit breaker before attempting to allocate
+            if (recycler != null && recycler.offHeap()) {
+                adjustBreaker(DirectBigDoubleArray.estimateRamBytes(size), false);
+                return new DirectBigDoubleArray(size, this, clearOnResize);
+            }
             adjustBreaker(BigDoubleArray.estimateRamBytes(size), false);
             return new BigDoubleArray(size, this, clearOnResize);
         } else {
@@ -775,6 +794,8 @@ public class BigArrays {
     public DoubleArray resize(DoubleArray array, long size) {
         if (array instanceof BigDoubleArray) {
             return resizeInPlace((BigDoubleArray) array, size);
+        } else if (array instanceof DirectBigDoubleArray) {
+            return resizeInPlace((DirectBigDoubleArray) array, size);
         } else {
             AbstractArray arr = (AbstractArray) array;
             final DoubleArray newArray = newDoubleArray(size, arr.clearOnResize);
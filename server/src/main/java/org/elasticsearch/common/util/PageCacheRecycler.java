@@ -9,6 +9,8 @@
 package org.elasticsearch.common.util;
 
 import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
 import org.elasticsearch.common.recycler.AbstractRecyclerC;
 import org.elasticsearch.common.recycler.Recycler;
 import org.elasticsearch.common.settings.Setting;
@@ -16,9 +18,17 @@ import org.elasticsearch.common.settings.Setting.Property;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.util.concurrent.EsExecutors;
+import org.elasticsearch.logging.LogManager;
+import org.elasticsearch.logging.Logger;
+import org.elasticsearch.monitor.jvm.JvmInfo;
+import org.elasticsearch.nativeaccess.CloseableByteBuffer;
+import org.elasticsearch.nativeaccess.NativeAccess;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.elasticsearch.common.recycler.Recyclers.concurrent;
 import static org.elasticsearch.common.recycler.Recyclers.concurrentDeque;
@@ -28,6 +38,8 @@ import static org.elasticsearch.common.recycler.Recyclers.none;
 /** A recycler of fixed-size pages. */
 public class PageCacheRecycler {
 
+    private static final Logger logger = LogManager.getLogger(PageCacheRecycler.class);
+
     public static final Setting<Type> TYPE_SETTING = new Setting<>(
         "cache.recycler.page.type",
         Type.CONCURRENT.name(),
@@ -59,6 +71,16 @@ public class PageCacheRecycler {
         Property.NodeScope,
         Property.DeprecatedWarning
     );
+    /**
+     * Whether the pages of big long and double arrays should be allocated off-heap. Off-heap pages are still accounted by
+     * the circuit breakers but don't put pressure on the garbage collector. They are allocated and freed explicitly through
+     * {@link NativeAccess}, and may use at most half of the direct memory limit of the JVM.
+     */
+    public static final Setting<Boolean> OFF_HEAP_SETTING = Setting.boolSetting(
+        "cache.recycler.page.off_heap",
+        false,
+        Property.NodeScope
+    );
     // object pages are less useful to us so we give them a lower weight by default
     public static final Setting<Double> WEIGHT_OBJECTS_SETTING = Setting.doubleSetting(
         "cache.recycler.page.weight.objects",
@@ -78,6 +100,9 @@ public class PageCacheRecycler {
 
     private final Recycler<byte[]> bytePage;
     private final Recycler<Object[]> objectPage;
+    private final Recycler<CloseableByteBuffer> directBytePage;
+    private final long directBytesLimit;
+    private final AtomicLong directBytesAllocated = new AtomicLong();
 
     public static final PageCacheRecycler NON_RECYCLING_INSTANCE;
 
@@ -86,6 +111,13 @@ public class PageCacheRecycler {
     }
 
     public PageCacheRecycler(Settings settings) {
+        this(settings, -1);
+    }
+
+    /**
+     * @param directBytesLimit the number of bytes that off-heap pages may use, or {@code -1} for half of the direct memory limit
+     */
+    PageCacheRecycler(Settings settings, long directBytesLimit) {
         final Type type = TYPE_SETTING.get(settings);
         final long limit = LIMIT_HEAP_SETTING.get(settings).getBytes();
         final int allocatedProcessors = EsExecutors.allocatedProcessors(settings);
@@ -135,6 +167,94 @@ public class PageCacheRecycler {
         });
 
         assert PAGE_SIZE_IN_BYTES * (maxBytePageCount + maxObjectPageCount) <= limit;
+
+        if (OFF_HEAP_SETTING.get(settings) && offHeapSupported()) {
+            // off-heap pages get the same budget as on-heap byte pages, but in native memory
+            this.directBytesLimit = directBytesLimit == -1 ? defaultDirectBytesLimit() : directBytesLimit;
+            directBytePage = build(type, maxBytePageCount, allocatedProcessors, new AbstractRecyclerC<>() {
+                @Override
+                public CloseableByteBuffer newInstance() {
+                    return newDirectPage();
+                }
+
+                @Override
+                public void recycle(CloseableByteBuffer value) {
+                    // nothing to do
+                }
+
+                @Override
+                public void destroy(CloseableByteBuffer value) {
+                    // the pages that don't fit in the cache anymore are freed right away rather than when they are collected
+                    value.close();
+                    directBytesAllocated.addAndGet(-BYTE_PAGE_SIZE);
+                }
+
+                @Override
+                public int pageSize() {
+                    return BYTE_PAGE_SIZE;
+                }
+            });
+        } else {
+            this.directBytesLimit = 0;
+            directBytePage = null;
+        }
+    }
+
+    private static boolean offHeapSupported() {
+        CloseableByteBuffer probe = NativeAccess.instance().newBuffer(BYTE_PAGE_SIZE);
+        if (probe == null) {
+            logger.warn("[{}] is enabled but native memory can't be allocated, big arrays will stay on heap", OFF_HEAP_SETTING.getKey());
+            return false;
+        }
+        probe.close();
+        return true;
+    }
+
+    /**
+     * Off-heap pages may use up to half of the direct memory limit, the rest is left to the other users of direct memory.
+     */
+    private static long defaultDirectBytesLimit() {
+        long maxDirectMemory = JvmInfo.jvmInfo().getConfiguredMaxDirectMemorySize();
+        if (maxDirectMemory <= 0) {
+            // unset, the JVM defaults to the max heap size
+            maxDirectMemory = Runtime.getRuntime().maxMemory();
+        }
+        return maxDirectMemory / 2;
+    }
+
+    private CloseableByteBuffer newDirectPage() {
+        final long allocated = directBytesAllocated.addAndGet(BYTE_PAGE_SIZE);
+        if (allocated > directBytesLimit) {
+            directBytesAllocated.addAndGet(-BYTE_PAGE_SIZE);
+            // break like the request breaker would rather than failing the node with an OutOfMemoryError
+            throw new CircuitBreakingException(
+                "[off_heap_pages] Data too large, allocating off-heap pages would use ["
+                    + allocated
+                    + "/"
+                    + ByteSizeValue.ofBytes(allocated)
+                    + "], which is larger than the limit of ["
+                    + directBytesLimit
+                    + "/"
+                    + ByteSizeValue.ofBytes(directBytesLimit)
+                    + "]",
+                BYTE_PAGE_SIZE,
+                directBytesLimit,
+                CircuitBreaker.Durability.TRANSIENT
+            );
+        }
+        boolean success = false;
+        try {
+            final CloseableByteBuffer page = NativeAccess.instance().newBuffer(BYTE_PAGE_SIZE);
+            page.buffer().order(ByteOrder.nativeOrder());
+            // native memory isn't necessarily zeroed, unlike a new byte[], so new pages are cleared once here
+            clear(page.buffer());
+            success = true;
+            return page;
+        } finally {
+            if (success == false) {
+                directBytesAllocated.addAndGet(-BYTE_PAGE_SIZE);
+            }
+        }
     }
 
     public Recycler.V<byte[]> bytePage(boolean clear) {
@@ -145,6 +265,55 @@ public class PageCacheRecycler {
         return v;
     }
 
+    /**
+     * Whether big arrays should store their values in off-heap pages obtained through {@link #directBytePage(boolean)}.
+     */
+    public boolean offHeap() {
+        return directBytePage != null;
+    }
+
+    /**
+     * Obtain an off-heap page, breaking with a {@link CircuitBreakingException} if it would take off-heap pages over their
+     * share of the direct memory.
+     */
+    public Recycler.V<ByteBuffer> directBytePage(boolean clear) {
+        assert directBytePage != null : "off-heap pages are disabled";
+        final Recycler.V<CloseableByteBuffer> v = directBytePage.obtain();
+        final ByteBuffer page = v.v().buffer();
+        if (v.isRecycled() && clear) {
+            clear(page);
+        }
+        return new Recycler.V<>() {
+            @Override
+            public ByteBuffer v() {
+                return page;
+            }
+
+            @Override
+            public boolean isRecycled() {
+                return v.isRecycled();
+            }
+
+            @Override
+            public void close() {
+                v.close();
+            }
+        };
+    }
+
+    private static void clear(ByteBuffer page) {
+        for (int i = 0; i < BYTE_PAGE_SIZE; i += Long.BYTES) {
+            page.putLong(i, 0L);
+        }
+    }
+
+    /**
+     * The number of bytes of off-heap pages that are currently allocated, whether they are in use or cached.
+     */
+    long directBytesAllocated() {
+        return directBytesAllocated.get();
+    }
+
     public Recycler.V<Object[]> objectPage() {
         // object pages are cleared on release anyway
         return objectPage.obtain();
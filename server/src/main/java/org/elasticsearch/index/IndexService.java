@@ -743,6 +743,13 @@ public class IndexService extends AbstractIndexComponent implements IndicesClust
         return bigArrays;
     }
 
+    /**
+     * The {@link CircuitBreakerService} to use for this index.
+     */
+    public CircuitBreakerService getCircuitBreakerService() {
+        return circuitBreakerService;
+    }
+
     /**
      * The {@link ScriptService} to use for this index.
      */
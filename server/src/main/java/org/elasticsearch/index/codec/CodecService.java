@@ -12,6 +12,7 @@ import org.apache.lucene.codecs.Codec;
 import org.apache.lucene.codecs.lucene99.Lucene99Codec;
 import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.core.Nullable;
+import org.elasticsearch.index.codec.vectors.KnnVectorsMergeTracker;
 import org.elasticsearch.index.mapper.MapperService;
 
 import java.util.HashMap;
@@ -26,6 +27,7 @@ import java.util.Map;
 public class CodecService {
 
     private final Map<String, Codec> codecs;
+    private final KnnVectorsMergeTracker knnVectorsMergeTracker = new KnnVectorsMergeTracker();
 
     public static final String DEFAULT_CODEC = "default";
     public static final String BEST_COMPRESSION_CODEC = "best_compression";
@@ -38,8 +40,14 @@ public class CodecService {
             codecs.put(DEFAULT_CODEC, new Lucene99Codec());
             codecs.put(BEST_COMPRESSION_CODEC, new Lucene99Codec(Lucene99Codec.Mode.BEST_COMPRESSION));
         } else {
-            codecs.put(DEFAULT_CODEC, new PerFieldMapperCodec(Lucene99Codec.Mode.BEST_SPEED, mapperService, bigArrays));
-            codecs.put(BEST_COMPRESSION_CODEC, new PerFieldMapperCodec(Lucene99Codec.Mode.BEST_COMPRESSION, mapperService, bigArrays));
+            codecs.put(
+                DEFAULT_CODEC,
+                new PerFieldMapperCodec(Lucene99Codec.Mode.BEST_SPEED, mapperService, bigArrays, knnVectorsMergeTracker)
+            );
+            codecs.put(
+                BEST_COMPRESSION_CODEC,
+                new PerFieldMapperCodec(Lucene99Codec.Mode.BEST_COMPRESSION, mapperService, bigArrays, knnVectorsMergeTracker)
+            );
         }
         codecs.put(LUCENE_DEFAULT_CODEC, Codec.getDefault());
         for (String codec : Codec.availableCodecs()) {
@@ -56,6 +64,13 @@ public class CodecService {
         return codec;
     }
 
+    /**
+     * Returns the merges of the vector fields that were written with the default codecs
+     */
+    public KnnVectorsMergeTracker knnVectorsMergeTracker() {
+        return knnVectorsMergeTracker;
+    }
+
     /**
      * Returns all registered available codec names
      */
@@ -21,6 +21,8 @@ import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.codec.bloomfilter.ES87BloomFilterPostingsFormat;
 import org.elasticsearch.index.codec.postings.ES812PostingsFormat;
 import org.elasticsearch.index.codec.tsdb.ES87TSDBDocValuesFormat;
+import org.elasticsearch.index.codec.vectors.KnnVectorsMergeTracker;
+import org.elasticsearch.index.codec.vectors.MergeTrackingKnnVectorsFormat;
 import org.elasticsearch.index.mapper.IdFieldMapper;
 import org.elasticsearch.index.mapper.Mapper;
 import org.elasticsearch.index.mapper.MapperService;
@@ -42,18 +44,25 @@ public final class PerFieldMapperCodec extends Lucene99Codec {
     private final ES87TSDBDocValuesFormat tsdbDocValuesFormat;
 
     private final ES812PostingsFormat es812PostingsFormat;
+    private final KnnVectorsMergeTracker knnVectorsMergeTracker;
 
     static {
         assert Codec.forName(Lucene.LATEST_CODEC).getClass().isAssignableFrom(PerFieldMapperCodec.class)
             : "PerFieldMapperCodec must subclass the latest lucene codec: " + Lucene.LATEST_CODEC;
     }
 
-    public PerFieldMapperCodec(Mode compressionMode, MapperService mapperService, BigArrays bigArrays) {
+    public PerFieldMapperCodec(
+        Mode compressionMode,
+        MapperService mapperService,
+        BigArrays bigArrays,
+        KnnVectorsMergeTracker knnVectorsMergeTracker
+    ) {
         super(compressionMode);
         this.mapperService = mapperService;
         this.bloomFilterPostingsFormat = new ES87BloomFilterPostingsFormat(bigArrays, this::internalGetPostingsFormatForField);
         this.tsdbDocValuesFormat = new ES87TSDBDocValuesFormat();
         this.es812PostingsFormat = new ES812PostingsFormat();
+        this.knnVectorsMergeTracker = knnVectorsMergeTracker;
     }
 
     @Override
@@ -92,7 +101,8 @@ public final class PerFieldMapperCodec extends Lucene99Codec {
     public KnnVectorsFormat getKnnVectorsFormatForField(String field) {
         Mapper mapper = mapperService.mappingLookup().getMapper(field);
         if (mapper instanceof DenseVectorFieldMapper vectorMapper) {
-            return vectorMapper.getKnnVectorsFormatForField(super.getKnnVectorsFormatForField(field));
+            KnnVectorsFormat format = vectorMapper.getKnnVectorsFormatForField(super.getKnnVectorsFormatForField(field));
+            return new MergeTrackingKnnVectorsFormat(format, knnVectorsMergeTracker);
         }
         return super.getKnnVectorsFormatForField(field);
     }
@@ -40,12 +40,18 @@ public class ES813Int8FlatVectorFormat extends KnnVectorsFormat {
         this(null);
     }
 
+    public ES813Int8FlatVectorFormat(Float confidenceInterval) {
+        this(confidenceInterval, 7, false);
+    }
+
     /**
-     * Sole constructor
+     * @param bits the number of bits to quantize each dimension to, {@code 7} for int8 or {@code 4} for int4
+     * @param compress whether to pack two int4 dimensions per byte
      */
-    public ES813Int8FlatVectorFormat(Float confidenceInterval) {
+    public ES813Int8FlatVectorFormat(Float confidenceInterval, int bits, boolean compress) {
         super(NAME);
-        this.format = new Lucene99ScalarQuantizedVectorsFormat(confidenceInterval);
+        // segments are read with the default instance, the reader gets the bits and compression from their metadata
+        this.format = new Lucene99ScalarQuantizedVectorsFormat(confidenceInterval, bits, compress);
     }
 
     @Override
@@ -58,6 +64,11 @@ public class ES813Int8FlatVectorFormat extends KnnVectorsFormat {
         return new ES813FlatVectorReader(format.fieldsReader(state));
     }
 
+    @Override
+    public String toString() {
+        return NAME + "(name=" + NAME + ", innerFormat=" + format + ")";
+    }
+
     public static class ES813FlatVectorWriter extends KnnVectorsWriter {
 
         private final FlatVectorsWriter writer;
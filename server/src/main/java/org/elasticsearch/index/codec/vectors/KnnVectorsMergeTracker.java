@@ -0,0 +1,57 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.index.codec.vectors;
+
+import org.elasticsearch.common.metrics.CounterMetric;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps track of the merges of the vector fields of a shard, and of how many of the merged vectors didn't have to
+ * be inserted into the merged HNSW graph because it was initialized from the graph of one of the merged segments.
+ */
+public final class KnnVectorsMergeTracker {
+    private final CounterMetric merges = new CounterMetric();
+    private final CounterMetric totalTimeInNanos = new CounterMetric();
+    private final CounterMetric vectors = new CounterMetric();
+    private final CounterMetric reusedGraphVectors = new CounterMetric();
+
+    void onMerge(long tookInNanos, long mergedVectors, long mergedReusedGraphVectors) {
+        assert mergedReusedGraphVectors <= mergedVectors : mergedReusedGraphVectors + " > " + mergedVectors;
+        merges.inc();
+        totalTimeInNanos.inc(tookInNanos);
+        vectors.inc(mergedVectors);
+        reusedGraphVectors.inc(mergedReusedGraphVectors);
+    }
+
+    /**
+     * The number of vector fields that were merged
+     */
+    public long getMerges() {
+        return merges.count();
+    }
+
+    public long getTotalTimeInMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalTimeInNanos.count());
+    }
+
+    /**
+     * The number of vectors that were written by merges
+     */
+    public long getVectors() {
+        return vectors.count();
+    }
+
+    /**
+     * The number of merged vectors that came with the graph the merged graph was initialized from
+     */
+    public long getReusedGraphVectors() {
+        return reusedGraphVectors.count();
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.index.codec.vectors;
+
+import org.apache.lucene.codecs.HnswGraphProvider;
+import org.apache.lucene.codecs.KnnFieldVectorsWriter;
+import org.apache.lucene.codecs.KnnVectorsFormat;
+import org.apache.lucene.codecs.KnnVectorsReader;
+import org.apache.lucene.codecs.KnnVectorsWriter;
+import org.apache.lucene.codecs.perfield.PerFieldKnnVectorsFormat;
+import org.apache.lucene.index.ByteVectorValues;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.FloatVectorValues;
+import org.apache.lucene.index.MergeState;
+import org.apache.lucene.index.SegmentReadState;
+import org.apache.lucene.index.SegmentWriteState;
+import org.apache.lucene.index.Sorter;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.FixedBitSet;
+
+import java.io.IOException;
+
+/**
+ * Delegates to another {@link KnnVectorsFormat} and reports the merges of its fields to a {@link KnnVectorsMergeTracker}.
+ * The HNSW formats don't rebuild the merged graph from scratch: they initialize it from the graph of the merged segment
+ * with the most vectors and no deletions, and only insert the vectors of the other segments. The tracker is told how many
+ * vectors this saved, which is computed the way the HNSW formats pick the graph. All the numbers come from the merge
+ * state and the segments' metadata, the merged vectors aren't read again.
+ */
+public final class MergeTrackingKnnVectorsFormat extends KnnVectorsFormat {
+
+    private final KnnVectorsFormat delegate;
+    private final KnnVectorsMergeTracker tracker;
+
+    public MergeTrackingKnnVectorsFormat(KnnVectorsFormat delegate, KnnVectorsMergeTracker tracker) {
+        // It's legal to reuse the same format name as this is the same on-disk format.
+        super(delegate.getName());
+        this.delegate = delegate;
+        this.tracker = tracker;
+    }
+
+    @Override
+    public KnnVectorsWriter fieldsWriter(SegmentWriteState state) throws IOException {
+        return new MergeTrackingKnnVectorsWriter(delegate.fieldsWriter(state), tracker);
+    }
+
+    @Override
+    public KnnVectorsReader fieldsReader(SegmentReadState state) throws IOException {
+        return delegate.fieldsReader(state);
+    }
+
+    @Override
+    public int getMaxDimensions(String fieldName) {
+        return delegate.getMaxDimensions(fieldName);
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+
+    static final class MergeTrackingKnnVectorsWriter extends KnnVectorsWriter {
+        private final KnnVectorsWriter writer;
+        private final KnnVectorsMergeTracker tracker;
+
+        MergeTrackingKnnVectorsWriter(KnnVectorsWriter writer, KnnVectorsMergeTracker tracker) {
+            this.writer = writer;
+            this.tracker = tracker;
+        }
+
+        @Override
+        public KnnFieldVectorsWriter<?> addField(FieldInfo fieldInfo) throws IOException {
+            return writer.addField(fieldInfo);
+        }
+
+        @Override
+        public void flush(int maxDoc, Sorter.DocMap sortMap) throws IOException {
+            writer.flush(maxDoc, sortMap);
+        }
+
+        @Override
+        public void mergeOneField(FieldInfo fieldInfo, MergeState mergeState) throws IOException {
+            final long startTimeInNanos = System.nanoTime();
+            writer.mergeOneField(fieldInfo, mergeState);
+            final long tookInNanos = System.nanoTime() - startTimeInNanos;
+            long vectors = 0;
+            long reusedGraphVectors = 0;
+            for (int i = 0; i < mergeState.knnVectorsReaders.length; i++) {
+                final DocIdSetIterator values = vectorValues(fieldInfo, mergeState, i);
+                if (values == null) {
+                    continue;
+                }
+                final int size = size(values);
+                final Bits liveDocs = mergeState.liveDocs[i];
+                if (liveDocs == null) {
+                    vectors += size;
+                    if (hasGraph(mergeState.knnVectorsReaders[i], fieldInfo)) {
+                        reusedGraphVectors = Math.max(reusedGraphVectors, size);
+                    }
+                } else {
+                    vectors += liveVectors(size, mergeState.maxDocs[i], liveDocs);
+                }
+            }
+            tracker.onMerge(tookInNanos, vectors, reusedGraphVectors);
+        }
+
+        private static DocIdSetIterator vectorValues(FieldInfo fieldInfo, MergeState mergeState, int i) throws IOException {
+            final KnnVectorsReader reader = mergeState.knnVectorsReaders[i];
+            if (reader == null) {
+                return null;
+            }
+            final FieldInfo readerFieldInfo = mergeState.fieldInfos[i].fieldInfo(fieldInfo.name);
+            if (readerFieldInfo == null || readerFieldInfo.hasVectorValues() == false) {
+                return null;
+            }
+            return switch (fieldInfo.getVectorEncoding()) {
+                case BYTE -> reader.getByteVectorValues(fieldInfo.name);
+                case FLOAT32 -> reader.getFloatVectorValues(fieldInfo.name);
+            };
+        }
+
+        /**
+         * The number of vectors of a segment with deletions that get merged, computed from its live docs rather than by
+         * reading its vectors again. It is exact when all documents of the segment have a vector, and assumes deletions
+         * are spread evenly over the documents with and without vectors otherwise.
+         */
+        private static long liveVectors(int size, int maxDoc, Bits liveDocs) {
+            final int liveDocCount;
+            if (liveDocs instanceof FixedBitSet bitSet) {
+                liveDocCount = bitSet.cardinality();
+            } else {
+                int count = 0;
+                for (int doc = 0; doc < maxDoc; doc++) {
+                    if (liveDocs.get(doc)) {
+                        count++;
+                    }
+                }
+                liveDocCount = count;
+            }
+            if (size == maxDoc) {
+                return liveDocCount;
+            }
+            return Math.round((double) size * liveDocCount / maxDoc);
+        }
+
+        private static int size(DocIdSetIterator values) {
+            if (values instanceof FloatVectorValues floatValues) {
+                return floatValues.size();
+            }
+            return ((ByteVectorValues) values).size();
+        }
+
+        private static boolean hasGraph(KnnVectorsReader reader, FieldInfo fieldInfo) {
+            if (reader instanceof PerFieldKnnVectorsFormat.FieldsReader perFieldReader) {
+                reader = perFieldReader.getFieldReader(fieldInfo.name);
+            }
+            return reader instanceof HnswGraphProvider;
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.finish();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+
+        @Override
+        public long ramBytesUsed() {
+            return writer.ramBytesUsed();
+        }
+    }
+}
@@ -72,6 +72,7 @@ import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.IndexVersion;
 import org.elasticsearch.index.VersionType;
 import org.elasticsearch.index.cache.query.TrivialQueryCachingPolicy;
+import org.elasticsearch.index.codec.vectors.KnnVectorsMergeTracker;
 import org.elasticsearch.index.mapper.DocumentParser;
 import org.elasticsearch.index.mapper.IdFieldMapper;
 import org.elasticsearch.index.mapper.LuceneDocument;
@@ -2565,6 +2566,13 @@ public class InternalEngine extends Engine {
         stats.addVersionMapMemoryInBytes(versionMap.ramBytesUsed());
         stats.addIndexWriterMemoryInBytes(indexWriter.ramBytesUsed());
         stats.updateMaxUnsafeAutoIdTimestamp(maxUnsafeAutoIdTimestamp.get());
+        final KnnVectorsMergeTracker knnVectorsMergeTracker = engineConfig.getCodecService().knnVectorsMergeTracker();
+        stats.addKnnVectorsMerges(
+            knnVectorsMergeTracker.getMerges(),
+            knnVectorsMergeTracker.getTotalTimeInMillis(),
+            knnVectorsMergeTracker.getVectors(),
+            knnVectorsMergeTracker.getReusedGraphVectors()
+        );
     }
 
     @Override
@@ -14,6 +14,7 @@ import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
 import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.index.store.LuceneFilesExtensions;
 import org.elasticsearch.xcontent.ToXContentFragment;
 import org.elasticsearch.xcontent.XContentBuilder;
@@ -31,6 +32,10 @@ public class SegmentsStats implements Writeable, ToXContentFragment {
     private long versionMapMemoryInBytes;
     private long maxUnsafeAutoIdTimestamp = Long.MIN_VALUE;
     private long bitsetMemoryInBytes;
+    private long knnVectorsMerges;
+    private long knnVectorsMergeTimeInMillis;
+    private long knnVectorsMergedVectors;
+    private long knnVectorsMergeReusedGraphVectors;
     private final Map<String, FileStats> files;
 
     public SegmentsStats() {
@@ -53,6 +58,12 @@ public class SegmentsStats implements Writeable, ToXContentFragment {
         bitsetMemoryInBytes = in.readLong();
         maxUnsafeAutoIdTimestamp = in.readLong();
         files = in.readMapValues(FileStats::new, FileStats::getExt);
+        if (in.getTransportVersion().onOrAfter(TransportVersions.KNN_VECTORS_MERGE_STATS)) {
+            knnVectorsMerges = in.readVLong();
+            knnVectorsMergeTimeInMillis = in.readVLong();
+            knnVectorsMergedVectors = in.readVLong();
+            knnVectorsMergeReusedGraphVectors = in.readVLong();
+        }
     }
 
     public void add(long count) {
@@ -75,6 +86,13 @@ public class SegmentsStats implements Writeable, ToXContentFragment {
         this.bitsetMemoryInBytes += bitsetMemoryInBytes;
     }
 
+    public void addKnnVectorsMerges(long merges, long timeInMillis, long vectors, long reusedGraphVectors) {
+        this.knnVectorsMerges += merges;
+        this.knnVectorsMergeTimeInMillis += timeInMillis;
+        this.knnVectorsMergedVectors += vectors;
+        this.knnVectorsMergeReusedGraphVectors += reusedGraphVectors;
+    }
+
     public void addFiles(Map<String, FileStats> newFiles) {
         newFiles.forEach((k, v) -> files.merge(k, v, FileStats::merge));
     }
@@ -88,6 +106,12 @@ public class SegmentsStats implements Writeable, ToXContentFragment {
         addIndexWriterMemoryInBytes(mergeStats.indexWriterMemoryInBytes);
         addVersionMapMemoryInBytes(mergeStats.versionMapMemoryInBytes);
         addBitsetMemoryInBytes(mergeStats.bitsetMemoryInBytes);
+        addKnnVectorsMerges(
+            mergeStats.knnVectorsMerges,
+            mergeStats.knnVectorsMergeTimeInMillis,
+            mergeStats.knnVectorsMergedVectors,
+            mergeStats.knnVectorsMergeReusedGraphVectors
+        );
         addFiles(mergeStats.files);
     }
 
@@ -131,6 +155,35 @@ public class SegmentsStats implements Writeable, ToXContentFragment {
         return ByteSizeValue.ofBytes(bitsetMemoryInBytes);
     }
 
+    /**
+     * The number of vector fields that merges wrote
+     */
+    public long getKnnVectorsMerges() {
+        return knnVectorsMerges;
+    }
+
+    /**
+     * The time merges spent writing vector fields, including building their HNSW graphs
+     */
+    public TimeValue getKnnVectorsMergeTime() {
+        return new TimeValue(knnVectorsMergeTimeInMillis);
+    }
+
+    /**
+     * The number of vectors that merges wrote
+     */
+    public long getKnnVectorsMergedVectors() {
+        return knnVectorsMergedVectors;
+    }
+
+    /**
+     * The number of merged vectors that didn't have to be inserted into the merged HNSW graph, because it was
+     * initialized from the graph of the segment they came from
+     */
+    public long getKnnVectorsMergeReusedGraphVectors() {
+        return knnVectorsMergeReusedGraphVectors;
+    }
+
     /**
      * Returns a mapping of file extension to statistics about files of that type.
      *
@@ -163,6 +216,14 @@ public class SegmentsStats implements Writeable, ToXContentFragment {
         builder.humanReadableField(Fields.VERSION_MAP_MEMORY_IN_BYTES, Fields.VERSION_MAP_MEMORY, getVersionMapMemory());
         builder.humanReadableField(Fields.FIXED_BIT_SET_MEMORY_IN_BYTES, Fields.FIXED_BIT_SET, getBitsetMemory());
         builder.field(Fields.MAX_UNSAFE_AUTO_ID_TIMESTAMP, maxUnsafeAutoIdTimestamp);
+        if (knnVectorsMerges > 0) {
+            builder.startObject(Fields.KNN_VECTORS_MERGES);
+            builder.field(Fields.TOTAL, knnVectorsMerges);
+            builder.humanReadableField(Fields.TOTAL_TIME_IN_MILLIS, Fields.TOTAL_TIME, getKnnVectorsMergeTime());
+            builder.field(Fields.VECTORS, knnVectorsMergedVectors);
+            builder.field(Fields.REUSED_GRAPH_VECTORS, knnVectorsMergeReusedGraphVectors);
+            builder.endObject();
+        }
         builder.startObject(Fields.FILE_SIZES);
         for (Map.Entry<String, FileStats> entry : files.entrySet()) {
             entry.getValue().toXContent(builder, params);
@@ -182,12 +243,27 @@ public class SegmentsStats implements Writeable, ToXContentFragment {
             && versionMapMemoryInBytes == that.versionMapMemoryInBytes
             && maxUnsafeAutoIdTimestamp == that.maxUnsafeAutoIdTimestamp
             && bitsetMemoryInBytes == that.bitsetMemoryInBytes
+            && knnVectorsMerges == that.knnVectorsMerges
+            && knnVectorsMergeTimeInMillis == that.knnVectorsMergeTimeInMillis
+            && knnVectorsMergedVectors == that.knnVectorsMergedVectors
+            && knnVectorsMergeReusedGraphVectors == that.knnVectorsMergeReusedGraphVectors
             && Objects.equals(files, that.files);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(count, indexWriterMemoryInBytes, versionMapMemoryInBytes, maxUnsafeAutoIdTimestamp, bitsetMemoryInBytes, files);
+        return Objects.hash(
+            count,
+            indexWriterMemoryInBytes,
+            versionMapMemoryInBytes,
+            maxUnsafeAutoIdTimestamp,
+            bitsetMemoryInBytes,
+            knnVectorsMerges,
+            knnVectorsMergeTimeInMillis,
+            knnVectorsMergedVectors,
+            knnVectorsMergeReusedGraphVectors,
+            files
+        );
     }
 
     static final class Fields {
@@ -215,6 +291,12 @@ public class SegmentsStats implements Writeable, ToXContentFragment {
         static final String FIXED_BIT_SET = "fixed_bit_set";
         static final String FIXED_BIT_SET_MEMORY_IN_BYTES = "fixed_bit_set_memory_in_bytes";
         static final String FILE_SIZES = "file_sizes";
+        static final String KNN_VECTORS_MERGES = "knn_vectors_merges";
+        static final String TOTAL = "total";
+        static final String TOTAL_TIME = "total_time";
+        static final String TOTAL_TIME_IN_MILLIS = "total_time_in_millis";
+        static final String VECTORS = "vectors";
+        static final String REUSED_GRAPH_VECTORS = "reused_graph_vectors";
     }
 
     @Override
@@ -235,6 +317,12 @@ public class SegmentsStats implements Writeable, ToXContentFragment {
         out.writeLong(maxUnsafeAutoIdTimestamp);
 
         out.writeCollection(files.values());
+        if (out.getTransportVersion().onOrAfter(TransportVersions.KNN_VECTORS_MERGE_STATS)) {
+            out.writeVLong(knnVectorsMerges);
+            out.writeVLong(knnVectorsMergeTimeInMillis);
+            out.writeVLong(knnVectorsMergedVectors);
+            out.writeVLong(knnVectorsMergeReusedGraphVectors);
+        }
     }
 
     public void clearFiles() {
@@ -26,6 +26,7 @@ import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.core.Nullable;
 import org.elasticsearch.index.fielddata.IndexFieldData.XFieldComparatorSource.Nested;
+import org.elasticsearch.index.fielddata.ordinals.ReusableOrdinalMap;
 import org.elasticsearch.indices.breaker.CircuitBreakerService;
 import org.elasticsearch.search.DocValueFormat;
 import org.elasticsearch.search.MultiValueMode;
@@ -251,5 +252,23 @@ public interface IndexFieldData<FD extends LeafFieldData> {
 
         IndexFieldData<FD> loadGlobalDirect(DirectoryReader indexReader) throws Exception;
 
+        /**
+         * Like {@link #loadGlobalDirect(DirectoryReader)} but may reuse {@code previous}, the ordinal map of the
+         * global field data that was last loaded for an older reader of the same shard.
+         */
+        default IndexFieldData<FD> loadGlobalDirect(DirectoryReader indexReader, @Nullable ReusableOrdinalMap previous)
+            throws Exception {
+            return loadGlobalDirect(indexReader);
+        }
+
+        /**
+         * Returns a reference to what global field data loaded by this instance for newer readers of the same shard
+         * may reuse, which must be released by the caller, or {@code null} if there is nothing to reuse.
+         */
+        @Nullable
+        default ReusableOrdinalMap reusableOrdinalMap(IndexFieldData<?> globalFieldData) {
+            return null;
+        }
+
     }
 }
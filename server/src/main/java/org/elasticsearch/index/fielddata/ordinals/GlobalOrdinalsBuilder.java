@@ -18,6 +18,8 @@ import org.apache.lucene.index.TermsEnum;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.packed.PackedInts;
 import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.NoopCircuitBreaker;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.index.fielddata.IndexOrdinalsFieldData;
 import org.elasticsearch.index.fielddata.LeafOrdinalsFieldData;
@@ -42,10 +44,58 @@ public enum GlobalOrdinalsBuilder {
         CircuitBreaker breaker,
         Logger logger,
         ToScriptFieldFactory<SortedSetDocValues> toScriptFieldFactory
+    ) throws IOException {
+        return build(indexReader, indexFieldData, breaker, logger, toScriptFieldFactory, null);
+    }
+
+    /**
+     * Build global ordinals for the provided {@link IndexReader}, reusing the ordinal map of the global
+     * ordinals that were previously built for another reader of the same shard if that reader had the
+     * same segments. This is typically the case when a refresh only brought new deletes. Otherwise the
+     * ordinal map is built from scratch since Lucene can't extend an existing one with new segments.
+     */
+    public static IndexOrdinalsFieldData build(
+        final IndexReader indexReader,
+        IndexOrdinalsFieldData indexFieldData,
+        CircuitBreaker breaker,
+        Logger logger,
+        ToScriptFieldFactory<SortedSetDocValues> toScriptFieldFactory,
+        @Nullable ReusableOrdinalMap previous
     ) throws IOException {
         assert indexReader.leaves().size() > 1;
         long startTimeNS = System.nanoTime();
 
+        // the ordinal map is only charged to the breaker once, when it was built, the new global ordinals just take a reference
+        if (previous != null && previous.isReusableFor(indexReader) && previous.tryIncRef()) {
+            // segment field data may hold on to the segment readers of the previous reader, which may be closed before the new one
+            final LeafOrdinalsFieldData[] atomicFD = new LeafOrdinalsFieldData[indexReader.leaves().size()];
+            try {
+                for (int i = 0; i < indexReader.leaves().size(); ++i) {
+                    atomicFD[i] = indexFieldData.load(indexReader.leaves().get(i));
+                }
+            } catch (Exception e) {
+                previous.decRef();
+                throw e;
+            }
+            TimeValue took = new TimeValue(System.nanoTime() - startTimeNS, TimeUnit.NANOSECONDS);
+            if (logger.isDebugEnabled()) {
+                logger.debug(
+                    "global-ordinals [{}][{}] reused from previous reader, took [{}]",
+                    indexFieldData.getFieldName(),
+                    previous.ordinalMap().getValueCount(),
+                    took
+                );
+            }
+            return new GlobalOrdinalsIndexFieldData(
+                indexFieldData.getFieldName(),
+                indexFieldData.getValuesSourceType(),
+                atomicFD,
+                previous,
+                toScriptFieldFactory,
+                took
+            );
+        }
+
         final LeafOrdinalsFieldData[] atomicFD = new LeafOrdinalsFieldData[indexReader.leaves().size()];
         final SortedSetDocValues[] subs = new SortedSetDocValues[indexReader.leaves().size()];
         for (int i = 0; i < indexReader.leaves().size(); ++i) {
@@ -70,8 +120,12 @@ public enum GlobalOrdinalsBuilder {
             weights[i] = subs[i].getValueCount();
         }
         final OrdinalMap ordinalMap = OrdinalMap.build(null, termsEnums, weights, PackedInts.DEFAULT);
-        final long memorySizeInBytes = ordinalMap.ramBytesUsed();
-        breaker.addWithoutBreaking(memorySizeInBytes);
+        final ReusableOrdinalMap reusableOrdinalMap = new ReusableOrdinalMap(
+            GlobalOrdinalsIndexFieldData.segmentCoreKeys(indexReader),
+            ordinalMap,
+            ordinalMap.ramBytesUsed(),
+            breaker
+        );
 
         TimeValue took = new TimeValue(System.nanoTime() - startTimeNS, TimeUnit.NANOSECONDS);
         if (logger.isDebugEnabled()) {
@@ -81,8 +135,7 @@ public enum GlobalOrdinalsBuilder {
             indexFieldData.getFieldName(),
             indexFieldData.getValuesSourceType(),
             atomicFD,
-            ordinalMap,
-            memorySizeInBytes,
+            reusableOrdinalMap,
             toScriptFieldFactory,
             took
         );
@@ -121,8 +174,12 @@ public enum GlobalOrdinalsBuilder {
             indexFieldData.getFieldName(),
             indexFieldData.getValuesSourceType(),
             atomicFD,
-            ordinalMap,
-            0,
+            new ReusableOrdinalMap(
+                GlobalOrdinalsIndexFieldData.segmentCoreKeys(indexReader),
+                ordinalMap,
+                0,
+                new NoopCircuitBreaker(CircuitBreaker.FIELDDATA)
+            ),
             toScriptFieldFactory,
             took
         );
@@ -8,6 +8,7 @@
 package org.elasticsearch.index.fielddata.ordinals;
 
 import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.OrdinalMap;
 import org.apache.lucene.index.SortedSetDocValues;
@@ -31,6 +32,7 @@ import org.elasticsearch.search.sort.SortOrder;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.Collection;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Concrete implementation of {@link IndexOrdinalsFieldData} for global ordinals.
@@ -48,6 +50,12 @@ public final class GlobalOrdinalsIndexFieldData implements IndexOrdinalsFieldDat
     private final long memorySizeInBytes;
 
     private final OrdinalMap ordinalMap;
+    /**
+     * The ordinal map along with the core cache keys of the segments it was built from, which these global
+     * ordinals hold a reference to until they're removed from the field data cache.
+     */
+    private final ReusableOrdinalMap reusableOrdinalMap;
+    private final AtomicBoolean removedFromCache = new AtomicBoolean();
     private final LeafOrdinalsFieldData[] segmentAfd;
     private final ToScriptFieldFactory<SortedSetDocValues> toScriptFieldFactory;
     private final TimeValue took;
@@ -56,20 +64,56 @@ public final class GlobalOrdinalsIndexFieldData implements IndexOrdinalsFieldDat
         String fieldName,
         ValuesSourceType valuesSourceType,
         LeafOrdinalsFieldData[] segmentAfd,
-        OrdinalMap ordinalMap,
-        long memorySizeInBytes,
+        ReusableOrdinalMap reusableOrdinalMap,
         ToScriptFieldFactory<SortedSetDocValues> toScriptFieldFactory,
         TimeValue took
     ) {
+        assert segmentAfd.length == reusableOrdinalMap.segmentCoreKeys().length;
+        assert reusableOrdinalMap.hasReferences();
         this.fieldName = fieldName;
         this.valuesSourceType = valuesSourceType;
-        this.memorySizeInBytes = memorySizeInBytes;
-        this.ordinalMap = ordinalMap;
+        this.memorySizeInBytes = reusableOrdinalMap.memorySizeInBytes();
+        this.ordinalMap = reusableOrdinalMap.ordinalMap();
+        this.reusableOrdinalMap = reusableOrdinalMap;
         this.segmentAfd = segmentAfd;
         this.toScriptFieldFactory = toScriptFieldFactory;
         this.took = took;
     }
 
+    /**
+     * Returns the core cache keys of the segments of the provided reader.
+     */
+    static IndexReader.CacheKey[] segmentCoreKeys(IndexReader indexReader) {
+        final IndexReader.CacheKey[] keys = new IndexReader.CacheKey[indexReader.leaves().size()];
+        for (int i = 0; i < keys.length; i++) {
+            final IndexReader.CacheHelper cacheHelper = indexReader.leaves().get(i).reader().getCoreCacheHelper();
+            keys[i] = cacheHelper == null ? null : cacheHelper.getKey();
+        }
+        return keys;
+    }
+
+    /**
+     * Returns a new reference to the ordinal map of these global ordinals for reuse by the global ordinals of
+     * newer readers of the same shard, or {@code null} if some segments don't support caching and can't be
+     * told apart or if the ordinal map was already released.
+     */
+    @Nullable
+    public ReusableOrdinalMap reusableOrdinalMap() {
+        if (reusableOrdinalMap.isReusable() && reusableOrdinalMap.tryIncRef()) {
+            return reusableOrdinalMap;
+        }
+        return null;
+    }
+
+    /**
+     * Releases the reference of these global ordinals on their ordinal map once they were removed from the field data cache.
+     */
+    public void releaseRemovedFromCache() {
+        if (removedFromCache.compareAndSet(false, true)) {
+            reusableOrdinalMap.releaseRemovedFromCache();
+        }
+    }
+
     public IndexOrdinalsFieldData newConsumer(DirectoryReader source) {
         return new Consumer(source);
     }
@@ -0,0 +1,108 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+package org.elasticsearch.index.fielddata.ordinals;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.OrdinalMap;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.core.AbstractRefCounted;
+
+/**
+ * The ordinal map of global ordinals, shared by the global ordinals of every reader of a shard that has the
+ * very same segments, for instance when a refresh only brought new deletes, and kept by the field data cache
+ * after those global ordinals are evicted so that the next reader can still reuse it. It only references the
+ * segments by their core cache keys.
+ * <p>
+ * The ordinal map is charged to the fielddata circuit breaker once, when it's built, no matter how many global
+ * ordinals or caches reference it, and that charge is released with the last reference.
+ */
+public final class ReusableOrdinalMap extends AbstractRefCounted {
+
+    private final IndexReader.CacheKey[] segmentCoreKeys;
+    private final OrdinalMap ordinalMap;
+    private final long memorySizeInBytes;
+    private final CircuitBreaker breaker;
+
+    ReusableOrdinalMap(IndexReader.CacheKey[] segmentCoreKeys, OrdinalMap ordinalMap, long memorySizeInBytes, CircuitBreaker breaker) {
+        this.segmentCoreKeys = segmentCoreKeys;
+        this.ordinalMap = ordinalMap;
+        this.memorySizeInBytes = memorySizeInBytes;
+        this.breaker = breaker;
+        breaker.addWithoutBreaking(memorySizeInBytes);
+    }
+
+    /**
+     * Can this ordinal map be used for the provided reader? That's the case if the reader is made of the
+     * very same segments, in the same order, as the reader it was built for.
+     */
+    boolean isReusableFor(IndexReader indexReader) {
+        if (indexReader.leaves().size() != segmentCoreKeys.length) {
+            return false;
+        }
+        final IndexReader.CacheKey[] keys = GlobalOrdinalsIndexFieldData.segmentCoreKeys(indexReader);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == null || keys[i] != segmentCoreKeys[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Was this ordinal map built over the segment with the provided core cache key? It can't be reused
+     * anymore once that segment is closed.
+     */
+    public boolean hasSegment(IndexReader.CacheKey coreKey) {
+        for (IndexReader.CacheKey key : segmentCoreKeys) {
+            if (key == coreKey) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Can global ordinals of newer readers reuse this ordinal map? Not if some of its segments don't support
+     * caching, since they can't be told apart from the segments of other readers.
+     */
+    boolean isReusable() {
+        for (IndexReader.CacheKey key : segmentCoreKeys) {
+            if (key == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    OrdinalMap ordinalMap() {
+        return ordinalMap;
+    }
+
+    long memorySizeInBytes() {
+        return memorySizeInBytes;
+    }
+
+    IndexReader.CacheKey[] segmentCoreKeys() {
+        return segmentCoreKeys;
+    }
+
+    /**
+     * Releases the reference of global ordinals that were removed from the field data cache. The listeners of the
+     * cache release the breaker charge of every global ordinals they remove, so it's charged again here and only
+     * released for good if this was the last reference to the ordinal map.
+     */
+    void releaseRemovedFromCache() {
+        breaker.addWithoutBreaking(memorySizeInBytes);
+        decRef();
+    }
+
+    @Override
+    protected void closeInternal() {
+        breaker.addWithoutBreaking(-memorySizeInBytes);
+    }
+}
@@ -18,12 +18,15 @@ import org.apache.lucene.index.TermsEnum;
 import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.index.fielddata.IndexFieldData;
 import org.elasticsearch.index.fielddata.IndexFieldDataCache;
 import org.elasticsearch.index.fielddata.IndexOrdinalsFieldData;
 import org.elasticsearch.index.fielddata.LeafOrdinalsFieldData;
 import org.elasticsearch.index.fielddata.RamAccountingTermsEnum;
 import org.elasticsearch.index.fielddata.ordinals.GlobalOrdinalsBuilder;
 import org.elasticsearch.index.fielddata.ordinals.GlobalOrdinalsIndexFieldData;
+import org.elasticsearch.index.fielddata.ordinals.ReusableOrdinalMap;
 import org.elasticsearch.indices.breaker.CircuitBreakerService;
 import org.elasticsearch.script.field.ToScriptFieldFactory;
 import org.elasticsearch.search.aggregations.support.ValuesSourceType;
@@ -142,15 +145,29 @@ public abstract class AbstractIndexOrdinalsFieldData implements IndexOrdinalsFie
 
     @Override
     public IndexOrdinalsFieldData loadGlobalDirect(DirectoryReader indexReader) throws Exception {
+        return loadGlobalDirect(indexReader, null);
+    }
+
+    @Override
+    public IndexOrdinalsFieldData loadGlobalDirect(DirectoryReader indexReader, @Nullable ReusableOrdinalMap previous) throws Exception {
         return GlobalOrdinalsBuilder.build(
             indexReader,
             this,
             breakerService.getBreaker(CircuitBreaker.FIELDDATA),
             logger,
-            toScriptFieldFactory
+            toScriptFieldFactory,
+            previous
         );
     }
 
+    @Override
+    public ReusableOrdinalMap reusableOrdinalMap(IndexFieldData<?> globalFieldData) {
+        if (globalFieldData instanceof GlobalOrdinalsIndexFieldData globalOrdinals) {
+            return globalOrdinals.reusableOrdinalMap();
+        }
+        return null;
+    }
+
     @Override
     public boolean supportsGlobalOrdinalsMapping() {
         return false;
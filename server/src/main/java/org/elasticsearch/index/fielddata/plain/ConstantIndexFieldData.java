@@ -24,6 +24,7 @@ import org.elasticsearch.index.fielddata.IndexFieldDataCache;
 import org.elasticsearch.index.fielddata.IndexOrdinalsFieldData;
 import org.elasticsearch.index.fielddata.LeafOrdinalsFieldData;
 import org.elasticsearch.index.fielddata.fieldcomparator.BytesRefFieldComparatorSource;
+import org.elasticsearch.index.fielddata.ordinals.ReusableOrdinalMap;
 import org.elasticsearch.indices.breaker.CircuitBreakerService;
 import org.elasticsearch.script.field.ToScriptFieldFactory;
 import org.elasticsearch.search.DocValueFormat;
@@ -174,6 +175,11 @@ public class ConstantIndexFieldData extends AbstractIndexOrdinalsFieldData {
         return loadGlobal(indexReader);
     }
 
+    @Override
+    public IndexOrdinalsFieldData loadGlobalDirect(DirectoryReader indexReader, ReusableOrdinalMap previous) {
+        return loadGlobal(indexReader);
+    }
+
     public String getValue() {
         return atomicFieldData.value;
     }
@@ -109,6 +109,7 @@ public class DenseVectorFieldMapper extends FieldMapper {
     public static final IndexVersion INDEXED_BY_DEFAULT_INDEX_VERSION = IndexVersions.FIRST_DETACHED_INDEX_VERSION;
     public static final IndexVersion NORMALIZE_COSINE = IndexVersions.NORMALIZED_VECTOR_COSINE;
     public static final IndexVersion LITTLE_ENDIAN_FLOAT_STORED_INDEX_VERSION = IndexVersions.V_8_9_0;
+    public static final IndexVersion INT4_AND_RESCORE_INDEX_VERSION = IndexVersions.INT4_QUANTIZATION_AND_KNN_RESCORE;
 
     public static final String CONTENT_TYPE = "dense_vector";
     public static short MAX_DIMS_COUNT = 4096; // maximum allowed number of dimensions
@@ -156,7 +157,7 @@ public class DenseVectorFieldMapper extends FieldMapper {
             "index_options",
             false,
             () -> null,
-            (n, c, o) -> o == null ? null : parseIndexOptions(n, o),
+            (n, c, o) -> o == null ? null : parseIndexOptions(n, o, c.indexVersionCreated()),
             m -> toType(m).indexOptions,
             XContentBuilder::field,
             Objects::toString
@@ -206,6 +207,9 @@ public class DenseVectorFieldMapper extends FieldMapper {
                         "[element_type] cannot be [" + elementType.getValue().toString() + "] when using index type [" + v.type + "]"
                     );
                 }
+                if (v != null && dims.getValue() != null) {
+                    v.validateDimension(dims.getValue());
+                }
             });
         }
 
@@ -225,6 +229,7 @@ public class DenseVectorFieldMapper extends FieldMapper {
                     dims.getValue(),
                     indexed.getValue(),
                     similarity.getValue(),
+                    indexOptions.getValue() != null && indexOptions.getValue().rescore(),
                     meta.getValue()
                 ),
                 indexOptions.getValue(),
@@ -813,12 +818,30 @@ public class DenseVectorFieldMapper extends FieldMapper {
         boolean supportsElementType(ElementType elementType) {
             return true;
         }
+
+        /**
+         * Should the candidates of knn searches be rescored from the raw vectors? Only quantized index types support it.
+         */
+        boolean rescore() {
+            return false;
+        }
+
+        /**
+         * Does the index score all the vectors of a segment rather than traversing a graph?
+         */
+        boolean isFlat() {
+            return false;
+        }
+
+        void validateDimension(int dim) {
+            // all dimensions are supported by default
+        }
     }
 
     private enum VectorIndexType {
         HNSW("hnsw") {
             @Override
-            public IndexOptions parseIndexOptions(String fieldName, Map<String, ?> indexOptionsMap) {
+            public IndexOptions parseIndexOptions(String fieldName, Map<String, ?> indexOptionsMap, IndexVersion indexVersion) {
                 Object mNode = indexOptionsMap.remove("m");
                 Object efConstructionNode = indexOptionsMap.remove("ef_construction");
                 if (mNode == null) {
@@ -835,7 +858,7 @@ public class DenseVectorFieldMapper extends FieldMapper {
         },
         INT8_HNSW("int8_hnsw") {
             @Override
-            public IndexOptions parseIndexOptions(String fieldName, Map<String, ?> indexOptionsMap) {
+            public IndexOptions parseIndexOptions(String fieldName, Map<String, ?> indexOptionsMap, IndexVersion indexVersion) {
                 Object mNode = indexOptionsMap.remove("m");
                 Object efConstructionNode = indexOptionsMap.remove("ef_construction");
                 Object confidenceIntervalNode = indexOptionsMap.remove("confidence_interval");
@@ -851,27 +874,67 @@ public class DenseVectorFieldMapper extends FieldMapper {
                 if (confidenceIntervalNode != null) {
                     confidenceInterval = (float) XContentMapValues.nodeDoubleValue(confidenceIntervalNode);
                 }
+                boolean rescore = parseRescore(fieldName, indexOptionsMap, indexVersion);
                 MappingParser.checkNoRemainingFields(fieldName, indexOptionsMap);
-                return new Int8HnswIndexOptions(m, efConstruction, confidenceInterval);
+                return new Int8HnswIndexOptions(m, efConstruction, confidenceInterval, rescore);
             }
         },
         FLAT("flat") {
             @Override
-            public IndexOptions parseIndexOptions(String fieldName, Map<String, ?> indexOptionsMap) {
+            public IndexOptions parseIndexOptions(String fieldName, Map<String, ?> indexOptionsMap, IndexVersion indexVersion) {
                 MappingParser.checkNoRemainingFields(fieldName, indexOptionsMap);
                 return new FlatIndexOptions();
             }
         },
         INT8_FLAT("int8_flat") {
             @Override
-            public IndexOptions parseIndexOptions(String fieldName, Map<String, ?> indexOptionsMap) {
+            public IndexOptions parseIndexOptions(String fieldName, Map<String, ?> indexOptionsMap, IndexVersion indexVersion) {
                 Object confidenceIntervalNode = indexOptionsMap.remove("confidence_interval");
                 Float confidenceInterval = null;
                 if (confidenceIntervalNode != null) {
                     confidenceInterval = (float) XContentMapValues.nodeDoubleValue(confidenceIntervalNode);
                 }
+                boolean rescore = parseRescore(fieldName, indexOptionsMap, indexVersion);
                 MappingParser.checkNoRemainingFields(fieldName, indexOptionsMap);
-                return new Int8FlatIndexOption(confidenceInterval);
+                return new Int8FlatIndexOption(confidenceInterval, rescore);
+            }
+        },
+        INT4_HNSW("int4_hnsw") {
+            @Override
+            public IndexOptions parseIndexOptions(String fieldName, Map<String, ?> indexOptionsMap, IndexVersion indexVersion) {
+                checkSupportedOn(indexVersion);
+                Object mNode = indexOptionsMap.remove("m");
+                Object efConstructionNode = indexOptionsMap.remove("ef_construction");
+                Object confidenceIntervalNode = indexOptionsMap.remove("confidence_interval");
+                if (mNode == null) {
+                    mNode = Lucene99HnswVectorsFormat.DEFAULT_MAX_CONN;
+                }
+                if (efConstructionNode == null) {
+                    efConstructionNode = Lucene99HnswVectorsFormat.DEFAULT_BEAM_WIDTH;
+                }
+                int m = XContentMapValues.nodeIntegerValue(mNode);
+                int efConstruction = XContentMapValues.nodeIntegerValue(efConstructionNode);
+                float confidenceInterval = DYNAMIC_CONFIDENCE_INTERVAL;
+                if (confidenceIntervalNode != null) {
+                    confidenceInterval = (float) XContentMapValues.nodeDoubleValue(confidenceIntervalNode);
+                }
+                boolean rescore = parseRescore(fieldName, indexOptionsMap, indexVersion);
+                MappingParser.checkNoRemainingFields(fieldName, indexOptionsMap);
+                return new Int4HnswIndexOptions(m, efConstruction, confidenceInterval, rescore);
+            }
+        },
+        INT4_FLAT("int4_flat") {
+            @Override
+            public IndexOptions parseIndexOptions(String fieldName, Map<String, ?> indexOptionsMap, IndexVersion indexVersion) {
+                checkSupportedOn(indexVersion);
+                Object confidenceIntervalNode = indexOptionsMap.remove("confidence_interval");
+                float confidenceInterval = DYNAMIC_CONFIDENCE_INTERVAL;
+                if (confidenceIntervalNode != null) {
+                    confidenceInterval = (float) XContentMapValues.nodeDoubleValue(confidenceIntervalNode);
+                }
+                boolean rescore = parseRescore(fieldName, indexOptionsMap, indexVersion);
+                MappingParser.checkNoRemainingFields(fieldName, indexOptionsMap);
+                return new Int4FlatIndexOptions(confidenceInterval, rescore);
             }
         };
 
@@ -885,15 +948,52 @@ public class DenseVectorFieldMapper extends FieldMapper {
             this.name = name;
         }
 
-        abstract IndexOptions parseIndexOptions(String fieldName, Map<String, ?> indexOptionsMap);
+        abstract IndexOptions parseIndexOptions(String fieldName, Map<String, ?> indexOptionsMap, IndexVersion indexVersion);
+
+        void checkSupportedOn(IndexVersion indexVersion) {
+            if (indexVersion.before(INT4_AND_RESCORE_INDEX_VERSION)) {
+                throw new MapperParsingException(
+                    "vector index options type ["
+                        + name
+                        + "] requires an index created on or after ["
+                        + INT4_AND_RESCORE_INDEX_VERSION.toReleaseVersion()
+                        + "]"
+                );
+            }
+        }
+    }
+
+    /**
+     * The confidence interval that makes Lucene compute the quantiles of every segment from its vectors, which int4 needs to stay
+     * accurate with only 16 buckets per dimension.
+     */
+    private static final float DYNAMIC_CONFIDENCE_INTERVAL = 0f;
+
+    private static boolean parseRescore(String fieldName, Map<String, ?> indexOptionsMap, IndexVersion indexVersion) {
+        Object rescoreNode = indexOptionsMap.remove("rescore");
+        if (rescoreNode == null) {
+            return false;
+        }
+        if (indexVersion.before(INT4_AND_RESCORE_INDEX_VERSION)) {
+            throw new MapperParsingException(
+                "[index_options.rescore] on field ["
+                    + fieldName
+                    + "] requires an index created on or after ["
+                    + INT4_AND_RESCORE_INDEX_VERSION.toReleaseVersion()
+                    + "]"
+            );
+        }
+        return XContentMapValues.nodeBooleanValue(rescoreNode, fieldName + ".index_options.rescore");
     }
 
     private static class Int8FlatIndexOption extends IndexOptions {
         private final Float confidenceInterval;
+        private final boolean rescore;
 
-        Int8FlatIndexOption(Float confidenceInterval) {
+        Int8FlatIndexOption(Float confidenceInterval, boolean rescore) {
             super("int8_flat");
             this.confidenceInterval = confidenceInterval;
+            this.rescore = rescore;
         }
 
         @Override
@@ -903,6 +1003,9 @@ public class DenseVectorFieldMapper extends FieldMapper {
             if (confidenceInterval != null) {
                 builder.field("confidence_interval", confidenceInterval);
             }
+            if (rescore) {
+                builder.field("rescore", rescore);
+            }
             builder.endObject();
             return builder;
         }
@@ -912,17 +1015,27 @@ public class DenseVectorFieldMapper extends FieldMapper {
             return new ES813Int8FlatVectorFormat(confidenceInterval);
         }
 
+        @Override
+        boolean rescore() {
+            return rescore;
+        }
+
+        @Override
+        boolean isFlat() {
+            return true;
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
             if (o == null || getClass() != o.getClass()) return false;
             Int8FlatIndexOption that = (Int8FlatIndexOption) o;
-            return Objects.equals(confidenceInterval, that.confidenceInterval);
+            return Objects.equals(confidenceInterval, that.confidenceInterval) && rescore == that.rescore;
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(confidenceInterval);
+            return Objects.hash(confidenceInterval, rescore);
         }
 
         @Override
@@ -950,6 +1063,11 @@ public class DenseVectorFieldMapper extends FieldMapper {
             return new ES813FlatVectorFormat();
         }
 
+        @Override
+        boolean isFlat() {
+            return true;
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
@@ -966,12 +1084,14 @@ public class DenseVectorFieldMapper extends FieldMapper {
         private final int m;
         private final int efConstruction;
         private final Float confidenceInterval;
+        private final boolean rescore;
 
-        private Int8HnswIndexOptions(int m, int efConstruction, Float confidenceInterval) {
+        private Int8HnswIndexOptions(int m, int efConstruction, Float confidenceInterval, boolean rescore) {
             super("int8_hnsw");
             this.m = m;
             this.efConstruction = efConstruction;
             this.confidenceInterval = confidenceInterval;
+            this.rescore = rescore;
         }
 
         @Override
@@ -979,6 +1099,11 @@ public class DenseVectorFieldMapper extends FieldMapper {
             return new Lucene99HnswScalarQuantizedVectorsFormat(m, efConstruction, 1, confidenceInterval, null);
         }
 
+        @Override
+        boolean rescore() {
+            return rescore;
+        }
+
         @Override
         public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
             builder.startObject();
@@ -988,6 +1113,9 @@ public class DenseVectorFieldMapper extends FieldMapper {
             if (confidenceInterval != null) {
                 builder.field("confidence_interval", confidenceInterval);
             }
+            if (rescore) {
+                builder.field("rescore", rescore);
+            }
             builder.endObject();
             return builder;
         }
@@ -997,12 +1125,90 @@ public class DenseVectorFieldMapper extends FieldMapper {
             if (this == o) return true;
             if (o == null || getClass() != o.getClass()) return false;
             Int8HnswIndexOptions that = (Int8HnswIndexOptions) o;
-            return m == that.m && efConstruction == that.efConstruction && Objects.equals(confidenceInterval, that.confidenceInterval);
+            return m == that.m
+                && efConstruction == that.efConstruction
+                && Objects.equals(confidenceInterval, that.confidenceInterval)
+                && rescore == that.rescore;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(m, efConstruction, confidenceInterval, rescore);
+        }
+
+        @Override
+        public String toString() {
+            return "{type="
+                + type
+                + ", m="
+                + m
+                + ", ef_construction="
+                + efConstruction
+                + ", confidence_interval="
+                + confidenceInterval
+                + ", rescore="
+                + rescore
+                + "}";
+        }
+
+        @Override
+        boolean supportsElementType(ElementType elementType) {
+            return elementType != ElementType.BYTE;
+        }
+    }
+
+    private static class Int4HnswIndexOptions extends IndexOptions {
+        private final int m;
+        private final int efConstruction;
+        private final float confidenceInterval;
+        private final boolean rescore;
+
+        private Int4HnswIndexOptions(int m, int efConstruction, float confidenceInterval, boolean rescore) {
+            super("int4_hnsw");
+            this.m = m;
+            this.efConstruction = efConstruction;
+            this.confidenceInterval = confidenceInterval;
+            this.rescore = rescore;
+        }
+
+        @Override
+        public KnnVectorsFormat getVectorsFormat() {
+            return new Lucene99HnswScalarQuantizedVectorsFormat(m, efConstruction, 1, 4, true, confidenceInterval, null);
+        }
+
+        @Override
+        boolean rescore() {
+            return rescore;
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.startObject();
+            builder.field("type", type);
+            builder.field("m", m);
+            builder.field("ef_construction", efConstruction);
+            builder.field("confidence_interval", confidenceInterval);
+            if (rescore) {
+                builder.field("rescore", rescore);
+            }
+            builder.endObject();
+            return builder;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Int4HnswIndexOptions that = (Int4HnswIndexOptions) o;
+            return m == that.m
+                && efConstruction == that.efConstruction
+                && confidenceInterval == that.confidenceInterval
+                && rescore == that.rescore;
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(m, efConstruction, confidenceInterval);
+            return Objects.hash(m, efConstruction, confidenceInterval, rescore);
         }
 
         @Override
@@ -1015,6 +1221,8 @@ public class DenseVectorFieldMapper extends FieldMapper {
                 + efConstruction
                 + ", confidence_interval="
                 + confidenceInterval
+                + ", rescore="
+                + rescore
                 + "}";
         }
 
@@ -1022,6 +1230,81 @@ public class DenseVectorFieldMapper extends FieldMapper {
         boolean supportsElementType(ElementType elementType) {
             return elementType != ElementType.BYTE;
         }
+
+        @Override
+        void validateDimension(int dim) {
+            if (dim % 2 != 0) {
+                throw new IllegalArgumentException("[" + type + "] only supports even dimensions; provided=" + dim);
+            }
+        }
+    }
+
+    private static class Int4FlatIndexOptions extends IndexOptions {
+        private final float confidenceInterval;
+        private final boolean rescore;
+
+        Int4FlatIndexOptions(float confidenceInterval, boolean rescore) {
+            super("int4_flat");
+            this.confidenceInterval = confidenceInterval;
+            this.rescore = rescore;
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.startObject();
+            builder.field("type", type);
+            builder.field("confidence_interval", confidenceInterval);
+            if (rescore) {
+                builder.field("rescore", rescore);
+            }
+            builder.endObject();
+            return builder;
+        }
+
+        @Override
+        KnnVectorsFormat getVectorsFormat() {
+            return new ES813Int8FlatVectorFormat(confidenceInterval, 4, true);
+        }
+
+        @Override
+        boolean rescore() {
+            return rescore;
+        }
+
+        @Override
+        boolean isFlat() {
+            return true;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Int4FlatIndexOptions that = (Int4FlatIndexOptions) o;
+            return confidenceInterval == that.confidenceInterval && rescore == that.rescore;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(confidenceInterval, rescore);
+        }
+
+        @Override
+        public String toString() {
+            return "{type=" + type + ", confidence_interval=" + confidenceInterval + ", rescore=" + rescore + "}";
+        }
+
+        @Override
+        boolean supportsElementType(ElementType elementType) {
+            return elementType != ElementType.BYTE;
+        }
+
+        @Override
+        void validateDimension(int dim) {
+            if (dim % 2 != 0) {
+                throw new IllegalArgumentException("[" + type + "] only supports even dimensions; provided=" + dim);
+            }
+        }
     }
 
     private static class HnswIndexOptions extends IndexOptions {
@@ -1078,6 +1361,7 @@ public class DenseVectorFieldMapper extends FieldMapper {
         private final Integer dims;
         private final boolean indexed;
         private final VectorSimilarity similarity;
+        private final boolean rescore;
         private final IndexVersion indexVersionCreated;
 
         public DenseVectorFieldType(
@@ -1088,12 +1372,30 @@ public class DenseVectorFieldMapper extends FieldMapper {
             boolean indexed,
             VectorSimilarity similarity,
             Map<String, String> meta
+        ) {
+            this(name, indexVersionCreated, elementType, dims, indexed, similarity, false, meta);
+        }
+
+        /**
+         * @param rescore whether the candidates of knn queries get rescored from the raw vectors,
+         *                which only makes a difference if the index scores quantized vectors
+         */
+        public DenseVectorFieldType(
+            String name,
+            IndexVersion indexVersionCreated,
+            ElementType elementType,
+            Integer dims,
+            boolean indexed,
+            VectorSimilarity similarity,
+            boolean rescore,
+            Map<String, String> meta
         ) {
             super(name, indexed, false, indexed == false, TextSearchInfo.NONE, meta);
             this.elementType = elementType;
             this.dims = dims;
             this.indexed = indexed;
             this.similarity = similarity;
+            this.rescore = rescore;
             this.indexVersionCreated = indexVersionCreated;
         }
 
@@ -1285,16 +1587,7 @@ public class DenseVectorFieldMapper extends FieldMapper {
             Float similarityThreshold,
             BitSetProducer parentFilter
         ) {
-            if (queryVector.length != dims) {
-                throw new IllegalArgumentException(
-                    "the query vector has a different dimension [" + queryVector.length + "] than the index vectors [" + dims + "]"
-                );
-            }
-
-            if (similarity == VectorSimilarity.DOT_PRODUCT || similarity == VectorSimilarity.COSINE) {
-                float squaredMagnitude = VectorUtil.dotProduct(queryVector, queryVector);
-                elementType.checkVectorMagnitude(similarity, ElementType.errorByteElementsAppender(queryVector), squaredMagnitude);
-            }
+            checkKnnByteQueryVector(queryVector);
             Query knnQuery = parentFilter != null
                 ? new ESDiversifyingChildrenByteKnnVectorQuery(name(), queryVector, filter, numCands, parentFilter)
                 : new ESKnnByteVectorQuery(name(), queryVector, numCands, filter);
@@ -1315,6 +1608,53 @@ public class DenseVectorFieldMapper extends FieldMapper {
             Float similarityThreshold,
             BitSetProducer parentFilter
         ) {
+            queryVector = checkKnnFloatQueryVector(queryVector);
+            Query knnQuery = parentFilter != null
+                ? new ESDiversifyingChildrenFloatKnnVectorQuery(name(), queryVector, filter, numCands, parentFilter)
+                : new ESKnnFloatVectorQuery(name(), queryVector, numCands, filter, rescore);
+            if (similarityThreshold != null) {
+                knnQuery = new VectorSimilarityQuery(
+                    knnQuery,
+                    similarityThreshold,
+                    similarity.score(similarityThreshold, elementType, dims)
+                );
+            }
+            return knnQuery;
+        }
+
+        /**
+         * Validates the provided query vector for knn searches on this field and returns it the way it gets compared to the
+         * indexed vectors, that is normalized if the indexed vectors are normalized for the cosine similarity.
+         */
+        public VectorData checkKnnQueryVector(VectorData queryVector) {
+            if (isIndexed() == false) {
+                throw new IllegalArgumentException(
+                    "to perform knn search on field [" + name() + "], its mapping must have [index] set to [true]"
+                );
+            }
+            return switch (elementType) {
+                case BYTE -> {
+                    byte[] bytes = queryVector.asByteVector();
+                    checkKnnByteQueryVector(bytes);
+                    yield VectorData.fromBytes(bytes);
+                }
+                case FLOAT -> VectorData.fromFloats(checkKnnFloatQueryVector(queryVector.asFloatVector()));
+            };
+        }
+
+        private void checkKnnByteQueryVector(byte[] queryVector) {
+            if (queryVector.length != dims) {
+                throw new IllegalArgumentException(
+                    "the query vector has a different dimension [" + queryVector.length + "] than the index vectors [" + dims + "]"
+                );
+            }
+            if (similarity == VectorSimilarity.DOT_PRODUCT || similarity == VectorSimilarity.COSINE) {
+                float squaredMagnitude = VectorUtil.dotProduct(queryVector, queryVector);
+                elementType.checkVectorMagnitude(similarity, ElementType.errorByteElementsAppender(queryVector), squaredMagnitude);
+            }
+        }
+
+        private float[] checkKnnFloatQueryVector(float[] queryVector) {
             if (queryVector.length != dims) {
                 throw new IllegalArgumentException(
                     "the query vector has a different dimension [" + queryVector.length + "] than the index vectors [" + dims + "]"
@@ -1334,17 +1674,14 @@ public class DenseVectorFieldMapper extends FieldMapper {
                     }
                 }
             }
-            Query knnQuery = parentFilter != null
-                ? new ESDiversifyingChildrenFloatKnnVectorQuery(name(), queryVector, filter, numCands, parentFilter)
-                : new ESKnnFloatVectorQuery(name(), queryVector, numCands, filter);
-            if (similarityThreshold != null) {
-                knnQuery = new VectorSimilarityQuery(
-                    knnQuery,
-                    similarityThreshold,
-                    similarity.score(similarityThreshold, elementType, dims)
-                );
-            }
-            return knnQuery;
+            return queryVector;
+        }
+
+        /**
+         * The function that compares query vectors to the indexed vectors of this field.
+         */
+        public VectorSimilarityFunction vectorSimilarityFunction() {
+            return similarity.vectorSimilarityFunction(indexVersionCreated, elementType);
         }
 
         VectorSimilarity getSimilarity() {
@@ -1355,7 +1692,7 @@ public class DenseVectorFieldMapper extends FieldMapper {
             return dims;
         }
 
-        ElementType getElementType() {
+        public ElementType getElementType() {
             return elementType;
         }
     }
@@ -1409,6 +1746,7 @@ public class DenseVectorFieldMapper extends FieldMapper {
                 dims,
                 fieldType().indexed,
                 fieldType().similarity,
+                fieldType().rescore,
                 fieldType().meta()
             );
             Mapper update = new DenseVectorFieldMapper(
@@ -1506,7 +1844,7 @@ public class DenseVectorFieldMapper extends FieldMapper {
         return new Builder(simpleName(), indexCreatedVersion).init(this);
     }
 
-    private static IndexOptions parseIndexOptions(String fieldName, Object propNode) {
+    private static IndexOptions parseIndexOptions(String fieldName, Object propNode, IndexVersion indexVersion) {
         @SuppressWarnings("unchecked")
         Map<String, ?> indexOptionsMap = (Map<String, ?>) propNode;
         Object typeNode = indexOptionsMap.remove("type");
@@ -1516,7 +1854,14 @@ public class DenseVectorFieldMapper extends FieldMapper {
         String type = XContentMapValues.nodeStringValue(typeNode);
         return VectorIndexType.fromString(type)
             .orElseThrow(() -> new MapperParsingException("Unknown vector index options type [" + type + "] for field [" + fieldName + "]"))
-            .parseIndexOptions(fieldName, indexOptionsMap);
+            .parseIndexOptions(fieldName, indexOptionsMap, indexVersion);
+    }
+
+    /**
+     * Are the vectors of this field indexed without a graph, so that knn searches score all the vectors of each segment?
+     */
+    public boolean usesFlatIndex() {
+        return indexOptions != null && indexOptions.isFlat();
     }
 
     /**
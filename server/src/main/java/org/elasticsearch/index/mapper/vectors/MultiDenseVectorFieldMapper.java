@@ -0,0 +1,322 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.index.mapper.vectors;
+
+import org.apache.lucene.document.BinaryDocValuesField;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.search.FieldExistsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.VectorUtil;
+import org.elasticsearch.common.util.FeatureFlag;
+import org.elasticsearch.common.xcontent.support.XContentMapValues;
+import org.elasticsearch.index.fielddata.FieldDataContext;
+import org.elasticsearch.index.fielddata.IndexFieldData;
+import org.elasticsearch.index.mapper.ArraySourceValueFetcher;
+import org.elasticsearch.index.mapper.DocumentParserContext;
+import org.elasticsearch.index.mapper.FieldMapper;
+import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.index.mapper.MapperBuilderContext;
+import org.elasticsearch.index.mapper.MapperParsingException;
+import org.elasticsearch.index.mapper.SimpleMappedFieldType;
+import org.elasticsearch.index.mapper.TextSearchInfo;
+import org.elasticsearch.index.mapper.ValueFetcher;
+import org.elasticsearch.index.query.SearchExecutionContext;
+import org.elasticsearch.search.DocValueFormat;
+import org.elasticsearch.search.vectors.MaxSimQuery;
+import org.elasticsearch.xcontent.XContentBuilder;
+import org.elasticsearch.xcontent.XContentParser.Token;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.elasticsearch.common.xcontent.XContentParserUtils.ensureExpectedToken;
+
+/**
+ * A {@link FieldMapper} for late interaction models that embed every token of a passage: it holds
+ * any number of float vectors of the same dimension per document. The vectors are packed one after
+ * the other into a single binary doc value, they are not indexed for kNN search but can be scored
+ * against a set of query vectors with the {@link MaxSimQuery}, typically to rescore the top hits of
+ * a first stage kNN search on a single vector field.
+ */
+public class MultiDenseVectorFieldMapper extends FieldMapper {
+
+    public static final String CONTENT_TYPE = "multi_dense_vector";
+
+    public static final FeatureFlag MULTI_DENSE_VECTOR_FEATURE_FLAG = new FeatureFlag("multi_dense_vector");
+
+    private static MultiDenseVectorFieldMapper toType(FieldMapper in) {
+        return (MultiDenseVectorFieldMapper) in;
+    }
+
+    public static class Builder extends FieldMapper.Builder {
+
+        private final Parameter<Integer> dims = new Parameter<>("dims", false, () -> null, (n, c, o) -> {
+            if (o instanceof Integer == false) {
+                throw new MapperParsingException("Property [dims] on field [" + n + "] must be an integer but got [" + o + "]");
+            }
+            int dims = XContentMapValues.nodeIntegerValue(o);
+            if (dims < 1 || dims > DenseVectorFieldMapper.MAX_DIMS_COUNT) {
+                throw new MapperParsingException(
+                    "The number of dimensions for field ["
+                        + n
+                        + "] should be in the range [1, "
+                        + DenseVectorFieldMapper.MAX_DIMS_COUNT
+                        + "] but was ["
+                        + dims
+                        + "]"
+                );
+            }
+            return dims;
+        }, m -> toType(m).fieldType().dims, XContentBuilder::field, Object::toString).addValidator(v -> {
+            if (v == null) {
+                throw new IllegalArgumentException("Field [dims] is required for fields of type [" + CONTENT_TYPE + "]");
+            }
+        });
+        private final Parameter<DenseVectorFieldMapper.VectorSimilarity> similarity = Parameter.enumParam(
+            "similarity",
+            false,
+            m -> toType(m).fieldType().similarity,
+            DenseVectorFieldMapper.VectorSimilarity.COSINE,
+            DenseVectorFieldMapper.VectorSimilarity.class
+        );
+        private final Parameter<Map<String, String>> meta = Parameter.metaParam();
+
+        public Builder(String name) {
+            super(name);
+        }
+
+        @Override
+        protected Parameter<?>[] getParameters() {
+            return new Parameter<?>[] { dims, similarity, meta };
+        }
+
+        @Override
+        public MultiDenseVectorFieldMapper build(MapperBuilderContext context) {
+            return new MultiDenseVectorFieldMapper(
+                name(),
+                new MultiDenseVectorFieldType(context.buildFullName(name()), dims.getValue(), similarity.getValue(), meta.getValue()),
+                multiFieldsBuilder.build(this, context),
+                copyTo
+            );
+        }
+    }
+
+    public static final TypeParser PARSER = new TypeParser((n, c) -> new Builder(n), notInMultiFields(CONTENT_TYPE));
+
+    public static final class MultiDenseVectorFieldType extends SimpleMappedFieldType {
+        private final int dims;
+        private final DenseVectorFieldMapper.VectorSimilarity similarity;
+
+        public MultiDenseVectorFieldType(String name, int dims, DenseVectorFieldMapper.VectorSimilarity similarity, Map<String, String> meta) {
+            super(name, false, false, true, TextSearchInfo.NONE, meta);
+            this.dims = dims;
+            this.similarity = similarity;
+        }
+
+        @Override
+        public String typeName() {
+            return CONTENT_TYPE;
+        }
+
+        public int getVectorDimensions() {
+            return dims;
+        }
+
+        @Override
+        public ValueFetcher valueFetcher(SearchExecutionContext context, String format) {
+            if (format != null) {
+                throw new IllegalArgumentException("Field [" + name() + "] of type [" + typeName() + "] doesn't support formats.");
+            }
+            return new ArraySourceValueFetcher(name(), context) {
+                @Override
+                protected Object parseSourceValue(Object value) {
+                    return value;
+                }
+            };
+        }
+
+        @Override
+        public DocValueFormat docValueFormat(String format, ZoneId timeZone) {
+            throw new IllegalArgumentException(
+                "Field [" + name() + "] of type [" + typeName() + "] doesn't support docvalue_fields or aggregations"
+            );
+        }
+
+        @Override
+        public boolean isAggregatable() {
+            return false;
+        }
+
+        @Override
+        public IndexFieldData.Builder fielddataBuilder(FieldDataContext fieldDataContext) {
+            throw new IllegalArgumentException("[" + CONTENT_TYPE + "] fields do not support sorting, scripting or aggregating");
+        }
+
+        @Override
+        public Query existsQuery(SearchExecutionContext context) {
+            return new FieldExistsQuery(name());
+        }
+
+        @Override
+        public Query termQuery(Object value, SearchExecutionContext context) {
+            throw new IllegalArgumentException("Field [" + name() + "] of type [" + typeName() + "] doesn't support term queries");
+        }
+
+        /**
+         * Score documents by the sum, over the query vectors, of the similarity of the most similar vector of the document.
+         */
+        public Query createMaxSimQuery(float[][] queryVectors) {
+            if (queryVectors.length == 0) {
+                throw new IllegalArgumentException("the [max_sim] query requires at least one query vector");
+            }
+            for (float[] queryVector : queryVectors) {
+                if (queryVector.length != dims) {
+                    throw new IllegalArgumentException(
+                        "the query vector has a different dimension [" + queryVector.length + "] than the index vectors [" + dims + "]"
+                    );
+                }
+                DenseVectorFieldMapper.ElementType.FLOAT.checkVectorMagnitude(
+                    similarity,
+                    DenseVectorFieldMapper.ElementType.errorFloatElementsAppender(queryVector),
+                    VectorUtil.dotProduct(queryVector, queryVector)
+                );
+            }
+            return new MaxSimQuery(name(), queryVectors, similarityFunction(similarity));
+        }
+    }
+
+    /**
+     * Unlike {@code dense_vector} fields, vectors are stored as they are, so {@code cosine} doesn't
+     * turn into a dot product on normalized vectors.
+     */
+    static VectorSimilarityFunction similarityFunction(DenseVectorFieldMapper.VectorSimilarity similarity) {
+        return switch (similarity) {
+            case L2_NORM -> VectorSimilarityFunction.EUCLIDEAN;
+            case COSINE -> VectorSimilarityFunction.COSINE;
+            case DOT_PRODUCT -> VectorSimilarityFunction.DOT_PRODUCT;
+            case MAX_INNER_PRODUCT -> VectorSimilarityFunction.MAXIMUM_INNER_PRODUCT;
+        };
+    }
+
+    private MultiDenseVectorFieldMapper(String simpleName, MappedFieldType mappedFieldType, MultiFields multiFields, CopyTo copyTo) {
+        super(simpleName, mappedFieldType, multiFields, copyTo);
+    }
+
+    @Override
+    public MultiDenseVectorFieldType fieldType() {
+        return (MultiDenseVectorFieldType) super.fieldType();
+    }
+
+    @Override
+    public boolean parsesArrayValue() {
+        return true;
+    }
+
+    @Override
+    public void parse(DocumentParserContext context) throws IOException {
+        if (context.doc().getByKey(fieldType().name()) != null) {
+            throw new IllegalArgumentException(
+                "Field ["
+                    + name()
+                    + "] of type ["
+                    + typeName()
+                    + "] doesn't support indexing multiple values for the same field in the same document"
+            );
+        }
+        if (Token.VALUE_NULL == context.parser().currentToken()) {
+            return;
+        }
+        ensureExpectedToken(Token.START_ARRAY, context.parser().currentToken(), context.parser());
+        List<float[]> vectors = new ArrayList<>();
+        for (Token token = context.parser().nextToken(); token != Token.END_ARRAY; token = context.parser().nextToken()) {
+            ensureExpectedToken(Token.START_ARRAY, token, context.parser());
+            vectors.add(parseVector(context));
+        }
+        if (vectors.isEmpty()) {
+            throw new IllegalArgumentException(
+                "The [" + typeName() + "] field [" + name() + "] in doc [" + context.documentDescription() + "] has no vectors"
+            );
+        }
+        int numBytes = vectors.size() * fieldType().dims * Float.BYTES;
+        ByteBuffer byteBuffer = ByteBuffer.wrap(new byte[numBytes]).order(ByteOrder.LITTLE_ENDIAN);
+        for (float[] vector : vectors) {
+            for (float value : vector) {
+                byteBuffer.putFloat(value);
+            }
+        }
+        context.doc().addWithKey(fieldType().name(), new BinaryDocValuesField(fieldType().name(), new BytesRef(byteBuffer.array())));
+    }
+
+    private float[] parseVector(DocumentParserContext context) throws IOException {
+        int dims = fieldType().dims;
+        float[] vector = new float[dims];
+        int index = 0;
+        float squaredMagnitude = 0;
+        for (Token token = context.parser().nextToken(); token != Token.END_ARRAY; token = context.parser().nextToken()) {
+            if (index >= dims) {
+                throw dimensionsMismatch(index + 1, context);
+            }
+            ensureExpectedToken(Token.VALUE_NUMBER, token, context.parser());
+            float value = context.parser().floatValue(true);
+            if (Float.isFinite(value) == false) {
+                throw new IllegalArgumentException(
+                    "The [" + typeName() + "] field [" + name() + "] in doc [" + context.documentDescription() + "] has a non-finite value"
+                );
+            }
+            vector[index++] = value;
+            squaredMagnitude += value * value;
+        }
+        if (index != dims) {
+            throw dimensionsMismatch(index, context);
+        }
+        DenseVectorFieldMapper.ElementType.FLOAT.checkVectorMagnitude(
+            fieldType().similarity,
+            sb -> sb.append(" Field [").append(name()).append("] in doc [").append(context.documentDescription()).append("]"),
+            squaredMagnitude
+        );
+        return vector;
+    }
+
+    private IllegalArgumentException dimensionsMismatch(int dims, DocumentParserContext context) {
+        return new IllegalArgumentException(
+            "The ["
+                + typeName()
+                + "] field ["
+                + name()
+                + "] in doc ["
+                + context.documentDescription()
+                + "] has a vector with a different number of dimensions ["
+                + dims
+                + "] than defined in the mapping ["
+                + fieldType().dims
+                + "]"
+        );
+    }
+
+    @Override
+    protected void parseCreateField(DocumentParserContext context) {
+        throw new AssertionError("parse is implemented directly");
+    }
+
+    @Override
+    protected String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public FieldMapper.Builder getMergeBuilder() {
+        return new Builder(simpleName()).init(this);
+    }
+}
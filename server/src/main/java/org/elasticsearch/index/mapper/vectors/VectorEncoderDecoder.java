@@ -12,6 +12,8 @@ import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.VectorUtil;
 import org.elasticsearch.index.IndexVersion;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
@@ -22,6 +24,9 @@ import static org.elasticsearch.index.mapper.vectors.DenseVectorFieldMapper.MAGN
 public final class VectorEncoderDecoder {
     public static final byte INT_BYTES = 4;
 
+    private static final VarHandle VH_LE_FLOAT = MethodHandles.byteArrayViewVarHandle(float[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle VH_BE_FLOAT = MethodHandles.byteArrayViewVarHandle(float[].class, ByteOrder.BIG_ENDIAN);
+
     private VectorEncoderDecoder() {}
 
     public static int denseVectorLength(IndexVersion indexVersion, BytesRef vectorBR) {
@@ -37,10 +42,9 @@ public final class VectorEncoderDecoder {
      */
     public static float decodeMagnitude(IndexVersion indexVersion, BytesRef vectorBR) {
         assert indexVersion.onOrAfter(MAGNITUDE_STORED_INDEX_VERSION);
-        ByteBuffer byteBuffer = indexVersion.onOrAfter(LITTLE_ENDIAN_FLOAT_STORED_INDEX_VERSION)
-            ? ByteBuffer.wrap(vectorBR.bytes, vectorBR.offset, vectorBR.length).order(ByteOrder.LITTLE_ENDIAN)
-            : ByteBuffer.wrap(vectorBR.bytes, vectorBR.offset, vectorBR.length);
-        return byteBuffer.getFloat(vectorBR.offset + vectorBR.length - INT_BYTES);
+        // read in place rather than wrapping a buffer, this is called once per scored document
+        VarHandle handle = indexVersion.onOrAfter(LITTLE_ENDIAN_FLOAT_STORED_INDEX_VERSION) ? VH_LE_FLOAT : VH_BE_FLOAT;
+        return (float) handle.get(vectorBR.bytes, vectorBR.offset + vectorBR.length - INT_BYTES);
     }
 
     /**
@@ -70,17 +74,12 @@ public final class VectorEncoderDecoder {
         if (vectorBR == null) {
             throw new IllegalArgumentException(DenseVectorScriptDocValues.MISSING_VECTOR_FIELD_MESSAGE);
         }
-        if (indexVersion.onOrAfter(LITTLE_ENDIAN_FLOAT_STORED_INDEX_VERSION)) {
-            FloatBuffer fb = ByteBuffer.wrap(vectorBR.bytes, vectorBR.offset, vectorBR.length)
-                .order(ByteOrder.LITTLE_ENDIAN)
-                .asFloatBuffer();
-            fb.get(vector);
-        } else {
-            ByteBuffer byteBuffer = ByteBuffer.wrap(vectorBR.bytes, vectorBR.offset, vectorBR.length);
-            for (int dim = 0; dim < vector.length; dim++) {
-                vector[dim] = byteBuffer.getFloat((dim * Float.BYTES) + vectorBR.offset);
-            }
-        }
+        // bulk copies are intrinsified, much cheaper than reading the floats one at a time
+        ByteOrder order = indexVersion.onOrAfter(LITTLE_ENDIAN_FLOAT_STORED_INDEX_VERSION)
+            ? ByteOrder.LITTLE_ENDIAN
+            : ByteOrder.BIG_ENDIAN;
+        FloatBuffer fb = ByteBuffer.wrap(vectorBR.bytes, vectorBR.offset, vectorBR.length).order(order).asFloatBuffer();
+        fb.get(vector);
     }
 
 }
@@ -24,6 +24,7 @@ import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Setting.Property;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Releasable;
 import org.elasticsearch.core.TimeValue;
@@ -32,12 +33,15 @@ import org.elasticsearch.index.fielddata.IndexFieldData;
 import org.elasticsearch.index.fielddata.IndexFieldDataCache;
 import org.elasticsearch.index.fielddata.LeafFieldData;
 import org.elasticsearch.index.fielddata.ordinals.GlobalOrdinalsAccounting;
+import org.elasticsearch.index.fielddata.ordinals.GlobalOrdinalsIndexFieldData;
+import org.elasticsearch.index.fielddata.ordinals.ReusableOrdinalMap;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.index.shard.ShardUtils;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.function.ToLongBiFunction;
 
@@ -104,6 +108,9 @@ public final class IndicesFieldDataCache implements RemovalListener<IndicesField
                 logger.error("Failed to call listener on field data cache unloading", e);
             }
         }
+        if (value instanceof GlobalOrdinalsIndexFieldData globalOrdinals) {
+            globalOrdinals.releaseRemovedFromCache();
+        }
     }
 
     public static class FieldDataWeigher implements ToLongBiFunction<Key, Accountable> {
@@ -122,6 +129,13 @@ public final class IndicesFieldDataCache implements RemovalListener<IndicesField
         final String fieldName;
         private final Cache<Key, Accountable> cache;
         private final Listener[] listeners;
+        /**
+         * The ordinal map of the global field data that was last loaded for each shard, so that it can be reused when loading
+         * global field data for the next reader of the same shard. It is kept after its reader is closed since the previous
+         * reader is usually closed by the time global field data gets loaded for the refreshed reader, and removed as soon as
+         * one of its segments is closed since it can't be reused anymore then.
+         */
+        private final Map<ShardId, ReusableOrdinalMap> reusableOrdinalMaps = ConcurrentCollections.newConcurrentMap();
 
         IndexFieldCache(final Cache<Key, Accountable> cache, Index index, String fieldName, Listener... listeners) {
             this.listeners = listeners;
@@ -172,7 +186,13 @@ public final class IndicesFieldDataCache implements RemovalListener<IndicesField
             final Accountable accountable = cache.computeIfAbsent(key, k -> {
                 ElasticsearchDirectoryReader.addReaderCloseListener(indexReader, IndexFieldCache.this);
                 Collections.addAll(k.listeners, this.listeners);
-                final IndexFieldData<?> ifd = indexFieldData.loadGlobalDirect(indexReader);
+                final IndexFieldData<?> ifd = indexFieldData.loadGlobalDirect(
+                    indexReader,
+                    shardId == null ? null : reusableOrdinalMaps.get(shardId)
+                );
+                if (shardId != null) {
+                    retainOrdinalMap(shardId, indexReader, indexFieldData.reusableOrdinalMap(ifd));
+                }
                 for (Listener listener : k.listeners) {
                     try {
                         listener.onCache(shardId, fieldName, (Accountable) ifd);
@@ -189,14 +209,44 @@ public final class IndicesFieldDataCache implements RemovalListener<IndicesField
             return (IFD) accountable;
         }
 
+        private void retainOrdinalMap(ShardId shardId, DirectoryReader indexReader, @Nullable ReusableOrdinalMap ordinalMap) {
+            if (ordinalMap == null) {
+                release(reusableOrdinalMaps.remove(shardId));
+                return;
+            }
+            // the reader is still open so none of its segments can have been closed yet
+            for (LeafReaderContext leaf : indexReader.leaves()) {
+                leaf.reader().getCoreCacheHelper().addClosedListener(IndexFieldCache.this);
+            }
+            release(reusableOrdinalMaps.put(shardId, ordinalMap));
+        }
+
+        private void releaseOrdinalMaps() {
+            for (ShardId shardId : reusableOrdinalMaps.keySet()) {
+                release(reusableOrdinalMaps.remove(shardId));
+            }
+        }
+
+        private static void release(@Nullable ReusableOrdinalMap ordinalMap) {
+            if (ordinalMap != null) {
+                ordinalMap.decRef();
+            }
+        }
+
         @Override
         public void onClose(CacheKey key) {
             cache.invalidate(new Key(this, key, null));
             // don't call cache.cleanUp here as it would have bad performance implications
+            for (Map.Entry<ShardId, ReusableOrdinalMap> entry : reusableOrdinalMaps.entrySet()) {
+                if (entry.getValue().hasSegment(key) && reusableOrdinalMaps.remove(entry.getKey(), entry.getValue())) {
+                    entry.getValue().decRef();
+                }
+            }
         }
 
         @Override
         public void clear() {
+            releaseOrdinalMaps();
             for (Key key : cache.keys()) {
                 if (key.indexCache.index.equals(index)) {
                     cache.invalidate(key);
@@ -208,6 +258,9 @@ public final class IndicesFieldDataCache implements RemovalListener<IndicesField
 
         @Override
         public void clear(String fieldName) {
+            if (this.fieldName.equals(fieldName)) {
+                releaseOrdinalMaps();
+            }
             for (Key key : cache.keys()) {
                 if (key.indexCache.index.equals(index)) {
                     if (key.indexCache.fieldName.equals(fieldName)) {
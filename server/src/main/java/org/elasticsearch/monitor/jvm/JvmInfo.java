@@ -90,6 +90,7 @@ public class JvmInfo implements ReportingService.Info {
         String useSerialGC = "unknown";
         long configuredInitialHeapSize = -1;
         long configuredMaxHeapSize = -1;
+        long configuredMaxDirectMemorySize = -1;
         try {
             @SuppressWarnings("unchecked")
             Class<? extends PlatformManagedObject> clazz = (Class<? extends PlatformManagedObject>) Class.forName(
@@ -132,6 +133,11 @@ public class JvmInfo implements ReportingService.Info {
                 configuredMaxHeapSize = Long.parseLong((String) valueMethod.invoke(maxHeapSizeVmOptionObject));
             } catch (Exception ignored) {}
 
+            try {
+                Object maxDirectMemorySizeVmOptionObject = vmOptionMethod.invoke(hotSpotDiagnosticMXBean, "MaxDirectMemorySize");
+                configuredMaxDirectMemorySize = Long.parseLong((String) valueMethod.invoke(maxDirectMemorySizeVmOptionObject));
+            } catch (Exception ignored) {}
+
             try {
                 Object useSerialGCVmOptionObject = vmOptionMethod.invoke(hotSpotDiagnosticMXBean, "UseSerialGC");
                 useSerialGC = (String) valueMethod.invoke(useSerialGCVmOptionObject);
@@ -151,6 +157,7 @@ public class JvmInfo implements ReportingService.Info {
             runtimeMXBean.getStartTime(),
             configuredInitialHeapSize,
             configuredMaxHeapSize,
+            configuredMaxDirectMemorySize,
             mem,
             inputArguments,
             bootClassPath,
@@ -200,6 +207,7 @@ public class JvmInfo implements ReportingService.Info {
     private final long startTime;
     private final long configuredInitialHeapSize;
     private final long configuredMaxHeapSize;
+    private final long configuredMaxDirectMemorySize;
     private final Mem mem;
     private final String[] inputArguments;
     private final String bootClassPath;
@@ -224,6 +232,7 @@ public class JvmInfo implements ReportingService.Info {
         long startTime,
         long configuredInitialHeapSize,
         long configuredMaxHeapSize,
+        long configuredMaxDirectMemorySize,
         Mem mem,
         String[] inputArguments,
         String bootClassPath,
@@ -247,6 +256,7 @@ public class JvmInfo implements ReportingService.Info {
         this.startTime = startTime;
         this.configuredInitialHeapSize = configuredInitialHeapSize;
         this.configuredMaxHeapSize = configuredMaxHeapSize;
+        this.configuredMaxDirectMemorySize = configuredMaxDirectMemorySize;
         this.mem = mem;
         this.inputArguments = inputArguments;
         this.bootClassPath = bootClassPath;
@@ -288,6 +298,7 @@ public class JvmInfo implements ReportingService.Info {
         // the following members are only used locally for bootstrap checks, never serialized nor printed out
         this.configuredMaxHeapSize = -1;
         this.configuredInitialHeapSize = -1;
+        this.configuredMaxDirectMemorySize = -1;
         this.onError = null;
         this.onOutOfMemoryError = null;
         this.useG1GC = "unknown";
@@ -378,6 +389,14 @@ public class JvmInfo implements ReportingService.Info {
         return configuredMaxHeapSize;
     }
 
+    /**
+     * The value of {@code -XX:MaxDirectMemorySize}, {@code 0} if it isn't set and the limit defaults to the max heap size,
+     * or {@code -1} if it can't be determined.
+     */
+    public long getConfiguredMaxDirectMemorySize() {
+        return configuredMaxDirectMemorySize;
+    }
+
     public String onError() {
         return onError;
     }
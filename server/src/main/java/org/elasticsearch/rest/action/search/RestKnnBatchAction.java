@@ -0,0 +1,60 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.rest.action.search;
+
+import org.elasticsearch.action.knn.KnnBatchAction;
+import org.elasticsearch.action.knn.KnnBatchRequest;
+import org.elasticsearch.action.support.IndicesOptions;
+import org.elasticsearch.client.internal.node.NodeClient;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.rest.BaseRestHandler;
+import org.elasticsearch.rest.RestRequest;
+import org.elasticsearch.rest.Scope;
+import org.elasticsearch.rest.ServerlessScope;
+import org.elasticsearch.rest.action.RestCancellableNodeClient;
+import org.elasticsearch.rest.action.RestToXContentListener;
+import org.elasticsearch.xcontent.XContentParser;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.elasticsearch.rest.RestRequest.Method.GET;
+import static org.elasticsearch.rest.RestRequest.Method.POST;
+
+/**
+ * The REST action for searching the nearest neighbors of many query vectors in a single request.
+ */
+@ServerlessScope(Scope.PUBLIC)
+public class RestKnnBatchAction extends BaseRestHandler {
+
+    @Override
+    public List<Route> routes() {
+        return List.of(new Route(GET, "/{index}/_knn_batch"), new Route(POST, "/{index}/_knn_batch"));
+    }
+
+    @Override
+    public String getName() {
+        return "knn_batch_action";
+    }
+
+    @Override
+    protected RestChannelConsumer prepareRequest(RestRequest request, NodeClient client) throws IOException {
+        final String[] indices = Strings.splitStringByCommaToArray(request.param("index"));
+        final KnnBatchRequest knnBatchRequest = new KnnBatchRequest(indices);
+        knnBatchRequest.indicesOptions(IndicesOptions.fromRequest(request, KnnBatchRequest.DEFAULT_INDICES_OPTIONS));
+        try (XContentParser parser = request.contentParser()) {
+            knnBatchRequest.parseBody(parser);
+        }
+        return channel -> {
+            // This will allow to cancel the request if the http channel is closed
+            final RestCancellableNodeClient cancelClient = new RestCancellableNodeClient(client, request.getHttpChannel());
+            cancelClient.execute(KnnBatchAction.INSTANCE, knnBatchRequest, new RestToXContentListener<>(channel));
+        };
+    }
+}
@@ -12,13 +12,17 @@ import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.VectorUtil;
 import org.elasticsearch.core.SuppressForbidden;
 
-import java.nio.ByteBuffer;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
 import java.util.List;
 
 public class ByteBinaryDenseVector implements DenseVector {
 
     public static final int MAGNITUDE_BYTES = 4;
 
+    private static final VarHandle VH_BE_FLOAT = MethodHandles.byteArrayViewVarHandle(float[].class, ByteOrder.BIG_ENDIAN);
+
     private final BytesRef docVector;
     private final byte[] vectorValue;
     private final int dims;
@@ -47,7 +51,7 @@ public class ByteBinaryDenseVector implements DenseVector {
     @Override
     public float getMagnitude() {
         if (magnitudeDecoded == false) {
-            magnitude = ByteBuffer.wrap(docVector.bytes, docVector.offset + dims, MAGNITUDE_BYTES).getFloat();
+            magnitude = (float) VH_BE_FLOAT.get(docVector.bytes, docVector.offset + dims);
             magnitudeDecoded = true;
         }
         return magnitude;
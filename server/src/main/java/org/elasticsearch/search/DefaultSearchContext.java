@@ -20,6 +20,7 @@ import org.apache.lucene.search.TotalHits;
 import org.elasticsearch.action.search.SearchShardTask;
 import org.elasticsearch.action.search.SearchType;
 import org.elasticsearch.cluster.routing.IndexRouting;
+import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.elasticsearch.common.lucene.search.Queries;
 import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Releasable;
@@ -866,6 +867,11 @@ final class DefaultSearchContext extends SearchContext {
         return profilers;
     }
 
+    @Override
+    public CircuitBreaker circuitBreaker() {
+        return indexService.getCircuitBreakerService().getBreaker(CircuitBreaker.REQUEST);
+    }
+
     public void setProfilers(Profilers profilers) {
         this.profilers = profilers;
     }
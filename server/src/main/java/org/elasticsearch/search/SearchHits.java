@@ -32,6 +32,7 @@ import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 import static org.elasticsearch.common.xcontent.XContentParserUtils.ensureExpectedToken;
 
@@ -159,6 +160,13 @@ public final class SearchHits implements Writeable, ChunkedToXContent, RefCounte
 
     @Override
     public void writeTo(StreamOutput out) throws IOException {
+        writeTo(out, hit -> {});
+    }
+
+    /**
+     * Serialize these hits, calling {@code onHitWritten} with each hit once it has been written.
+     */
+    public void writeTo(StreamOutput out, Consumer<SearchHit> onHitWritten) throws IOException {
         assert hasReferences();
         final boolean hasTotalHits = totalHits != null;
         out.writeBoolean(hasTotalHits);
@@ -166,7 +174,10 @@ public final class SearchHits implements Writeable, ChunkedToXContent, RefCounte
             Lucene.writeTotalHits(out, totalHits);
         }
         out.writeFloat(maxScore);
-        out.writeArray(hits);
+        out.writeArray((o, hit) -> {
+            hit.writeTo(o);
+            onHitWritten.accept(hit);
+        }, hits);
         out.writeOptionalArray(Lucene::writeSortField, sortFields);
         out.writeOptionalString(collapseField);
         out.writeOptionalArray(Lucene::writeSortValue, collapseValues);
@@ -83,11 +83,13 @@ import org.elasticsearch.search.aggregations.MultiBucketConsumerService;
 import org.elasticsearch.search.aggregations.SearchContextAggregations;
 import org.elasticsearch.search.aggregations.support.AggregationContext;
 import org.elasticsearch.search.aggregations.support.AggregationContext.ProductionAggregationContext;
+import org.elasticsearch.search.aggregations.support.SegmentRollupCache;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.elasticsearch.search.builder.SubSearchSourceBuilder;
 import org.elasticsearch.search.collapse.CollapseContext;
 import org.elasticsearch.search.dfs.DfsPhase;
 import org.elasticsearch.search.dfs.DfsSearchResult;
+import org.elasticsearch.search.dfs.DfsStatisticsCache;
 import org.elasticsearch.search.fetch.FetchPhase;
 import org.elasticsearch.search.fetch.FetchSearchResult;
 import org.elasticsearch.search.fetch.QueryFetchSearchResult;
@@ -272,7 +274,9 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
 
     private final BigArrays bigArrays;
 
-    private final DfsPhase dfsPhase = new DfsPhase();
+    private final DfsStatisticsCache dfsStatisticsCache;
+
+    private final DfsPhase dfsPhase;
 
     private final FetchPhase fetchPhase;
     private volatile boolean enableSearchWorkerThreads;
@@ -302,6 +306,8 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
 
     private final MultiBucketConsumerService multiBucketConsumerService;
 
+    private final SegmentRollupCache segmentRollupCache;
+
     private final AtomicInteger openScrollContexts = new AtomicInteger();
     private final String sessionId = UUIDs.randomBase64UUID();
 
@@ -334,6 +340,9 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
         );
         this.executorSelector = executorSelector;
         this.tracer = tracer;
+        this.segmentRollupCache = new SegmentRollupCache(settings);
+        this.dfsStatisticsCache = new DfsStatisticsCache(settings);
+        this.dfsPhase = new DfsPhase(dfsStatisticsCache);
 
         TimeValue keepAliveInterval = KEEPALIVE_INTERVAL_SETTING.get(settings);
         setKeepAlives(DEFAULT_KEEPALIVE_SETTING.get(settings), MAX_KEEPALIVE_SETTING.get(settings));
@@ -484,6 +493,8 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
     protected void doClose() {
         doStop();
         keepAliveReaper.cancel();
+        segmentRollupCache.close();
+        dfsStatisticsCache.close();
     }
 
     public void executeDfsPhase(ShardSearchRequest request, SearchShardTask task, ActionListener<SearchPhaseResult> listener) {
@@ -1310,7 +1321,14 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
                 context::isCancelled,
                 context::buildFilteredQuery,
                 enableRewriteAggsToFilterByFilter,
-                source.aggregations().isInSortOrderExecutionRequired()
+                source.aggregations().isInSortOrderExecutionRequired(),
+                /*
+                 * Rollups count every document of the segments that the query matches,
+                 * including the ones that min_score or terminate_after would not collect.
+                 */
+                context.minimumScore() == null && context.terminateAfter() == SearchContext.DEFAULT_TERMINATE_AFTER
+                    ? segmentRollupCache
+                    : null
             );
             context.addQuerySearchResultReleasable(aggContext);
             try {
@@ -90,6 +90,7 @@ public final class CompositeAggregator extends BucketsAggregator implements Size
     private BucketCollector deferredCollectors;
 
     private boolean earlyTerminated;
+    private int segmentsSkipped;
 
     CompositeAggregator(
         String name,
@@ -475,6 +476,12 @@ public final class CompositeAggregator extends BucketsAggregator implements Size
             earlyTerminated = true;
             return LeafBucketCollector.NO_OP_COLLECTOR;
         } else {
+            if (sourceConfigs[0].hasScript() == false && queue.isSegmentNonCompetitive(aggCtx.getLeafReaderContext())) {
+                // The values of the leading source in this segment were all returned on previous pages
+                // or sort after the least competitive bucket collected so far, so we can skip the segment.
+                segmentsSkipped++;
+                return LeafBucketCollector.NO_OP_COLLECTOR;
+            }
             if (fillDocIdSet) {
                 currentAggCtx = aggCtx;
                 docIdSetBuilder = new RoaringDocIdSet.Builder(aggCtx.getLeafReaderContext().reader().maxDoc());
@@ -624,6 +631,7 @@ public final class CompositeAggregator extends BucketsAggregator implements Size
     @Override
     public void collectDebugInfo(BiConsumer<String, Object> add) {
         super.collectDebugInfo(add);
+        add.accept("segments_skipped", segmentsSkipped);
         if (sources[0] instanceof GlobalOrdinalValuesSource globalOrdinalValuesSource) {
             globalOrdinalValuesSource.collectDebugInfo(Strings.format("sources.%s", sourceConfigs[0].name()), add);
         }
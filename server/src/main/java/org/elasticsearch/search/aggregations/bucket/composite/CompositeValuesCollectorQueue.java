@@ -203,6 +203,14 @@ final class CompositeValuesCollectorQueue extends ObjectArrayPriorityQueue<Integ
         return size() >= maxSize ? arrays[0].toComparable(top()) : null;
     }
 
+    /**
+     * Returns true if no document in the segment can produce a competitive key
+     * based on the range of values of the leading source in the segment.
+     */
+    boolean isSegmentNonCompetitive(LeafReaderContext context) throws IOException {
+        return arrays[0].isSegmentNonCompetitive(context, getUpperValueLeadSource());
+    }
+
     /**
      * Returns the document count in <code>slot</code>.
      */
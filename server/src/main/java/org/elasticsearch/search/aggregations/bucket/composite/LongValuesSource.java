@@ -12,6 +12,7 @@ import org.apache.lucene.document.IntPoint;
 import org.apache.lucene.document.LongPoint;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.PointValues;
 import org.apache.lucene.index.SortedNumericDocValues;
 import org.apache.lucene.search.BoostQuery;
 import org.apache.lucene.search.ConstantScoreQuery;
@@ -251,33 +252,60 @@ class LongValuesSource extends SingleDimensionValuesSource<Long> {
             upperPoint = null;
         }
 
-        if (fieldType instanceof NumberFieldMapper.NumberFieldType ft) {
-            final ToLongFunction<byte[]> toBucketFunction;
-
-            switch (ft.typeName()) {
-                case "long":
-                    toBucketFunction = (value) -> rounding.applyAsLong(LongPoint.decodeDimension(value, 0));
-                    break;
-
-                case "int":
-                case "short":
-                case "byte":
-                    toBucketFunction = (value) -> rounding.applyAsLong(IntPoint.decodeDimension(value, 0));
-                    break;
+        ToLongFunction<byte[]> toBucketFunction = pointToBucketFunction();
+        if (toBucketFunction == null) {
+            return null;
+        }
+        return new PointsSortedDocsProducer(fieldType.name(), toBucketFunction, lowerPoint, upperPoint);
+    }
 
-                default:
-                    return null;
-            }
-            return new PointsSortedDocsProducer(fieldType.name(), toBucketFunction, lowerPoint, upperPoint);
+    /**
+     * Build a function that converts an encoded point of the field into the
+     * bucket it belongs to or {@code null} if the field isn't indexed with
+     * points that we know how to decode.
+     */
+    private ToLongFunction<byte[]> pointToBucketFunction() {
+        if (fieldType instanceof NumberFieldMapper.NumberFieldType ft) {
+            return switch (ft.typeName()) {
+                case "long" -> value -> rounding.applyAsLong(LongPoint.decodeDimension(value, 0));
+                case "int", "short", "byte" -> value -> rounding.applyAsLong(IntPoint.decodeDimension(value, 0));
+                default -> null;
+            };
         } else if (fieldType instanceof DateFieldMapper.DateFieldType) {
             ToLongFunction<byte[]> decode = ((DateFieldMapper.DateFieldType) fieldType).resolution()::parsePointAsMillis;
-            ToLongFunction<byte[]> toBucketFunction = value -> rounding.applyAsLong(decode.applyAsLong(value));
-            return new PointsSortedDocsProducer(fieldType.name(), toBucketFunction, lowerPoint, upperPoint);
+            return value -> rounding.applyAsLong(decode.applyAsLong(value));
         } else {
             return null;
         }
     }
 
+    @Override
+    boolean isSegmentNonCompetitive(LeafReaderContext context, Comparable<?> upperValue) throws IOException {
+        if (missingBucket || fieldType == null || fieldType.isIndexed() == false) {
+            return false;
+        }
+        if (fieldType instanceof DateFieldMapper.DateFieldType dft && dft.resolution() != DateFieldMapper.Resolution.MILLISECONDS) {
+            // points are decoded as milliseconds which may not be the unit of the values
+            return false;
+        }
+        ToLongFunction<byte[]> toBucketFunction = pointToBucketFunction();
+        if (toBucketFunction == null) {
+            return false;
+        }
+        PointValues points = context.reader().getPointValues(fieldType.name());
+        if (points == null) {
+            return false;
+        }
+        long first = toBucketFunction.applyAsLong(reverseMul == 1 ? points.getMinPackedValue() : points.getMaxPackedValue());
+        long last = toBucketFunction.applyAsLong(reverseMul == 1 ? points.getMaxPackedValue() : points.getMinPackedValue());
+        if (afterValue != null && compareValues(last, afterValue) < 0) {
+            // every value in the segment was returned on a previous page
+            return true;
+        }
+        // every value in the segment sorts after the least competitive bucket in the queue
+        return upperValue != null && compareValues(first, (Long) upperValue) > 0;
+    }
+
     @Override
     public void close() {
         Releasables.close(values, bits);
@@ -139,6 +139,16 @@ abstract class SingleDimensionValuesSource<T extends Comparable<T>> implements R
      */
     abstract SortedDocsProducer createSortedDocsProducerOrNull(IndexReader reader, Query query);
 
+    /**
+     * Returns true if none of the values of this source in the segment can be competitive
+     * because they all sort before the after value or after the provided <code>upperValue</code>,
+     * the leading value of the least competitive bucket when the queue is full. This is only
+     * called on the leading source so it can skip whole segments when paginating.
+     */
+    boolean isSegmentNonCompetitive(LeafReaderContext context, @Nullable Comparable<?> upperValue) throws IOException {
+        return false;
+    }
+
     /**
      * Returns true if a {@link SortedDocsProducer} should be used to optimize the execution.
      */
@@ -15,7 +15,6 @@ import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.script.Script;
 import org.elasticsearch.search.DocValueFormat;
-import org.elasticsearch.search.aggregations.bucket.terms.TermsAggregationBuilder;
 import org.elasticsearch.search.aggregations.support.CoreValuesSourceType;
 import org.elasticsearch.search.aggregations.support.ValuesSource;
 import org.elasticsearch.search.aggregations.support.ValuesSourceConfig;
@@ -220,10 +219,8 @@ public class TermsValuesSourceBuilder extends CompositeValuesSourceBuilder<Terms
 
     @Override
     public boolean supportsParallelCollection(ToLongFunction<String> fieldCardinalityResolver) {
-        if (script() == null) {
-            long cardinality = fieldCardinalityResolver.applyAsLong(field());
-            return cardinality != -1 && cardinality <= TermsAggregationBuilder.KEY_ORDER_CONCURRENCY_THRESHOLD;
-        }
-        return false;
+        // Each slice only keeps the first `size` composite buckets in key order, which are then merged exactly, so unlike
+        // the terms aggregation the cost of parallel collection doesn't grow with the cardinality of the field.
+        return script() == null && fieldCardinalityResolver.applyAsLong(field()) != -1;
     }
 }
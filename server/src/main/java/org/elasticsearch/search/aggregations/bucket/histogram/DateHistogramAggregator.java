@@ -36,6 +36,7 @@ import org.elasticsearch.search.aggregations.bucket.range.RangeAggregator;
 import org.elasticsearch.search.aggregations.bucket.range.RangeAggregatorSupplier;
 import org.elasticsearch.search.aggregations.bucket.terms.LongKeyedBucketOrds;
 import org.elasticsearch.search.aggregations.support.AggregationContext;
+import org.elasticsearch.search.aggregations.support.SegmentRollupCache;
 import org.elasticsearch.search.aggregations.support.ValuesSource;
 import org.elasticsearch.search.aggregations.support.ValuesSourceConfig;
 
@@ -237,6 +238,12 @@ class DateHistogramAggregator extends BucketsAggregator implements SizedBucketAg
     private final LongBounds hardBounds;
 
     private final LongKeyedBucketOrds bucketOrds;
+    /**
+     * Finds cached per-segment rollups of the rounded values, {@code null} if
+     * we can't use them.
+     */
+    @Nullable
+    private final SegmentRollupCache.Lookup rollupLookup;
 
     DateHistogramAggregator(
         String name,
@@ -270,6 +277,10 @@ class DateHistogramAggregator extends BucketsAggregator implements SizedBucketAg
         this.formatter = valuesSourceConfig.format();
 
         bucketOrds = LongKeyedBucketOrds.build(bigArrays(), cardinality);
+        SegmentRollupCache rollupCache = context.segmentRollupCache();
+        this.rollupLookup = rollupCache != null && parent == null && subAggregators.length == 0
+            ? rollupCache.lookup(context, valuesSource, "date_histogram " + rounding)
+            : null;
     }
 
     @Override
@@ -285,6 +296,17 @@ class DateHistogramAggregator extends BucketsAggregator implements SizedBucketAg
         if (valuesSource == null) {
             return LeafBucketCollector.NO_OP_COLLECTOR;
         }
+        if (rollupLookup != null && sub.isNoop() && docCountProvider.alwaysOne()) {
+            SegmentRollupCache.Rollup rollup = rollupLookup.rollup(
+                aggCtx.getLeafReaderContext(),
+                valuesSource::longValues,
+                preparedRounding::round
+            );
+            if (rollup != null) {
+                collectRollup(rollup);
+                return LeafBucketCollector.NO_OP_COLLECTOR;
+            }
+        }
         SortedNumericDocValues values = valuesSource.longValues(aggCtx.getLeafReaderContext());
         return new LeafBucketCollectorBase(sub, values) {
             @Override
@@ -316,6 +338,25 @@ class DateHistogramAggregator extends BucketsAggregator implements SizedBucketAg
         };
     }
 
+    /**
+     * Add the doc counts from a segment's rollup instead of collecting its
+     * documents. This is safe because we only use rollups when there isn't
+     * a {@code parent}, so all buckets belong to the owning bucket {@code 0},
+     * and when the top level query matches every document in the segment.
+     */
+    private void collectRollup(SegmentRollupCache.Rollup rollup) {
+        for (int i = 0; i < rollup.size(); i++) {
+            long rounded = rollup.key(i);
+            if (hardBounds == null || hardBounds.contain(rounded)) {
+                long bucketOrd = bucketOrds.add(0, rounded);
+                if (bucketOrd < 0) { // already seen
+                    bucketOrd = -1 - bucketOrd;
+                }
+                incrementBucketDocCount(bucketOrd, rollup.docCount(i));
+            }
+        }
+    }
+
     @Override
     public InternalAggregation[] buildAggregations(long[] owningBucketOrds) throws IOException {
         return buildAggregationsForVariableBuckets(owningBucketOrds, bucketOrds, (bucketValue, docCount, subAggregationResults) -> {
@@ -11,6 +11,7 @@ package org.elasticsearch.search.aggregations.bucket.sampler.random;
 import org.elasticsearch.TransportVersions;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Releasables;
 import org.elasticsearch.search.aggregations.AggregationReduceContext;
 import org.elasticsearch.search.aggregations.AggregatorReducer;
@@ -20,6 +21,7 @@ import org.elasticsearch.search.aggregations.InternalAggregations;
 import org.elasticsearch.search.aggregations.bucket.InternalSingleBucketAggregation;
 import org.elasticsearch.search.aggregations.bucket.sampler.Sampler;
 import org.elasticsearch.search.aggregations.support.SamplingContext;
+import org.elasticsearch.xcontent.ParseField;
 import org.elasticsearch.xcontent.XContentBuilder;
 
 import java.io.IOException;
@@ -29,9 +31,32 @@ public class InternalRandomSampler extends InternalSingleBucketAggregation imple
     public static final String NAME = "mapped_random_sampler";
     public static final String PARSER_NAME = "random_sampler";
 
+    static final ParseField ESTIMATED_DOC_COUNT = new ParseField("estimated_doc_count");
+    static final ParseField ESTIMATED_DOC_COUNT_STD_ERROR = new ParseField("estimated_doc_count_std_error");
+
     private final int seed;
     private final Integer shardSeed;
     private final double probability;
+    /**
+     * Set when shards pick their probability to sample this number of documents, in which case the sub-aggregations are already
+     * scaled and the probability is the effective probability across the shards.
+     */
+    @Nullable
+    private final Integer shardSampleSize;
+    private final double estimatedDocCount;
+    private final double estimatedDocCountVariance;
+
+    InternalRandomSampler(
+        String name,
+        long docCount,
+        int seed,
+        Integer shardSeed,
+        double probability,
+        InternalAggregations subAggregations,
+        Map<String, Object> metadata
+    ) {
+        this(name, docCount, seed, shardSeed, probability, null, 0, 0, subAggregations, metadata);
+    }
 
     InternalRandomSampler(
         String name,
@@ -39,6 +64,9 @@ public class InternalRandomSampler extends InternalSingleBucketAggregation imple
         int seed,
         Integer shardSeed,
         double probability,
+        @Nullable Integer shardSampleSize,
+        double estimatedDocCount,
+        double estimatedDocCountVariance,
         InternalAggregations subAggregations,
         Map<String, Object> metadata
     ) {
@@ -46,6 +74,9 @@ public class InternalRandomSampler extends InternalSingleBucketAggregation imple
         this.seed = seed;
         this.shardSeed = shardSeed;
         this.probability = probability;
+        this.shardSampleSize = shardSampleSize;
+        this.estimatedDocCount = estimatedDocCount;
+        this.estimatedDocCountVariance = estimatedDocCountVariance;
     }
 
     /**
@@ -60,6 +91,18 @@ public class InternalRandomSampler extends InternalSingleBucketAggregation imple
         } else {
             this.shardSeed = null;
         }
+        if (in.getTransportVersion().onOrAfter(TransportVersions.RANDOM_SAMPLER_SHARD_SAMPLE_SIZE)) {
+            this.shardSampleSize = in.readOptionalVInt();
+        } else {
+            this.shardSampleSize = null;
+        }
+        if (shardSampleSize != null) {
+            this.estimatedDocCount = in.readDouble();
+            this.estimatedDocCountVariance = in.readDouble();
+        } else {
+            this.estimatedDocCount = 0;
+            this.estimatedDocCountVariance = 0;
+        }
     }
 
     @Override
@@ -70,6 +113,13 @@ public class InternalRandomSampler extends InternalSingleBucketAggregation imple
         if (out.getTransportVersion().onOrAfter(TransportVersions.RANDOM_AGG_SHARD_SEED)) {
             out.writeOptionalInt(shardSeed);
         }
+        if (out.getTransportVersion().onOrAfter(TransportVersions.RANDOM_SAMPLER_SHARD_SAMPLE_SIZE)) {
+            out.writeOptionalVInt(shardSampleSize);
+            if (shardSampleSize != null) {
+                out.writeDouble(estimatedDocCount);
+                out.writeDouble(estimatedDocCountVariance);
+            }
+        }
     }
 
     @Override
@@ -84,24 +134,54 @@ public class InternalRandomSampler extends InternalSingleBucketAggregation imple
 
     @Override
     protected InternalSingleBucketAggregation newAggregation(String name, long docCount, InternalAggregations subAggregations) {
-        return new InternalRandomSampler(name, docCount, seed, shardSeed, probability, subAggregations, metadata);
+        return new InternalRandomSampler(
+            name,
+            docCount,
+            seed,
+            shardSeed,
+            probability,
+            shardSampleSize,
+            estimatedDocCount,
+            estimatedDocCountVariance,
+            subAggregations,
+            metadata
+        );
     }
 
     @Override
     protected AggregatorReducer getLeaderReducer(AggregationReduceContext reduceContext, int size) {
         return new AggregatorReducer() {
             long docCount = 0L;
+            double estimatedDocCount = 0;
+            double estimatedDocCountVariance = 0;
             final AggregatorsReducer subAggregatorReducer = new AggregatorsReducer(reduceContext, size);
 
             @Override
             public void accept(InternalAggregation aggregation) {
                 docCount += ((InternalSingleBucketAggregation) aggregation).getDocCount();
+                estimatedDocCount += ((InternalRandomSampler) aggregation).estimatedDocCount;
+                estimatedDocCountVariance += ((InternalRandomSampler) aggregation).estimatedDocCountVariance;
                 subAggregatorReducer.accept(((InternalSingleBucketAggregation) aggregation).getAggregations());
             }
 
             @Override
             public InternalAggregation get() {
                 InternalAggregations aggs = subAggregatorReducer.get();
+                if (shardSampleSize != null) {
+                    // sub-aggregations were scaled by each shard
+                    return new InternalRandomSampler(
+                        getName(),
+                        docCount,
+                        seed,
+                        shardSeed,
+                        estimatedDocCount == 0 ? 1.0 : docCount / estimatedDocCount,
+                        shardSampleSize,
+                        estimatedDocCount,
+                        estimatedDocCountVariance,
+                        aggs,
+                        metadata
+                    );
+                }
                 if (reduceContext.isFinalReduce() && aggs != null) {
                     SamplingContext context = buildContext();
                     aggs = InternalAggregations.from(aggs.asList().stream().map(agg -> agg.finalizeSampling(context)).toList());
@@ -116,6 +196,18 @@ public class InternalRandomSampler extends InternalSingleBucketAggregation imple
         };
     }
 
+    double getProbability() {
+        return probability;
+    }
+
+    double getEstimatedDocCount() {
+        return estimatedDocCount;
+    }
+
+    double getEstimatedDocCountStdError() {
+        return Math.sqrt(estimatedDocCountVariance);
+    }
+
     public SamplingContext buildContext() {
         return new SamplingContext(probability, seed, shardSeed);
     }
@@ -128,6 +220,11 @@ public class InternalRandomSampler extends InternalSingleBucketAggregation imple
         }
         builder.field(RandomSamplerAggregationBuilder.PROBABILITY.getPreferredName(), probability);
         builder.field(CommonFields.DOC_COUNT.getPreferredName(), getDocCount());
+        if (shardSampleSize != null) {
+            builder.field(RandomSamplerAggregationBuilder.SHARD_SAMPLE_SIZE.getPreferredName(), shardSampleSize);
+            builder.field(ESTIMATED_DOC_COUNT.getPreferredName(), Math.round(estimatedDocCount));
+            builder.field(ESTIMATED_DOC_COUNT_STD_ERROR.getPreferredName(), getEstimatedDocCountStdError());
+        }
         getAggregations().toXContentInternal(builder, params);
         return builder;
     }
@@ -35,6 +35,7 @@ public class RandomSamplerAggregationBuilder extends AbstractAggregationBuilder<
     static final ParseField PROBABILITY = new ParseField("probability");
     static final ParseField SEED = new ParseField("seed");
     static final ParseField SHARD_SEED = new ParseField("shard_seed");
+    static final ParseField SHARD_SAMPLE_SIZE = new ParseField("shard_sample_size");
 
     public static final ObjectParser<RandomSamplerAggregationBuilder, String> PARSER = ObjectParser.fromBuilder(
         RandomSamplerAggregationBuilder.NAME,
@@ -44,11 +45,13 @@ public class RandomSamplerAggregationBuilder extends AbstractAggregationBuilder<
         PARSER.declareInt(RandomSamplerAggregationBuilder::setSeed, SEED);
         PARSER.declareInt(RandomSamplerAggregationBuilder::setShardSeed, SHARD_SEED);
         PARSER.declareDouble(RandomSamplerAggregationBuilder::setProbability, PROBABILITY);
+        PARSER.declareInt(RandomSamplerAggregationBuilder::setShardSampleSize, SHARD_SAMPLE_SIZE);
     }
 
     private int seed = Randomness.get().nextInt();
     private Integer shardSeed;
     private double p;
+    private Integer shardSampleSize;
 
     public RandomSamplerAggregationBuilder(String name) {
         super(name);
@@ -65,6 +68,18 @@ public class RandomSamplerAggregationBuilder extends AbstractAggregationBuilder<
         return this;
     }
 
+    /**
+     * Instead of a fixed probability, let each shard pick the probability that samples about <code>shardSampleSize</code> documents
+     * out of the documents it estimates to match the query.
+     */
+    public RandomSamplerAggregationBuilder setShardSampleSize(int shardSampleSize) {
+        if (shardSampleSize <= 0) {
+            throw new IllegalArgumentException("[shard_sample_size] must be greater than 0, was [" + shardSampleSize + "]");
+        }
+        this.shardSampleSize = shardSampleSize;
+        return this;
+    }
+
     public RandomSamplerAggregationBuilder setSeed(int seed) {
         this.seed = seed;
         return this;
@@ -82,6 +97,9 @@ public class RandomSamplerAggregationBuilder extends AbstractAggregationBuilder<
         if (in.getTransportVersion().onOrAfter(TransportVersions.RANDOM_AGG_SHARD_SEED)) {
             this.shardSeed = in.readOptionalInt();
         }
+        if (in.getTransportVersion().onOrAfter(TransportVersions.RANDOM_SAMPLER_SHARD_SAMPLE_SIZE)) {
+            this.shardSampleSize = in.readOptionalVInt();
+        }
     }
 
     protected RandomSamplerAggregationBuilder(
@@ -93,6 +111,7 @@ public class RandomSamplerAggregationBuilder extends AbstractAggregationBuilder<
         this.p = clone.p;
         this.seed = clone.seed;
         this.shardSeed = clone.shardSeed;
+        this.shardSampleSize = clone.shardSampleSize;
     }
 
     @Override
@@ -102,6 +121,9 @@ public class RandomSamplerAggregationBuilder extends AbstractAggregationBuilder<
         if (out.getTransportVersion().onOrAfter(TransportVersions.RANDOM_AGG_SHARD_SEED)) {
             out.writeOptionalInt(shardSeed);
         }
+        if (out.getTransportVersion().onOrAfter(TransportVersions.RANDOM_SAMPLER_SHARD_SAMPLE_SIZE)) {
+            out.writeOptionalVInt(shardSampleSize);
+        }
     }
 
     static void recursivelyCheckSubAggs(Collection<AggregationBuilder> builders, Consumer<AggregationBuilder> aggregationCheck) {
@@ -126,8 +148,15 @@ public class RandomSamplerAggregationBuilder extends AbstractAggregationBuilder<
         if (subfactoriesBuilder.getAggregatorFactories().isEmpty()) {
             throw new IllegalArgumentException("[random_sampler] aggregation [" + getName() + "] must have sub-aggregations");
         }
-        if (p == 0.0) {
-            throw new IllegalArgumentException("[random_sampler] aggregation [" + getName() + "] must have [probability] set");
+        if (p == 0.0 && shardSampleSize == null) {
+            throw new IllegalArgumentException(
+                "[random_sampler] aggregation [" + getName() + "] must have either [probability] or [shard_sample_size] set"
+            );
+        }
+        if (p != 0.0 && shardSampleSize != null) {
+            throw new IllegalArgumentException(
+                "[random_sampler] aggregation [" + getName() + "] cannot have both [probability] and [shard_sample_size] set"
+            );
         }
         recursivelyCheckSubAggs(subfactoriesBuilder.getAggregatorFactories(), builder -> {
             // TODO add a method or interface to aggregation builder that defaults to false
@@ -143,13 +172,28 @@ public class RandomSamplerAggregationBuilder extends AbstractAggregationBuilder<
                 );
             }
         });
-        return new RandomSamplerAggregatorFactory(name, seed, shardSeed, p, context, parent, subfactoriesBuilder, metadata);
+        return new RandomSamplerAggregatorFactory(
+            name,
+            seed,
+            shardSeed,
+            p,
+            shardSampleSize,
+            context,
+            parent,
+            subfactoriesBuilder,
+            metadata
+        );
     }
 
     @Override
     protected XContentBuilder internalXContent(XContentBuilder builder, Params params) throws IOException {
         builder.startObject();
-        builder.field(PROBABILITY.getPreferredName(), p);
+        if (p != 0.0) {
+            builder.field(PROBABILITY.getPreferredName(), p);
+        }
+        if (shardSampleSize != null) {
+            builder.field(SHARD_SAMPLE_SIZE.getPreferredName(), shardSampleSize);
+        }
         builder.field(SEED.getPreferredName(), seed);
         if (shardSeed != null) {
             builder.field(SHARD_SEED.getPreferredName(), shardSeed);
@@ -175,12 +219,15 @@ public class RandomSamplerAggregationBuilder extends AbstractAggregationBuilder<
 
     @Override
     public TransportVersion getMinimalSupportedVersion() {
+        if (shardSampleSize != null) {
+            return TransportVersions.RANDOM_SAMPLER_SHARD_SAMPLE_SIZE;
+        }
         return TransportVersions.V_8_2_0;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), p, seed, shardSeed);
+        return Objects.hash(super.hashCode(), p, seed, shardSeed, shardSampleSize);
     }
 
     @Override
@@ -189,6 +236,9 @@ public class RandomSamplerAggregationBuilder extends AbstractAggregationBuilder<
         if (obj == null || getClass() != obj.getClass()) return false;
         if (super.equals(obj) == false) return false;
         RandomSamplerAggregationBuilder other = (RandomSamplerAggregationBuilder) obj;
-        return Objects.equals(p, other.p) && Objects.equals(seed, other.seed) && Objects.equals(shardSeed, other.shardSeed);
+        return Objects.equals(p, other.p)
+            && Objects.equals(seed, other.seed)
+            && Objects.equals(shardSeed, other.shardSeed)
+            && Objects.equals(shardSampleSize, other.shardSampleSize);
     }
 }
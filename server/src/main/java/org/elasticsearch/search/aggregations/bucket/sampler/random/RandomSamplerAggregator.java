@@ -14,15 +14,18 @@ import org.apache.lucene.search.Scorer;
 import org.apache.lucene.search.Weight;
 import org.apache.lucene.util.Bits;
 import org.elasticsearch.common.CheckedSupplier;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.search.aggregations.AggregationExecutionContext;
 import org.elasticsearch.search.aggregations.Aggregator;
 import org.elasticsearch.search.aggregations.AggregatorFactories;
 import org.elasticsearch.search.aggregations.CardinalityUpperBound;
 import org.elasticsearch.search.aggregations.InternalAggregation;
+import org.elasticsearch.search.aggregations.InternalAggregations;
 import org.elasticsearch.search.aggregations.LeafBucketCollector;
 import org.elasticsearch.search.aggregations.bucket.BucketsAggregator;
 import org.elasticsearch.search.aggregations.bucket.SingleBucketAggregator;
 import org.elasticsearch.search.aggregations.support.AggregationContext;
+import org.elasticsearch.search.aggregations.support.SamplingContext;
 
 import java.io.IOException;
 import java.util.Map;
@@ -32,6 +35,8 @@ public class RandomSamplerAggregator extends BucketsAggregator implements Single
     private final int seed;
     private final Integer shardSeed;
     private final double probability;
+    @Nullable
+    private final Integer shardSampleSize;
     private final CheckedSupplier<Weight, IOException> weightSupplier;
 
     RandomSamplerAggregator(
@@ -39,6 +44,7 @@ public class RandomSamplerAggregator extends BucketsAggregator implements Single
         int seed,
         Integer shardSeed,
         double probability,
+        @Nullable Integer shardSampleSize,
         CheckedSupplier<Weight, IOException> weightSupplier,
         AggregatorFactories factories,
         AggregationContext context,
@@ -49,6 +55,7 @@ public class RandomSamplerAggregator extends BucketsAggregator implements Single
         super(name, factories, context, parent, cardinalityUpperBound, metadata);
         this.seed = seed;
         this.probability = probability;
+        this.shardSampleSize = shardSampleSize;
         if (this.subAggregators().length == 0) {
             throw new IllegalArgumentException(
                 RandomSamplerAggregationBuilder.NAME + " aggregation [" + name + "] must have sub aggregations configured"
@@ -60,6 +67,12 @@ public class RandomSamplerAggregator extends BucketsAggregator implements Single
 
     @Override
     public InternalAggregation[] buildAggregations(long[] owningBucketOrds) throws IOException {
+        if (shardSampleSize != null) {
+            return buildAggregationsForSingleBucket(
+                owningBucketOrds,
+                (owningBucketOrd, subAggregationResults) -> buildShardSampled(bucketDocCount(owningBucketOrd), subAggregationResults)
+            );
+        }
         return buildAggregationsForSingleBucket(
             owningBucketOrds,
             (owningBucketOrd, subAggregationResults) -> new InternalRandomSampler(
@@ -74,8 +87,37 @@ public class RandomSamplerAggregator extends BucketsAggregator implements Single
         );
     }
 
+    /**
+     * Shards pick their own probability when sampling a number of documents, so the sub-aggregations are scaled here with the
+     * probability of this shard rather than once the shard results are reduced.
+     */
+    private InternalRandomSampler buildShardSampled(long docCount, InternalAggregations subAggregationResults) {
+        if (probability < 1.0) {
+            subAggregationResults = InternalAggregations.finalizeSampling(
+                subAggregationResults,
+                new SamplingContext(probability, seed, shardSeed)
+            );
+        }
+        return new InternalRandomSampler(
+            name,
+            docCount,
+            seed,
+            shardSeed,
+            probability,
+            shardSampleSize,
+            docCount / probability,
+            // the variance of the Horvitz-Thompson estimate of the number of matching documents
+            docCount * (1 - probability) / (probability * probability),
+            subAggregationResults,
+            metadata()
+        );
+    }
+
     @Override
     public InternalAggregation buildEmptyAggregation() {
+        if (shardSampleSize != null) {
+            return buildShardSampled(0, buildEmptySubAggregations());
+        }
         return new InternalRandomSampler(name, 0, seed, shardSeed, probability, buildEmptySubAggregations(), metadata());
     }
 
@@ -8,10 +8,14 @@
 
 package org.elasticsearch.search.aggregations.bucket.sampler.random;
 
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.ScorerSupplier;
 import org.apache.lucene.search.Weight;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.search.aggregations.Aggregator;
 import org.elasticsearch.search.aggregations.AggregatorFactories;
 import org.elasticsearch.search.aggregations.AggregatorFactory;
@@ -20,6 +24,7 @@ import org.elasticsearch.search.aggregations.support.AggregationContext;
 import org.elasticsearch.search.aggregations.support.SamplingContext;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Map;
 import java.util.Optional;
 
@@ -27,8 +32,9 @@ public class RandomSamplerAggregatorFactory extends AggregatorFactory {
 
     private final int seed;
     private final Integer shardSeed;
-    private final double probability;
-    private final SamplingContext samplingContext;
+    @Nullable
+    private final Integer shardSampleSize;
+    private SamplingContext samplingContext;
     private Weight weight;
 
     RandomSamplerAggregatorFactory(
@@ -36,21 +42,65 @@ public class RandomSamplerAggregatorFactory extends AggregatorFactory {
         int seed,
         Integer shardSeed,
         double probability,
+        @Nullable Integer shardSampleSize,
         AggregationContext context,
         AggregatorFactory parent,
         AggregatorFactories.Builder subFactories,
         Map<String, Object> metadata
     ) throws IOException {
         super(name, context, parent, subFactories, metadata);
-        this.probability = probability;
         this.seed = seed;
-        this.samplingContext = new SamplingContext(probability, seed, shardSeed);
         this.shardSeed = shardSeed;
+        this.shardSampleSize = shardSampleSize;
+        // with a shard sample size the probability depends on the query, which is only known once the aggregators get created
+        this.samplingContext = shardSampleSize == null ? new SamplingContext(probability, seed, shardSeed) : null;
     }
 
     @Override
     public Optional<SamplingContext> getSamplingContext() {
-        return Optional.of(samplingContext);
+        try {
+            return Optional.of(samplingContext());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private SamplingContext samplingContext() throws IOException {
+        if (samplingContext == null) {
+            samplingContext = new SamplingContext(probabilityForSampleSize(shardSampleSize, estimateMatchingDocs()), seed, shardSeed);
+        }
+        return samplingContext;
+    }
+
+    /**
+     * The probability that samples about <code>sampleSize</code> documents out of <code>matchingDocs</code>. Like the probabilities
+     * that can be requested, it is either at most 0.5 or exactly 1.0 since sampling more than half of the documents is about as
+     * expensive as collecting all of them.
+     */
+    static double probabilityForSampleSize(long sampleSize, long matchingDocs) {
+        if (matchingDocs <= sampleSize) {
+            return 1.0;
+        }
+        return Math.min(0.5, (double) sampleSize / matchingDocs);
+    }
+
+    /**
+     * Estimates the number of documents matching the top level query without running it. Segments that can't count their matches
+     * cheaply contribute the cost of the query, which is an upper bound of the number of matches.
+     */
+    private long estimateMatchingDocs() throws IOException {
+        IndexSearcher searcher = context.searcher();
+        Weight queryWeight = searcher.createWeight(searcher.rewrite(context.query()), ScoreMode.COMPLETE_NO_SCORES, 1f);
+        long matchingDocs = 0;
+        for (LeafReaderContext leaf : searcher.getIndexReader().leaves()) {
+            int count = queryWeight.count(leaf);
+            if (count == -1) {
+                ScorerSupplier scorerSupplier = queryWeight.scorerSupplier(leaf);
+                count = scorerSupplier == null ? 0 : (int) Math.min(scorerSupplier.cost(), leaf.reader().numDocs());
+            }
+            matchingDocs += count;
+        }
+        return matchingDocs;
     }
 
     @Override
@@ -60,7 +110,8 @@ public class RandomSamplerAggregatorFactory extends AggregatorFactory {
             name,
             seed,
             shardSeed,
-            probability,
+            samplingContext().probability(),
+            shardSampleSize,
             this::getWeight,
             factories,
             context,
@@ -81,7 +132,7 @@ public class RandomSamplerAggregatorFactory extends AggregatorFactory {
     private Weight getWeight() throws IOException {
         if (weight == null) {
             RandomSamplingQuery query = new RandomSamplingQuery(
-                probability,
+                samplingContext().probability(),
                 seed,
                 shardSeed == null ? context.shardRandomSeed() : shardSeed
             );
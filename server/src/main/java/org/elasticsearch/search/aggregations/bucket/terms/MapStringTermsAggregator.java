@@ -7,13 +7,18 @@
  */
 package org.elasticsearch.search.aggregations.bucket.terms;
 
+import org.apache.lucene.index.DocValues;
 import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.index.SortedSetDocValues;
 import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.BytesRefBuilder;
 import org.apache.lucene.util.PriorityQueue;
+import org.elasticsearch.common.util.BitArray;
 import org.elasticsearch.common.util.LongArray;
 import org.elasticsearch.common.util.ObjectArrayPriorityQueue;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Releasable;
 import org.elasticsearch.core.Releasables;
 import org.elasticsearch.index.fielddata.SortedBinaryDocValues;
@@ -42,6 +47,7 @@ import java.util.function.Function;
 import java.util.function.LongConsumer;
 import java.util.function.Supplier;
 
+import static org.apache.lucene.index.SortedSetDocValues.NO_MORE_ORDS;
 import static org.elasticsearch.search.aggregations.InternalOrder.isKeyOrder;
 
 /**
@@ -54,6 +60,24 @@ public final class MapStringTermsAggregator extends AbstractStringTermsAggregato
     private final BytesKeyedBucketOrds bucketOrds;
     private final IncludeExclude.StringFilter includeExclude;
     private final boolean excludeDeletedDocs;
+    /**
+     * If non-null we count the segment ordinals of this values source and
+     * only hash the terms that were hit once we're done with each segment.
+     */
+    private final ValuesSource.Bytes.WithOrdinals segmentOrdsSource;
+    private LongArray segmentDocCounts;
+    /**
+     * The segment ordinals that have a count in {@link #segmentDocCounts} so
+     * that we only visit those rather than every ordinal of the segment.
+     */
+    private BitArray hitSegmentOrds;
+    /**
+     * The ordinals of the segment whose counts are in {@link #segmentDocCounts}
+     * and have yet to be added to the buckets.
+     */
+    private SortedSetDocValues pendingSegmentOrds;
+    private int segmentsWithSingleValuedOrds = 0;
+    private int segmentsWithMultiValuedOrds = 0;
 
     public MapStringTermsAggregator(
         String name,
@@ -71,11 +95,64 @@ public final class MapStringTermsAggregator extends AbstractStringTermsAggregato
         CardinalityUpperBound cardinality,
         Map<String, Object> metadata,
         boolean excludeDeletedDocs
+    ) throws IOException {
+        this(
+            name,
+            factories,
+            collectorSource,
+            resultStrategy,
+            order,
+            format,
+            bucketCountThresholds,
+            includeExclude,
+            context,
+            parent,
+            collectionMode,
+            showTermDocCountError,
+            cardinality,
+            metadata,
+            excludeDeletedDocs,
+            null
+        );
+    }
+
+    /**
+     * Build the aggregator.
+     * @param segmentOrdsSource if non-null, count each segment's ordinals
+     *                          and then merge the terms that were hit into
+     *                          the buckets by their bytes. This avoids
+     *                          hashing every value and doesn't need global
+     *                          ordinals. Only supported without sub-aggregations
+     *                          and when collecting from a single bucket.
+     */
+    MapStringTermsAggregator(
+        String name,
+        AggregatorFactories factories,
+        CollectorSource collectorSource,
+        Function<MapStringTermsAggregator, ResultStrategy<?, ?>> resultStrategy,
+        BucketOrder order,
+        DocValueFormat format,
+        BucketCountThresholds bucketCountThresholds,
+        IncludeExclude.StringFilter includeExclude,
+        AggregationContext context,
+        Aggregator parent,
+        SubAggCollectionMode collectionMode,
+        boolean showTermDocCountError,
+        CardinalityUpperBound cardinality,
+        Map<String, Object> metadata,
+        boolean excludeDeletedDocs,
+        @Nullable ValuesSource.Bytes.WithOrdinals segmentOrdsSource
     ) throws IOException {
         super(name, factories, context, parent, order, format, bucketCountThresholds, collectionMode, showTermDocCountError, metadata);
+        assert segmentOrdsSource == null || (factories.countAggregators() == 0 && cardinality == CardinalityUpperBound.ONE);
         this.resultStrategy = resultStrategy.apply(this); // ResultStrategy needs a reference to the Aggregator to do its job.
         this.includeExclude = includeExclude;
         bucketOrds = BytesKeyedBucketOrds.build(context.bigArrays(), cardinality);
+        this.segmentOrdsSource = segmentOrdsSource;
+        if (segmentOrdsSource != null) {
+            segmentDocCounts = context.bigArrays().newLongArray(1, true);
+            hitSegmentOrds = new BitArray(1, context.bigArrays());
+        }
         // set last because if there is an error during construction the collector gets release outside the constructor.
         this.collectorSource = collectorSource;
         this.excludeDeletedDocs = excludeDeletedDocs;
@@ -91,6 +168,9 @@ public final class MapStringTermsAggregator extends AbstractStringTermsAggregato
 
     @Override
     public LeafBucketCollector getLeafCollector(AggregationExecutionContext aggCtx, LeafBucketCollector sub) throws IOException {
+        if (segmentOrdsSource != null) {
+            return getSegmentOrdsLeafCollector(aggCtx.getLeafReaderContext(), sub);
+        }
         return resultStrategy.wrapCollector(
             collectorSource.getLeafCollector(
                 includeExclude,
@@ -110,6 +190,78 @@ public final class MapStringTermsAggregator extends AbstractStringTermsAggregato
         );
     }
 
+    private LeafBucketCollector getSegmentOrdsLeafCollector(LeafReaderContext ctx, LeafBucketCollector sub) throws IOException {
+        addPendingSegmentDocCounts();
+        final SortedSetDocValues segmentOrds = segmentOrdsSource.ordinalsValues(ctx);
+        if (segmentOrds.getValueCount() == 0) {
+            return LeafBucketCollector.NO_OP_COLLECTOR;
+        }
+        segmentDocCounts = bigArrays().grow(segmentDocCounts, segmentOrds.getValueCount());
+        pendingSegmentOrds = segmentOrds;
+        assert sub.isNoop();
+        final SortedDocValues singleValues = DocValues.unwrapSingleton(segmentOrds);
+        if (singleValues != null) {
+            segmentsWithSingleValuedOrds++;
+            return resultStrategy.wrapCollector(new LeafBucketCollectorBase(sub, segmentOrds) {
+                @Override
+                public void collect(int doc, long owningBucketOrd) throws IOException {
+                    assert owningBucketOrd == 0;
+                    if (false == singleValues.advanceExact(doc)) {
+                        return;
+                    }
+                    long segmentOrd = singleValues.ordValue();
+                    segmentDocCounts.increment(segmentOrd, docCountProvider.getDocCount(doc));
+                    hitSegmentOrds.set(segmentOrd);
+                }
+            });
+        }
+        segmentsWithMultiValuedOrds++;
+        return resultStrategy.wrapCollector(new LeafBucketCollectorBase(sub, segmentOrds) {
+            @Override
+            public void collect(int doc, long owningBucketOrd) throws IOException {
+                assert owningBucketOrd == 0;
+                if (false == segmentOrds.advanceExact(doc)) {
+                    return;
+                }
+                int docCount = docCountProvider.getDocCount(doc);
+                for (long segmentOrd = segmentOrds.nextOrd(); segmentOrd != NO_MORE_ORDS; segmentOrd = segmentOrds.nextOrd()) {
+                    segmentDocCounts.increment(segmentOrd, docCount);
+                    hitSegmentOrds.set(segmentOrd);
+                }
+            }
+        });
+    }
+
+    /**
+     * Add the doc counts collected for the last segment to the buckets of
+     * the terms that they belong to, resetting the counts and the hit
+     * ordinals as we go so they can be reused for the next segment.
+     */
+    private void addPendingSegmentDocCounts() throws IOException {
+        if (pendingSegmentOrds == null) {
+            return;
+        }
+        for (long ord = hitSegmentOrds.nextSetBit(0); ord != Long.MAX_VALUE; ord = hitSegmentOrds.nextSetBit(ord + 1)) {
+            hitSegmentOrds.clear(ord);
+            long inc = segmentDocCounts.set(ord, 0);
+            BytesRef term = pendingSegmentOrds.lookupOrd(ord);
+            if (includeExclude != null && false == includeExclude.accept(term)) {
+                continue;
+            }
+            long bucketOrd = bucketOrds.add(0, term);
+            if (bucketOrd < 0) { // already seen
+                bucketOrd = -1 - bucketOrd;
+            }
+            incrementBucketDocCount(bucketOrd, inc);
+        }
+        pendingSegmentOrds = null;
+    }
+
+    @Override
+    protected void doPostCollection() throws IOException {
+        addPendingSegmentDocCounts();
+    }
+
     @Override
     public InternalAggregation[] buildAggregations(long[] owningBucketOrds) throws IOException {
         return resultStrategy.buildAggregations(owningBucketOrds);
@@ -124,14 +276,20 @@ public final class MapStringTermsAggregator extends AbstractStringTermsAggregato
     public void collectDebugInfo(BiConsumer<String, Object> add) {
         super.collectDebugInfo(add);
         add.accept("total_buckets", bucketOrds.size());
-        add.accept("collection_strategy", collectorSource.describe());
+        if (segmentOrdsSource != null) {
+            add.accept("collection_strategy", "segment ordinals");
+            add.accept("segments_with_single_valued_ords", segmentsWithSingleValuedOrds);
+            add.accept("segments_with_multi_valued_ords", segmentsWithMultiValuedOrds);
+        } else {
+            add.accept("collection_strategy", collectorSource.describe());
+        }
         collectorSource.collectDebugInfo(add);
         add.accept("result_strategy", resultStrategy.describe());
     }
 
     @Override
     public void doClose() {
-        Releasables.close(collectorSource, resultStrategy, bucketOrds);
+        Releasables.close(collectorSource, resultStrategy, bucketOrds, segmentDocCounts, hitSegmentOrds);
     }
 
     /**
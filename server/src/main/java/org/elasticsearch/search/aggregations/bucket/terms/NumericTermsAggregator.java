@@ -13,6 +13,7 @@ import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.util.NumericUtils;
 import org.elasticsearch.common.util.LongArray;
 import org.elasticsearch.common.util.ObjectArrayPriorityQueue;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Releasable;
 import org.elasticsearch.core.Releasables;
 import org.elasticsearch.index.fielddata.FieldData;
@@ -32,6 +33,7 @@ import org.elasticsearch.search.aggregations.bucket.terms.LongKeyedBucketOrds.Bu
 import org.elasticsearch.search.aggregations.bucket.terms.SignificanceLookup.BackgroundFrequencyForLong;
 import org.elasticsearch.search.aggregations.bucket.terms.heuristic.SignificanceHeuristic;
 import org.elasticsearch.search.aggregations.support.AggregationContext;
+import org.elasticsearch.search.aggregations.support.SegmentRollupCache;
 import org.elasticsearch.search.aggregations.support.ValuesSource;
 
 import java.io.IOException;
@@ -51,6 +53,12 @@ public final class NumericTermsAggregator extends TermsAggregator {
     private final LongKeyedBucketOrds bucketOrds;
     private final LongFilter longFilter;
     private final boolean excludeDeletedDocs;
+    /**
+     * Finds cached per-segment rollups of the values, {@code null} if we
+     * can't use them.
+     */
+    @Nullable
+    private final SegmentRollupCache.Lookup rollupLookup;
 
     public NumericTermsAggregator(
         String name,
@@ -74,6 +82,9 @@ public final class NumericTermsAggregator extends TermsAggregator {
         this.longFilter = longFilter;
         bucketOrds = LongKeyedBucketOrds.build(bigArrays(), cardinality);
         this.excludeDeletedDocs = excludeDeletedDocs;
+        SegmentRollupCache rollupCache = context.segmentRollupCache();
+        boolean countsOnly = parent == null && subAggregators.length == 0 && this.resultStrategy instanceof LongTermsResults;
+        this.rollupLookup = rollupCache != null && countsOnly ? rollupCache.lookup(context, valuesSource, "terms") : null;
     }
 
     @Override
@@ -86,6 +97,13 @@ public final class NumericTermsAggregator extends TermsAggregator {
 
     @Override
     public LeafBucketCollector getLeafCollector(AggregationExecutionContext aggCtx, LeafBucketCollector sub) throws IOException {
+        if (rollupLookup != null && sub.isNoop() && docCountProvider.alwaysOne()) {
+            SegmentRollupCache.Rollup rollup = rollupLookup.rollup(aggCtx.getLeafReaderContext(), resultStrategy::getValues, v -> v);
+            if (rollup != null) {
+                collectRollup(rollup);
+                return LeafBucketCollector.NO_OP_COLLECTOR;
+            }
+        }
         SortedNumericDocValues values = resultStrategy.getValues(aggCtx.getLeafReaderContext());
         return resultStrategy.wrapCollector(new LeafBucketCollectorBase(sub, values) {
             @Override
@@ -115,6 +133,25 @@ public final class NumericTermsAggregator extends TermsAggregator {
         });
     }
 
+    /**
+     * Add the doc counts from a segment's rollup instead of collecting its
+     * documents. This is safe because we only use rollups when there isn't
+     * a {@code parent}, so all buckets belong to the owning bucket {@code 0},
+     * and when the top level query matches every document in the segment.
+     */
+    private void collectRollup(SegmentRollupCache.Rollup rollup) {
+        for (int i = 0; i < rollup.size(); i++) {
+            long val = rollup.key(i);
+            if ((longFilter == null) || (longFilter.accept(val))) {
+                long bucketOrdinal = bucketOrds.add(0, val);
+                if (bucketOrdinal < 0) { // already seen
+                    bucketOrdinal = -1 - bucketOrdinal;
+                }
+                incrementBucketDocCount(bucketOrdinal, rollup.docCount(i));
+            }
+        }
+    }
+
     @Override
     public InternalAggregation[] buildAggregations(long[] owningBucketOrds) throws IOException {
         return resultStrategy.buildAggregations(owningBucketOrds);
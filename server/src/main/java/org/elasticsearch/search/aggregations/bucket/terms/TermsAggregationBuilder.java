@@ -150,10 +150,10 @@ public class TermsAggregationBuilder extends ValuesSourceAggregationBuilder<Term
         /*
          * we parallelize only if the cardinality of the field is lower than shard size, this is to minimize precision issues.
          * When ordered by term, we still take cardinality into account to avoid overhead that concurrency may cause against
-         * high cardinality fields.
+         * high cardinality fields. Every execution mode collects each slice independently and slices are merged with a
+         * partial reduction, so the execution hint doesn't matter.
          */
-        if (script() == null
-            && (executionHint == null || executionHint.equals(TermsAggregatorFactory.ExecutionMode.GLOBAL_ORDINALS.toString()))) {
+        if (script() == null) {
             long cardinality = fieldCardinalityResolver.applyAsLong(field());
             if (supportsParallelCollection(cardinality, order, bucketCountThresholds)) {
                 return super.supportsParallelCollection(fieldCardinalityResolver);
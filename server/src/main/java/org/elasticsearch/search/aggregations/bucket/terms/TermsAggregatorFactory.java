@@ -11,10 +11,15 @@ package org.elasticsearch.search.aggregations.bucket.terms;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.DocValuesType;
+import org.apache.lucene.index.FieldInfo;
 import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.SortedSetDocValues;
 import org.apache.lucene.search.IndexSearcher;
 import org.elasticsearch.ElasticsearchStatusException;
+import org.elasticsearch.core.TimeValue;
+import org.elasticsearch.index.mapper.MappedFieldType;
 import org.elasticsearch.rest.RestStatus;
 import org.elasticsearch.search.DocValueFormat;
 import org.elasticsearch.search.aggregations.Aggregator;
@@ -48,7 +53,7 @@ import java.util.function.LongPredicate;
 import static org.elasticsearch.search.aggregations.bucket.terms.SignificantTermsAggregatorFactory.matchNoDocs;
 
 public class TermsAggregatorFactory extends ValuesSourceAggregatorFactory {
-    static Boolean REMAP_GLOBAL_ORDS, COLLECT_SEGMENT_ORDS;
+    static Boolean REMAP_GLOBAL_ORDS, COLLECT_SEGMENT_ORDS, PREFER_SEGMENT_ORDINALS;
 
     private static final Logger logger = LogManager.getLogger(TermsAggregatorFactory.class);
 
@@ -84,6 +89,20 @@ public class TermsAggregatorFactory extends ValuesSourceAggregatorFactory {
      */
     static final long MAX_ORDS_TO_TRY_FILTERS = 1000;
 
+    /**
+     * The minimum number of ordinals, summed over all segments, a field
+     * needs to have before we consider skipping global ordinals in favor of
+     * {@link ExecutionMode#SEGMENT_ORDINALS}. Below that building global
+     * ordinals is cheap enough that it isn't worth giving up on them.
+     */
+    static final long MIN_ORDS_FOR_SEGMENT_ORDINALS = 1 << 16;
+
+    /**
+     * The longest refresh interval for which we consider the index to be
+     * refreshed often enough for global ordinals not to be worth building.
+     */
+    static final TimeValue MAX_REFRESH_INTERVAL_FOR_SEGMENT_ORDINALS = TimeValue.timeValueSeconds(1);
+
     /**
      * This supplier is used for all the field types that should be aggregated as bytes/strings,
      * including those that need global ordinals
@@ -115,6 +134,9 @@ public class TermsAggregatorFactory extends ValuesSourceAggregatorFactory {
             }
             if (execution == null) {
                 execution = ExecutionMode.GLOBAL_ORDINALS;
+                if (preferSegmentOrdinals(valuesSourceConfig, factories, cardinality, context)) {
+                    execution = ExecutionMode.SEGMENT_ORDINALS;
+                }
             }
             final long maxOrd = execution == ExecutionMode.GLOBAL_ORDINALS ? getMaxOrd(valuesSource, context.searcher()) : -1;
             if (subAggCollectMode == null) {
@@ -375,6 +397,74 @@ public class TermsAggregatorFactory extends ValuesSourceAggregatorFactory {
         }
     }
 
+    /**
+     * Should we count per-segment ordinals rather than using global ordinals?
+     * <p>
+     * Global ordinals are built on the first request after every refresh by
+     * merging the terms dictionaries of all segments which takes a while on
+     * high cardinality fields. Counting segment ordinals and then merging the
+     * terms that were hit by their bytes does a little more work on every
+     * request, but it never has to build the ordinal map. So global ordinals
+     * stay the default and we only prefer segment ordinals when:
+     * <ul>
+     *     <li>it is supported: no sub-aggregations and only collecting from a single bucket</li>
+     *     <li>global ordinals aren't built eagerly on refresh because then they are free at search time</li>
+     *     <li>there is more than one segment, otherwise global ordinals are the segment ordinals</li>
+     *     <li>the index is refreshed often enough that the global ordinals won't be reused much</li>
+     *     <li>the field has enough unique values for the ordinal map to be expensive to build,
+     *     and at least one unique value per two documents so that segment ordinals don't end
+     *     up being merged over and over for the same few terms</li>
+     * </ul>
+     * The number of unique values is estimated from the value count of each segment's doc
+     * values, which is stored in the segment's metadata, so deciding doesn't read any values.
+     */
+    static boolean preferSegmentOrdinals(
+        ValuesSourceConfig valuesSourceConfig,
+        AggregatorFactories factories,
+        CardinalityUpperBound cardinality,
+        AggregationContext context
+    ) throws IOException {
+        if (factories != AggregatorFactories.EMPTY || cardinality != CardinalityUpperBound.ONE) {
+            return false;
+        }
+        if (false == valuesSourceConfig.getValuesSource() instanceof ValuesSource.Bytes.WithOrdinals) {
+            return false;
+        }
+        ValuesSource.Bytes.WithOrdinals ordinalsValuesSource = (ValuesSource.Bytes.WithOrdinals) valuesSourceConfig.getValuesSource();
+        if (false == ordinalsValuesSource.supportsGlobalOrdinalsMapping()) {
+            return false;
+        }
+        // we use the static PREFER_SEGMENT_ORDINALS to allow tests to force specific optimizations
+        if (PREFER_SEGMENT_ORDINALS != null) {
+            return PREFER_SEGMENT_ORDINALS;
+        }
+        MappedFieldType fieldType = valuesSourceConfig.fieldType();
+        if (fieldType == null || fieldType.hasDocValues() == false || fieldType.eagerGlobalOrdinals()) {
+            return false;
+        }
+        IndexReader reader = context.searcher().getIndexReader();
+        if (reader.leaves().size() < 2) {
+            return false;
+        }
+        TimeValue refreshInterval = context.getIndexSettings().getRefreshInterval();
+        if (refreshInterval.millis() <= 0 || refreshInterval.compareTo(MAX_REFRESH_INTERVAL_FOR_SEGMENT_ORDINALS) > 0) {
+            return false;
+        }
+        long totalOrds = 0;
+        for (LeafReaderContext ctx : reader.leaves()) {
+            FieldInfo fieldInfo = ctx.reader().getFieldInfos().fieldInfo(fieldType.name());
+            if (fieldInfo == null) {
+                continue;
+            }
+            // DocValues.getSortedSet throws on any other doc values type
+            if (fieldInfo.getDocValuesType() != DocValuesType.SORTED && fieldInfo.getDocValuesType() != DocValuesType.SORTED_SET) {
+                return false;
+            }
+            totalOrds += DocValues.getSortedSet(ctx.reader(), fieldType.name()).getValueCount();
+        }
+        return totalOrds >= MIN_ORDS_FOR_SEGMENT_ORDINALS && totalOrds >= reader.numDocs() / 2;
+    }
+
     public enum ExecutionMode {
 
         MAP(new ParseField("map")) {
@@ -417,6 +507,73 @@ public class TermsAggregatorFactory extends ValuesSourceAggregatorFactory {
                 );
             }
         },
+        SEGMENT_ORDINALS(new ParseField("segment_ordinals")) {
+
+            @Override
+            Aggregator create(
+                String name,
+                AggregatorFactories factories,
+                ValuesSourceConfig valuesSourceConfig,
+                BucketOrder order,
+                TermsAggregator.BucketCountThresholds bucketCountThresholds,
+                IncludeExclude includeExclude,
+                AggregationContext context,
+                Aggregator parent,
+                SubAggCollectionMode subAggCollectMode,
+                boolean showTermDocCountError,
+                CardinalityUpperBound cardinality,
+                Map<String, Object> metadata,
+                boolean excludeDeletedDocs
+            ) throws IOException {
+                assert valuesSourceConfig.getValuesSource() instanceof ValuesSource.Bytes.WithOrdinals;
+                ValuesSource.Bytes.WithOrdinals ordinalsValuesSource = (ValuesSource.Bytes.WithOrdinals) valuesSourceConfig
+                    .getValuesSource();
+                if (factories != AggregatorFactories.EMPTY || cardinality != CardinalityUpperBound.ONE) {
+                    /*
+                     * Sub-aggregations and multiple owning buckets need a bucket
+                     * ordinal per document so we can't wait until the end of the
+                     * segment to resolve the terms.
+                     */
+                    return MAP.create(
+                        name,
+                        factories,
+                        valuesSourceConfig,
+                        order,
+                        bucketCountThresholds,
+                        includeExclude,
+                        context,
+                        parent,
+                        subAggCollectMode,
+                        showTermDocCountError,
+                        cardinality,
+                        metadata,
+                        excludeDeletedDocs
+                    );
+                }
+                IncludeExclude.StringFilter filter = includeExclude == null
+                    ? null
+                    : includeExclude.convertToStringFilter(valuesSourceConfig.format());
+                logger.debug("Using segment ordinals implementation");
+                return new MapStringTermsAggregator(
+                    name,
+                    factories,
+                    new MapStringTermsAggregator.ValuesSourceCollectorSource(valuesSourceConfig),
+                    a -> a.new StandardTermsResults(valuesSourceConfig.getValuesSource()),
+                    order,
+                    valuesSourceConfig.format(),
+                    bucketCountThresholds,
+                    filter,
+                    context,
+                    parent,
+                    subAggCollectMode,
+                    showTermDocCountError,
+                    cardinality,
+                    metadata,
+                    excludeDeletedDocs,
+                    ordinalsValuesSource
+                );
+            }
+        },
         GLOBAL_ORDINALS(new ParseField("global_ordinals")) {
 
             @Override
@@ -570,8 +727,9 @@ public class TermsAggregatorFactory extends ValuesSourceAggregatorFactory {
             return switch (value) {
                 case "global_ordinals" -> GLOBAL_ORDINALS;
                 case "map" -> MAP;
+                case "segment_ordinals" -> SEGMENT_ORDINALS;
                 default -> throw new IllegalArgumentException(
-                    "Unknown `execution_hint`: [" + value + "], expected any of [map, global_ordinals]"
+                    "Unknown `execution_hint`: [" + value + "], expected any of [map, global_ordinals, segment_ordinals]"
                 );
             };
         }
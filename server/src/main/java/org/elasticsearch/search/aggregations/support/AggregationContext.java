@@ -316,6 +316,16 @@ public abstract class AggregationContext implements Releasable {
         return null;
     }
 
+    /**
+     * The cache of per-segment rollups that aggregations which only need doc
+     * counts can use instead of collecting documents, {@code null} if there
+     * isn't one.
+     */
+    @Nullable
+    public SegmentRollupCache segmentRollupCache() {
+        return null;
+    }
+
     /**
      * Does this index have a {@code _doc_count} field in any segment?
      */
@@ -361,6 +371,7 @@ public abstract class AggregationContext implements Releasable {
         private final boolean enableRewriteToFilterByFilter;
         private final boolean inSortOrderExecutionRequired;
         private final AnalysisRegistry analysisRegistry;
+        private final SegmentRollupCache segmentRollupCache;
 
         private final List<Aggregator> releaseMe = new ArrayList<>();
 
@@ -380,7 +391,8 @@ public abstract class AggregationContext implements Releasable {
             Supplier<Boolean> isCancelled,
             Function<Query, Query> filterQuery,
             boolean enableRewriteToFilterByFilter,
-            boolean inSortOrderExecutionRequired
+            boolean inSortOrderExecutionRequired,
+            @Nullable SegmentRollupCache segmentRollupCache
         ) {
             this.analysisRegistry = analysisRegistry;
             this.context = context;
@@ -415,6 +427,7 @@ public abstract class AggregationContext implements Releasable {
             this.filterQuery = filterQuery;
             this.enableRewriteToFilterByFilter = enableRewriteToFilterByFilter;
             this.inSortOrderExecutionRequired = inSortOrderExecutionRequired;
+            this.segmentRollupCache = segmentRollupCache;
         }
 
         @Override
@@ -620,6 +633,11 @@ public abstract class AggregationContext implements Releasable {
             return context.sourcePath(fullName);
         }
 
+        @Override
+        public SegmentRollupCache segmentRollupCache() {
+            return segmentRollupCache;
+        }
+
         @Override
         public MappingLookup getMappingLookup() {
             return context.getMappingLookup();
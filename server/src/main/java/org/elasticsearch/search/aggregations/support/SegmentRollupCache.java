@@ -0,0 +1,238 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.search.aggregations.support;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.common.lucene.index.ReaderKeyedCache;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.common.util.LongArray;
+import org.elasticsearch.common.util.LongHash;
+import org.elasticsearch.core.CheckedFunction;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.core.Releasable;
+import org.elasticsearch.core.Releasables;
+import org.elasticsearch.index.fielddata.plain.SortedNumericIndexFieldData;
+
+import java.io.IOException;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Node level cache of per-segment rollups. A rollup is the number of documents
+ * in a segment for each distinct key derived from the values of a numeric field,
+ * like the rounded value of a {@code date_histogram} or the value itself for a
+ * {@code terms} aggregation. Aggregations that only need doc counts can use it
+ * instead of iterating the documents of segments that the top level query
+ * matches entirely. Older segments don't change, so dashboards that run the same
+ * aggregations over and over again only pay for iterating them once.
+ * <p>
+ * Rollups are keyed on the {@link IndexReader#getReaderCacheHelper() reader cache key}
+ * so they take deleted documents into account and are invalidated when the reader is
+ * closed. The cache is disabled unless {@link #SIZE_SETTING} is set.
+ */
+public final class SegmentRollupCache implements Releasable {
+    public static final Setting<ByteSizeValue> SIZE_SETTING = ReaderKeyedCache.sizeSetting("search.aggs.segment_rollup_cache.size");
+
+    private final ReaderKeyedCache<Key, Rollup> cache;
+
+    public SegmentRollupCache(Settings settings) {
+        this(SIZE_SETTING.get(settings).getBytes());
+    }
+
+    public SegmentRollupCache(long sizeInBytes) {
+        cache = new ReaderKeyedCache<>(sizeInBytes, (k, v) -> v.ramBytesUsed());
+    }
+
+    /**
+     * Build a {@link Lookup} for an aggregation that collects doc counts by
+     * keys derived from {@code valuesSource}. Returns {@code null} if the cache
+     * is disabled or rollups can't be used for this values source.
+     * <p>
+     * Callers must only use rollups if they don't have a parent or sub-aggregations
+     * and if every document counts as a single document.
+     *
+     * @param kind identifies how keys are derived from the values of the field
+     */
+    @Nullable
+    public Lookup lookup(AggregationContext context, @Nullable ValuesSource valuesSource, String kind) {
+        if (cache.enabled() == false || context.isInSortOrderExecutionRequired()) {
+            return null;
+        }
+        /*
+         * Only use plain doc values. Scripts, missing values and runtime fields
+         * can change from request to request while the segment stays the same.
+         */
+        if (valuesSource instanceof ValuesSource.Numeric.FieldData == false) {
+            return null;
+        }
+        ValuesSource.Numeric.FieldData fieldData = (ValuesSource.Numeric.FieldData) valuesSource;
+        if (fieldData.indexFieldData.getClass() != SortedNumericIndexFieldData.class) {
+            return null;
+        }
+        return new Lookup(context, fieldData.indexFieldData.getFieldName(), kind);
+    }
+
+    /**
+     * The number of cached rollups.
+     */
+    public int count() {
+        return cache.count();
+    }
+
+    @Override
+    public void close() {
+        cache.close();
+    }
+
+    /**
+     * Finds the rollups for a single aggregator.
+     */
+    public final class Lookup {
+        private final AggregationContext context;
+        private final String field;
+        private final String kind;
+        private Weight weight;
+
+        private Lookup(AggregationContext context, String field, String kind) {
+            this.context = context;
+            this.field = field;
+            this.kind = kind;
+        }
+
+        /**
+         * Get the rollup for a segment, building it from {@code values} if it
+         * isn't cached. Returns {@code null} if the top level query doesn't match
+         * every live document in the segment or the segment can't be cached.
+         */
+        @Nullable
+        public Rollup rollup(
+            LeafReaderContext ctx,
+            CheckedFunction<LeafReaderContext, SortedNumericDocValues, IOException> values,
+            LongUnaryOperator keyFunction
+        ) throws IOException {
+            if (ctx.reader().getFieldInfos().fieldInfo(field) == null) {
+                // Wrapped readers may hide fields while using the same cache key
+                return null;
+            }
+            IndexReader.CacheHelper cacheHelper = ctx.reader().getReaderCacheHelper();
+            if (cacheHelper == null) {
+                return null;
+            }
+            if (weight == null) {
+                IndexSearcher searcher = context.searcher();
+                Query query = searcher.rewrite(new ConstantScoreQuery(context.query()));
+                weight = searcher.createWeight(query, ScoreMode.COMPLETE_NO_SCORES, 1.0f);
+            }
+            if (weight.count(ctx) != ctx.reader().numDocs()) {
+                return null;
+            }
+            return cache.computeIfAbsent(
+                cacheHelper,
+                new Key(field, kind),
+                k -> Rollup.build(context.bigArrays(), ctx.reader(), values.apply(ctx), keyFunction)
+            );
+        }
+    }
+
+    /**
+     * The number of live documents in a segment for each key.
+     */
+    public static final class Rollup implements Accountable {
+        private static final long SHALLOW_SIZE = RamUsageEstimator.shallowSizeOfInstance(Rollup.class);
+
+        private final long[] keys;
+        private final long[] docCounts;
+
+        Rollup(long[] keys, long[] docCounts) {
+            assert keys.length == docCounts.length;
+            this.keys = keys;
+            this.docCounts = docCounts;
+        }
+
+        /**
+         * Count the live documents in the segment for each key. Documents with
+         * more than one value that map to the same key only count once.
+         */
+        static Rollup build(BigArrays bigArrays, LeafReader reader, SortedNumericDocValues values, LongUnaryOperator keyFunction)
+            throws IOException {
+            Bits live = reader.getLiveDocs();
+            LongHash ords = new LongHash(1, bigArrays);
+            LongArray counts = null;
+            try {
+                counts = bigArrays.newLongArray(1, true);
+                for (int doc = values.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = values.nextDoc()) {
+                    if (live != null && live.get(doc) == false) {
+                        continue;
+                    }
+                    long previous = 0;
+                    for (int i = 0; i < values.docValueCount(); i++) {
+                        long key = keyFunction.applyAsLong(values.nextValue());
+                        if (i > 0 && key == previous) {
+                            continue;
+                        }
+                        previous = key;
+                        long ord = ords.add(key);
+                        if (ord < 0) {
+                            ord = -1 - ord;
+                        } else {
+                            counts = bigArrays.grow(counts, ord + 1);
+                        }
+                        counts.increment(ord, 1);
+                    }
+                }
+                int size = Math.toIntExact(ords.size());
+                long[] keys = new long[size];
+                long[] docCounts = new long[size];
+                for (int ord = 0; ord < size; ord++) {
+                    keys[ord] = ords.get(ord);
+                    docCounts[ord] = counts.get(ord);
+                }
+                return new Rollup(keys, docCounts);
+            } finally {
+                Releasables.close(ords, counts);
+            }
+        }
+
+        /**
+         * The number of distinct keys.
+         */
+        public int size() {
+            return keys.length;
+        }
+
+        public long key(int index) {
+            return keys[index];
+        }
+
+        public long docCount(int index) {
+            return docCounts[index];
+        }
+
+        @Override
+        public long ramBytesUsed() {
+            return SHALLOW_SIZE + RamUsageEstimator.sizeOf(keys) + RamUsageEstimator.sizeOf(docCounts);
+        }
+    }
+
+    private record Key(String field, String kind) {}
+}
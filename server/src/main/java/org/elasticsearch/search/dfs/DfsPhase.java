@@ -14,6 +14,7 @@ import org.apache.lucene.search.Collector;
 import org.apache.lucene.search.CollectorManager;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.search.TermStatistics;
 import org.apache.lucene.search.TopDocs;
@@ -33,11 +34,11 @@ import org.elasticsearch.search.profile.query.QueryProfiler;
 import org.elasticsearch.search.rescore.RescoreContext;
 import org.elasticsearch.search.vectors.KnnSearchBuilder;
 import org.elasticsearch.search.vectors.KnnVectorQueryBuilder;
-import org.elasticsearch.search.vectors.ProfilingQuery;
 import org.elasticsearch.tasks.TaskCancelledException;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -52,6 +53,12 @@ import static org.elasticsearch.index.query.AbstractQueryBuilder.DEFAULT_BOOST;
  */
 public class DfsPhase {
 
+    private final DfsStatisticsCache statisticsCache;
+
+    public DfsPhase(DfsStatisticsCache statisticsCache) {
+        this.statisticsCache = statisticsCache;
+    }
+
     public void execute(SearchContext context) {
         try {
             collectStatistics(context);
@@ -68,6 +75,18 @@ public class DfsPhase {
     private void collectStatistics(SearchContext context) throws IOException {
         final DfsProfiler profiler = context.getProfilers() == null ? null : context.getProfilers().getDfsProfiler();
 
+        final List<Query> cacheKey = statisticsCacheKey(context, profiler);
+        if (cacheKey != null) {
+            DfsStatisticsCache.Statistics cached = statisticsCache.get(context.searcher().getIndexReader(), cacheKey);
+            if (cached != null) {
+                context.dfsResult()
+                    .termsStatistics(cached.terms(), cached.termStatistics())
+                    .fieldStatistics(cached.fieldStatistics())
+                    .maxDoc(context.searcher().getIndexReader().maxDoc());
+                return;
+            }
+        }
+
         Map<String, CollectionStatistics> fieldStatistics = new HashMap<>();
         Map<Term, TermStatistics> stats = new HashMap<>();
 
@@ -161,6 +180,39 @@ public class DfsPhase {
             .termsStatistics(terms, termStatistics)
             .fieldStatistics(fieldStatistics)
             .maxDoc(context.searcher().getIndexReader().maxDoc());
+        if (cacheKey != null) {
+            statisticsCache.put(
+                context.searcher().getIndexReader(),
+                cacheKey,
+                new DfsStatisticsCache.Statistics(terms, termStatistics, fieldStatistics)
+            );
+        }
+    }
+
+    /**
+     * Build the key to cache the statistics under or {@code null} if they
+     * can't be cached. The statistics only depend on the reader and on the
+     * queries we create weights for, so those make up the key.
+     */
+    private List<Query> statisticsCacheKey(SearchContext context, DfsProfiler profiler) {
+        if (statisticsCache == null || statisticsCache.enabled() == false) {
+            return null;
+        }
+        if (profiler != null) {
+            // Profiled requests report how long collecting statistics took so they must collect them
+            return null;
+        }
+        if (context.searcher().isUnfilteredReader() == false) {
+            return null;
+        }
+        List<Query> queries = new ArrayList<>();
+        queries.add(context.rewrittenQuery());
+        for (RescoreContext rescoreContext : context.rescore()) {
+            for (ParsedQuery parsedQuery : rescoreContext.getParsedQueries()) {
+                queries.add(parsedQuery.query());
+            }
+        }
+        return queries;
     }
 
     /**
@@ -191,12 +243,27 @@ public class DfsPhase {
                 knnVectorQueryBuilder.addFilterQuery(context.request().getAliasFilter().getQueryBuilder());
             }
         }
+        // the k-th best scores that the coordinating node has seen from the shards that returned already, if any
+        float[] knnMinScores = context.request().getKnnMinScores();
+        assert knnMinScores == null || knnMinScores.length == knnSearch.size();
         List<DfsKnnResults> knnResults = new ArrayList<>(knnVectorQueryBuilders.size());
         for (int i = 0; i < knnSearch.size(); i++) {
             String knnField = knnVectorQueryBuilders.get(i).getFieldName();
             String knnNestedPath = searchExecutionContext.nestedLookup().getNestedParent(knnField);
             Query knnQuery = searchExecutionContext.toQuery(knnVectorQueryBuilders.get(i)).query();
-            knnResults.add(singleKnnSearch(knnQuery, knnSearch.get(i).k(), context.getProfilers(), context.searcher(), knnNestedPath));
+            /*
+             * The graph search itself doesn't use the score: HNSW reaches the best vectors through vectors that
+             * score below it, so pruning the exploration would lose recall.
+             */
+            float minScore = knnMinScores == null ? Float.NEGATIVE_INFINITY : knnMinScores[i];
+            DfsKnnResults results = singleKnnSearch(
+                knnQuery,
+                knnSearch.get(i).k(),
+                context.getProfilers(),
+                context.searcher(),
+                knnNestedPath
+            );
+            knnResults.add(dropNonCompetitive(results, minScore));
         }
         context.dfsResult().knnResults(knnResults);
     }
@@ -219,12 +286,8 @@ public class DfsPhase {
                 topDocsCollectorManager,
                 CollectorResult.REASON_SEARCH_TOP_HITS
             );
+            // the searcher enables profiling of the kNN query and reports it to knnProfiler when it rewrites it
             topDocs = searcher.search(knnQuery, ipcm);
-
-            if (knnQuery instanceof ProfilingQuery profilingQuery) {
-                profilingQuery.profile(knnProfiler);
-            }
-
             knnProfiler.setCollectorResult(ipcm.getCollectorTree());
         }
         // Set profiler back after running KNN searches
@@ -233,4 +296,20 @@ public class DfsPhase {
         }
         return new DfsKnnResults(nestedPath, topDocs.scoreDocs);
     }
+
+    /**
+     * Drops the results that score below the k-th best score of the shards that returned already, they can't make it
+     * to the merged top k. Ties are kept since they could still win on the shard index.
+     */
+    static DfsKnnResults dropNonCompetitive(DfsKnnResults results, float minScore) {
+        ScoreDoc[] scoreDocs = results.scoreDocs();
+        int competitive = scoreDocs.length;
+        while (competitive > 0 && scoreDocs[competitive - 1].score < minScore) {
+            competitive--;
+        }
+        if (competitive == scoreDocs.length) {
+            return results;
+        }
+        return new DfsKnnResults(results.getNestedPath(), Arrays.copyOf(scoreDocs, competitive));
+    }
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.search.dfs;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.CollectionStatistics;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermStatistics;
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.common.lucene.index.ReaderKeyedCache;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.core.Nullable;
+import org.elasticsearch.core.Releasable;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Node level cache of the term and field statistics that the {@link DfsPhase} collects
+ * for a shard. Applications that run the same {@code dfs_query_then_fetch} requests
+ * over and over again only pay for looking up the terms in the terms dictionary of
+ * every segment once per refresh.
+ * <p>
+ * Statistics are keyed on the {@link IndexReader#getReaderCacheHelper() reader cache key}
+ * of the shard and the rewritten queries they were collected from, and are invalidated
+ * when the reader is closed. The cache is disabled unless {@link #SIZE_SETTING} is set.
+ */
+public final class DfsStatisticsCache implements Releasable {
+    public static final Setting<ByteSizeValue> SIZE_SETTING = ReaderKeyedCache.sizeSetting("search.dfs.statistics_cache.size");
+
+    private final ReaderKeyedCache<Key, Statistics> cache;
+
+    public DfsStatisticsCache(Settings settings) {
+        this(SIZE_SETTING.get(settings).getBytes());
+    }
+
+    public DfsStatisticsCache(long sizeInBytes) {
+        cache = new ReaderKeyedCache<>(sizeInBytes, (k, v) -> k.ramBytesUsed() + v.ramBytesUsed());
+    }
+
+    /**
+     * Is the cache enabled?
+     */
+    public boolean enabled() {
+        return cache.enabled();
+    }
+
+    /**
+     * Get the statistics collected for {@code queries} on {@code reader} or
+     * {@code null} if they aren't cached.
+     */
+    @Nullable
+    public Statistics get(IndexReader reader, List<Query> queries) {
+        IndexReader.CacheHelper cacheHelper = reader.getReaderCacheHelper();
+        if (cacheHelper == null) {
+            return null;
+        }
+        return cache.get(cacheHelper, new Key(queries));
+    }
+
+    /**
+     * Cache the statistics collected for {@code queries} on {@code reader}.
+     */
+    public void put(IndexReader reader, List<Query> queries, Statistics statistics) {
+        IndexReader.CacheHelper cacheHelper = reader.getReaderCacheHelper();
+        if (cacheHelper == null) {
+            return;
+        }
+        cache.put(cacheHelper, new Key(queries), statistics);
+    }
+
+    /**
+     * The number of cached statistics.
+     */
+    public int count() {
+        return cache.count();
+    }
+
+    @Override
+    public void close() {
+        cache.close();
+    }
+
+    /**
+     * The statistics collected for a shard.
+     */
+    public record Statistics(Term[] terms, TermStatistics[] termStatistics, Map<String, CollectionStatistics> fieldStatistics)
+        implements
+            Accountable {
+
+        public Statistics {
+            assert terms.length == termStatistics.length;
+            fieldStatistics = Map.copyOf(fieldStatistics);
+        }
+
+        @Override
+        public long ramBytesUsed() {
+            long size = RamUsageEstimator.shallowSizeOf(terms) + RamUsageEstimator.shallowSizeOf(termStatistics);
+            for (Term term : terms) {
+                // the term, its bytes and its statistics which share the bytes
+                size += 3 * RamUsageEstimator.NUM_BYTES_OBJECT_HEADER + term.field().length() + term.bytes().length;
+            }
+            for (String field : fieldStatistics.keySet()) {
+                size += 2 * RamUsageEstimator.NUM_BYTES_OBJECT_HEADER + field.length() + 4 * Long.BYTES;
+            }
+            return size;
+        }
+    }
+
+    private record Key(List<Query> queries) implements Accountable {
+        @Override
+        public long ramBytesUsed() {
+            long size = (long) queries.size() * RamUsageEstimator.NUM_BYTES_OBJECT_REF;
+            for (Query query : queries) {
+                size += query instanceof Accountable accountable
+                    ? accountable.ramBytesUsed()
+                    : RamUsageEstimator.QUERY_DEFAULT_RAM_BYTES_USED;
+            }
+            return size;
+        }
+    }
+}
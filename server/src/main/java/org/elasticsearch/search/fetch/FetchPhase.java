@@ -12,6 +12,10 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.search.TotalHits;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.text.Text;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.core.Releasable;
 import org.elasticsearch.index.fieldvisitor.LeafStoredFieldLoader;
 import org.elasticsearch.index.fieldvisitor.StoredFieldLoader;
 import org.elasticsearch.index.mapper.IdLoader;
@@ -25,6 +29,7 @@ import org.elasticsearch.search.SearchShardTarget;
 import org.elasticsearch.search.fetch.FetchSubPhase.HitContext;
 import org.elasticsearch.search.fetch.subphase.InnerHitsContext;
 import org.elasticsearch.search.fetch.subphase.InnerHitsPhase;
+import org.elasticsearch.search.fetch.subphase.highlight.HighlightField;
 import org.elasticsearch.search.internal.SearchContext;
 import org.elasticsearch.search.lookup.Source;
 import org.elasticsearch.search.lookup.SourceProvider;
@@ -73,18 +78,102 @@ public final class FetchPhase {
         }
 
         Profiler profiler = context.getProfilers() == null ? Profiler.NOOP : Profilers.startProfilingFetchPhase();
+        HitsMemoryAccounting memoryAccounting = new HitsMemoryAccounting(context.circuitBreaker());
         SearchHits hits = null;
         try {
-            hits = buildSearchHits(context, docIdsToLoad, profiler);
+            hits = buildSearchHits(context, docIdsToLoad, profiler, memoryAccounting);
         } finally {
             // Always finish profiling
             ProfileResult profileResult = profiler.finish();
             // Only set the shardResults if building search hits was successful
             if (hits != null) {
-                context.fetchResult().shardResult(hits, profileResult);
+                // the result holds on to the hits until it has been sent so it releases the memory they use
+                context.fetchResult().shardResult(hits, profileResult, memoryAccounting);
                 hits.decRef();
+            } else {
+                memoryAccounting.close();
+            }
+        }
+    }
+
+    /**
+     * Accounts for the memory held by the hits that the fetch phase builds,
+     * mostly their {@code _source} and highlighted fragments, against the
+     * request circuit breaker. Memory is reserved in batches to keep calls to
+     * the breaker cheap. It is released hit by hit as the fetch result is
+     * serialized, and whatever is left when the fetch result is released.
+     */
+    static final class HitsMemoryAccounting implements Releasable {
+        static final long BATCH_SIZE = ByteSizeValue.ofMb(1).getBytes();
+        private static final String LABEL = "<fetch_hits>";
+
+        private final CircuitBreaker breaker;
+        private long unreserved;
+        private long reserved;
+
+        HitsMemoryAccounting(CircuitBreaker breaker) {
+            this.breaker = breaker;
+        }
+
+        /**
+         * Account for a hit, breaking if the memory held by the hits built so
+         * far doesn't fit.
+         */
+        void account(SearchHit hit) {
+            unreserved += bytesUsed(hit);
+            if (unreserved >= BATCH_SIZE) {
+                reserve();
+            }
+        }
+
+        /**
+         * Reserve the memory of the hits accounted for since the last reservation.
+         */
+        void reserve() {
+            if (unreserved > 0) {
+                breaker.addEstimateBytesAndMaybeBreak(unreserved, LABEL);
+                reserved += unreserved;
+                unreserved = 0;
+            }
+        }
+
+        /**
+         * Release the memory of a hit that doesn't need to be held on to
+         * anymore, for instance because it has been serialized.
+         */
+        void release(SearchHit hit) {
+            long bytes = Math.min(bytesUsed(hit), reserved);
+            if (bytes > 0) {
+                breaker.addWithoutBreaking(-bytes);
+                reserved -= bytes;
             }
         }
+
+        long reserved() {
+            return reserved;
+        }
+
+        @Override
+        public void close() {
+            breaker.addWithoutBreaking(-reserved);
+            reserved = 0;
+        }
+
+        static long bytesUsed(SearchHit hit) {
+            long bytes = hit.getSourceRef() == null ? 0 : hit.getSourceRef().length();
+            Map<String, HighlightField> highlightFields = hit.getHighlightFields();
+            if (highlightFields != null) {
+                for (HighlightField field : highlightFields.values()) {
+                    if (field.fragments() == null) {
+                        continue;
+                    }
+                    for (Text fragment : field.fragments()) {
+                        bytes += fragment.hasBytes() ? fragment.bytes().length() : (long) fragment.string().length() * Character.BYTES;
+                    }
+                }
+            }
+            return bytes;
+        }
     }
 
     private static class PreloadedSourceProvider implements SourceProvider {
@@ -97,7 +186,12 @@ public final class FetchPhase {
         }
     }
 
-    private SearchHits buildSearchHits(SearchContext context, int[] docIdsToLoad, Profiler profiler) {
+    private SearchHits buildSearchHits(
+        SearchContext context,
+        int[] docIdsToLoad,
+        Profiler profiler,
+        HitsMemoryAccounting memoryAccounting
+    ) {
 
         FetchContext fetchContext = new FetchContext(context);
         SourceLoader sourceLoader = context.newSourceLoader();
@@ -163,11 +257,13 @@ public final class FetchPhase {
                 for (FetchSubPhaseProcessor processor : processors) {
                     processor.process(hit);
                 }
+                memoryAccounting.account(hit.hit());
                 return hit.hit();
             }
         };
 
         SearchHit[] hits = docsIterator.iterate(context.shardTarget(), context.searcher().getIndexReader(), docIdsToLoad);
+        memoryAccounting.reserve();
 
         if (context.isCancelled()) {
             throw new TaskCancelledException("cancelled");
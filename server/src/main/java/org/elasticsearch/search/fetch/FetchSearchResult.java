@@ -10,7 +10,9 @@ package org.elasticsearch.search.fetch;
 
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.RefCounted;
+import org.elasticsearch.core.Releasables;
 import org.elasticsearch.core.SimpleRefCounted;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.SearchHits;
@@ -30,6 +32,9 @@ public final class FetchSearchResult extends SearchPhaseResult {
 
     private ProfileResult profileResult;
 
+    @Nullable
+    private FetchPhase.HitsMemoryAccounting hitsMemory;
+
     private final RefCounted refCounted = LeakTracker.wrap(new SimpleRefCounted());
 
     public FetchSearchResult() {}
@@ -50,7 +55,8 @@ public final class FetchSearchResult extends SearchPhaseResult {
     public void writeTo(StreamOutput out) throws IOException {
         assert hasReferences();
         contextId.writeTo(out);
-        hits.writeTo(out);
+        // the serialized hits are all that is sent, so the memory of every hit can be released as soon as it has been written
+        hits.writeTo(out, hitsMemory == null ? hit -> {} : hitsMemory::release);
         out.writeOptionalWriteable(profileResult);
     }
 
@@ -60,11 +66,24 @@ public final class FetchSearchResult extends SearchPhaseResult {
     }
 
     public void shardResult(SearchHits hits, ProfileResult profileResult) {
+        shardResult(hits, profileResult, null);
+    }
+
+    /**
+     * Set the hits of this result along with the circuit breaker reservation
+     * of the memory they hold on to, which is released as the hits are
+     * serialized or with this result. Sub search contexts reuse their result
+     * for every inner hit or bucket, so this releases the reservation of the
+     * hits that it replaces.
+     */
+    void shardResult(SearchHits hits, ProfileResult profileResult, @Nullable FetchPhase.HitsMemoryAccounting hitsMemory) {
         assert assertNoSearchTarget(hits);
         this.hits = hits;
         hits.incRef();
         assert this.profileResult == null;
         this.profileResult = profileResult;
+        Releasables.close(this.hitsMemory);
+        this.hitsMemory = hitsMemory;
     }
 
     private static boolean assertNoSearchTarget(SearchHits hits) {
@@ -116,6 +135,8 @@ public final class FetchSearchResult extends SearchPhaseResult {
             hits.decRef();
             hits = null;
         }
+        Releasables.close(hitsMemory);
+        hitsMemory = null;
     }
 
     @Override
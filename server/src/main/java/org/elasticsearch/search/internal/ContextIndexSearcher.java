@@ -12,6 +12,7 @@ import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BulkScorer;
 import org.apache.lucene.search.CollectionStatistics;
 import org.apache.lucene.search.CollectionTerminatedException;
@@ -26,6 +27,7 @@ import org.apache.lucene.search.MatchNoDocsQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.QueryCache;
 import org.apache.lucene.search.QueryCachingPolicy;
+import org.apache.lucene.search.QueryVisitor;
 import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.search.Scorer;
 import org.apache.lucene.search.TermStatistics;
@@ -35,6 +37,7 @@ import org.apache.lucene.util.BitSet;
 import org.apache.lucene.util.BitSetIterator;
 import org.apache.lucene.util.Bits;
 import org.apache.lucene.util.SparseFixedBitSet;
+import org.elasticsearch.common.lucene.index.ElasticsearchDirectoryReader;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 import org.elasticsearch.core.Releasable;
 import org.elasticsearch.lucene.util.CombinedBitSet;
@@ -44,6 +47,7 @@ import org.elasticsearch.search.profile.query.ProfileWeight;
 import org.elasticsearch.search.profile.query.QueryProfileBreakdown;
 import org.elasticsearch.search.profile.query.QueryProfiler;
 import org.elasticsearch.search.profile.query.QueryTimingType;
+import org.elasticsearch.search.vectors.ProfilingQuery;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -194,8 +198,11 @@ public class ContextIndexSearcher extends IndexSearcher implements Releasable {
     @Override
     public Query rewrite(Query original) throws IOException {
         Timer rewriteTimer = null;
+        List<ProfilingQuery> profilingQueries = List.of();
         if (profiler != null) {
             rewriteTimer = profiler.startRewriteTime();
+            // kNN queries search the vectors when they are rewritten, so they need to know upfront that they are profiled
+            profilingQueries = enableProfiling(original);
         }
         try {
             return super.rewrite(original);
@@ -205,10 +212,32 @@ public class ContextIndexSearcher extends IndexSearcher implements Releasable {
         } finally {
             if (profiler != null) {
                 profiler.stopAndAddRewriteTime(rewriteTimer);
+                for (ProfilingQuery profilingQuery : profilingQueries) {
+                    profilingQuery.profile(profiler);
+                }
             }
         }
     }
 
+    private static List<ProfilingQuery> enableProfiling(Query query) {
+        List<ProfilingQuery> profilingQueries = new ArrayList<>();
+        query.visit(new QueryVisitor() {
+            @Override
+            public QueryVisitor getSubVisitor(BooleanClause.Occur occur, Query parent) {
+                return this;
+            }
+
+            @Override
+            public void visitLeaf(Query leaf) {
+                if (leaf instanceof ProfilingQuery profilingQuery) {
+                    profilingQuery.enableProfiling();
+                    profilingQueries.add(profilingQuery);
+                }
+            }
+        });
+        return profilingQueries;
+    }
+
     @Override
     public Weight createWeight(Query query, ScoreMode scoreMode, float boost) throws IOException {
         if (profiler != null) {
@@ -354,9 +383,18 @@ public class ContextIndexSearcher extends IndexSearcher implements Releasable {
     @Override
     public void search(List<LeafReaderContext> leaves, Weight weight, Collector collector) throws IOException {
         collector.setWeight(weight);
+        final PointRangeSegmentFilter segmentFilter = weight.getQuery() == null ? null : PointRangeSegmentFilter.build(weight.getQuery());
         boolean success = false;
         try {
             for (LeafReaderContext ctx : leaves) { // search each subreader
+                if (segmentFilter != null && segmentFilter.canMatch(ctx) == false) {
+                    // the points metadata of the segment tells us that no document can match, skip
+                    // it before creating the leaf collector and the scorer
+                    if (profiler != null) {
+                        profiler.incrementSkippedSegments();
+                    }
+                    continue;
+                }
                 searchLeaf(ctx, weight, collector);
             }
             success = true;
@@ -522,6 +560,19 @@ public class ContextIndexSearcher extends IndexSearcher implements Releasable {
         return (DirectoryReader) reader;
     }
 
+    /**
+     * Returns true if the reader is the shard's {@link ElasticsearchDirectoryReader}, possibly wrapped to check for
+     * cancellation, and not a reader that hides fields or documents like document and field level security do. Those
+     * readers share the cache key of the shard's reader but can return different results.
+     */
+    public boolean isUnfilteredReader() {
+        DirectoryReader reader = getDirectoryReader();
+        if (reader instanceof ExitableDirectoryReader exitableReader) {
+            reader = exitableReader.getDelegate();
+        }
+        return reader instanceof ElasticsearchDirectoryReader;
+    }
+
     private static class MutableQueryTimeout implements ExitableDirectoryReader.QueryCancellation {
 
         private final List<Runnable> runnables = new ArrayList<>();
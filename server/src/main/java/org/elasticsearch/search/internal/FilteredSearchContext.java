@@ -13,6 +13,7 @@ import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TotalHits;
 import org.elasticsearch.action.search.SearchShardTask;
 import org.elasticsearch.action.search.SearchType;
+import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.elasticsearch.core.TimeValue;
 import org.elasticsearch.index.cache.bitset.BitsetFilterCache;
 import org.elasticsearch.index.mapper.IdLoader;
@@ -424,6 +425,11 @@ public abstract class FilteredSearchContext extends SearchContext {
         return in.getProfilers();
     }
 
+    @Override
+    public CircuitBreaker circuitBreaker() {
+        return in.circuitBreaker();
+    }
+
     @Override
     public SearchExecutionContext getSearchExecutionContext() {
         return in.getSearchExecutionContext();
@@ -0,0 +1,116 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.search.internal;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.PointValues;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.IndexOrDocValuesQuery;
+import org.apache.lucene.search.PointRangeQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryVisitor;
+import org.apache.lucene.util.ArrayUtil;
+import org.elasticsearch.core.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Skips segments that cannot match a query because one of its required {@link PointRangeQuery} clauses doesn't
+ * intersect with the min/max values recorded in the points metadata of the segment. The min/max packed values are
+ * loaded with the segment's points index and kept in memory by the reader, so checking them is cheap and allows
+ * skipping the segment before any scorer or leaf collector gets created for it.
+ */
+final class PointRangeSegmentFilter {
+
+    private final List<PointRangeQuery> ranges;
+
+    private PointRangeSegmentFilter(List<PointRangeQuery> ranges) {
+        this.ranges = ranges;
+    }
+
+    /**
+     * Builds a filter from the range queries that all matching documents of the provided <code>query</code> must
+     * satisfy, or returns <code>null</code> if there are no such ranges.
+     */
+    @Nullable
+    static PointRangeSegmentFilter build(Query query) {
+        RequiredRangesVisitor visitor = new RequiredRangesVisitor();
+        query.visit(visitor);
+        return visitor.ranges.isEmpty() ? null : new PointRangeSegmentFilter(visitor.ranges);
+    }
+
+    /**
+     * Returns <code>false</code> if the provided segment is guaranteed to not contain any document that matches
+     * all required ranges.
+     */
+    boolean canMatch(LeafReaderContext ctx) throws IOException {
+        for (PointRangeQuery range : ranges) {
+            PointValues values = ctx.reader().getPointValues(range.getField());
+            if (values == null) {
+                // no document of this segment indexed a point for this field
+                return false;
+            }
+            if (values.getNumIndexDimensions() != range.getNumDims() || values.getBytesPerDimension() != range.getBytesPerDim()) {
+                // inconsistent configuration, let the query deal with it
+                continue;
+            }
+            if (intersects(range, values.getMinPackedValue(), values.getMaxPackedValue()) == false) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean intersects(PointRangeQuery range, byte[] minPackedValue, byte[] maxPackedValue) {
+        final int bytesPerDim = range.getBytesPerDim();
+        final ArrayUtil.ByteArrayComparator comparator = ArrayUtil.getUnsignedComparator(bytesPerDim);
+        final byte[] lowerPoint = range.getLowerPoint();
+        final byte[] upperPoint = range.getUpperPoint();
+        for (int dim = 0; dim < range.getNumDims(); dim++) {
+            int offset = dim * bytesPerDim;
+            if (comparator.compare(minPackedValue, offset, upperPoint, offset) > 0
+                || comparator.compare(maxPackedValue, offset, lowerPoint, offset) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Collects the {@link PointRangeQuery} that are required by the visited query. This only descends into
+     * queries whose required clauses are known to filter the matching documents of the same segment.
+     */
+    private static class RequiredRangesVisitor extends QueryVisitor {
+        private final List<PointRangeQuery> ranges = new ArrayList<>();
+
+        @Override
+        public void visitLeaf(Query query) {
+            if (query instanceof PointRangeQuery pointRangeQuery) {
+                ranges.add(pointRangeQuery);
+            }
+        }
+
+        @Override
+        public QueryVisitor getSubVisitor(BooleanClause.Occur occur, Query parent) {
+            if ((occur == BooleanClause.Occur.MUST || occur == BooleanClause.Occur.FILTER)
+                && (parent instanceof BooleanQuery
+                    || parent instanceof ConstantScoreQuery
+                    || parent instanceof BoostQuery
+                    || parent instanceof IndexOrDocValuesQuery)) {
+                return this;
+            }
+            return QueryVisitor.EMPTY_VISITOR;
+        }
+    }
+}
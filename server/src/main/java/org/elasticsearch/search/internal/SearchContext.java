@@ -12,6 +12,8 @@ import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TotalHits;
 import org.elasticsearch.action.search.SearchShardTask;
 import org.elasticsearch.action.search.SearchType;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.NoopCircuitBreaker;
 import org.elasticsearch.core.Assertions;
 import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Releasable;
@@ -66,6 +68,7 @@ public abstract class SearchContext implements Releasable {
     public static final int TRACK_TOTAL_HITS_ACCURATE = Integer.MAX_VALUE;
     public static final int TRACK_TOTAL_HITS_DISABLED = -1;
     public static final int DEFAULT_TRACK_TOTAL_HITS_UP_TO = 10000;
+    private static final CircuitBreaker NO_OP_BREAKER = new NoopCircuitBreaker(CircuitBreaker.REQUEST);
 
     protected final List<Releasable> releasables = new CopyOnWriteArrayList<>();
 
@@ -357,6 +360,13 @@ public abstract class SearchContext implements Releasable {
      */
     public abstract Profilers getProfilers();
 
+    /**
+     * The circuit breaker that memory used while executing the request is accounted against.
+     */
+    public CircuitBreaker circuitBreaker() {
+        return NO_OP_BREAKER;
+    }
+
     /**
      * Adds a releasable that will be freed when this context is closed.
      */
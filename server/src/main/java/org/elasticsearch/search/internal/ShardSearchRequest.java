@@ -85,6 +85,7 @@ public class ShardSearchRequest extends TransportRequest implements IndicesReque
 
     private boolean canReturnNullResponseIfMatchNoDocs;
     private SearchSortValuesAndFormats bottomSortValues;
+    private float[] knnMinScores;
 
     // these are the only mutable fields, as they are subject to rewriting
     private AliasFilter aliasFilter;
@@ -267,6 +268,7 @@ public class ShardSearchRequest extends TransportRequest implements IndicesReque
         this.allowPartialSearchResults = clone.allowPartialSearchResults;
         this.canReturnNullResponseIfMatchNoDocs = clone.canReturnNullResponseIfMatchNoDocs;
         this.bottomSortValues = clone.bottomSortValues;
+        this.knnMinScores = clone.knnMinScores;
         this.originalIndices = clone.originalIndices;
         this.readerId = clone.readerId;
         this.keepAlive = clone.keepAlive;
@@ -340,6 +342,9 @@ public class ShardSearchRequest extends TransportRequest implements IndicesReque
              */
             forceSyntheticSource = false;
         }
+        if (in.getTransportVersion().onOrAfter(TransportVersions.DFS_KNN_MIN_SCORES)) {
+            knnMinScores = in.readOptionalFloatArray();
+        }
         originalIndices = OriginalIndices.readOriginalIndices(in);
     }
 
@@ -400,6 +405,9 @@ public class ShardSearchRequest extends TransportRequest implements IndicesReque
                 throw new IllegalArgumentException("force_synthetic_source is not supported before 8.4.0");
             }
         }
+        if (asKey == false && out.getTransportVersion().onOrAfter(TransportVersions.DFS_KNN_MIN_SCORES)) {
+            out.writeOptionalFloatArray(knnMinScores);
+        }
     }
 
     @Override
@@ -499,6 +507,20 @@ public class ShardSearchRequest extends TransportRequest implements IndicesReque
         return bottomSortValues;
     }
 
+    /**
+     * Sets, for each kNN search of the request, the minimum score that a result needs to be
+     * competitive. This value is computed by coordinating nodes that throttle the dfs phase:
+     * the k-th best score of each kNN search over the shards that already returned is passed
+     * as a hint on subsequent shard requests.
+     */
+    public void setKnnMinScores(float[] knnMinScores) {
+        this.knnMinScores = knnMinScores;
+    }
+
+    public float[] getKnnMinScores() {
+        return knnMinScores;
+    }
+
     /**
      * Returns true if the caller can handle null response {@link QuerySearchResult#nullInstance()}.
      * Defaults to false since the coordinator node needs at least one shard response to build the global
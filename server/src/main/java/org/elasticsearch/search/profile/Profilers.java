@@ -62,11 +62,15 @@ public final class Profilers {
      * Build the results for the query phase.
      */
     public SearchProfileQueryPhaseResult buildQueryPhaseResults() {
+        final long skippedSegments = queryProfiler.getSkippedSegments();
         QueryProfileShardResult result = new QueryProfileShardResult(
             queryProfiler.getTree(),
             queryProfiler.getRewriteTime(),
             queryProfiler.getCollectorResult(),
-            null
+            null,
+            skippedSegments > 0 ? skippedSegments : null,
+            queryProfiler.getKnnSearchStrategies(),
+            queryProfiler.getVectorPageFaults()
         );
         AggregationProfileShardResult aggResults = new AggregationProfileShardResult(aggProfiler.getTree());
         return new SearchProfileQueryPhaseResult(Collections.singletonList(result), aggResults);
@@ -72,7 +72,10 @@ public class DfsProfiler extends AbstractProfileBreakdown<DfsTimingType> {
                         queryProfiler.getTree(),
                         queryProfiler.getRewriteTime(),
                         queryProfiler.getCollectorResult(),
-                        queryProfiler.getVectorOpsCount()
+                        queryProfiler.getVectorOpsCount(),
+                        null,
+                        queryProfiler.getKnnSearchStrategies(),
+                        queryProfiler.getVectorPageFaults()
                     )
                 );
             }
@@ -22,7 +22,9 @@ import org.elasticsearch.xcontent.XContentParser;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import static org.elasticsearch.common.xcontent.XContentParserUtils.ensureExpectedToken;
@@ -39,6 +41,12 @@ public final class QueryProfileShardResult implements Writeable, ToXContentObjec
 
     public static final String VECTOR_OPERATIONS_COUNT = "vector_operations_count";
 
+    public static final String SKIPPED_SEGMENTS = "skipped_segments";
+
+    public static final String KNN_SEARCH_STRATEGIES = "knn_search_strategies";
+
+    public static final String VECTOR_PAGE_FAULTS = "vector_page_faults";
+
     private final List<ProfileResult> queryProfileResults;
 
     private final CollectorResult profileCollector;
@@ -47,17 +55,59 @@ public final class QueryProfileShardResult implements Writeable, ToXContentObjec
 
     private final Long vectorOperationsCount;
 
+    private final Long skippedSegments;
+
+    private final Map<String, Long> knnSearchStrategies;
+
+    private final Long vectorPageFaults;
+
     public QueryProfileShardResult(
         List<ProfileResult> queryProfileResults,
         long rewriteTime,
         CollectorResult profileCollector,
         @Nullable Long vectorOperationsCount
+    ) {
+        this(queryProfileResults, rewriteTime, profileCollector, vectorOperationsCount, null);
+    }
+
+    public QueryProfileShardResult(
+        List<ProfileResult> queryProfileResults,
+        long rewriteTime,
+        CollectorResult profileCollector,
+        @Nullable Long vectorOperationsCount,
+        @Nullable Long skippedSegments
+    ) {
+        this(queryProfileResults, rewriteTime, profileCollector, vectorOperationsCount, skippedSegments, null);
+    }
+
+    public QueryProfileShardResult(
+        List<ProfileResult> queryProfileResults,
+        long rewriteTime,
+        CollectorResult profileCollector,
+        @Nullable Long vectorOperationsCount,
+        @Nullable Long skippedSegments,
+        @Nullable Map<String, Long> knnSearchStrategies
+    ) {
+        this(queryProfileResults, rewriteTime, profileCollector, vectorOperationsCount, skippedSegments, knnSearchStrategies, null);
+    }
+
+    public QueryProfileShardResult(
+        List<ProfileResult> queryProfileResults,
+        long rewriteTime,
+        CollectorResult profileCollector,
+        @Nullable Long vectorOperationsCount,
+        @Nullable Long skippedSegments,
+        @Nullable Map<String, Long> knnSearchStrategies,
+        @Nullable Long vectorPageFaults
     ) {
         assert (profileCollector != null);
         this.queryProfileResults = queryProfileResults;
         this.profileCollector = profileCollector;
         this.rewriteTime = rewriteTime;
         this.vectorOperationsCount = vectorOperationsCount;
+        this.skippedSegments = skippedSegments;
+        this.knnSearchStrategies = knnSearchStrategies;
+        this.vectorPageFaults = vectorPageFaults;
     }
 
     /**
@@ -73,6 +123,15 @@ public final class QueryProfileShardResult implements Writeable, ToXContentObjec
         profileCollector = new CollectorResult(in);
         rewriteTime = in.readLong();
         vectorOperationsCount = (in.getTransportVersion().onOrAfter(TransportVersions.V_8_12_0)) ? in.readOptionalLong() : null;
+        skippedSegments = in.getTransportVersion().onOrAfter(TransportVersions.PROFILE_SKIPPED_SEGMENTS) ? in.readOptionalLong() : null;
+        if (in.getTransportVersion().onOrAfter(TransportVersions.PROFILE_KNN_SEARCH_STRATEGIES) && in.readBoolean()) {
+            knnSearchStrategies = in.readImmutableMap(StreamInput::readVLong);
+        } else {
+            knnSearchStrategies = null;
+        }
+        vectorPageFaults = in.getTransportVersion().onOrAfter(TransportVersions.PROFILE_VECTOR_PAGE_FAULTS)
+            ? in.readOptionalLong()
+            : null;
     }
 
     @Override
@@ -86,6 +145,18 @@ public final class QueryProfileShardResult implements Writeable, ToXContentObjec
         if (out.getTransportVersion().onOrAfter(TransportVersions.V_8_12_0)) {
             out.writeOptionalLong(vectorOperationsCount);
         }
+        if (out.getTransportVersion().onOrAfter(TransportVersions.PROFILE_SKIPPED_SEGMENTS)) {
+            out.writeOptionalLong(skippedSegments);
+        }
+        if (out.getTransportVersion().onOrAfter(TransportVersions.PROFILE_KNN_SEARCH_STRATEGIES)) {
+            out.writeBoolean(knnSearchStrategies != null);
+            if (knnSearchStrategies != null) {
+                out.writeMap(knnSearchStrategies, StreamOutput::writeVLong);
+            }
+        }
+        if (out.getTransportVersion().onOrAfter(TransportVersions.PROFILE_VECTOR_PAGE_FAULTS)) {
+            out.writeOptionalLong(vectorPageFaults);
+        }
     }
 
     public List<ProfileResult> getQueryResults() {
@@ -100,12 +171,56 @@ public final class QueryProfileShardResult implements Writeable, ToXContentObjec
         return profileCollector;
     }
 
+    /**
+     * Returns how many vector operations a kNN search ran, or <code>null</code> if this information isn't available.
+     */
+    @Nullable
+    public Long getVectorOperationsCount() {
+        return vectorOperationsCount;
+    }
+
+    /**
+     * Returns the number of segments that were skipped because they could not match the query, or
+     * <code>null</code> if this information isn't available.
+     */
+    @Nullable
+    public Long getSkippedSegments() {
+        return skippedSegments;
+    }
+
+    /**
+     * Returns how many segments a filtered kNN search searched with each strategy, or
+     * <code>null</code> if this information isn't available.
+     */
+    @Nullable
+    public Map<String, Long> getKnnSearchStrategies() {
+        return knnSearchStrategies;
+    }
+
+    /**
+     * Returns how many major page faults searching the vectors of a kNN search incurred, or
+     * <code>null</code> if this information isn't available.
+     */
+    @Nullable
+    public Long getVectorPageFaults() {
+        return vectorPageFaults;
+    }
+
     @Override
     public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
         builder.startObject();
         if (vectorOperationsCount != null) {
             builder.field(VECTOR_OPERATIONS_COUNT, vectorOperationsCount);
         }
+        if (skippedSegments != null) {
+            builder.field(SKIPPED_SEGMENTS, skippedSegments);
+        }
+        if (knnSearchStrategies != null) {
+            builder.field(KNN_SEARCH_STRATEGIES, knnSearchStrategies);
+        }
+        if (vectorPageFaults != null) {
+            builder.field(VECTOR_PAGE_FAULTS, vectorPageFaults);
+        }
         builder.startArray(QUERY_ARRAY);
         for (ProfileResult p : queryProfileResults) {
             p.toXContent(builder, params);
@@ -127,12 +242,24 @@ public final class QueryProfileShardResult implements Writeable, ToXContentObjec
         QueryProfileShardResult other = (QueryProfileShardResult) obj;
         return queryProfileResults.equals(other.queryProfileResults)
             && profileCollector.equals(other.profileCollector)
-            && rewriteTime == other.rewriteTime;
+            && rewriteTime == other.rewriteTime
+            && Objects.equals(vectorOperationsCount, other.vectorOperationsCount)
+            && Objects.equals(skippedSegments, other.skippedSegments)
+            && Objects.equals(knnSearchStrategies, other.knnSearchStrategies)
+            && Objects.equals(vectorPageFaults, other.vectorPageFaults);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(queryProfileResults, profileCollector, rewriteTime);
+        return Objects.hash(
+            queryProfileResults,
+            profileCollector,
+            rewriteTime,
+            vectorOperationsCount,
+            skippedSegments,
+            knnSearchStrategies,
+            vectorPageFaults
+        );
     }
 
     @Override
@@ -147,6 +274,9 @@ public final class QueryProfileShardResult implements Writeable, ToXContentObjec
         List<ProfileResult> queryProfileResults = new ArrayList<>();
         long rewriteTime = 0;
         Long vectorOperationsCount = null;
+        Long skippedSegments = null;
+        Map<String, Long> knnSearchStrategies = null;
+        Long vectorPageFaults = null;
         CollectorResult collector = null;
         while ((token = parser.nextToken()) != XContentParser.Token.END_OBJECT) {
             if (token == XContentParser.Token.FIELD_NAME) {
@@ -156,6 +286,10 @@ public final class QueryProfileShardResult implements Writeable, ToXContentObjec
                     rewriteTime = parser.longValue();
                 } else if (VECTOR_OPERATIONS_COUNT.equals(currentFieldName)) {
                     vectorOperationsCount = parser.longValue();
+                } else if (SKIPPED_SEGMENTS.equals(currentFieldName)) {
+                    skippedSegments = parser.longValue();
+                } else if (VECTOR_PAGE_FAULTS.equals(currentFieldName)) {
+                    vectorPageFaults = parser.longValue();
                 } else {
                     parser.skipChildren();
                 }
@@ -171,10 +305,20 @@ public final class QueryProfileShardResult implements Writeable, ToXContentObjec
                 } else {
                     parser.skipChildren();
                 }
+            } else if (token == XContentParser.Token.START_OBJECT && KNN_SEARCH_STRATEGIES.equals(currentFieldName)) {
+                knnSearchStrategies = parser.map(LinkedHashMap::new, XContentParser::longValue);
             } else {
                 parser.skipChildren();
             }
         }
-        return new QueryProfileShardResult(queryProfileResults, rewriteTime, collector, vectorOperationsCount);
+        return new QueryProfileShardResult(
+            queryProfileResults,
+            rewriteTime,
+            collector,
+            vectorOperationsCount,
+            skippedSegments,
+            knnSearchStrategies,
+            vectorPageFaults
+        );
     }
 }
@@ -12,6 +12,9 @@ import org.apache.lucene.search.Query;
 import org.elasticsearch.search.profile.AbstractProfiler;
 import org.elasticsearch.search.profile.Timer;
 
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -34,6 +37,12 @@ public final class QueryProfiler extends AbstractProfiler<QueryProfileBreakdown,
 
     private long vectorOpsCount;
 
+    private Map<String, Long> knnSearchStrategies;
+
+    private Long vectorPageFaults;
+
+    private final AtomicLong skippedSegments = new AtomicLong();
+
     public QueryProfiler() {
         super(new InternalQueryProfileTree());
     }
@@ -46,6 +55,42 @@ public final class QueryProfiler extends AbstractProfiler<QueryProfileBreakdown,
         return this.vectorOpsCount;
     }
 
+    /**
+     * Records how many segments a filtered kNN search searched with each strategy.
+     */
+    public void setKnnSearchStrategies(Map<String, Long> knnSearchStrategies) {
+        this.knnSearchStrategies = knnSearchStrategies;
+    }
+
+    public Map<String, Long> getKnnSearchStrategies() {
+        return knnSearchStrategies;
+    }
+
+    /**
+     * Records how many major page faults the threads that searched the vectors of a kNN search incurred.
+     */
+    public void setVectorPageFaults(long vectorPageFaults) {
+        this.vectorPageFaults = vectorPageFaults;
+    }
+
+    /**
+     * Returns the number of major page faults of a kNN search, or <code>null</code> if they weren't counted.
+     */
+    public Long getVectorPageFaults() {
+        return vectorPageFaults;
+    }
+
+    /**
+     * Records that a segment was skipped without being searched because it could not match the query.
+     */
+    public void incrementSkippedSegments() {
+        skippedSegments.incrementAndGet();
+    }
+
+    public long getSkippedSegments() {
+        return skippedSegments.get();
+    }
+
     /** Set the collector result that is associated with this profiler. */
     public void setCollectorResult(CollectorResult collectorResult) {
         if (this.collectorResult != null) {
@@ -28,6 +28,7 @@ import org.elasticsearch.common.lucene.Lucene;
 import org.elasticsearch.common.lucene.search.TopDocsAndMaxScore;
 import org.elasticsearch.common.util.concurrent.EsThreadPoolExecutor;
 import org.elasticsearch.common.util.concurrent.TaskExecutionTimeTrackingEsThreadPoolExecutor;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.lucene.queries.SearchAfterSortedDocQuery;
 import org.elasticsearch.search.DocValueFormat;
 import org.elasticsearch.search.SearchContextSourcePrinter;
@@ -43,10 +44,12 @@ import org.elasticsearch.search.sort.SortAndFormats;
 import org.elasticsearch.search.suggest.SuggestPhase;
 import org.elasticsearch.threadpool.ThreadPool;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 
+import static org.elasticsearch.search.internal.SearchContext.TRACK_TOTAL_HITS_ACCURATE;
 import static org.elasticsearch.search.internal.SearchContext.TRACK_TOTAL_HITS_DISABLED;
 
 /**
@@ -72,9 +75,21 @@ public class QueryPhase {
 
         // run the combined boolean query total hits or aggregations
         // otherwise mark top docs as empty
+        RankQueriesCollectorManager rankQueriesCollectorManager = null;
         if (searchContext.trackTotalHitsUpTo() != TRACK_TOTAL_HITS_DISABLED || searchContext.aggregations() != null) {
             searchContext.size(0);
-            QueryPhase.executeQuery(searchContext);
+            if (canCollectRankQueriesAlongside(searchContext)) {
+                try {
+                    rankQueriesCollectorManager = RankQueriesCollectorManager.create(
+                        searchContext,
+                        rankShardContext.queries(),
+                        rankShardContext.windowSize()
+                    );
+                } catch (IOException e) {
+                    throw new QueryPhaseExecutionException(searchContext.shardTarget(), "Failed to create rank queries collector", e);
+                }
+            }
+            QueryPhase.executeQuery(searchContext, rankQueriesCollectorManager);
         } else {
             searchContext.queryResult()
                 .topDocs(
@@ -88,19 +103,26 @@ public class QueryPhase {
         long serviceTimeEWMA = querySearchResult.serviceTimeEWMA();
         int nodeQueueSize = querySearchResult.nodeQueueSize();
 
-        // run each of the rank queries
-        for (Query rankQuery : rankShardContext.queries()) {
-            // if a search timeout occurs, exit with partial results
-            if (searchTimedOut) {
-                break;
-            }
-            try (RankSearchContext rankSearchContext = new RankSearchContext(searchContext, rankQuery, rankShardContext.windowSize())) {
-                QueryPhase.addCollectorsAndSearch(rankSearchContext);
-                QuerySearchResult rrfQuerySearchResult = rankSearchContext.queryResult();
-                rrfRankResults.add(rrfQuerySearchResult.topDocs().topDocs);
-                serviceTimeEWMA += rrfQuerySearchResult.serviceTimeEWMA();
-                nodeQueueSize = Math.max(nodeQueueSize, rrfQuerySearchResult.nodeQueueSize());
-                searchTimedOut = rrfQuerySearchResult.searchTimedOut();
+        if (rankQueriesCollectorManager != null) {
+            // the rank queries were collected while running the combined query
+            rrfRankResults.addAll(rankQueriesCollectorManager.topDocs());
+        } else {
+            // run each of the rank queries
+            for (Query rankQuery : rankShardContext.queries()) {
+                // if a search timeout occurs, exit with partial results
+                if (searchTimedOut) {
+                    break;
+                }
+                try (
+                    RankSearchContext rankSearchContext = new RankSearchContext(searchContext, rankQuery, rankShardContext.windowSize())
+                ) {
+                    QueryPhase.addCollectorsAndSearch(rankSearchContext);
+                    QuerySearchResult rrfQuerySearchResult = rankSearchContext.queryResult();
+                    rrfRankResults.add(rrfQuerySearchResult.topDocs().topDocs);
+                    serviceTimeEWMA += rrfQuerySearchResult.serviceTimeEWMA();
+                    nodeQueueSize = Math.max(nodeQueueSize, rrfQuerySearchResult.nodeQueueSize());
+                    searchTimedOut = rrfQuerySearchResult.searchTimedOut();
+                }
             }
         }
 
@@ -112,7 +134,27 @@ public class QueryPhase {
         querySearchResult.nodeQueueSize(nodeQueueSize);
     }
 
+    /**
+     * Returns whether the rank queries can be collected in the same pass as the combined query. This is only worth it when
+     * the combined query visits all its matches anyway, to compute aggregations or to count hits accurately: otherwise each
+     * rank query is cheaper to run on its own, since it can skip over the documents that can't make it to its top hits.
+     * Rank queries also need to run on their own when their collection differs from that of the combined query.
+     */
+    static boolean canCollectRankQueriesAlongside(SearchContext searchContext) {
+        return (searchContext.aggregations() != null || searchContext.trackTotalHitsUpTo() == TRACK_TOTAL_HITS_ACCURATE)
+            && searchContext.getProfilers() == null
+            && searchContext.parsedPostFilter() == null
+            && searchContext.minimumScore() == null
+            && searchContext.terminateAfter() == SearchContext.DEFAULT_TERMINATE_AFTER
+            && searchContext.searchAfter() == null;
+    }
+
     static void executeQuery(SearchContext searchContext) throws QueryPhaseExecutionException {
+        executeQuery(searchContext, null);
+    }
+
+    private static void executeQuery(SearchContext searchContext, @Nullable RankQueriesCollectorManager rankQueriesCollectorManager)
+        throws QueryPhaseExecutionException {
         if (searchContext.hasOnlySuggest()) {
             SuggestPhase.execute(searchContext);
             searchContext.queryResult()
@@ -132,7 +174,7 @@ public class QueryPhase {
         // here to make sure it happens during the QUERY phase
         AggregationPhase.preProcess(searchContext);
 
-        addCollectorsAndSearch(searchContext);
+        addCollectorsAndSearch(searchContext, rankQueriesCollectorManager);
 
         RescorePhase.execute(searchContext);
         SuggestPhase.execute(searchContext);
@@ -147,6 +189,13 @@ public class QueryPhase {
      * wire everything (mapperService, etc.)
      */
     static void addCollectorsAndSearch(SearchContext searchContext) throws QueryPhaseExecutionException {
+        addCollectorsAndSearch(searchContext, null);
+    }
+
+    private static void addCollectorsAndSearch(
+        SearchContext searchContext,
+        @Nullable RankQueriesCollectorManager rankQueriesCollectorManager
+    ) throws QueryPhaseExecutionException {
         final ContextIndexSearcher searcher = searchContext.searcher();
         final IndexReader reader = searcher.getIndexReader();
         QuerySearchResult queryResult = searchContext.queryResult();
@@ -171,12 +220,15 @@ public class QueryPhase {
                         // now this gets interesting: since the search sort is a prefix of the index sort, we can directly
                         // skip to the desired doc
                         if (after != null) {
-                            query = new BooleanQuery.Builder().add(query, BooleanClause.Occur.MUST)
-                                .add(new SearchAfterSortedDocQuery(searchContext.sort().sort, (FieldDoc) after), BooleanClause.Occur.FILTER)
-                                .build();
+                            query = addSearchAfterSortedDocFilter(query, searchContext.sort(), (FieldDoc) after);
                         }
                     }
                 }
+            } else if (canSkipToSearchAfter(searchContext) && canEarlyTerminate(reader, searchContext.sort())) {
+                // the search sort is a prefix of the index sort and nothing else needs to see the documents that sort
+                // before the search_after values, so we can seek directly to the first competitive doc of each segment
+                // and skip the segments that only contain non-competitive documents
+                query = addSearchAfterSortedDocFilter(query, searchContext.sort(), searchContext.searchAfter());
             }
 
             final boolean hasFilterCollector = searchContext.parsedPostFilter() != null || searchContext.minimumScore() != null;
@@ -197,6 +249,10 @@ public class QueryPhase {
                 hasFilterCollector
             );
 
+            if (rankQueriesCollectorManager != null) {
+                collectorManager = rankQueriesCollectorManager.alongside(collectorManager);
+            }
+
             final Runnable timeoutRunnable = getTimeoutCheck(searchContext);
             if (timeoutRunnable != null) {
                 searcher.addQueryCancellation(timeoutRunnable);
@@ -230,6 +286,28 @@ public class QueryPhase {
         }
     }
 
+    private static Query addSearchAfterSortedDocFilter(Query query, SortAndFormats sortAndFormats, FieldDoc after) {
+        return new BooleanQuery.Builder().add(query, BooleanClause.Occur.MUST)
+            .add(new SearchAfterSortedDocQuery(sortAndFormats.sort, after), BooleanClause.Occur.FILTER)
+            .build();
+    }
+
+    /**
+     * Returns whether the documents that sort before the <code>search_after</code> values of the provided <code>searchContext</code>
+     * can be filtered out of the query. This is only the case when they don't contribute to anything else than the top hits:
+     * total hits must not be tracked, and no aggregation, field collapsing or rescoring needs to see them.
+     */
+    static boolean canSkipToSearchAfter(SearchContext searchContext) {
+        return searchContext.searchAfter() != null
+            && searchContext.size() > 0
+            && searchContext.trackTotalHitsUpTo() == TRACK_TOTAL_HITS_DISABLED
+            && searchContext.aggregations() == null
+            && searchContext.collapse() == null
+            && searchContext.rescore().isEmpty()
+            && searchContext.sort() != null
+            && searchContext.sort().sort.getSort().length == searchContext.searchAfter().fields.length;
+    }
+
     /**
      * Returns whether collection within the provided <code>reader</code> can be early-terminated if it sorts
      * with <code>sortAndFormats</code>.
@@ -0,0 +1,175 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.search.query;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.CollectionTerminatedException;
+import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.CollectorManager;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.LeafCollector;
+import org.apache.lucene.search.MultiCollector;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Scorable;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopScoreDocCollector;
+import org.apache.lucene.search.TopScoreDocCollectorManager;
+import org.apache.lucene.search.Weight;
+import org.elasticsearch.search.internal.ContextIndexSearcher;
+import org.elasticsearch.search.internal.SearchContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Collects the top hits of each rank query while the combined query of a ranked search is executed, so that the
+ * shard doesn't have to go over its matches once more per rank query. The combined query is a disjunction of the
+ * rank queries, hence it visits every document that one of them matches: each collected document is scored by the
+ * rank queries that match it, which only have to advance their iterators to it.
+ */
+final class RankQueriesCollectorManager implements CollectorManager<RankQueriesCollectorManager.RankQueriesCollector, List<TopDocs>> {
+
+    private final Weight[] weights;
+    private final TopScoreDocCollectorManager[] topDocsCollectorManagers;
+    private List<TopDocs> topDocs;
+
+    private RankQueriesCollectorManager(Weight[] weights, int numHits) {
+        this.weights = weights;
+        this.topDocsCollectorManagers = new TopScoreDocCollectorManager[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            topDocsCollectorManagers[i] = new TopScoreDocCollectorManager(numHits, null, Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Creates the collector manager for the provided rank queries, filtered the same way as when they are executed on their own.
+     */
+    static RankQueriesCollectorManager create(SearchContext searchContext, List<Query> rankQueries, int windowSize) throws IOException {
+        ContextIndexSearcher searcher = searchContext.searcher();
+        Weight[] weights = new Weight[rankQueries.size()];
+        for (int i = 0; i < weights.length; i++) {
+            Query query = searcher.rewrite(searchContext.buildFilteredQuery(rankQueries.get(i)));
+            weights[i] = searcher.createWeight(query, ScoreMode.COMPLETE, 1f);
+        }
+        // top collectors don't like a size of 0
+        int numHits = Math.min(searchContext.from() + windowSize, Math.max(1, searcher.getIndexReader().numDocs()));
+        return new RankQueriesCollectorManager(weights, numHits);
+    }
+
+    @Override
+    public RankQueriesCollector newCollector() {
+        TopScoreDocCollector[] collectors = new TopScoreDocCollector[topDocsCollectorManagers.length];
+        for (int i = 0; i < collectors.length; i++) {
+            collectors[i] = topDocsCollectorManagers[i].newCollector();
+        }
+        return new RankQueriesCollector(weights, collectors);
+    }
+
+    @Override
+    public List<TopDocs> reduce(Collection<RankQueriesCollector> collectors) throws IOException {
+        List<TopDocs> results = new ArrayList<>(topDocsCollectorManagers.length);
+        for (int i = 0; i < topDocsCollectorManagers.length; i++) {
+            List<TopScoreDocCollector> topDocsCollectors = new ArrayList<>(collectors.size());
+            for (RankQueriesCollector collector : collectors) {
+                topDocsCollectors.add(collector.topDocsCollectors[i]);
+            }
+            results.add(topDocsCollectorManagers[i].reduce(topDocsCollectors));
+        }
+        return results;
+    }
+
+    /**
+     * Wraps the collector manager of the query phase so that the rank queries are collected alongside it. Their top hits are
+     * available through {@link #topDocs()} once the search completed.
+     */
+    CollectorManager<Collector, QueryPhaseResult> alongside(CollectorManager<Collector, QueryPhaseResult> queryPhaseCollectorManager) {
+        return new CollectorManager<>() {
+            @Override
+            public Collector newCollector() throws IOException {
+                return MultiCollector.wrap(queryPhaseCollectorManager.newCollector(), RankQueriesCollectorManager.this.newCollector());
+            }
+
+            @Override
+            public QueryPhaseResult reduce(Collection<Collector> collectors) throws IOException {
+                List<Collector> queryPhaseCollectors = new ArrayList<>(collectors.size());
+                List<RankQueriesCollector> rankQueriesCollectors = new ArrayList<>(collectors.size());
+                for (Collector collector : collectors) {
+                    Collector[] wrapped = ((MultiCollector) collector).getCollectors();
+                    assert wrapped.length == 2;
+                    queryPhaseCollectors.add(wrapped[0]);
+                    rankQueriesCollectors.add((RankQueriesCollector) wrapped[1]);
+                }
+                topDocs = RankQueriesCollectorManager.this.reduce(rankQueriesCollectors);
+                return queryPhaseCollectorManager.reduce(queryPhaseCollectors);
+            }
+        };
+    }
+
+    /**
+     * Returns the top hits of each rank query, in the order of the rank queries.
+     */
+    List<TopDocs> topDocs() {
+        return topDocs;
+    }
+
+    static final class RankQueriesCollector implements Collector {
+        private final Weight[] weights;
+        private final TopScoreDocCollector[] topDocsCollectors;
+
+        RankQueriesCollector(Weight[] weights, TopScoreDocCollector[] topDocsCollectors) {
+            this.weights = weights;
+            this.topDocsCollectors = topDocsCollectors;
+        }
+
+        @Override
+        public LeafCollector getLeafCollector(LeafReaderContext context) throws IOException {
+            List<DocIdSetIterator> iterators = new ArrayList<>(weights.length);
+            List<LeafCollector> leafCollectors = new ArrayList<>(weights.length);
+            for (int i = 0; i < weights.length; i++) {
+                Scorer scorer = weights[i].scorer(context);
+                if (scorer != null) {
+                    LeafCollector leafCollector = topDocsCollectors[i].getLeafCollector(context);
+                    leafCollector.setScorer(scorer);
+                    iterators.add(scorer.iterator());
+                    leafCollectors.add(leafCollector);
+                }
+            }
+            if (iterators.isEmpty()) {
+                throw new CollectionTerminatedException();
+            }
+            return new LeafCollector() {
+                @Override
+                public void setScorer(Scorable scorer) {}
+
+                @Override
+                public void collect(int doc) throws IOException {
+                    // documents are collected in order, so the iterators only ever move forward
+                    for (int i = 0; i < iterators.size(); i++) {
+                        DocIdSetIterator iterator = iterators.get(i);
+                        if (iterator.docID() < doc) {
+                            iterator.advance(doc);
+                        }
+                        if (iterator.docID() == doc) {
+                            leafCollectors.get(i).collect(doc);
+                        }
+                    }
+                }
+            };
+        }
+
+        @Override
+        public ScoreMode scoreMode() {
+            return ScoreMode.COMPLETE_NO_SCORES;
+        }
+    }
+}
@@ -8,19 +8,32 @@
 
 package org.elasticsearch.search.vectors;
 
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.join.BitSetProducer;
 import org.apache.lucene.search.join.DiversifyingChildrenFloatKnnVectorQuery;
+import org.apache.lucene.util.Bits;
 import org.elasticsearch.search.profile.query.QueryProfiler;
 
+import java.io.IOException;
+
 public class ESDiversifyingChildrenFloatKnnVectorQuery extends DiversifyingChildrenFloatKnnVectorQuery implements ProfilingQuery {
     private long vectorOpsCount;
+    private PageFaultCounter pageFaults;
 
     public ESDiversifyingChildrenFloatKnnVectorQuery(String field, float[] query, Query childFilter, int k, BitSetProducer parentsFilter) {
         super(field, query, childFilter, k, parentsFilter);
     }
 
+    @Override
+    protected TopDocs approximateSearch(LeafReaderContext context, Bits acceptDocs, int visitedLimit) throws IOException {
+        if (pageFaults == null) {
+            return super.approximateSearch(context, acceptDocs, visitedLimit);
+        }
+        return pageFaults.count(() -> super.approximateSearch(context, acceptDocs, visitedLimit));
+    }
+
     @Override
     protected TopDocs mergeLeafResults(TopDocs[] perLeafResults) {
         TopDocs topK = super.mergeLeafResults(perLeafResults);
@@ -28,8 +41,16 @@ public class ESDiversifyingChildrenFloatKnnVectorQuery extends DiversifyingChild
         return topK;
     }
 
+    @Override
+    public void enableProfiling() {
+        pageFaults = new PageFaultCounter();
+    }
+
     @Override
     public void profile(QueryProfiler queryProfiler) {
         queryProfiler.setVectorOpsCount(vectorOpsCount);
+        if (pageFaults != null) {
+            pageFaults.profile(queryProfiler);
+        }
     }
 }
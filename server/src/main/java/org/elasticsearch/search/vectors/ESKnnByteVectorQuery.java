@@ -8,28 +8,88 @@
 
 package org.elasticsearch.search.vectors;
 
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.KnnByteVectorQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.util.Bits;
 import org.elasticsearch.search.profile.query.QueryProfiler;
 
+import java.io.IOException;
+
 public class ESKnnByteVectorQuery extends KnnByteVectorQuery implements ProfilingQuery {
 
-    private long vectorOpsCount;
+    private final byte[] target;
+    private final Query filterQuery;
+    /** The filtered search that this query runs the pre-filtered graph searches of, if any. */
+    private final FilteredKnnSearch filteredSearch;
+    private KnnSearchProfile profile;
 
     public ESKnnByteVectorQuery(String field, byte[] target, int k, Query filter) {
+        this(field, target, k, filter, null);
+    }
+
+    private ESKnnByteVectorQuery(String field, byte[] target, int k, Query filter, FilteredKnnSearch filteredSearch) {
         super(field, target, k, filter);
+        this.target = target;
+        this.filterQuery = filter;
+        this.filteredSearch = filteredSearch;
+    }
+
+    @Override
+    public Query rewrite(IndexSearcher indexSearcher) throws IOException {
+        if (filterQuery == null || filteredSearch != null) {
+            return super.rewrite(indexSearcher);
+        }
+        // the strategy is picked for every search, by queries that only live for this search
+        FilteredKnnSearch search = new FilteredKnnSearch(field, filterQuery, k);
+        Query rewritten = search.rewrite(
+            indexSearcher,
+            numCands -> searchCopy(numCands, null, null).rewrite(indexSearcher),
+            () -> searchCopy(k, filterQuery, search).rewrite(indexSearcher)
+        );
+        if (profile != null) {
+            profile.setSearchStrategies(search.segmentsPerStrategy());
+        }
+        return rewritten;
+    }
+
+    private ESKnnByteVectorQuery searchCopy(int numCands, Query filter, FilteredKnnSearch search) {
+        ESKnnByteVectorQuery copy = new ESKnnByteVectorQuery(field, target, numCands, filter, search);
+        copy.profile = profile;
+        return copy;
+    }
+
+    @Override
+    protected TopDocs approximateSearch(LeafReaderContext context, Bits acceptDocs, int visitedLimit) throws IOException {
+        TopDocs topDocs = profile == null
+            ? super.approximateSearch(context, acceptDocs, visitedLimit)
+            : profile.searchSegment(() -> super.approximateSearch(context, acceptDocs, visitedLimit));
+        if (filteredSearch != null) {
+            filteredSearch.onApproximateSearch(topDocs);
+        }
+        return topDocs;
     }
 
     @Override
     protected TopDocs mergeLeafResults(TopDocs[] perLeafResults) {
         TopDocs topK = super.mergeLeafResults(perLeafResults);
-        vectorOpsCount = topK.totalHits.value;
+        if (profile != null) {
+            profile.addVectorOps(topK.totalHits.value);
+        }
         return topK;
     }
 
+    @Override
+    public void enableProfiling() {
+        profile = new KnnSearchProfile();
+    }
+
     @Override
     public void profile(QueryProfiler queryProfiler) {
-        queryProfiler.setVectorOpsCount(vectorOpsCount);
+        if (profile != null) {
+            profile.profile(queryProfiler);
+        }
     }
 }
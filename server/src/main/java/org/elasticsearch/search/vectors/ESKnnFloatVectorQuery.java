@@ -8,27 +8,143 @@
 
 package org.elasticsearch.search.vectors;
 
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.FloatVectorValues;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.KnnFloatVectorQuery;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.util.Bits;
 import org.elasticsearch.search.profile.query.QueryProfiler;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+
 public class ESKnnFloatVectorQuery extends KnnFloatVectorQuery implements ProfilingQuery {
-    private long vectorOpsCount;
+    private static final Comparator<ScoreDoc> BY_SCORE_DESC = Comparator.<ScoreDoc>comparingDouble(sd -> sd.score)
+        .reversed()
+        .thenComparingInt(sd -> sd.doc);
+
+    private final float[] target;
+    private final Query filterQuery;
+    private final boolean rescoreWithRawVectors;
+    /** The filtered search that this query runs the pre-filtered graph searches of, if any. */
+    private final FilteredKnnSearch filteredSearch;
+    private KnnSearchProfile profile;
 
     public ESKnnFloatVectorQuery(String field, float[] target, int k, Query filter) {
+        this(field, target, k, filter, false);
+    }
+
+    /**
+     * @param rescoreWithRawVectors recompute the scores of the candidates that the approximate
+     *                              search finds in each segment from the raw float vectors. Only
+     *                              worth it if the index only scores quantized vectors.
+     */
+    public ESKnnFloatVectorQuery(String field, float[] target, int k, Query filter, boolean rescoreWithRawVectors) {
+        this(field, target, k, filter, rescoreWithRawVectors, null);
+    }
+
+    private ESKnnFloatVectorQuery(
+        String field,
+        float[] target,
+        int k,
+        Query filter,
+        boolean rescoreWithRawVectors,
+        FilteredKnnSearch filteredSearch
+    ) {
         super(field, target, k, filter);
+        this.target = target;
+        this.filterQuery = filter;
+        this.rescoreWithRawVectors = rescoreWithRawVectors;
+        this.filteredSearch = filteredSearch;
+    }
+
+    @Override
+    public Query rewrite(IndexSearcher indexSearcher) throws IOException {
+        if (filterQuery == null || filteredSearch != null) {
+            return super.rewrite(indexSearcher);
+        }
+        // the strategy is picked for every search, by queries that only live for this search
+        FilteredKnnSearch search = new FilteredKnnSearch(field, filterQuery, k);
+        Query rewritten = search.rewrite(
+            indexSearcher,
+            numCands -> searchCopy(numCands, null, null).rewrite(indexSearcher),
+            () -> searchCopy(k, filterQuery, search).rewrite(indexSearcher)
+        );
+        if (profile != null) {
+            profile.setSearchStrategies(search.segmentsPerStrategy());
+        }
+        return rewritten;
+    }
+
+    private ESKnnFloatVectorQuery searchCopy(int numCands, Query filter, FilteredKnnSearch search) {
+        ESKnnFloatVectorQuery copy = new ESKnnFloatVectorQuery(field, target, numCands, filter, rescoreWithRawVectors, search);
+        copy.profile = profile;
+        return copy;
+    }
+
+    @Override
+    protected TopDocs approximateSearch(LeafReaderContext context, Bits acceptDocs, int visitedLimit) throws IOException {
+        TopDocs topDocs = profile == null
+            ? super.approximateSearch(context, acceptDocs, visitedLimit)
+            : profile.searchSegment(() -> super.approximateSearch(context, acceptDocs, visitedLimit));
+        if (filteredSearch != null) {
+            filteredSearch.onApproximateSearch(topDocs);
+        }
+        if (rescoreWithRawVectors == false || topDocs.scoreDocs.length == 0) {
+            return topDocs;
+        }
+        FieldInfo fieldInfo = context.reader().getFieldInfos().fieldInfo(field);
+        FloatVectorValues vectorValues = context.reader().getFloatVectorValues(field);
+        if (fieldInfo == null || vectorValues == null) {
+            return topDocs;
+        }
+        VectorSimilarityFunction similarity = fieldInfo.getVectorSimilarityFunction();
+        ScoreDoc[] scoreDocs = topDocs.scoreDocs.clone();
+        // vector values can only advance, so visit the candidates in doc id order
+        Arrays.sort(scoreDocs, Comparator.comparingInt(sd -> sd.doc));
+        for (ScoreDoc scoreDoc : scoreDocs) {
+            int doc = vectorValues.advance(scoreDoc.doc);
+            assert doc == scoreDoc.doc : "candidate [" + scoreDoc.doc + "] has no vector";
+            scoreDoc.score = similarity.compare(target, vectorValues.vectorValue());
+        }
+        Arrays.sort(scoreDocs, BY_SCORE_DESC);
+        return new TopDocs(topDocs.totalHits, scoreDocs);
     }
 
     @Override
     protected TopDocs mergeLeafResults(TopDocs[] perLeafResults) {
         TopDocs topK = super.mergeLeafResults(perLeafResults);
-        vectorOpsCount = topK.totalHits.value;
+        if (profile != null) {
+            profile.addVectorOps(topK.totalHits.value);
+        }
         return topK;
     }
 
+    @Override
+    public void enableProfiling() {
+        profile = new KnnSearchProfile();
+    }
+
     @Override
     public void profile(QueryProfiler queryProfiler) {
-        queryProfiler.setVectorOpsCount(vectorOpsCount);
+        if (profile != null) {
+            profile.profile(queryProfiler);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return super.equals(o) && rescoreWithRawVectors == ((ESKnnFloatVectorQuery) o).rescoreWithRawVectors;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + Boolean.hashCode(rescoreWithRawVectors);
     }
 }
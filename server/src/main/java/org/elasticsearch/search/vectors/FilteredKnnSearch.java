@@ -0,0 +1,215 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.search.vectors;
+
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.ScorerSupplier;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.search.TwoPhaseIterator;
+import org.apache.lucene.search.Weight;
+import org.elasticsearch.common.CheckedSupplier;
+import org.elasticsearch.core.CheckedFunction;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.apache.lucene.search.DocIdSetIterator.NO_MORE_DOCS;
+
+/**
+ * Picks the strategy of a filtered kNN search. Lucene's kNN queries always pre-filter: they
+ * collect the documents that match the filter of each segment into a bit set, score all of them
+ * when there are no more of them than the number of candidates, and otherwise search the HNSW
+ * graph accepting only them, falling back to scoring all of them if the graph search visits more
+ * vectors than the filter matches. When the filter matches most documents, building the bit set
+ * costs about as much as the graph search while filtering out very few of the candidates, so it
+ * is cheaper to search the graph without the filter for a few more candidates and to drop the
+ * candidates that don't match the filter afterwards.
+ * <p>
+ * One instance is created for every search of a filtered kNN query, and it counts the segments
+ * that this search searched with each strategy for the profile.
+ */
+final class FilteredKnnSearch {
+    /**
+     * Post-filter when the filter is estimated to match at least this share of the documents of
+     * the segments that have vectors.
+     */
+    static final double POST_FILTER_MIN_SELECTIVITY = 0.5;
+    /**
+     * How many more candidates than the expected {@code numCands / selectivity} to collect when
+     * post-filtering, so that the filter leaves enough of them.
+     */
+    static final double POST_FILTER_OVERSAMPLE = 1.5;
+
+    private static final Comparator<ScoreDoc> BY_SCORE_DESC = Comparator.<ScoreDoc>comparingDouble(sd -> sd.score)
+        .reversed()
+        .thenComparingInt(sd -> sd.doc);
+
+    enum Strategy {
+        /** Score all the vectors that match the filter. */
+        EXACT,
+        /** Search the graph, only accepting the vectors that match the filter. */
+        PRE_FILTER,
+        /** Search the graph for more candidates and drop those that don't match the filter. */
+        POST_FILTER;
+
+        String profileName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final String field;
+    private final Query filter;
+    private final int numCands;
+    private final AtomicLong completeGraphSearches = new AtomicLong();
+    private final AtomicLongArray segmentsPerStrategy = new AtomicLongArray(Strategy.values().length);
+
+    FilteredKnnSearch(String field, Query filter, int numCands) {
+        this.field = field;
+        this.filter = filter;
+        this.numCands = numCands;
+    }
+
+    /**
+     * Rewrite the filtered kNN query.
+     *
+     * @param unfiltered rewrites the same kNN query without filter for the given number of candidates
+     * @param preFiltered rewrites the kNN query with Lucene's pre-filtering
+     */
+    Query rewrite(
+        IndexSearcher searcher,
+        CheckedFunction<Integer, Query, IOException> unfiltered,
+        CheckedSupplier<Query, IOException> preFiltered
+    ) throws IOException {
+        IndexReader reader = searcher.getIndexReader();
+        Weight filterWeight = searcher.createWeight(searcher.rewrite(filter), ScoreMode.COMPLETE_NO_SCORES, 1f);
+        long vectorSegments = 0;
+        long vectorSegmentsMaxDoc = 0;
+        long filterCost = 0;
+        for (LeafReaderContext context : reader.leaves()) {
+            FieldInfo fieldInfo = context.reader().getFieldInfos().fieldInfo(field);
+            if (fieldInfo == null || fieldInfo.hasVectorValues() == false) {
+                continue;
+            }
+            vectorSegments++;
+            vectorSegmentsMaxDoc += context.reader().maxDoc();
+            // the cost is only an estimate, but unlike counting it doesn't need to visit the matches
+            ScorerSupplier scorerSupplier = filterWeight.scorerSupplier(context);
+            if (scorerSupplier != null) {
+                filterCost += Math.min(scorerSupplier.cost(), context.reader().maxDoc());
+            }
+        }
+        if (vectorSegments == 0) {
+            return preFiltered.get();
+        }
+        double selectivity = (double) filterCost / vectorSegmentsMaxDoc;
+        if (selectivity >= POST_FILTER_MIN_SELECTIVITY) {
+            int candidates = (int) Math.min(Integer.MAX_VALUE, (long) Math.ceil(numCands * POST_FILTER_OVERSAMPLE / selectivity));
+            Query postFiltered = postFilter(searcher, filterWeight, unfiltered.apply(candidates), candidates);
+            if (postFiltered != null) {
+                segmentsPerStrategy.addAndGet(Strategy.POST_FILTER.ordinal(), vectorSegments);
+                return postFiltered;
+            }
+        }
+        Query rewritten = preFiltered.get();
+        long preFilteredSegments = completeGraphSearches.get();
+        segmentsPerStrategy.addAndGet(Strategy.PRE_FILTER.ordinal(), preFilteredSegments);
+        segmentsPerStrategy.addAndGet(Strategy.EXACT.ordinal(), vectorSegments - preFilteredSegments);
+        return rewritten;
+    }
+
+    /**
+     * Keep the candidates that match the filter, or return {@code null} if the filter matched fewer
+     * than {@code numCands} candidates while there may be more vectors that match it.
+     */
+    private Query postFilter(IndexSearcher searcher, Weight filterWeight, Query candidates, int numCandidates) throws IOException {
+        IndexReader reader = searcher.getIndexReader();
+        Weight candidatesWeight = searcher.createWeight(candidates, ScoreMode.COMPLETE, 1f);
+        List<ScoreDoc> matches = new ArrayList<>();
+        int candidateCount = 0;
+        for (LeafReaderContext context : reader.leaves()) {
+            Scorer candidatesScorer = candidatesWeight.scorer(context);
+            if (candidatesScorer == null) {
+                continue;
+            }
+            Scorer filterScorer = filterWeight.scorer(context);
+            TwoPhaseIterator twoPhase = null;
+            DocIdSetIterator approximation = null;
+            if (filterScorer != null) {
+                twoPhase = filterScorer.twoPhaseIterator();
+                approximation = twoPhase == null ? filterScorer.iterator() : twoPhase.approximation();
+            }
+            DocIdSetIterator iterator = candidatesScorer.iterator();
+            for (int doc = iterator.nextDoc(); doc != NO_MORE_DOCS; doc = iterator.nextDoc()) {
+                candidateCount++;
+                if (approximation == null) {
+                    continue;
+                }
+                if (approximation.docID() < doc) {
+                    approximation.advance(doc);
+                }
+                if (approximation.docID() == doc && (twoPhase == null || twoPhase.matches())) {
+                    matches.add(new ScoreDoc(context.docBase + doc, candidatesScorer.score()));
+                }
+            }
+        }
+        if (matches.size() < numCands && candidateCount >= numCandidates) {
+            return null;
+        }
+        matches.sort(BY_SCORE_DESC);
+        List<ScoreDoc> topK = matches.subList(0, Math.min(numCands, matches.size()));
+        topK.sort(Comparator.comparingInt(sd -> sd.doc));
+        int[] docs = new int[topK.size()];
+        float[] scores = new float[topK.size()];
+        for (int i = 0; i < docs.length; i++) {
+            docs[i] = topK.get(i).doc;
+            scores[i] = topK.get(i).score;
+        }
+        return new KnnScoreDocQuery(docs, scores, KnnScoreDocQueryBuilder.findSegmentStarts(reader, docs), reader.getContext().id());
+    }
+
+    /**
+     * Called with the results of every graph search of the pre-filtered query.
+     */
+    void onApproximateSearch(TopDocs topDocs) {
+        // Lucene searches the filtered vectors exactly when the graph search didn't complete
+        if (topDocs.totalHits.relation == TotalHits.Relation.EQUAL_TO) {
+            completeGraphSearches.incrementAndGet();
+        }
+    }
+
+    /**
+     * The number of segments that were searched with each strategy, by profile name.
+     */
+    Map<String, Long> segmentsPerStrategy() {
+        Map<String, Long> segments = new LinkedHashMap<>();
+        for (Strategy strategy : Strategy.values()) {
+            long count = segmentsPerStrategy.get(strategy.ordinal());
+            if (count > 0) {
+                segments.put(strategy.profileName(), count);
+            }
+        }
+        return segments;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.search.vectors;
+
+import org.elasticsearch.common.CheckedSupplier;
+import org.elasticsearch.search.profile.query.QueryProfiler;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The statistics of one profiled search of a kNN query. The same query object can be rewritten
+ * many times, so these are gathered by an instance that {@link ProfilingQuery#enableProfiling()}
+ * creates for every search, and that the queries the kNN query rewrites itself with share.
+ */
+final class KnnSearchProfile {
+
+    private final PageFaultCounter pageFaults;
+    private final LongAdder vectorOps = new LongAdder();
+    private volatile Map<String, Long> searchStrategies;
+
+    KnnSearchProfile() {
+        this(new PageFaultCounter());
+    }
+
+    KnnSearchProfile(PageFaultCounter pageFaults) {
+        this.pageFaults = pageFaults;
+    }
+
+    /**
+     * Runs the search of one segment, counting the page faults that it incurs.
+     */
+    <T> T searchSegment(CheckedSupplier<T, IOException> search) throws IOException {
+        return pageFaults.count(search);
+    }
+
+    void addVectorOps(long count) {
+        vectorOps.add(count);
+    }
+
+    void setSearchStrategies(Map<String, Long> searchStrategies) {
+        this.searchStrategies = searchStrategies;
+    }
+
+    void profile(QueryProfiler queryProfiler) {
+        queryProfiler.setVectorOpsCount(vectorOps.sum());
+        if (searchStrategies != null) {
+            queryProfiler.setKnnSearchStrategies(searchStrategies);
+        }
+        pageFaults.profile(queryProfiler);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.search.vectors;
+
+import org.apache.lucene.index.BinaryDocValues;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.Explanation;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryVisitor;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.util.BytesRef;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Late interaction scoring of the vectors of a {@code multi_dense_vector} field: the score of a
+ * document is the sum, over the query vectors, of the similarity of the document vector that is
+ * the most similar to it. All documents that have the field match, so this is meant to rescore
+ * the top hits of a cheaper first stage query.
+ * <p>
+ * The vectors of a document are decoded once into a reused matrix and compared with
+ * {@link VectorSimilarityFunction#compare}, which uses the vectorized implementation of
+ * Lucene's {@code VectorUtil} when the JVM supports it.
+ */
+public class MaxSimQuery extends Query {
+    private final String field;
+    private final float[][] queryVectors;
+    private final VectorSimilarityFunction similarity;
+
+    public MaxSimQuery(String field, float[][] queryVectors, VectorSimilarityFunction similarity) {
+        this.field = field;
+        this.queryVectors = queryVectors;
+        this.similarity = similarity;
+    }
+
+    @Override
+    public Weight createWeight(IndexSearcher searcher, ScoreMode scoreMode, float boost) throws IOException {
+        return new Weight(this) {
+            @Override
+            public Explanation explain(LeafReaderContext context, int doc) throws IOException {
+                BinaryDocValues values = DocValues.getBinary(context.reader(), field);
+                if (values.advanceExact(doc) == false) {
+                    return Explanation.noMatch("no vectors in field [" + field + "]");
+                }
+                float score = new MaxSimScorer().score(values.binaryValue());
+                return Explanation.match(
+                    boost * score,
+                    "max_sim score computed as boost * sum of the similarity of the most similar vector of [" + field + "] to each of ["
+                        + queryVectors.length
+                        + "] query vectors, using ["
+                        + similarity
+                        + "] with boost ["
+                        + boost
+                        + "]"
+                );
+            }
+
+            @Override
+            public Scorer scorer(LeafReaderContext context) throws IOException {
+                BinaryDocValues values = context.reader().getBinaryDocValues(field);
+                if (values == null) {
+                    return null;
+                }
+                MaxSimScorer maxSim = new MaxSimScorer();
+                return new Scorer(this) {
+                    @Override
+                    public DocIdSetIterator iterator() {
+                        return values;
+                    }
+
+                    @Override
+                    public float getMaxScore(int upTo) {
+                        return Float.POSITIVE_INFINITY;
+                    }
+
+                    @Override
+                    public float score() throws IOException {
+                        return boost * maxSim.score(values.binaryValue());
+                    }
+
+                    @Override
+                    public int docID() {
+                        return values.docID();
+                    }
+                };
+            }
+
+            @Override
+            public boolean isCacheable(LeafReaderContext ctx) {
+                return DocValues.isCacheable(ctx, field);
+            }
+        };
+    }
+
+    /**
+     * Computes the max sim of documents, reusing the matrix that their vectors are decoded into.
+     */
+    private class MaxSimScorer {
+        private final int dims = queryVectors[0].length;
+        private float[][] docVectors = new float[0][];
+
+        float score(BytesRef bytes) {
+            FloatBuffer buffer = ByteBuffer.wrap(bytes.bytes, bytes.offset, bytes.length).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+            int count = bytes.length / (dims * Float.BYTES);
+            if (docVectors.length < count) {
+                int previous = docVectors.length;
+                docVectors = Arrays.copyOf(docVectors, count);
+                for (int i = previous; i < count; i++) {
+                    docVectors[i] = new float[dims];
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                buffer.get(docVectors[i]);
+            }
+            float score = 0;
+            for (float[] queryVector : queryVectors) {
+                float max = 0;
+                for (int i = 0; i < count; i++) {
+                    max = Math.max(max, similarity.compare(queryVector, docVectors[i]));
+                }
+                score += max;
+            }
+            return score;
+        }
+    }
+
+    @Override
+    public String toString(String field) {
+        return "max_sim(" + this.field + ", " + queryVectors.length + " vectors, " + similarity + ")";
+    }
+
+    @Override
+    public void visit(QueryVisitor visitor) {
+        if (visitor.acceptField(field)) {
+            visitor.visitLeaf(this);
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (sameClassAs(obj) == false) {
+            return false;
+        }
+        MaxSimQuery other = (MaxSimQuery) obj;
+        return field.equals(other.field) && similarity == other.similarity && Arrays.deepEquals(queryVectors, other.queryVectors);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(classHash(), field, similarity, Arrays.deepHashCode(queryVectors));
+    }
+}
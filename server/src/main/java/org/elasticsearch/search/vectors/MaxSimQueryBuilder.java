@@ -0,0 +1,162 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.search.vectors;
+
+import org.apache.lucene.search.Query;
+import org.elasticsearch.TransportVersion;
+import org.elasticsearch.TransportVersions;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.index.mapper.vectors.MultiDenseVectorFieldMapper;
+import org.elasticsearch.index.query.AbstractQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryRewriteContext;
+import org.elasticsearch.index.query.SearchExecutionContext;
+import org.elasticsearch.xcontent.ConstructingObjectParser;
+import org.elasticsearch.xcontent.ObjectParser;
+import org.elasticsearch.xcontent.ParseField;
+import org.elasticsearch.xcontent.XContentBuilder;
+import org.elasticsearch.xcontent.XContentParser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import static org.elasticsearch.xcontent.ConstructingObjectParser.constructorArg;
+
+/**
+ * Scores the documents that have a {@code multi_dense_vector} field with the late interaction
+ * (MaxSim) similarity of their vectors to a set of query vectors. It matches all documents that
+ * have the field, so it is meant to be used as the {@code rescore_query} of a query rescorer.
+ */
+public class MaxSimQueryBuilder extends AbstractQueryBuilder<MaxSimQueryBuilder> {
+    public static final String NAME = "max_sim";
+
+    public static final ParseField FIELD_FIELD = new ParseField("field");
+    public static final ParseField QUERY_VECTORS_FIELD = new ParseField("query_vectors");
+
+    @SuppressWarnings("unchecked")
+    public static final ConstructingObjectParser<MaxSimQueryBuilder, Void> PARSER = new ConstructingObjectParser<>(
+        NAME,
+        args -> new MaxSimQueryBuilder((String) args[0], ((List<float[]>) args[1]).toArray(new float[0][]))
+    );
+
+    static {
+        PARSER.declareString(constructorArg(), FIELD_FIELD);
+        PARSER.declareField(constructorArg(), (p, c) -> {
+            List<float[]> vectors = new ArrayList<>();
+            XContentParser.Token token = p.currentToken();
+            if (token != XContentParser.Token.START_ARRAY) {
+                throw new IllegalArgumentException("[" + QUERY_VECTORS_FIELD.getPreferredName() + "] must be an array of vectors");
+            }
+            while (p.nextToken() != XContentParser.Token.END_ARRAY) {
+                vectors.add(VectorData.parseXContent(p).asFloatVector());
+            }
+            return vectors;
+        }, QUERY_VECTORS_FIELD, ObjectParser.ValueType.OBJECT_ARRAY);
+        declareStandardFields(PARSER);
+    }
+
+    public static MaxSimQueryBuilder fromXContent(XContentParser parser) {
+        return PARSER.apply(parser, null);
+    }
+
+    private final String field;
+    private final float[][] queryVectors;
+
+    public MaxSimQueryBuilder(String field, float[][] queryVectors) {
+        if (field == null) {
+            throw new IllegalArgumentException("[" + FIELD_FIELD.getPreferredName() + "] must not be null");
+        }
+        if (queryVectors == null || queryVectors.length == 0) {
+            throw new IllegalArgumentException("[" + QUERY_VECTORS_FIELD.getPreferredName() + "] must contain at least one vector");
+        }
+        this.field = field;
+        this.queryVectors = queryVectors;
+    }
+
+    public MaxSimQueryBuilder(StreamInput in) throws IOException {
+        super(in);
+        this.field = in.readString();
+        this.queryVectors = in.readArray(StreamInput::readFloatArray, float[][]::new);
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public float[][] getQueryVectors() {
+        return queryVectors;
+    }
+
+    @Override
+    public String getWriteableName() {
+        return NAME;
+    }
+
+    @Override
+    protected void doWriteTo(StreamOutput out) throws IOException {
+        out.writeString(field);
+        out.writeArray(StreamOutput::writeFloatArray, queryVectors);
+    }
+
+    @Override
+    protected void doXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject(NAME);
+        builder.field(FIELD_FIELD.getPreferredName(), field);
+        builder.startArray(QUERY_VECTORS_FIELD.getPreferredName());
+        for (float[] queryVector : queryVectors) {
+            builder.startArray();
+            for (float value : queryVector) {
+                builder.value(value);
+            }
+            builder.endArray();
+        }
+        builder.endArray();
+        boostAndQueryNameToXContent(builder);
+        builder.endObject();
+    }
+
+    @Override
+    protected Query doToQuery(SearchExecutionContext context) throws IOException {
+        MappedFieldType fieldType = context.getFieldType(field);
+        if (fieldType == null) {
+            throw new IllegalArgumentException("field [" + field + "] does not exist in the mapping");
+        }
+        if (fieldType instanceof MultiDenseVectorFieldMapper.MultiDenseVectorFieldType == false) {
+            throw new IllegalArgumentException(
+                "[" + NAME + "] queries are only supported on [" + MultiDenseVectorFieldMapper.CONTENT_TYPE + "] fields"
+            );
+        }
+        return ((MultiDenseVectorFieldMapper.MultiDenseVectorFieldType) fieldType).createMaxSimQuery(queryVectors);
+    }
+
+    @Override
+    protected QueryBuilder doRewrite(QueryRewriteContext queryRewriteContext) throws IOException {
+        return this;
+    }
+
+    @Override
+    protected boolean doEquals(MaxSimQueryBuilder other) {
+        return field.equals(other.field) && Arrays.deepEquals(queryVectors, other.queryVectors);
+    }
+
+    @Override
+    protected int doHashCode() {
+        return Objects.hash(field, Arrays.deepHashCode(queryVectors));
+    }
+
+    @Override
+    public TransportVersion getMinimalSupportedVersion() {
+        return TransportVersions.MAX_SIM_QUERY;
+    }
+}
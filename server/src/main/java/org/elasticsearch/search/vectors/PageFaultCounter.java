@@ -0,0 +1,68 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.search.vectors;
+
+import org.elasticsearch.common.CheckedSupplier;
+import org.elasticsearch.nativeaccess.NativeAccess;
+import org.elasticsearch.search.profile.query.QueryProfiler;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Counts the major page faults that the threads searching the segments of a profiled kNN query
+ * incur. HNSW search visits vectors in random order so once the graph and the vectors of a field
+ * don't fit in the page cache anymore nearly every visit has to read from disk, and this count
+ * is the way to tell.
+ */
+final class PageFaultCounter {
+
+    private final LongSupplier threadMajorPageFaults;
+    private final LongAdder pageFaults = new LongAdder();
+    private volatile boolean supported = true;
+
+    PageFaultCounter() {
+        this(NativeAccess.instance()::getThreadMajorPageFaults);
+    }
+
+    /**
+     * @param threadMajorPageFaults the number of major page faults of the calling thread, -1 if unknown
+     */
+    PageFaultCounter(LongSupplier threadMajorPageFaults) {
+        this.threadMajorPageFaults = threadMajorPageFaults;
+    }
+
+    /**
+     * Runs the search of one segment, counting the page faults that it incurs. Segments are
+     * searched on a single thread, which is what the per thread statistics need.
+     */
+    <T> T count(CheckedSupplier<T, IOException> search) throws IOException {
+        long before = threadMajorPageFaults.getAsLong();
+        T result = search.get();
+        long after = threadMajorPageFaults.getAsLong();
+        if (before < 0 || after < before) {
+            supported = false;
+        } else {
+            pageFaults.add(after - before);
+        }
+        return result;
+    }
+
+    /**
+     * Reports the counted page faults, if there were any. Searches that are served from the page
+     * cache, and platforms that can't count page faults, don't report anything.
+     */
+    void profile(QueryProfiler queryProfiler) {
+        long sum = pageFaults.sum();
+        if (supported && sum > 0) {
+            queryProfiler.setVectorPageFaults(sum);
+        }
+    }
+}
@@ -24,4 +24,10 @@ public interface ProfilingQuery {
      * @param queryProfiler an instance of  {@link KnnFloatVectorField}.
      */
     void profile(QueryProfiler queryProfiler);
+
+    /**
+     * Called before the query is searched when the request is profiled, so that it can gather
+     * statistics that are too costly to gather on every search.
+     */
+    default void enableProfiling() {}
 }
@@ -19,6 +19,7 @@ import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.search.Scorer;
 import org.apache.lucene.search.Weight;
 import org.elasticsearch.common.lucene.search.function.MinScoreScorer;
+import org.elasticsearch.search.profile.query.QueryProfiler;
 
 import java.io.IOException;
 import java.util.Objects;
@@ -28,7 +29,7 @@ import static org.elasticsearch.common.Strings.format;
 /**
  * This query provides a simple post-filter for the provided Query. The query is assumed to be a Knn(Float|Byte)VectorQuery.
  */
-public class VectorSimilarityQuery extends Query {
+public class VectorSimilarityQuery extends Query implements ProfilingQuery {
     private final float similarity;
     private final float docScore;
     private final Query innerKnnQuery;
@@ -93,6 +94,20 @@ public class VectorSimilarityQuery extends Query {
         visitor.visitLeaf(this);
     }
 
+    @Override
+    public void enableProfiling() {
+        if (innerKnnQuery instanceof ProfilingQuery profilingQuery) {
+            profilingQuery.enableProfiling();
+        }
+    }
+
+    @Override
+    public void profile(QueryProfiler queryProfiler) {
+        if (innerKnnQuery instanceof ProfilingQuery profilingQuery) {
+            profilingQuery.profile(queryProfiler);
+        }
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (sameClassAs(obj) == false) {
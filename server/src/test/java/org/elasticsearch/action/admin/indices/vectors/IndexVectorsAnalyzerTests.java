@@ -0,0 +1,135 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.action.admin.indices.vectors;
+
+import org.apache.lucene.codecs.KnnVectorsFormat;
+import org.apache.lucene.codecs.lucene99.Lucene99Codec;
+import org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsFormat;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.KnnByteVectorField;
+import org.apache.lucene.document.KnnFloatVectorField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.store.Directory;
+import org.elasticsearch.tasks.TaskCancelledException;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+
+public class IndexVectorsAnalyzerTests extends ESTestCase {
+
+    public void testAnalyze() throws IOException {
+        int numDocs = between(200, 500);
+        int numQueries = between(10, 50);
+        try (Directory dir = newDirectory()) {
+            try (IndexWriter writer = new IndexWriter(dir, hnswConfig())) {
+                for (int i = 0; i < numDocs; i++) {
+                    Document doc = new Document();
+                    doc.add(new KnnFloatVectorField("vector", randomVector(8), VectorSimilarityFunction.EUCLIDEAN));
+                    writer.addDocument(doc);
+                }
+                writer.forceMerge(1);
+            }
+            try (DirectoryReader reader = DirectoryReader.open(dir)) {
+                IndexVectorsStats stats = IndexVectorsAnalyzer.analyze(new IndexSearcher(reader), 10, 100, numQueries, random(), () -> {});
+                IndexVectorsStats.PerFieldVectorsStats vector = stats.getFields().get("vector");
+                assertThat(vector.getQueries(), equalTo((long) numQueries));
+                assertThat(vector.getRecall(), greaterThan(0.8));
+                // raw vectors are scored the same way by both searches
+                assertThat(vector.getMeanScoreError(), lessThan(1e-6));
+                assertThat(vector.getGraphSegments(), equalTo(1L));
+                assertThat(vector.getGraphNodes(), equalTo((long) numDocs));
+                assertThat(vector.getMeanNeighbors(), greaterThan(0.0));
+            }
+        }
+    }
+
+    public void testSkipsFieldsWithoutFloatVectors() throws IOException {
+        try (Directory dir = newDirectory()) {
+            try (IndexWriter writer = new IndexWriter(dir, hnswConfig())) {
+                for (int i = 0; i < 10; i++) {
+                    Document doc = new Document();
+                    doc.add(new KnnByteVectorField("bytes", new byte[] { (byte) i, 1, 2 }));
+                    writer.addDocument(doc);
+                }
+                // a single vector can't be compared to anything but itself
+                Document doc = new Document();
+                doc.add(new KnnFloatVectorField("single", randomVector(4)));
+                writer.addDocument(doc);
+            }
+            try (DirectoryReader reader = DirectoryReader.open(dir)) {
+                IndexVectorsStats stats = IndexVectorsAnalyzer.analyze(new IndexSearcher(reader), 10, 100, 10, random(), () -> {});
+                assertNull(stats.getFields().get("bytes"));
+                IndexVectorsStats.PerFieldVectorsStats single = stats.getFields().get("single");
+                if (single != null) {
+                    assertThat(single.getQueries(), equalTo(0L));
+                }
+            }
+        }
+    }
+
+    public void testCancellation() throws IOException {
+        try (Directory dir = newDirectory()) {
+            try (IndexWriter writer = new IndexWriter(dir, hnswConfig())) {
+                for (int i = 0; i < 10; i++) {
+                    Document doc = new Document();
+                    doc.add(new KnnFloatVectorField("vector", randomVector(4)));
+                    writer.addDocument(doc);
+                }
+            }
+            try (DirectoryReader reader = DirectoryReader.open(dir)) {
+                expectThrows(
+                    TaskCancelledException.class,
+                    () -> IndexVectorsAnalyzer.analyze(new IndexSearcher(reader), 5, 10, 5, random(), () -> {
+                        throw new TaskCancelledException("cancelled");
+                    })
+                );
+            }
+        }
+    }
+
+    public void testSamplePositions() {
+        int total = between(1, 1000);
+        int count = between(1, total);
+        int[] positions = IndexVectorsAnalyzer.samplePositions(total, count, random());
+        assertThat(positions.length, equalTo(count));
+        assertThat(Arrays.stream(positions).distinct().count(), equalTo((long) count));
+        for (int i = 0; i < positions.length; i++) {
+            assertTrue(positions[i] >= 0 && positions[i] < total);
+            if (i > 0) {
+                assertThat(positions[i], greaterThan(positions[i - 1]));
+            }
+        }
+    }
+
+    private static IndexWriterConfig hnswConfig() {
+        return new IndexWriterConfig().setCodec(new Lucene99Codec() {
+            @Override
+            public KnnVectorsFormat getKnnVectorsFormatForField(String field) {
+                return new Lucene99HnswVectorsFormat();
+            }
+        });
+    }
+
+    private static float[] randomVector(int dims) {
+        float[] vector = new float[dims];
+        for (int i = 0; i < dims; i++) {
+            vector[i] = randomFloat();
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.action.admin.indices.vectors;
+
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+
+public class IndexVectorsStatsTests extends ESTestCase {
+
+    public void testSerialization() throws IOException {
+        IndexVectorsStats stats = randomStats();
+        try (BytesStreamOutput out = new BytesStreamOutput()) {
+            stats.writeTo(out);
+            try (StreamInput in = out.bytes().streamInput()) {
+                IndexVectorsStats deserialized = new IndexVectorsStats(in);
+                assertEquals(stats, deserialized);
+                // Now just making sure that an exception doesn't get thrown here:
+                deserialized.addQuery(randomAlphaOfLength(10), 10, 5, 0.1, 0.05);
+            }
+        }
+    }
+
+    public void testAdd() {
+        IndexVectorsStats stats = new IndexVectorsStats();
+        stats.addQuery("vector", 10, 10, 0.0, 0.0);
+        stats.addQuery("vector", 10, 5, 0.5, 0.2);
+        stats.addGraph("vector", 100, 1600, 0, 2);
+
+        IndexVectorsStats other = new IndexVectorsStats();
+        other.addQuery("vector", 10, 9, 0.4, 0.1);
+        other.addGraph("vector", 50, 600, 2, 3);
+        other.addQuery("other", 5, 5, 0.0, 0.0);
+
+        stats.add(other);
+        IndexVectorsStats.PerFieldVectorsStats vector = stats.getFields().get("vector");
+        assertThat(vector.getQueries(), equalTo(3L));
+        assertThat(vector.getRecall(), closeTo((1.0 + 0.5 + 0.9) / 3, 1e-9));
+        assertThat(vector.getMeanScoreError(), closeTo(0.9 / 24, 1e-9));
+        assertThat(vector.getMaxScoreError(), equalTo(0.2));
+        assertThat(vector.getGraphSegments(), equalTo(2L));
+        assertThat(vector.getGraphNodes(), equalTo(150L));
+        assertThat(vector.getMeanNeighbors(), closeTo(2200.0 / 150, 1e-9));
+        assertThat(vector.getUnreachableNodes(), equalTo(2L));
+        assertThat(vector.getMaxLevels(), equalTo(3));
+
+        IndexVectorsStats.PerFieldVectorsStats otherField = stats.getFields().get("other");
+        assertThat(otherField.getRecall(), equalTo(1.0));
+        assertThat(otherField.getGraphSegments(), equalTo(0L));
+    }
+
+    public void testInvalidQuery() {
+        IndexVectorsStats stats = new IndexVectorsStats();
+        expectThrows(IllegalArgumentException.class, () -> stats.addQuery("vector", 0, 0, 0, 0));
+        expectThrows(IllegalArgumentException.class, () -> stats.addQuery("vector", 5, 6, 0, 0));
+    }
+
+    private static IndexVectorsStats randomStats() {
+        IndexVectorsStats stats = new IndexVectorsStats();
+        int numFields = between(0, 5);
+        for (int i = 0; i < numFields; i++) {
+            String field = "field_" + i;
+            int numQueries = between(1, 10);
+            for (int q = 0; q < numQueries; q++) {
+                int exactHits = between(1, 100);
+                stats.addQuery(field, exactHits, between(0, exactHits), randomDouble(), randomDouble());
+            }
+            if (randomBoolean()) {
+                stats.addGraph(field, randomNonNegativeInt(), randomNonNegativeInt(), randomNonNegativeInt(), between(1, 10));
+            }
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.action.knn;
+
+import org.elasticsearch.action.ActionRequestValidationException;
+import org.elasticsearch.search.vectors.VectorData;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.xcontent.XContentParser;
+import org.elasticsearch.xcontent.json.JsonXContent;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.elasticsearch.search.vectors.KnnSearchBuilder.NUM_CANDS_LIMIT;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+public class KnnBatchRequestTests extends ESTestCase {
+
+    public void testParseBody() throws IOException {
+        String body = """
+            {
+              "field": "vector",
+              "k": 3,
+              "num_candidates": 20,
+              "query_vectors": [[1.0, 2.5, -3.0], [4, 5, 6]]
+            }""";
+        KnnBatchRequest request = new KnnBatchRequest("index");
+        try (XContentParser parser = createParser(JsonXContent.jsonXContent, body)) {
+            request.parseBody(parser);
+        }
+        assertThat(request.field(), equalTo("vector"));
+        assertThat(request.k(), equalTo(3));
+        assertThat(request.numCandidates(), equalTo(20));
+        assertThat(
+            request.queryVectors(),
+            contains(VectorData.fromFloats(new float[] { 1.0f, 2.5f, -3.0f }), VectorData.fromFloats(new float[] { 4f, 5f, 6f }))
+        );
+        assertThat(request.validate(), nullValue());
+    }
+
+    public void testDefaults() throws IOException {
+        KnnBatchRequest request = new KnnBatchRequest("index");
+        try (XContentParser parser = createParser(JsonXContent.jsonXContent, """
+            { "field": "vector", "query_vectors": [[1, 2]] }""")) {
+            request.parseBody(parser);
+        }
+        assertThat(request.k(), equalTo(KnnBatchRequest.DEFAULT_K));
+        assertThat(request.numCandidates(), equalTo(15));
+        assertThat(request.k(50).numCandidates(), equalTo(75));
+        assertThat(request.k(NUM_CANDS_LIMIT).numCandidates(), equalTo(NUM_CANDS_LIMIT));
+    }
+
+    public void testValidate() {
+        KnnBatchRequest request = new KnnBatchRequest("index").k(0).numCandidates(NUM_CANDS_LIMIT + 1);
+        ActionRequestValidationException e = request.validate();
+        assertThat(
+            e.validationErrors(),
+            containsInAnyOrder(
+                "[field] must be specified",
+                "[k] must be greater than 0",
+                "[num_candidates] cannot exceed [" + NUM_CANDS_LIMIT + "]",
+                "[query_vectors] must not be empty"
+            )
+        );
+
+        request = new KnnBatchRequest("index").field("vector").k(10).numCandidates(5).queryVectors(List.of(randomVector()));
+        e = request.validate();
+        assertThat(e.validationErrors(), contains("[num_candidates] cannot be less than [k]"));
+
+        List<VectorData> queryVectors = new ArrayList<>();
+        for (int i = 0; i <= KnnBatchRequest.MAX_QUERY_VECTORS; i++) {
+            queryVectors.add(VectorData.fromFloats(new float[] { i }));
+        }
+        request = new KnnBatchRequest("index").field("vector").queryVectors(queryVectors);
+        e = request.validate();
+        assertThat(
+            e.validationErrors(),
+            contains("[query_vectors] cannot have more than [" + KnnBatchRequest.MAX_QUERY_VECTORS + "] vectors")
+        );
+    }
+
+    public void testSerialization() throws IOException {
+        List<VectorData> queryVectors = randomList(1, 10, KnnBatchRequestTests::randomVector);
+        KnnBatchRequest request = new KnnBatchRequest(generateRandomStringArray(5, 10, false, false)).field(randomAlphaOfLength(5))
+            .k(randomIntBetween(1, 100))
+            .queryVectors(queryVectors);
+        if (randomBoolean()) {
+            request.numCandidates(randomIntBetween(request.k(), NUM_CANDS_LIMIT));
+        }
+        KnnBatchRequest copy = copyWriteable(request, writableRegistry(), KnnBatchRequest::new);
+        assertArrayEquals(request.indices(), copy.indices());
+        assertThat(copy.field(), equalTo(request.field()));
+        assertThat(copy.k(), equalTo(request.k()));
+        assertThat(copy.numCandidates(), equalTo(request.numCandidates()));
+        assertThat(copy.queryVectors(), equalTo(request.queryVectors()));
+    }
+
+    private static VectorData randomVector() {
+        float[] vector = new float[randomIntBetween(1, 8)];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = randomFloat();
+        }
+        return VectorData.fromFloats(vector);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.action.knn;
+
+import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.cluster.metadata.IndexMetadata;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.IndexSettings;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.indices.breaker.CircuitBreakerService;
+import org.elasticsearch.search.vectors.VectorData;
+import org.elasticsearch.test.ESSingleNodeTestCase;
+import org.elasticsearch.xcontent.XContentBuilder;
+import org.elasticsearch.xcontent.XContentFactory;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.elasticsearch.indices.breaker.HierarchyCircuitBreakerService.REQUEST_CIRCUIT_BREAKER_LIMIT_SETTING;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+
+public class TransportKnnBatchActionTests extends ESSingleNodeTestCase {
+
+    public void testKnnBatch() throws IOException {
+        String indexType = randomFrom("hnsw", "int8_hnsw", "flat", "int8_flat");
+        XContentBuilder mapping = XContentFactory.jsonBuilder()
+            .startObject()
+            .startObject("properties")
+            .startObject("vector")
+            .field("type", "dense_vector")
+            .field("dims", 2)
+            .field("index", true)
+            .field("similarity", "l2_norm")
+            .startObject("index_options")
+            .field("type", indexType)
+            .endObject()
+            .endObject()
+            .startObject("tag")
+            .field("type", "keyword")
+            .endObject()
+            .endObject()
+            .endObject();
+        int numShards = randomIntBetween(2, 4);
+        createIndex("index", Settings.builder().put(IndexMetadata.SETTING_NUMBER_OF_SHARDS, numShards).build(), mapping);
+        for (int doc = 0; doc < 20; doc++) {
+            prepareIndex("index").setId(Integer.toString(doc))
+                .setSource("vector", new float[] { doc, doc }, "tag", doc % 2 == 0 ? "even" : "odd")
+                .get();
+        }
+        client().prepareDelete("index", "4").get();
+        indicesAdmin().prepareRefresh("index").get();
+        indicesAdmin().prepareAliases().addAlias("index", "evens", QueryBuilders.termQuery("tag", "even")).get();
+
+        List<VectorData> queryVectors = List.of(
+            VectorData.fromFloats(new float[] { 3.1f, 3.1f }),
+            VectorData.fromFloats(new float[] { 10.2f, 10.2f })
+        );
+
+        KnnBatchResponse response = client().execute(
+            KnnBatchAction.INSTANCE,
+            new KnnBatchRequest("index").field("vector").k(3).numCandidates(20).queryVectors(queryVectors)
+        ).actionGet();
+        assertThat(response.getSuccessfulShards(), equalTo(numShards));
+        assertThat(ids(response.getHits().get(0)), contains("3", "2", "5"));
+        assertThat(ids(response.getHits().get(1)), contains("10", "11", "9"));
+        assertScoresDecrease(response);
+
+        response = client().execute(
+            KnnBatchAction.INSTANCE,
+            new KnnBatchRequest("evens").field("vector").k(3).numCandidates(20).queryVectors(queryVectors)
+        ).actionGet();
+        assertThat(response.getSuccessfulShards(), equalTo(numShards));
+        // the alias only exposes even documents, and 4 is deleted
+        assertThat(ids(response.getHits().get(0)), contains("2", "6", "0"));
+        assertThat(ids(response.getHits().get(1)), contains("10", "12", "8"));
+        assertScoresDecrease(response);
+    }
+
+    public void testResultWindowIsBounded() throws IOException {
+        createIndex(
+            "index",
+            Settings.builder()
+                .put(IndexMetadata.SETTING_NUMBER_OF_SHARDS, 1)
+                .put(IndexSettings.MAX_RESULT_WINDOW_SETTING.getKey(), 5)
+                .build(),
+            vectorMapping()
+        );
+        prepareIndex("index").setId("0").setSource("vector", new float[] { 1, 1 }).get();
+        indicesAdmin().prepareRefresh("index").get();
+        List<VectorData> queryVectors = List.of(
+            VectorData.fromFloats(new float[] { 1f, 1f }),
+            VectorData.fromFloats(new float[] { 2f, 2f })
+        );
+
+        KnnBatchResponse response = client().execute(
+            KnnBatchAction.INSTANCE,
+            new KnnBatchRequest("index").field("vector").k(2).queryVectors(queryVectors)
+        ).actionGet();
+        assertThat(response.getSuccessfulShards(), equalTo(1));
+
+        response = client().execute(KnnBatchAction.INSTANCE, new KnnBatchRequest("index").field("vector").k(3).queryVectors(queryVectors))
+            .actionGet();
+        assertThat(response.getFailedShards(), equalTo(1));
+        assertThat(
+            response.getShardFailures()[0].reason(),
+            containsString("the number of query vectors * k must be less than or equal to: [5] but was [6]")
+        );
+    }
+
+    public void testHitsAreAccountedOnTheRequestBreaker() throws IOException {
+        createIndex("index", Settings.builder().put(IndexMetadata.SETTING_NUMBER_OF_SHARDS, 1).build(), vectorMapping());
+        prepareIndex("index").setId("0").setSource("vector", new float[] { 1, 1 }).get();
+        indicesAdmin().prepareRefresh("index").get();
+        KnnBatchRequest request = new KnnBatchRequest("index").field("vector")
+            .k(100)
+            .queryVectors(List.of(VectorData.fromFloats(new float[] { 1f, 1f })));
+        long limit = 100 * TransportKnnBatchAction.ESTIMATED_HIT_BYTES / 2;
+        Settings breakerSettings = Settings.builder().put(REQUEST_CIRCUIT_BREAKER_LIMIT_SETTING.getKey(), limit + "b").build();
+        assertTrue(clusterAdmin().prepareUpdateSettings().setPersistentSettings(breakerSettings).get().isAcknowledged());
+        try {
+            KnnBatchResponse response = client().execute(KnnBatchAction.INSTANCE, request).actionGet();
+            assertThat(response.getFailedShards(), equalTo(1));
+            assertNotNull(ExceptionsHelper.unwrap(response.getShardFailures()[0].getCause(), CircuitBreakingException.class));
+        } finally {
+            Settings resetSettings = Settings.builder().putNull(REQUEST_CIRCUIT_BREAKER_LIMIT_SETTING.getKey()).build();
+            assertTrue(clusterAdmin().prepareUpdateSettings().setPersistentSettings(resetSettings).get().isAcknowledged());
+        }
+        assertThat(client().execute(KnnBatchAction.INSTANCE, request).actionGet().getSuccessfulShards(), equalTo(1));
+        CircuitBreakerService breakerService = getInstanceFromNode(CircuitBreakerService.class);
+        assertThat(breakerService.getBreaker(CircuitBreaker.REQUEST).getUsed(), equalTo(0L));
+    }
+
+    private static XContentBuilder vectorMapping() throws IOException {
+        return XContentFactory.jsonBuilder()
+            .startObject()
+            .startObject("properties")
+            .startObject("vector")
+            .field("type", "dense_vector")
+            .field("dims", 2)
+            .field("index", true)
+            .field("similarity", "l2_norm")
+            .endObject()
+            .endObject()
+            .endObject();
+    }
+
+    private static List<String> ids(List<KnnBatchResponse.Hit> hits) {
+        return hits.stream().map(KnnBatchResponse.Hit::getId).toList();
+    }
+
+    private static void assertScoresDecrease(KnnBatchResponse response) {
+        for (List<KnnBatchResponse.Hit> hits : response.getHits()) {
+            for (int i = 1; i < hits.size(); i++) {
+                assertThat(hits.get(i - 1).getScore(), greaterThan(hits.get(i).getScore()));
+            }
+        }
+    }
+}
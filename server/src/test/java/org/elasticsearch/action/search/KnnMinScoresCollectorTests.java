@@ -0,0 +1,62 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.action.search;
+
+import org.apache.lucene.search.ScoreDoc;
+import org.elasticsearch.search.dfs.DfsKnnResults;
+import org.elasticsearch.search.vectors.KnnSearchBuilder;
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+public class KnnMinScoresCollectorTests extends ESTestCase {
+
+    public void testKthBestScore() {
+        KnnMinScoresCollector collector = new KnnMinScoresCollector(
+            List.of(
+                new KnnSearchBuilder("field", new float[] { 1f, 2f }, 3, 10, null),
+                new KnnSearchBuilder("other", new float[] { 1f, 2f }, 2, 10, null)
+            )
+        );
+        assertThat(collector.getMinScores(), nullValue());
+
+        collector.consumeKnnResults(List.of(knnResults(0.9f, 0.5f), knnResults(0.4f)));
+        assertThat(collector.getMinScores(), nullValue());
+
+        collector.consumeKnnResults(List.of(knnResults(0.7f, 0.6f, 0.1f), knnResults()));
+        assertThat(collector.getMinScores(), equalTo(new float[] { 0.7f, Float.NEGATIVE_INFINITY }));
+
+        collector.consumeKnnResults(List.of(knnResults(0.3f), knnResults(0.8f, 0.2f)));
+        assertThat(collector.getMinScores(), equalTo(new float[] { 0.7f, 0.4f }));
+
+        collector.consumeKnnResults(List.of(knnResults(0.95f, 0.8f), knnResults(0.5f)));
+        assertThat(collector.getMinScores(), equalTo(new float[] { 0.8f, 0.5f }));
+    }
+
+    public void testIgnoresResultsWithoutKnn() {
+        KnnMinScoresCollector collector = new KnnMinScoresCollector(
+            List.of(new KnnSearchBuilder("field", new float[] { 1f, 2f }, 1, 10, null))
+        );
+        collector.consumeKnnResults(null);
+        assertThat(collector.getMinScores(), nullValue());
+        collector.consumeKnnResults(List.of(knnResults(0.5f)));
+        assertThat(collector.getMinScores(), equalTo(new float[] { 0.5f }));
+    }
+
+    private static DfsKnnResults knnResults(float... scores) {
+        ScoreDoc[] scoreDocs = new ScoreDoc[scores.length];
+        for (int i = 0; i < scores.length; i++) {
+            scoreDocs[i] = new ScoreDoc(i, scores[i]);
+        }
+        return new DfsKnnResults(null, scoreDocs);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.common.lucene.index;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.store.Directory;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+public class ReaderKeyedCacheTests extends ESTestCase {
+
+    public void testSizeSettingDisablesCacheByDefault() {
+        assertThat(ReaderKeyedCache.sizeSetting("test.cache.size").get(Settings.EMPTY), equalTo(ByteSizeValue.ZERO));
+        assertFalse(new ReaderKeyedCache<String, String>(0, (k, v) -> 1).enabled());
+    }
+
+    public void testDisabledCacheIgnoresClosedReaders() throws IOException {
+        ReaderKeyedCache<String, String> cache = new ReaderKeyedCache<>(0, (k, v) -> 1);
+        try (Directory directory = newDirectory(); IndexWriter iw = new IndexWriter(directory, new IndexWriterConfig())) {
+            iw.addDocument(new Document());
+            try (DirectoryReader reader = DirectoryReader.open(iw)) {
+                cache.put(reader.getReaderCacheHelper(), "a", "value");
+                assertThat(cache.get(reader.getReaderCacheHelper(), "a"), nullValue());
+                cache.onClose(reader.getReaderCacheHelper().getKey());
+                assertThat(cache.count(), equalTo(0));
+            }
+        }
+    }
+
+    public void testInvalidatedWhenReaderIsClosed() throws IOException {
+        ReaderKeyedCache<String, String> cache = new ReaderKeyedCache<>(ByteSizeValue.ofKb(1).getBytes(), (k, v) -> 1);
+        try (Directory directory = newDirectory(); IndexWriter iw = new IndexWriter(directory, new IndexWriterConfig())) {
+            iw.addDocument(new Document());
+            try (DirectoryReader reader = DirectoryReader.open(iw)) {
+                IndexReader.CacheHelper cacheHelper = reader.getReaderCacheHelper();
+                assertThat(cache.get(cacheHelper, "a"), nullValue());
+                cache.put(cacheHelper, "a", "value");
+                assertThat(cache.get(cacheHelper, "a"), equalTo("value"));
+
+                AtomicInteger loads = new AtomicInteger();
+                assertThat(cache.computeIfAbsent(cacheHelper, "b", k -> k + loads.incrementAndGet()), equalTo("b1"));
+                assertThat(cache.computeIfAbsent(cacheHelper, "b", k -> k + loads.incrementAndGet()), equalTo("b1"));
+                expectThrows(IOException.class, () -> cache.computeIfAbsent(cacheHelper, "c", k -> { throw new IOException("boom"); }));
+
+                iw.addDocument(new Document());
+                try (DirectoryReader refreshed = DirectoryReader.openIfChanged(reader)) {
+                    cache.put(refreshed.getReaderCacheHelper(), "a", "refreshed");
+                    assertThat(cache.get(cacheHelper, "a"), equalTo("value"));
+                    assertThat(cache.count(), equalTo(3));
+                }
+                // closing a reader only invalidates its own entries
+                assertThat(cache.count(), equalTo(2));
+            }
+            assertThat(cache.count(), equalTo(0));
+        }
+    }
+}
@@ -15,6 +15,7 @@ import org.elasticsearch.common.breaker.CircuitBreakingException;
 import org.elasticsearch.common.breaker.PreallocatedCircuitBreakerService;
 import org.elasticsearch.common.io.stream.ByteArrayStreamInput;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.recycler.Recycler;
 import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.ByteSizeUnit;
@@ -26,6 +27,7 @@ import org.elasticsearch.test.ESTestCase;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -35,6 +37,7 @@ import java.util.function.Function;
 import static org.elasticsearch.indices.breaker.HierarchyCircuitBreakerService.REQUEST_CIRCUIT_BREAKER_LIMIT_SETTING;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
 
@@ -570,6 +573,207 @@ public class BigArraysTests extends ESTestCase {
         }
     }
 
+    public void testOffHeapLongArray() throws Exception {
+        final BigArrays offHeapBigArrays = newOffHeapBigArrays();
+        final int totalLen = randomIntBetween(PageCacheRecycler.LONG_PAGE_SIZE, 100_000);
+        LongArray array = offHeapBigArrays.newLongArray(randomIntBetween(PageCacheRecycler.LONG_PAGE_SIZE / 2, totalLen), true);
+        assertThat(array, instanceOf(DirectBigLongArray.class));
+        final long[] ref = new long[totalLen];
+        for (int i = 0; i < totalLen; ++i) {
+            ref[i] = randomLong();
+            array = offHeapBigArrays.grow(array, i + 1);
+            array.set(i, ref[i]);
+        }
+        final int fromIndex = randomIntBetween(0, totalLen - 1);
+        final int toIndex = randomIntBetween(fromIndex, totalLen);
+        final long fill = randomLong();
+        Arrays.fill(ref, fromIndex, toIndex, fill);
+        array.fill(fromIndex, toIndex, fill);
+        final int incIndex = randomIntBetween(0, totalLen - 1);
+        ref[incIndex] += 42;
+        assertEquals(ref[incIndex], array.increment(incIndex, 42));
+        for (int i = 0; i < totalLen; ++i) {
+            assertEquals(ref[i], array.get(i));
+        }
+        assertEquals(DirectBigLongArray.estimateRamBytes(array.size()), array.ramBytesUsed());
+
+        BytesStreamOutput out = new BytesStreamOutput();
+        array.writeTo(out);
+        try (LongArray copy = offHeapBigArrays.newLongArray(array.size(), randomBoolean())) {
+            copy.fillWith(out.bytes().streamInput());
+            for (int i = 0; i < totalLen; ++i) {
+                assertEquals(ref[i], copy.get(i));
+            }
+        }
+        try (LongArray onHeap = LongArray.readFrom(out.bytes().streamInput())) {
+            for (int i = 0; i < totalLen; ++i) {
+                assertEquals(ref[i], onHeap.get(i));
+            }
+        }
+        array.close();
+    }
+
+    public void testOffHeapDoubleArray() throws Exception {
+        final BigArrays offHeapBigArrays = newOffHeapBigArrays();
+        final int totalLen = randomIntBetween(PageCacheRecycler.DOUBLE_PAGE_SIZE, 100_000);
+        DoubleArray array = offHeapBigArrays.newDoubleArray(randomIntBetween(PageCacheRecycler.DOUBLE_PAGE_SIZE / 2, totalLen), true);
+        assertThat(array, instanceOf(DirectBigDoubleArray.class));
+        final double[] ref = new double[totalLen];
+        for (int i = 0; i < totalLen; ++i) {
+            ref[i] = randomDouble();
+            array = offHeapBigArrays.grow(array, i + 1);
+            array.set(i, ref[i]);
+        }
+        final int fromIndex = randomIntBetween(0, totalLen - 1);
+        final int toIndex = randomIntBetween(fromIndex, totalLen);
+        final double fill = randomDouble();
+        Arrays.fill(ref, fromIndex, toIndex, fill);
+        array.fill(fromIndex, toIndex, fill);
+        final int incIndex = randomIntBetween(0, totalLen - 1);
+        ref[incIndex] += 0.5;
+        assertEquals(ref[incIndex], array.increment(incIndex, 0.5), 0d);
+        for (int i = 0; i < totalLen; ++i) {
+            assertEquals(ref[i], array.get(i), 0d);
+        }
+        assertEquals(DirectBigDoubleArray.estimateRamBytes(array.size()), array.ramBytesUsed());
+
+        BytesStreamOutput out = new BytesStreamOutput();
+        array.writeTo(out);
+        try (DoubleArray copy = offHeapBigArrays.newDoubleArray(array.size(), randomBoolean())) {
+            copy.fillWith(out.bytes().streamInput());
+            for (int i = 0; i < totalLen; ++i) {
+                assertEquals(ref[i], copy.get(i), 0d);
+            }
+        }
+        array.close();
+    }
+
+    public void testOffHeapArraysAreAccounted() {
+        ClusterSettings clusterSettings = new ClusterSettings(Settings.EMPTY, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS);
+        try (
+            HierarchyCircuitBreakerService breakerService = new HierarchyCircuitBreakerService(
+                CircuitBreakerMetrics.NOOP,
+                Settings.EMPTY,
+                List.of(),
+                clusterSettings
+            )
+        ) {
+            PageCacheRecycler recycler = new MockPageCacheRecycler(
+                Settings.builder().put(PageCacheRecycler.OFF_HEAP_SETTING.getKey(), true).build()
+            );
+            assumeTrue("native memory must be available", recycler.offHeap());
+            BigArrays offHeapBigArrays = new BigArrays(recycler, breakerService, CircuitBreaker.REQUEST).withCircuitBreaking();
+            CircuitBreaker breaker = breakerService.getBreaker(CircuitBreaker.REQUEST);
+            LongArray longs = offHeapBigArrays.newLongArray(PageCacheRecycler.LONG_PAGE_SIZE * 3);
+            DoubleArray doubles = offHeapBigArrays.newDoubleArray(PageCacheRecycler.DOUBLE_PAGE_SIZE * 2);
+            assertThat(breaker.getUsed(), equalTo(longs.ramBytesUsed() + doubles.ramBytesUsed()));
+            assertThat(breaker.getUsed(), greaterThanOrEqualTo(5L * PageCacheRecycler.BYTE_PAGE_SIZE));
+            longs = offHeapBigArrays.resize(longs, PageCacheRecycler.LONG_PAGE_SIZE);
+            assertThat(breaker.getUsed(), equalTo(longs.ramBytesUsed() + doubles.ramBytesUsed()));
+            Releasables.close(longs, doubles);
+            assertThat(breaker.getUsed(), equalTo(0L));
+        }
+    }
+
+    public void testOffHeapPagesAreFreedWhenNotCached() {
+        Settings settings = Settings.builder()
+            .put(PageCacheRecycler.OFF_HEAP_SETTING.getKey(), true)
+            .put(PageCacheRecycler.TYPE_SETTING.getKey(), PageCacheRecycler.Type.NONE.name())
+            .build();
+        PageCacheRecycler recycler = new PageCacheRecycler(settings);
+        assumeTrue("native memory must be available", recycler.offHeap());
+        BigArrays offHeapBigArrays = new BigArrays(recycler, new NoneCircuitBreakerService(), CircuitBreaker.REQUEST);
+        LongArray longs = offHeapBigArrays.newLongArray(PageCacheRecycler.LONG_PAGE_SIZE * 3);
+        assertThat(recycler.directBytesAllocated(), equalTo(3L * PageCacheRecycler.BYTE_PAGE_SIZE));
+        longs = offHeapBigArrays.resize(longs, PageCacheRecycler.LONG_PAGE_SIZE);
+        assertThat(recycler.directBytesAllocated(), equalTo((long) PageCacheRecycler.BYTE_PAGE_SIZE));
+        longs.close();
+        assertThat(recycler.directBytesAllocated(), equalTo(0L));
+    }
+
+    public void testNewOffHeapPagesAreCleared() {
+        Settings settings = Settings.builder()
+            .put(PageCacheRecycler.OFF_HEAP_SETTING.getKey(), true)
+            .put(PageCacheRecycler.TYPE_SETTING.getKey(), PageCacheRecycler.Type.NONE.name())
+            .build();
+        PageCacheRecycler recycler = new PageCacheRecycler(settings);
+        assumeTrue("native memory must be available", recycler.offHeap());
+        // dirty native memory that is freed right away, so that the next allocations are likely to reuse it
+        for (int i = 0; i < 4; i++) {
+            try (Recycler.V<ByteBuffer> page = recycler.directBytePage(false)) {
+                assertFalse(page.isRecycled());
+                for (int j = 0; j < PageCacheRecycler.BYTE_PAGE_SIZE; j += Long.BYTES) {
+                    page.v().putLong(j, -1L);
+                }
+            }
+        }
+        try (Recycler.V<ByteBuffer> page = recycler.directBytePage(true)) {
+            assertFalse(page.isRecycled());
+            for (int j = 0; j < PageCacheRecycler.BYTE_PAGE_SIZE; j += Long.BYTES) {
+                assertEquals(0L, page.v().getLong(j));
+            }
+        }
+
+        BigArrays offHeapBigArrays = new BigArrays(recycler, new NoneCircuitBreakerService(), CircuitBreaker.REQUEST);
+        try (
+            LongArray longs = offHeapBigArrays.newLongArray(PageCacheRecycler.LONG_PAGE_SIZE * 2, true);
+            DoubleArray doubles = offHeapBigArrays.newDoubleArray(PageCacheRecycler.DOUBLE_PAGE_SIZE * 2, true)
+        ) {
+            assertThat(longs, instanceOf(DirectBigLongArray.class));
+            assertThat(doubles, instanceOf(DirectBigDoubleArray.class));
+            for (long i = 0; i < longs.size(); i++) {
+                assertEquals(0L, longs.get(i));
+            }
+            for (long i = 0; i < doubles.size(); i++) {
+                assertEquals(0d, doubles.get(i), 0d);
+            }
+        }
+    }
+
+    public void testOffHeapPagesBreakAtTheirLimit() {
+        ClusterSettings clusterSettings = new ClusterSettings(Settings.EMPTY, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS);
+        try (
+            HierarchyCircuitBreakerService breakerService = new HierarchyCircuitBreakerService(
+                CircuitBreakerMetrics.NOOP,
+                Settings.EMPTY,
+                List.of(),
+                clusterSettings
+            )
+        ) {
+            Settings settings = Settings.builder()
+                .put(PageCacheRecycler.OFF_HEAP_SETTING.getKey(), true)
+                .put(PageCacheRecycler.TYPE_SETTING.getKey(), PageCacheRecycler.Type.NONE.name())
+                .build();
+            PageCacheRecycler recycler = new PageCacheRecycler(settings, 2L * PageCacheRecycler.BYTE_PAGE_SIZE);
+            assumeTrue("native memory must be available", recycler.offHeap());
+            BigArrays offHeapBigArrays = new BigArrays(recycler, breakerService, CircuitBreaker.REQUEST).withCircuitBreaking();
+            CircuitBreaker breaker = breakerService.getBreaker(CircuitBreaker.REQUEST);
+
+            expectThrows(CircuitBreakingException.class, () -> offHeapBigArrays.newLongArray(PageCacheRecycler.LONG_PAGE_SIZE * 3));
+            assertThat(breaker.getUsed(), equalTo(0L));
+            assertThat(recycler.directBytesAllocated(), equalTo(0L));
+
+            LongArray longs = offHeapBigArrays.newLongArray(PageCacheRecycler.LONG_PAGE_SIZE * 2);
+            long used = breaker.getUsed();
+            LongArray grown = longs;
+            expectThrows(CircuitBreakingException.class, () -> offHeapBigArrays.resize(grown, PageCacheRecycler.LONG_PAGE_SIZE * 3));
+            assertThat(longs.size(), equalTo(PageCacheRecycler.LONG_PAGE_SIZE * 2L));
+            assertThat(breaker.getUsed(), equalTo(used));
+            assertThat(recycler.directBytesAllocated(), equalTo(2L * PageCacheRecycler.BYTE_PAGE_SIZE));
+            longs.close();
+            assertThat(breaker.getUsed(), equalTo(0L));
+            assertThat(recycler.directBytesAllocated(), equalTo(0L));
+        }
+    }
+
+    private static BigArrays newOffHeapBigArrays() {
+        Settings settings = Settings.builder().put(PageCacheRecycler.OFF_HEAP_SETTING.getKey(), true).build();
+        PageCacheRecycler recycler = new MockPageCacheRecycler(settings);
+        assumeTrue("native memory must be available", recycler.offHeap());
+        // not a MockBigArrays so that the type of the allocated arrays can be checked
+        return new BigArrays(recycler, new NoneCircuitBreakerService(), CircuitBreaker.REQUEST);
+    }
+
     private List<BigArraysHelper> bigArrayCreators(final long maxSize, final boolean withBreaking) {
         final BigArrays byteBigArrays = newBigArraysInstance(maxSize, withBreaking);
         BigArraysHelper byteHelper = new BigArraysHelper(
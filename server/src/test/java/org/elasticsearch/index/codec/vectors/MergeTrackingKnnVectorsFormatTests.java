@@ -0,0 +1,78 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.index.codec.vectors;
+
+import org.apache.lucene.codecs.Codec;
+import org.apache.lucene.codecs.KnnVectorsFormat;
+import org.apache.lucene.codecs.lucene99.Lucene99Codec;
+import org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsFormat;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.KnnFloatVectorField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.tests.index.BaseKnnVectorsFormatTestCase;
+import org.apache.lucene.tests.util.TestUtil;
+
+import java.io.IOException;
+
+public class MergeTrackingKnnVectorsFormatTests extends BaseKnnVectorsFormatTestCase {
+    private final KnnVectorsMergeTracker tracker = new KnnVectorsMergeTracker();
+
+    @Override
+    protected Codec getCodec() {
+        return new Lucene99Codec() {
+            @Override
+            public KnnVectorsFormat getKnnVectorsFormatForField(String field) {
+                return new MergeTrackingKnnVectorsFormat(new Lucene99HnswVectorsFormat(), tracker);
+            }
+        };
+    }
+
+    public void testTracksMerges() throws IOException {
+        KnnVectorsMergeTracker mergeTracker = new KnnVectorsMergeTracker();
+        IndexWriterConfig config = new IndexWriterConfig().setCodec(new Lucene99Codec() {
+            @Override
+            public KnnVectorsFormat getKnnVectorsFormatForField(String field) {
+                return new MergeTrackingKnnVectorsFormat(new Lucene99HnswVectorsFormat(), mergeTracker);
+            }
+        });
+        try (Directory dir = newDirectory(); IndexWriter writer = new IndexWriter(dir, config)) {
+            int largeSegmentDocs = TestUtil.nextInt(random(), 20, 50);
+            for (int i = 0; i < largeSegmentDocs; i++) {
+                writer.addDocument(document("large-" + i));
+            }
+            writer.commit();
+            int smallSegmentDocs = TestUtil.nextInt(random(), 2, 10);
+            for (int i = 0; i < smallSegmentDocs; i++) {
+                writer.addDocument(document("small-" + i));
+            }
+            writer.commit();
+            // the graph of a segment with deletions can't be reused
+            writer.deleteDocuments(new Term("id", "small-0"));
+            writer.commit();
+            assertEquals(0, mergeTracker.getMerges());
+
+            writer.forceMerge(1);
+            assertEquals(1, mergeTracker.getMerges());
+            assertEquals(largeSegmentDocs + smallSegmentDocs - 1, mergeTracker.getVectors());
+            assertEquals(largeSegmentDocs, mergeTracker.getReusedGraphVectors());
+        }
+    }
+
+    private static Document document(String id) {
+        Document doc = new Document();
+        doc.add(new StringField("id", id, Field.Store.NO));
+        doc.add(new KnnFloatVectorField("vector", new float[] { random().nextFloat(), random().nextFloat(), random().nextFloat() }));
+        return doc;
+    }
+}
@@ -22,9 +22,14 @@ import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.NoMergePolicy;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.store.Directory;
+import org.elasticsearch.TransportVersions;
+import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
 import org.elasticsearch.index.store.LuceneFilesExtensions;
 import org.elasticsearch.test.ESTestCase;
 
+import java.io.IOException;
+import java.util.List;
+
 public class SegmentsStatsTests extends ESTestCase {
 
     public void testFileExtensionDescriptions() throws Exception {
@@ -70,4 +75,21 @@ public class SegmentsStatsTests extends ESTestCase {
         }
     }
 
+    public void testKnnVectorsMerges() throws IOException {
+        SegmentsStats stats = new SegmentsStats();
+        stats.addKnnVectorsMerges(3, 1500, 1000, 600);
+        SegmentsStats other = new SegmentsStats();
+        other.addKnnVectorsMerges(1, 500, 200, 0);
+        stats.add(other);
+        assertEquals(4, stats.getKnnVectorsMerges());
+        assertEquals(2000, stats.getKnnVectorsMergeTime().millis());
+        assertEquals(1200, stats.getKnnVectorsMergedVectors());
+        assertEquals(600, stats.getKnnVectorsMergeReusedGraphVectors());
+
+        NamedWriteableRegistry registry = new NamedWriteableRegistry(List.of());
+        assertEquals(stats, copyWriteable(stats, registry, SegmentsStats::new));
+        SegmentsStats bwcStats = copyWriteable(stats, registry, SegmentsStats::new, TransportVersions.DFS_KNN_MIN_SCORES);
+        assertEquals(0, bwcStats.getKnnVectorsMerges());
+        assertEquals(0, bwcStats.getKnnVectorsMergedVectors());
+    }
 }
@@ -17,25 +17,38 @@ import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.index.OrdinalMap;
 import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.index.Term;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.elasticsearch.common.breaker.CircuitBreakingException;
 import org.elasticsearch.common.breaker.NoopCircuitBreaker;
 import org.elasticsearch.common.lucene.index.ElasticsearchDirectoryReader;
+import org.elasticsearch.common.settings.ClusterSettings;
+import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.index.fielddata.plain.PagedBytesIndexFieldData;
 import org.elasticsearch.index.fielddata.plain.SortedSetOrdinalsIndexFieldData;
 import org.elasticsearch.index.mapper.TextFieldMapper;
 import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.indices.breaker.CircuitBreakerMetrics;
+import org.elasticsearch.indices.breaker.CircuitBreakerService;
+import org.elasticsearch.indices.breaker.HierarchyCircuitBreakerService;
 import org.elasticsearch.indices.breaker.NoneCircuitBreakerService;
+import org.elasticsearch.indices.fielddata.cache.IndicesFieldDataCache;
 import org.elasticsearch.script.field.DelegateDocValuesField;
 import org.elasticsearch.script.field.ToScriptFieldFactory;
 import org.elasticsearch.search.aggregations.support.CoreValuesSourceType;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.test.FieldMaskingReader;
 
+import java.util.Collections;
+
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 
 public class FieldDataCacheTests extends ESTestCase {
     private static final ToScriptFieldFactory<SortedSetDocValues> MOCK_TO_SCRIPT_FIELD = (dv, n) -> new DelegateDocValuesField(
@@ -127,6 +140,138 @@ public class FieldDataCacheTests extends ESTestCase {
         dir.close();
     }
 
+    public void testGlobalOrdinalsAreReusedWhenSegmentsAreUnchanged() throws Exception {
+        Directory dir = newDirectory();
+        IndexWriterConfig iwc = new IndexWriterConfig(null);
+        iwc.setMergePolicy(NoMergePolicy.INSTANCE);
+        IndexWriter iw = new IndexWriter(dir, iwc);
+        int numDocs = scaledRandomIntBetween(32, 128);
+        for (int i = 1; i <= numDocs; i++) {
+            Document doc = new Document();
+            doc.add(new SortedSetDocValuesField("field1", new BytesRef(String.valueOf(i))));
+            doc.add(new StringField("id", String.valueOf(i), Field.Store.NO));
+            iw.addDocument(doc);
+            if (i % 24 == 0) {
+                iw.commit();
+            }
+        }
+        iw.commit();
+        ShardId shardId = new ShardId("_index", "_na_", 0);
+        DirectoryReader ir1 = ElasticsearchDirectoryReader.wrap(DirectoryReader.open(iw), shardId);
+        assertThat(ir1.leaves().size(), greaterThan(1));
+
+        IndicesFieldDataCache indicesFieldDataCache = new IndicesFieldDataCache(Settings.EMPTY, new IndexFieldDataCache.Listener() {});
+        IndexFieldDataCache cache = indicesFieldDataCache.buildIndexFieldDataCache(
+            new IndexFieldDataCache.Listener() {},
+            shardId.getIndex(),
+            "field1"
+        );
+        SortedSetOrdinalsIndexFieldData fieldData = createSortedDV("field1", cache);
+        OrdinalMap ordinalMap = fieldData.loadGlobal(ir1).getOrdinalMap();
+
+        // only deletes, the segments are the same
+        iw.deleteDocuments(new Term("id", String.valueOf(randomIntBetween(1, numDocs))));
+        DirectoryReader ir2 = DirectoryReader.openIfChanged(ir1, iw);
+        assertNotNull(ir2);
+        ir1.close();
+        IndexOrdinalsFieldData global = fieldData.loadGlobal(ir2);
+        assertThat(global.getOrdinalMap(), sameInstance(ordinalMap));
+        // the segment field data must be bound to the new reader since the previous one is closed
+        for (LeafReaderContext context : ir2.leaves()) {
+            SortedSetDocValues values = global.load(context).getOrdinalsValues();
+            assertTrue(values.advanceExact(0));
+        }
+
+        // a new segment
+        Document doc = new Document();
+        doc.add(new SortedSetDocValuesField("field1", new BytesRef("new")));
+        doc.add(new StringField("id", "new", Field.Store.NO));
+        iw.addDocument(doc);
+        DirectoryReader ir3 = DirectoryReader.openIfChanged(ir2, iw);
+        assertNotNull(ir3);
+        OrdinalMap newOrdinalMap = fieldData.loadGlobal(ir3).getOrdinalMap();
+        assertThat(newOrdinalMap, not(sameInstance(ordinalMap)));
+        assertThat(newOrdinalMap.getValueCount(), equalTo(ordinalMap.getValueCount() + 1));
+
+        ir2.close();
+        ir3.close();
+        indicesFieldDataCache.close();
+        iw.close();
+        dir.close();
+    }
+
+    public void testOrdinalMapIsChargedOnceToTheBreaker() throws Exception {
+        Directory dir = newDirectory();
+        IndexWriterConfig iwc = new IndexWriterConfig(null);
+        iwc.setMergePolicy(NoMergePolicy.INSTANCE);
+        IndexWriter iw = new IndexWriter(dir, iwc);
+        int numDocs = scaledRandomIntBetween(32, 128);
+        for (int i = 1; i <= numDocs; i++) {
+            Document doc = new Document();
+            doc.add(new SortedSetDocValuesField("field1", new BytesRef(String.valueOf(i))));
+            doc.add(new StringField("id", String.valueOf(i), Field.Store.NO));
+            iw.addDocument(doc);
+            if (i % 24 == 0) {
+                iw.commit();
+            }
+        }
+        iw.commit();
+        ShardId shardId = new ShardId("_index", "_na_", 0);
+        DirectoryReader ir1 = ElasticsearchDirectoryReader.wrap(DirectoryReader.open(dir), shardId);
+        assertThat(ir1.leaves().size(), greaterThan(1));
+
+        CircuitBreakerService breakerService = new HierarchyCircuitBreakerService(
+            CircuitBreakerMetrics.NOOP,
+            Settings.builder().put(HierarchyCircuitBreakerService.USE_REAL_MEMORY_USAGE_SETTING.getKey(), false).build(),
+            Collections.emptyList(),
+            new ClusterSettings(Settings.EMPTY, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS)
+        );
+        CircuitBreaker breaker = breakerService.getBreaker(CircuitBreaker.FIELDDATA);
+        // releases the breaker charge of removed field data like the node level listener does
+        IndicesFieldDataCache indicesFieldDataCache = new IndicesFieldDataCache(Settings.EMPTY, new IndexFieldDataCache.Listener() {
+            @Override
+            public void onRemoval(ShardId shardId, String fieldName, boolean wasEvicted, long sizeInBytes) {
+                breaker.addWithoutBreaking(-sizeInBytes);
+            }
+        });
+        IndexFieldDataCache cache = indicesFieldDataCache.buildIndexFieldDataCache(
+            new IndexFieldDataCache.Listener() {},
+            shardId.getIndex(),
+            "field1"
+        );
+        SortedSetOrdinalsIndexFieldData fieldData = new SortedSetOrdinalsIndexFieldData(
+            cache,
+            "field1",
+            CoreValuesSourceType.KEYWORD,
+            breakerService,
+            MOCK_TO_SCRIPT_FIELD
+        );
+        OrdinalMap ordinalMap = fieldData.loadGlobal(ir1).getOrdinalMap();
+        long ordinalMapBytes = ordinalMap.ramBytesUsed();
+        // the cached global ordinals and the retained ordinal map share the same charge
+        assertThat(breaker.getUsed(), equalTo(ordinalMapBytes));
+
+        // only deletes, the global ordinals of the new reader reuse the ordinal map without charging it again
+        iw.deleteDocuments(new Term("id", String.valueOf(randomIntBetween(1, numDocs))));
+        iw.commit();
+        DirectoryReader ir2 = DirectoryReader.openIfChanged(ir1);
+        assertNotNull(ir2);
+        assertThat(fieldData.loadGlobal(ir2).getOrdinalMap(), sameInstance(ordinalMap));
+        assertThat(breaker.getUsed(), equalTo(ordinalMapBytes));
+
+        // the ordinal map is still used by the global ordinals of the new reader
+        ir1.close();
+        assertThat(breaker.getUsed(), equalTo(ordinalMapBytes));
+
+        // closing the segments releases the retained ordinal map, and closing the reader the global ordinals
+        ir2.close();
+        assertThat(breaker.getUsed(), equalTo(0L));
+
+        iw.close();
+        indicesFieldDataCache.close();
+        dir.close();
+    }
+
     private SortedSetOrdinalsIndexFieldData createSortedDV(String fieldName, IndexFieldDataCache indexFieldDataCache) {
         return new SortedSetOrdinalsIndexFieldData(
             indexFieldDataCache,
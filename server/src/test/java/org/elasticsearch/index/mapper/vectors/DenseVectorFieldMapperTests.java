@@ -45,6 +45,8 @@ import org.elasticsearch.index.mapper.vectors.DenseVectorFieldMapper.VectorSimil
 import org.elasticsearch.index.query.SearchExecutionContext;
 import org.elasticsearch.search.lookup.Source;
 import org.elasticsearch.search.lookup.SourceProvider;
+import org.elasticsearch.search.vectors.ESKnnFloatVectorQuery;
+import org.elasticsearch.search.vectors.VectorData;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.test.index.IndexVersionUtils;
 import org.elasticsearch.xcontent.XContentBuilder;
@@ -61,6 +63,7 @@ import static org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsFormat.DEFAUL
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -1142,6 +1145,120 @@ public class DenseVectorFieldMapperTests extends MapperTestCase {
         assertEquals(expectedString, knnVectorsFormat.toString());
     }
 
+    public void testRescoreIndexOption() throws IOException {
+        boolean rescore = randomBoolean();
+        MapperService mapperService = createMapperService(fieldMapping(b -> {
+            b.field("type", "dense_vector");
+            b.field("dims", 4);
+            b.field("index", true);
+            b.field("similarity", "dot_product");
+            b.startObject("index_options");
+            b.field("type", randomFrom("int8_hnsw", "int8_flat"));
+            b.field("rescore", rescore);
+            b.endObject();
+        }));
+        DenseVectorFieldType fieldType = (DenseVectorFieldType) mapperService.fieldType("field");
+        float[] queryVector = new float[] { 0.5f, 0.5f, 0.5f, 0.5f };
+        Query query = fieldType.createKnnQuery(VectorData.fromFloats(queryVector), 10, null, null, null);
+        assertThat(query, equalTo(new ESKnnFloatVectorQuery("field", queryVector, 10, null, rescore)));
+
+        Exception e = expectThrows(MapperParsingException.class, () -> createMapperService(fieldMapping(b -> {
+            b.field("type", "dense_vector");
+            b.field("dims", 4);
+            b.field("index", true);
+            b.field("similarity", "dot_product");
+            b.startObject("index_options");
+            b.field("type", randomFrom("hnsw", "flat"));
+            b.field("rescore", true);
+            b.endObject();
+        })));
+        assertThat(e.getMessage(), containsString("[rescore : true]"));
+    }
+
+    public void testKnnInt4VectorsFormat() throws IOException {
+        boolean flat = randomBoolean();
+        boolean setConfidenceInterval = randomBoolean();
+        float confidenceInterval = (float) randomDoubleBetween(0.90f, 1.0f, true);
+        MapperService mapperService = createMapperService(fieldMapping(b -> {
+            b.field("type", "dense_vector");
+            b.field("dims", 4);
+            b.field("index", true);
+            b.field("similarity", "dot_product");
+            b.startObject("index_options");
+            b.field("type", flat ? "int4_flat" : "int4_hnsw");
+            if (setConfidenceInterval) {
+                b.field("confidence_interval", confidenceInterval);
+            }
+            b.endObject();
+        }));
+        CodecService codecService = new CodecService(mapperService, BigArrays.NON_RECYCLING_INSTANCE);
+        Codec codec = codecService.codec("default");
+        assertThat(codec, instanceOf(PerFieldMapperCodec.class));
+        KnnVectorsFormat knnVectorsFormat = ((PerFieldMapperCodec) codec).getKnnVectorsFormatForField("field");
+        String expectedName = flat ? "ES813Int8FlatVectorFormat" : "Lucene99HnswScalarQuantizedVectorsFormat";
+        assertThat(knnVectorsFormat.toString(), startsWith(expectedName + "(name=" + expectedName));
+        assertThat(knnVectorsFormat.toString(), containsString("confidenceInterval=" + (setConfidenceInterval ? confidenceInterval : 0f)));
+        assertThat(knnVectorsFormat.toString(), containsString("bits=4"));
+        assertThat(knnVectorsFormat.toString(), containsString("compress=true"));
+    }
+
+    public void testInt4RequiresEvenDimensions() {
+        String type = randomFrom("int4_hnsw", "int4_flat");
+        Exception e = expectThrows(MapperParsingException.class, () -> createMapperService(fieldMapping(b -> {
+            b.field("type", "dense_vector");
+            b.field("dims", 3);
+            b.field("index", true);
+            b.field("similarity", "dot_product");
+            b.startObject("index_options");
+            b.field("type", type);
+            b.endObject();
+        })));
+        assertThat(e.getMessage(), containsString("[" + type + "] only supports even dimensions; provided=3"));
+
+        e = expectThrows(MapperParsingException.class, () -> createMapperService(fieldMapping(b -> {
+            b.field("type", "dense_vector");
+            b.field("dims", 4);
+            b.field("element_type", "byte");
+            b.field("index", true);
+            b.field("similarity", "dot_product");
+            b.startObject("index_options");
+            b.field("type", type);
+            b.endObject();
+        })));
+        assertThat(e.getMessage(), containsString("[element_type] cannot be [byte] when using index type [" + type + "]"));
+    }
+
+    public void testInt4AndRescoreRequireNewIndexVersion() {
+        IndexVersion oldVersion = IndexVersionUtils.randomVersionBetween(
+            random(),
+            DenseVectorFieldMapper.INDEXED_BY_DEFAULT_INDEX_VERSION,
+            IndexVersionUtils.getPreviousVersion(DenseVectorFieldMapper.INT4_AND_RESCORE_INDEX_VERSION)
+        );
+        String type = randomFrom("int4_hnsw", "int4_flat");
+        Exception e = expectThrows(MapperParsingException.class, () -> createMapperService(oldVersion, fieldMapping(b -> {
+            b.field("type", "dense_vector");
+            b.field("dims", 4);
+            b.field("index", true);
+            b.field("similarity", "dot_product");
+            b.startObject("index_options");
+            b.field("type", type);
+            b.endObject();
+        })));
+        assertThat(e.getMessage(), containsString("vector index options type [" + type + "] requires an index created on or after"));
+
+        e = expectThrows(MapperParsingException.class, () -> createMapperService(oldVersion, fieldMapping(b -> {
+            b.field("type", "dense_vector");
+            b.field("dims", 4);
+            b.field("index", true);
+            b.field("similarity", "dot_product");
+            b.startObject("index_options");
+            b.field("type", randomFrom("int8_hnsw", "int8_flat"));
+            b.field("rescore", randomBoolean());
+            b.endObject();
+        })));
+        assertThat(e.getMessage(), containsString("[index_options.rescore] on field [field] requires an index created on or after"));
+    }
+
     @Override
     protected IngestScriptSupport ingestScriptSupport() {
         throw new AssumptionViolatedException("not supported");
@@ -0,0 +1,229 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.index.mapper.vectors;
+
+import org.apache.lucene.document.BinaryDocValuesField;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.index.mapper.DocumentMapper;
+import org.elasticsearch.index.mapper.DocumentParsingException;
+import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.index.mapper.MapperParsingException;
+import org.elasticsearch.index.mapper.MapperService;
+import org.elasticsearch.index.mapper.MapperTestCase;
+import org.elasticsearch.index.mapper.ParsedDocument;
+import org.elasticsearch.search.vectors.MaxSimQuery;
+import org.elasticsearch.xcontent.XContentBuilder;
+import org.junit.AssumptionViolatedException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+
+public class MultiDenseVectorFieldMapperTests extends MapperTestCase {
+
+    @Override
+    protected void minimalMapping(XContentBuilder b) throws IOException {
+        b.field("type", "multi_dense_vector").field("dims", 4);
+    }
+
+    @Override
+    protected Object getSampleValueForDocument() {
+        return List.of(List.of(0.5, 0.5, 0.5, 0.5), List.of(0.5, -0.5, 0.5, -0.5));
+    }
+
+    @Override
+    protected void registerParameters(ParameterChecker checker) throws IOException {
+        checker.registerConflictCheck(
+            "dims",
+            fieldMapping(b -> b.field("type", "multi_dense_vector").field("dims", 4)),
+            fieldMapping(b -> b.field("type", "multi_dense_vector").field("dims", 5))
+        );
+        checker.registerConflictCheck(
+            "similarity",
+            fieldMapping(b -> b.field("type", "multi_dense_vector").field("dims", 4).field("similarity", "dot_product")),
+            fieldMapping(b -> b.field("type", "multi_dense_vector").field("dims", 4).field("similarity", "l2_norm"))
+        );
+    }
+
+    @Override
+    protected boolean supportsStoredFields() {
+        return false;
+    }
+
+    @Override
+    protected boolean supportsIgnoreMalformed() {
+        return false;
+    }
+
+    @Override
+    protected boolean supportsEmptyInputArray() {
+        return false;
+    }
+
+    @Override
+    protected Object generateRandomInputValue(MappedFieldType ft) {
+        assumeFalse("Fetching vectors from source is not supported", true);
+        return null;
+    }
+
+    @Override
+    protected SyntheticSourceSupport syntheticSourceSupport(boolean ignoreMalformed) {
+        throw new AssumptionViolatedException("not supported");
+    }
+
+    @Override
+    protected IngestScriptSupport ingestScriptSupport() {
+        throw new AssumptionViolatedException("not supported");
+    }
+
+    public void testDefaults() throws Exception {
+        DocumentMapper mapper = createDocumentMapper(fieldMapping(this::minimalMapping));
+        assertEquals(Strings.toString(fieldMapping(this::minimalMapping)), mapper.mappingSource().toString());
+
+        float[][] vectors = new float[][] { { 1f, 2f, 3f, 4f }, { -1f, 0.5f, 0f, 2f }, { 0f, 0f, 1f, 0f } };
+        ParsedDocument doc = mapper.parse(source(b -> {
+            b.startArray("field");
+            for (float[] vector : vectors) {
+                b.value(vector);
+            }
+            b.endArray();
+        }));
+        List<IndexableField> fields = doc.rootDoc().getFields("field");
+        assertEquals(1, fields.size());
+        assertThat(fields.get(0), instanceOf(BinaryDocValuesField.class));
+        BytesRef bytes = fields.get(0).binaryValue();
+        assertThat(bytes.length, equalTo(vectors.length * 4 * Float.BYTES));
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.bytes, bytes.offset, bytes.length).order(ByteOrder.LITTLE_ENDIAN);
+        for (float[] vector : vectors) {
+            for (float value : vector) {
+                assertThat(buffer.getFloat(), equalTo(value));
+            }
+        }
+    }
+
+    public void testDimsRequired() {
+        Exception e = expectThrows(
+            MapperParsingException.class,
+            () -> createMapperService(fieldMapping(b -> b.field("type", "multi_dense_vector")))
+        );
+        assertThat(e.getMessage(), containsString("Field [dims] is required for fields of type [multi_dense_vector]"));
+    }
+
+    public void testInvalidVectors() throws Exception {
+        DocumentMapper mapper = createDocumentMapper(fieldMapping(this::minimalMapping));
+        DocumentParsingException e = expectThrows(
+            DocumentParsingException.class,
+            () -> mapper.parse(source(b -> b.startArray("field").value(new float[] { 1f, 2f, 3f }).endArray()))
+        );
+        assertThat(e.getCause().getMessage(), containsString("has a vector with a different number of dimensions [3]"));
+
+        e = expectThrows(
+            DocumentParsingException.class,
+            () -> mapper.parse(source(b -> b.startArray("field").value(new float[] { 1f, 2f, 3f, 4f, 5f }).endArray()))
+        );
+        assertThat(e.getCause().getMessage(), containsString("has a vector with a different number of dimensions [5]"));
+
+        e = expectThrows(
+            DocumentParsingException.class,
+            () -> mapper.parse(source(b -> b.startArray("field").value(new float[] { 0f, 0f, 0f, 0f }).endArray()))
+        );
+        assertThat(e.getCause().getMessage(), containsString("The [cosine] similarity does not support vectors with zero magnitude"));
+
+        e = expectThrows(DocumentParsingException.class, () -> mapper.parse(source(b -> b.startArray("field").endArray())));
+        assertThat(e.getCause().getMessage(), containsString("has no vectors"));
+    }
+
+    public void testMaxSimQuery() throws IOException {
+        MapperService mapperService = createMapperService(
+            fieldMapping(b -> b.field("type", "multi_dense_vector").field("dims", 2).field("similarity", "dot_product"))
+        );
+        MultiDenseVectorFieldMapper.MultiDenseVectorFieldType fieldType =
+            (MultiDenseVectorFieldMapper.MultiDenseVectorFieldType) mapperService.fieldType("field");
+        float[][] queryVectors = new float[][] { { 1f, 0f }, { 0f, 1f } };
+        assertEquals(
+            new MaxSimQuery("field", queryVectors, VectorSimilarityFunction.DOT_PRODUCT),
+            fieldType.createMaxSimQuery(queryVectors)
+        );
+        IllegalArgumentException e = expectThrows(
+            IllegalArgumentException.class,
+            () -> fieldType.createMaxSimQuery(new float[][] { { 1f, 0f }, { 0f, 1f, 0f } })
+        );
+        assertThat(e.getMessage(), containsString("the query vector has a different dimension [3] than the index vectors [2]"));
+    }
+
+    public void testDotProductRequiresUnitLengthVectors() throws Exception {
+        DocumentMapper mapper = createDocumentMapper(
+            fieldMapping(b -> b.field("type", "multi_dense_vector").field("dims", 2).field("similarity", "dot_product"))
+        );
+        mapper.parse(source(b -> b.startArray("field").value(new float[] { 1f, 0f }).value(new float[] { 0.6f, 0.8f }).endArray()));
+        DocumentParsingException e = expectThrows(
+            DocumentParsingException.class,
+            () -> mapper.parse(source(b -> b.startArray("field").value(new float[] { 1f, 0f }).value(new float[] { 1f, 1f }).endArray()))
+        );
+        assertThat(e.getCause().getMessage(), containsString("The [dot_product] similarity can only be used with unit-length vectors."));
+
+        MultiDenseVectorFieldMapper.MultiDenseVectorFieldType fieldType =
+            (MultiDenseVectorFieldMapper.MultiDenseVectorFieldType) mapper.mappers().getFieldType("field");
+        IllegalArgumentException iae = expectThrows(
+            IllegalArgumentException.class,
+            () -> fieldType.createMaxSimQuery(new float[][] { { 1f, 0f }, { 3f, 4f } })
+        );
+        assertThat(
+            iae.getMessage(),
+            containsString("The [dot_product] similarity can only be used with unit-length vectors. Preview of invalid vector: [3.0, 4.0]")
+        );
+    }
+
+    public void testMaxSimQueryRejectsZeroMagnitudeVectorsWithCosine() throws IOException {
+        MapperService mapperService = createMapperService(
+            fieldMapping(b -> b.field("type", "multi_dense_vector").field("dims", 2).field("similarity", "cosine"))
+        );
+        MultiDenseVectorFieldMapper.MultiDenseVectorFieldType fieldType =
+            (MultiDenseVectorFieldMapper.MultiDenseVectorFieldType) mapperService.fieldType("field");
+        IllegalArgumentException e = expectThrows(
+            IllegalArgumentException.class,
+            () -> fieldType.createMaxSimQuery(new float[][] { { 1f, 0f }, { 0f, 0f } })
+        );
+        assertThat(
+            e.getMessage(),
+            containsString("The [cosine] similarity does not support vectors with zero magnitude. Preview of invalid vector: [0.0, 0.0]")
+        );
+
+        mapperService = createMapperService(
+            fieldMapping(b -> b.field("type", "multi_dense_vector").field("dims", 2).field("similarity", "l2_norm"))
+        );
+        MultiDenseVectorFieldMapper.MultiDenseVectorFieldType l2FieldType =
+            (MultiDenseVectorFieldMapper.MultiDenseVectorFieldType) mapperService.fieldType("field");
+        float[][] queryVectors = new float[][] { { 1f, 0f }, { 0f, 0f } };
+        assertEquals(
+            new MaxSimQuery("field", queryVectors, VectorSimilarityFunction.EUCLIDEAN),
+            l2FieldType.createMaxSimQuery(queryVectors)
+        );
+    }
+
+    public void testCannotBeUsedInMultiFields() {
+        Exception e = expectThrows(MapperParsingException.class, () -> createMapperService(fieldMapping(b -> {
+            b.field("type", "keyword");
+            b.startObject("fields");
+            b.startObject("vectors");
+            minimalMapping(b);
+            b.endObject();
+            b.endObject();
+        })));
+        assertThat(e.getMessage(), containsString("Field [vectors] of type [multi_dense_vector] can't be used in multifields"));
+    }
+}
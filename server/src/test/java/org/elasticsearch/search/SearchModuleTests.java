@@ -440,6 +440,7 @@ public class SearchModuleTests extends ESTestCase {
         "match_none",
         "match_phrase",
         "match_phrase_prefix",
+        "max_sim",
         "more_like_this",
         "multi_match",
         "nested",
@@ -167,8 +167,12 @@ public class TermsTests extends BaseAggregationTestCase<TermsAggregationBuilder>
 
     public void testSupportsParallelCollection() {
         {
-            TermsAggregationBuilder terms = new TermsAggregationBuilder("terms").executionHint("map");
-            assertFalse(terms.supportsParallelCollection(field -> randomIntBetween(-1, 100)));
+            TermsAggregationBuilder terms = new TermsAggregationBuilder("terms").executionHint(randomFrom(executionHints));
+            assertTrue(terms.supportsParallelCollection(field -> 0));
+        }
+        {
+            TermsAggregationBuilder terms = new TermsAggregationBuilder("terms").executionHint(randomFrom(executionHints));
+            assertFalse(terms.supportsParallelCollection(field -> -1));
         }
         {
             TermsAggregationBuilder terms = new TermsAggregationBuilder("terms").executionHint("global_ordinals");
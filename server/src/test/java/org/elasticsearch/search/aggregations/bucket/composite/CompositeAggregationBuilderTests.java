@@ -139,9 +139,9 @@ public class CompositeAggregationBuilderTests extends BaseAggregationTestCase<Co
             new CompositeAggregationBuilder(randomAlphaOfLength(10), Collections.singletonList(new TermsValuesSourceBuilder("name")))
                 .supportsParallelCollection(field -> randomIntBetween(0, 50))
         );
-        assertFalse(
+        assertTrue(
             new CompositeAggregationBuilder(randomAlphaOfLength(10), Collections.singletonList(new TermsValuesSourceBuilder("name")))
-                .supportsParallelCollection(field -> randomIntBetween(51, 100))
+                .supportsParallelCollection(field -> randomIntBetween(51, Integer.MAX_VALUE))
         );
         assertFalse(
             new CompositeAggregationBuilder(
@@ -149,11 +149,17 @@ public class CompositeAggregationBuilderTests extends BaseAggregationTestCase<Co
                 Collections.singletonList(new TermsValuesSourceBuilder("name").script(new Script("id")))
             ).supportsParallelCollection(field -> randomIntBetween(-1, 100))
         );
-        assertFalse(
+        assertTrue(
             new CompositeAggregationBuilder(
                 randomAlphaOfLength(10),
                 List.of(randomDateHistogramSourceBuilder(), new TermsValuesSourceBuilder("name"))
             ).supportsParallelCollection(field -> randomIntBetween(51, 100))
         );
+        assertFalse(
+            new CompositeAggregationBuilder(
+                randomAlphaOfLength(10),
+                List.of(randomDateHistogramSourceBuilder(), new TermsValuesSourceBuilder("name"))
+            ).supportsParallelCollection(field -> -1)
+        );
     }
 }
@@ -3311,7 +3311,8 @@ public class CompositeAggregatorTests extends AggregatorTestCase {
                     debug,
                     matchesMap().entry(
                         "name",
-                        matchesMap().entry("sources.leading.segments_dynamic_pruning_used", equalTo(0))
+                        matchesMap().entry("segments_skipped", 0)
+                            .entry("sources.leading.segments_dynamic_pruning_used", equalTo(0))
                             .entry("sources.leading.segments_collected", greaterThanOrEqualTo(1))
                     )
                 );
@@ -3346,7 +3347,8 @@ public class CompositeAggregatorTests extends AggregatorTestCase {
                     debug,
                     matchesMap().entry(
                         "name",
-                        matchesMap().entry("sources.leading.segments_dynamic_pruning_used", equalTo(0))
+                        matchesMap().entry("segments_skipped", 0)
+                            .entry("sources.leading.segments_dynamic_pruning_used", equalTo(0))
                             .entry("sources.leading.segments_collected", greaterThanOrEqualTo(1))
                     )
                 );
@@ -3386,7 +3388,8 @@ public class CompositeAggregatorTests extends AggregatorTestCase {
                     debug,
                     matchesMap().entry(
                         "name",
-                        matchesMap().entry("sources.leading.segments_dynamic_pruning_used", greaterThanOrEqualTo(1))
+                        matchesMap().entry("segments_skipped", 0)
+                            .entry("sources.leading.segments_dynamic_pruning_used", greaterThanOrEqualTo(1))
                             .entry("sources.leading.segments_collected", greaterThanOrEqualTo(1))
                     )
                 );
@@ -3414,7 +3417,8 @@ public class CompositeAggregatorTests extends AggregatorTestCase {
                     debug,
                     matchesMap().entry(
                         "name",
-                        matchesMap().entry("sources.leading.segments_dynamic_pruning_used", greaterThanOrEqualTo(1))
+                        matchesMap().entry("segments_skipped", 0)
+                            .entry("sources.leading.segments_dynamic_pruning_used", greaterThanOrEqualTo(1))
                             .entry("sources.leading.segments_collected", greaterThanOrEqualTo(1))
                     )
                 );
@@ -3454,7 +3458,8 @@ public class CompositeAggregatorTests extends AggregatorTestCase {
                     debug,
                     matchesMap().entry(
                         "name",
-                        matchesMap().entry("sources.leading.segments_dynamic_pruning_used", greaterThanOrEqualTo(1))
+                        matchesMap().entry("segments_skipped", 0)
+                            .entry("sources.leading.segments_dynamic_pruning_used", greaterThanOrEqualTo(1))
                             .entry("sources.leading.segments_collected", greaterThanOrEqualTo(1))
                     )
                 );
@@ -3483,7 +3488,8 @@ public class CompositeAggregatorTests extends AggregatorTestCase {
                     debug,
                     matchesMap().entry(
                         "name",
-                        matchesMap().entry("sources.leading.segments_dynamic_pruning_used", greaterThanOrEqualTo(1))
+                        matchesMap().entry("segments_skipped", 0)
+                            .entry("sources.leading.segments_dynamic_pruning_used", greaterThanOrEqualTo(1))
                             .entry("sources.leading.segments_collected", greaterThanOrEqualTo(1))
                     )
                 );
@@ -3528,7 +3534,8 @@ public class CompositeAggregatorTests extends AggregatorTestCase {
                     debug,
                     matchesMap().entry(
                         "name",
-                        matchesMap().entry("sources.leading_keyword.segments_dynamic_pruning_used", greaterThanOrEqualTo(1))
+                        matchesMap().entry("segments_skipped", 0)
+                            .entry("sources.leading_keyword.segments_dynamic_pruning_used", greaterThanOrEqualTo(1))
                             .entry("sources.leading_keyword.segments_collected", greaterThanOrEqualTo(1))
                     )
                 );
@@ -3561,7 +3568,8 @@ public class CompositeAggregatorTests extends AggregatorTestCase {
                     debug,
                     matchesMap().entry(
                         "name",
-                        matchesMap().entry("sources.leading_keyword.segments_dynamic_pruning_used", greaterThanOrEqualTo(1))
+                        matchesMap().entry("segments_skipped", 0)
+                            .entry("sources.leading_keyword.segments_dynamic_pruning_used", greaterThanOrEqualTo(1))
                             .entry("sources.leading_keyword.segments_collected", greaterThanOrEqualTo(1))
                     )
                 );
@@ -3572,6 +3580,57 @@ public class CompositeAggregatorTests extends AggregatorTestCase {
         );
     }
 
+    public void testSkipsSegmentsThatAreNotCompetitive() throws Exception {
+        CompositeAggregationBuilder aggregationBuilder = new CompositeAggregationBuilder(
+            "name",
+            List.of(new TermsValuesSourceBuilder("long").field("long"))
+        ).size(5).aggregateAfter(Map.of("long", 14L));
+        MappedFieldType longMapping = new NumberFieldMapper.NumberFieldType("long", NumberFieldMapper.NumberType.LONG);
+        MappedFieldType fooMapping = new KeywordFieldMapper.KeywordFieldType("foo");
+
+        try (Directory directory = newDirectory()) {
+            IndexWriterConfig config = newIndexWriterConfig(random(), new MockAnalyzer(random()));
+            config.setMergePolicy(NoMergePolicy.INSTANCE);
+            try (RandomIndexWriter iw = new RandomIndexWriter(random(), directory, config)) {
+                // Three segments holding 0-9, 10-19 and 20-29
+                for (int segment = 0; segment < 3; segment++) {
+                    for (int i = 0; i < 10; i++) {
+                        long value = segment * 10 + i;
+                        iw.addDocument(
+                            List.of(
+                                new SortedNumericDocValuesField("long", value),
+                                new LongPoint("long", value),
+                                new StringField("foo", "bar", Field.Store.NO)
+                            )
+                        );
+                    }
+                    iw.commit();
+                }
+            }
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                // The query isn't a match_all so we don't visit documents sorted by the leading source
+                debugTestCase(
+                    aggregationBuilder,
+                    new TermQuery(new Term("foo", "bar")),
+                    reader,
+                    (InternalComposite result, Class<? extends Aggregator> impl, Map<String, Map<String, Object>> debug) -> {
+                        assertThat(result.getBuckets(), hasSize(5));
+                        assertEquals("{long=15}", result.getBuckets().get(0).getKeyAsString());
+                        assertEquals("{long=19}", result.afterKey().toString());
+                        for (InternalComposite.InternalBucket bucket : result.getBuckets()) {
+                            assertEquals(1L, bucket.getDocCount());
+                        }
+                        // The first segment is before the after key and the last one is after the fifth bucket
+                        assertMap(debug, matchesMap().entry("name", matchesMap().entry("segments_skipped", greaterThanOrEqualTo(2))));
+                    },
+                    null,
+                    longMapping,
+                    fooMapping
+                );
+            }
+        }
+    }
+
     private static void addDocWithKeywordFields(RandomIndexWriter iw, String... fieldValuePairs) throws IOException {
         assertThat(fieldValuePairs.length, greaterThan(0));
         assertThat(fieldValuePairs.length % 2, equalTo(0));
@@ -22,7 +22,11 @@ public class RandomSamplerAggregationBuilderTests extends BaseAggregationTestCas
         if (randomBoolean()) {
             builder.setShardSeed(randomInt());
         }
-        builder.setProbability(randomFrom(1.0, randomDoubleBetween(0.0, 0.5, false)));
+        if (randomBoolean()) {
+            builder.setProbability(randomFrom(1.0, randomDoubleBetween(0.0, 0.5, false)));
+        } else {
+            builder.setShardSampleSize(randomIntBetween(1, 1_000_000));
+        }
         builder.subAggregation(AggregationBuilders.max(randomAlphaOfLength(10)).field(randomAlphaOfLength(10)));
         return builder;
     }
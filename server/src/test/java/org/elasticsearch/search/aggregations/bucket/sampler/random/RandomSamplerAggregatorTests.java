@@ -128,6 +128,55 @@ public class RandomSamplerAggregatorTests extends AggregatorTestCase {
         );
     }
 
+    public void testShardSampleSize() throws IOException {
+        testCase(RandomSamplerAggregatorTests::writeTestDocs, (InternalRandomSampler result) -> {
+            Filter agg = result.getAggregations().get("filter");
+            if (result.getDocCount() == 0) {
+                assertThat(agg.getDocCount(), equalTo(0L));
+            } else {
+                // sub-aggregations are scaled by the shards, with their own probability
+                assertThat(agg.getDocCount(), greaterThanOrEqualTo(result.getDocCount()));
+                assertThat((double) agg.getDocCount(), closeTo(result.getEstimatedDocCount(), 10));
+                assertThat(result.getProbability(), lessThanOrEqualTo(1.0));
+                assertThat(result.getDocCount() / result.getEstimatedDocCount(), closeTo(result.getProbability(), 1e-9));
+            }
+        },
+            new AggTestConfig(
+                new RandomSamplerAggregationBuilder("my_agg").subAggregation(
+                    AggregationBuilders.filter("filter", QueryBuilders.termsQuery(KEYWORD_FIELD_NAME, KEYWORD_FIELD_VALUE))
+                ).setShardSampleSize(30),
+                longField(NUMERIC_FIELD_NAME),
+                keywordField(KEYWORD_FIELD_NAME)
+            )
+        );
+    }
+
+    public void testShardSampleSizeLargerThanMatchingDocs() throws IOException {
+        testCase(RandomSamplerAggregatorTests::writeTestDocs, (InternalRandomSampler result) -> {
+            assertThat(result.getProbability(), equalTo(1.0));
+            assertThat(result.getDocCount(), equalTo(150L));
+            assertThat(result.getEstimatedDocCount(), equalTo(150.0));
+            assertThat(result.getEstimatedDocCountStdError(), equalTo(0.0));
+            Filter agg = result.getAggregations().get("filter");
+            assertThat(agg.getDocCount(), equalTo(150L));
+        },
+            new AggTestConfig(
+                new RandomSamplerAggregationBuilder("my_agg").subAggregation(
+                    AggregationBuilders.filter("filter", QueryBuilders.termsQuery(KEYWORD_FIELD_NAME, KEYWORD_FIELD_VALUE))
+                ).setShardSampleSize(randomIntBetween(150, 1000)),
+                longField(NUMERIC_FIELD_NAME),
+                keywordField(KEYWORD_FIELD_NAME)
+            )
+        );
+    }
+
+    public void testProbabilityForSampleSize() {
+        assertThat(RandomSamplerAggregatorFactory.probabilityForSampleSize(100, randomLongBetween(0, 100)), equalTo(1.0));
+        assertThat(RandomSamplerAggregatorFactory.probabilityForSampleSize(100, randomLongBetween(101, 200)), equalTo(0.5));
+        assertThat(RandomSamplerAggregatorFactory.probabilityForSampleSize(100, 1000), equalTo(0.1));
+        assertThat(RandomSamplerAggregatorFactory.probabilityForSampleSize(1, Long.MAX_VALUE), greaterThan(0.0));
+    }
+
     private static void writeTestDocsWithTrueMinMax(RandomIndexWriter w) throws IOException {
         for (int i = 0; i < 75; i++) {
             w.addDocument(List.of(new LongPoint(RANDOM_NUMERIC_FIELD_NAME, randomLongBetween(3, 1000))));
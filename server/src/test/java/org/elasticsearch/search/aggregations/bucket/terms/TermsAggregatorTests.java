@@ -22,7 +22,10 @@ import org.apache.lucene.document.StringField;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexOptions;
 import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.NoMergePolicy;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.BooleanClause.Occur;
 import org.apache.lucene.search.BooleanQuery;
@@ -82,8 +85,10 @@ import org.elasticsearch.search.aggregations.AggregationBuilders;
 import org.elasticsearch.search.aggregations.AggregationExecutionException;
 import org.elasticsearch.search.aggregations.AggregationReduceContext;
 import org.elasticsearch.search.aggregations.Aggregator;
+import org.elasticsearch.search.aggregations.AggregatorFactories;
 import org.elasticsearch.search.aggregations.AggregatorTestCase;
 import org.elasticsearch.search.aggregations.BucketOrder;
+import org.elasticsearch.search.aggregations.CardinalityUpperBound;
 import org.elasticsearch.search.aggregations.InternalAggregation;
 import org.elasticsearch.search.aggregations.InternalMultiBucketAggregation;
 import org.elasticsearch.search.aggregations.MultiBucketConsumerService.TooManyBucketsException;
@@ -110,6 +115,7 @@ import org.elasticsearch.search.aggregations.support.AggregationContext;
 import org.elasticsearch.search.aggregations.support.AggregationInspectionHelper;
 import org.elasticsearch.search.aggregations.support.CoreValuesSourceType;
 import org.elasticsearch.search.aggregations.support.ValueType;
+import org.elasticsearch.search.aggregations.support.ValuesSourceConfig;
 import org.elasticsearch.search.aggregations.support.ValuesSourceType;
 import org.elasticsearch.search.lookup.SearchLookup;
 import org.elasticsearch.search.runtime.StringScriptFieldTermQuery;
@@ -126,10 +132,12 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
@@ -1532,6 +1540,195 @@ public class TermsAggregatorTests extends AggregatorTestCase {
         );
     }
 
+    public void testSegmentOrdinals() throws IOException {
+        randomizeAggregatorImpl = false;
+        MappedFieldType fieldType = new KeywordFieldType("string", randomBoolean(), true, Collections.emptyMap());
+        int numTerms = randomIntBetween(1, 100);
+        int numDocs = randomIntBetween(1, 500);
+        Map<String, Long> expected = new TreeMap<>();
+        List<List<IndexableField>> docs = new ArrayList<>();
+        for (int i = 0; i < numDocs; i++) {
+            Set<String> values = new HashSet<>();
+            int numValues = randomIntBetween(0, 3);
+            for (int v = 0; v < numValues; v++) {
+                values.add(Integer.toString(randomInt(numTerms)));
+            }
+            for (String value : values) {
+                expected.merge(value, 1L, Long::sum);
+            }
+            docs.add(doc(fieldType, values.toArray(String[]::new)));
+        }
+        IncludeExclude includeExclude = randomBoolean() ? null : new IncludeExclude("1.*", null, null, null);
+        if (includeExclude != null) {
+            expected.keySet().removeIf(k -> k.startsWith("1") == false);
+        }
+        TermsAggregationBuilder aggregationBuilder = new TermsAggregationBuilder("_name").executionHint("segment_ordinals")
+            .field("string")
+            .includeExclude(includeExclude)
+            .size(numTerms + 1)
+            .order(BucketOrder.key(true));
+        CheckedConsumer<RandomIndexWriter, IOException> buildIndex = iw -> {
+            for (List<IndexableField> doc : docs) {
+                iw.addDocument(doc);
+                if (rarely()) {
+                    iw.commit();
+                }
+            }
+        };
+        debugTestCase(
+            aggregationBuilder,
+            new MatchAllDocsQuery(),
+            buildIndex,
+            (StringTerms result, Class<? extends Aggregator> impl, Map<String, Map<String, Object>> debug) -> {
+                assertThat(impl, equalTo(MapStringTermsAggregator.class));
+                assertThat(debug.get("_name"), hasEntry("collection_strategy", "segment ordinals"));
+                Map<String, Long> actual = new TreeMap<>();
+                for (StringTerms.Bucket bucket : result.getBuckets()) {
+                    actual.put(bucket.getKeyAsString(), bucket.getDocCount());
+                }
+                assertThat(actual, equalTo(expected));
+            },
+            fieldType
+        );
+    }
+
+    public void testSegmentOrdinalsWithFilteredQuery() throws IOException {
+        randomizeAggregatorImpl = false;
+        MappedFieldType fieldType = new KeywordFieldType("string", randomBoolean(), true, Collections.emptyMap());
+        int numTerms = randomIntBetween(1, 100);
+        int numDocs = randomIntBetween(1, 500);
+        Map<String, Long> expected = new TreeMap<>();
+        List<List<IndexableField>> docs = new ArrayList<>();
+        for (int i = 0; i < numDocs; i++) {
+            Set<String> values = new HashSet<>();
+            int numValues = randomIntBetween(0, 3);
+            for (int v = 0; v < numValues; v++) {
+                values.add(Integer.toString(randomInt(numTerms)));
+            }
+            // only some documents match so most of the ordinals of each segment aren't hit
+            boolean matches = rarely();
+            if (matches) {
+                for (String value : values) {
+                    expected.merge(value, 1L, Long::sum);
+                }
+            }
+            List<IndexableField> doc = doc(fieldType, values.toArray(String[]::new));
+            doc.add(new StringField("match", Boolean.toString(matches), Field.Store.NO));
+            docs.add(doc);
+        }
+        TermsAggregationBuilder aggregationBuilder = new TermsAggregationBuilder("_name").executionHint("segment_ordinals")
+            .field("string")
+            .size(numTerms + 1)
+            .order(BucketOrder.key(true));
+        CheckedConsumer<RandomIndexWriter, IOException> buildIndex = iw -> {
+            for (List<IndexableField> doc : docs) {
+                iw.addDocument(doc);
+                if (rarely()) {
+                    iw.commit();
+                }
+            }
+        };
+        debugTestCase(
+            aggregationBuilder,
+            new TermQuery(new Term("match", "true")),
+            buildIndex,
+            (StringTerms result, Class<? extends Aggregator> impl, Map<String, Map<String, Object>> debug) -> {
+                assertThat(impl, equalTo(MapStringTermsAggregator.class));
+                assertThat(debug.get("_name"), hasEntry("collection_strategy", "segment ordinals"));
+                Map<String, Long> actual = new TreeMap<>();
+                for (StringTerms.Bucket bucket : result.getBuckets()) {
+                    actual.put(bucket.getKeyAsString(), bucket.getDocCount());
+                }
+                assertThat(actual, equalTo(expected));
+            },
+            fieldType
+        );
+    }
+
+    public void testSegmentOrdinalsWithSubAggregationFallsBackToMap() throws IOException {
+        randomizeAggregatorImpl = false;
+        MappedFieldType fieldType = new KeywordFieldType("string", randomBoolean(), true, Collections.emptyMap());
+        TermsAggregationBuilder aggregationBuilder = new TermsAggregationBuilder("_name").executionHint("segment_ordinals")
+            .field("string")
+            .subAggregation(new TermsAggregationBuilder("sub").field("string"));
+        debugTestCase(aggregationBuilder, new MatchAllDocsQuery(), iw -> {
+            iw.addDocument(doc(fieldType, "a", "b"));
+            iw.addDocument(doc(fieldType, "b"));
+        }, (StringTerms result, Class<? extends Aggregator> impl, Map<String, Map<String, Object>> debug) -> {
+            assertThat(impl, equalTo(MapStringTermsAggregator.class));
+            assertThat(debug.get("_name").get("collection_strategy"), equalTo("from Field [string] of type [keyword]"));
+            assertThat(result.getBucketByKey("b").getDocCount(), equalTo(2L));
+        }, fieldType);
+    }
+
+    public void testPrefersSegmentOrdinalsOnHighCardinalityFields() throws IOException {
+        randomizeAggregatorImpl = false;
+        int numDocs = (int) TermsAggregatorFactory.MIN_ORDS_FOR_SEGMENT_ORDINALS;
+        MappedFieldType fieldType = new KeywordFieldType("string", false, true, Collections.emptyMap());
+        try (Directory directory = newDirectory()) {
+            try (IndexWriter w = new IndexWriter(directory, new IndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE))) {
+                for (int i = 0; i < numDocs; i++) {
+                    w.addDocument(doc(fieldType, Integer.toString(i)));
+                    if (i == numDocs / 2) {
+                        w.flush();
+                    }
+                }
+            }
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                assertThat(reader.leaves().size(), equalTo(2));
+                try (AggregationContext context = createAggregationContext(reader, new MatchAllDocsQuery(), fieldType)) {
+                    TermsAggregationBuilder aggregationBuilder = new TermsAggregationBuilder("_name").field("string");
+                    assertThat(collectionStrategy(createAggregator(aggregationBuilder, context)), equalTo("segment ordinals"));
+
+                    // sub-aggregations need global ordinals
+                    aggregationBuilder.subAggregation(AggregationBuilders.cardinality("card").field("string"));
+                    assertThat(createAggregator(aggregationBuilder, context), instanceOf(GlobalOrdinalsStringTermsAggregator.class));
+                }
+            }
+
+            // with a single segment global ordinals are just the segment ordinals
+            try (IndexWriter w = new IndexWriter(directory, new IndexWriterConfig())) {
+                w.forceMerge(1);
+            }
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                try (AggregationContext context = createAggregationContext(reader, new MatchAllDocsQuery(), fieldType)) {
+                    TermsAggregationBuilder aggregationBuilder = new TermsAggregationBuilder("_name").field("string");
+                    assertThat(createAggregator(aggregationBuilder, context), instanceOf(GlobalOrdinalsStringTermsAggregator.class));
+                }
+            }
+        }
+    }
+
+    public void testDoesNotPreferSegmentOrdinalsWithoutSortedDocValues() throws IOException {
+        int numDocs = (int) TermsAggregatorFactory.MIN_ORDS_FOR_SEGMENT_ORDINALS;
+        MappedFieldType fieldType = new KeywordFieldType("string", false, true, Collections.emptyMap());
+        try (Directory directory = newDirectory()) {
+            try (IndexWriter w = new IndexWriter(directory, new IndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE))) {
+                for (int i = 0; i < numDocs; i++) {
+                    w.addDocument(List.of(new BinaryDocValuesField("string", new BytesRef(Integer.toString(i)))));
+                    if (i == numDocs / 2) {
+                        w.flush();
+                    }
+                }
+            }
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                assertThat(reader.leaves().size(), equalTo(2));
+                try (AggregationContext context = createAggregationContext(reader, new MatchAllDocsQuery(), fieldType)) {
+                    ValuesSourceConfig config = ValuesSourceConfig.resolveFieldOnly(fieldType, context);
+                    assertFalse(
+                        TermsAggregatorFactory.preferSegmentOrdinals(config, AggregatorFactories.EMPTY, CardinalityUpperBound.ONE, context)
+                    );
+                }
+            }
+        }
+    }
+
+    private static String collectionStrategy(Aggregator aggregator) {
+        Map<String, Object> debug = new HashMap<>();
+        aggregator.collectDebugInfo(debug::put);
+        return (String) debug.get("collection_strategy");
+    }
+
     public void topLevelProfileTestCase(
         int count,
         int extra,
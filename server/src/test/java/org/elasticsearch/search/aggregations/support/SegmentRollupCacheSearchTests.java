@@ -0,0 +1,87 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.search.aggregations.support;
+
+import org.elasticsearch.action.search.SearchRequestBuilder;
+import org.elasticsearch.cluster.metadata.IndexMetadata;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramInterval;
+import org.elasticsearch.search.aggregations.bucket.histogram.Histogram;
+import org.elasticsearch.search.aggregations.bucket.terms.Terms;
+import org.elasticsearch.test.ESSingleNodeTestCase;
+
+import static org.elasticsearch.test.hamcrest.ElasticsearchAssertions.assertResponse;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Checks that searches only serve doc counts from the {@link SegmentRollupCache} when
+ * the query phase collects every matching document.
+ */
+public class SegmentRollupCacheSearchTests extends ESSingleNodeTestCase {
+    private static final int NUM_DOCS = 10;
+
+    @Override
+    protected Settings nodeSettings() {
+        return Settings.builder().put(SegmentRollupCache.SIZE_SETTING.getKey(), "1mb").build();
+    }
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        createIndex(
+            "index",
+            Settings.builder().put(IndexMetadata.SETTING_NUMBER_OF_SHARDS, 1).build(),
+            "_doc",
+            "number",
+            "type=long,index=false",
+            "date",
+            "type=date,index=false"
+        );
+        for (int i = 0; i < NUM_DOCS; i++) {
+            prepareIndex("index").setSource("number", i % 3, "date", i * 24 * 60 * 60 * 1000L).get();
+        }
+        indicesAdmin().prepareRefresh("index").get();
+    }
+
+    public void testCountsEveryDocument() {
+        // run twice so the second search is served from the cached rollups
+        for (int i = 0; i < 2; i++) {
+            assertAggregatedDocCount(search(), NUM_DOCS);
+        }
+    }
+
+    public void testMinScore() {
+        assertAggregatedDocCount(search(), NUM_DOCS);
+        // match_all scores every document 1
+        assertAggregatedDocCount(search().setMinScore(2f), 0);
+    }
+
+    public void testTerminateAfter() {
+        assertAggregatedDocCount(search(), NUM_DOCS);
+        assertAggregatedDocCount(search().setTerminateAfter(1), 1);
+    }
+
+    private SearchRequestBuilder search() {
+        return client().prepareSearch("index")
+            .setSize(0)
+            .addAggregation(AggregationBuilders.terms("terms").field("number"))
+            .addAggregation(AggregationBuilders.dateHistogram("histo").field("date").fixedInterval(DateHistogramInterval.DAY));
+    }
+
+    private static void assertAggregatedDocCount(SearchRequestBuilder search, long expected) {
+        assertResponse(search, response -> {
+            assertThat(response.getHits().getTotalHits().value, equalTo(expected));
+            Terms terms = response.getAggregations().get("terms");
+            assertThat(terms.getBuckets().stream().mapToLong(Terms.Bucket::getDocCount).sum(), equalTo(expected));
+            Histogram histo = response.getAggregations().get("histo");
+            assertThat(histo.getBuckets().stream().mapToLong(Histogram.Bucket::getDocCount).sum(), equalTo(expected));
+        });
+    }
+}
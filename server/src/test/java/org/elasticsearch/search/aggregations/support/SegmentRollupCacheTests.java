@@ -0,0 +1,165 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.search.aggregations.support;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.tests.index.RandomIndexWriter;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.index.mapper.DateFieldMapper;
+import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.index.mapper.NumberFieldMapper;
+import org.elasticsearch.search.aggregations.AggregatorTestCase;
+import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramInterval;
+import org.elasticsearch.search.aggregations.bucket.histogram.Histogram;
+import org.elasticsearch.search.aggregations.bucket.terms.LongTerms;
+import org.elasticsearch.search.aggregations.bucket.terms.TermsAggregationBuilder;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+
+public class SegmentRollupCacheTests extends AggregatorTestCase {
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+
+    private final SegmentRollupCache rollupCache = new SegmentRollupCache(ByteSizeValue.ofMb(1).getBytes());
+
+    @Override
+    protected SegmentRollupCache segmentRollupCache() {
+        return rollupCache;
+    }
+
+    public void testDateHistogram() throws IOException {
+        // Not indexed so we can't precompute the rounding points and run as a range aggregation
+        MappedFieldType ft = new DateFieldMapper.DateFieldType("date", false);
+        DateHistogramAggregationBuilder builder = new DateHistogramAggregationBuilder("h").field("date")
+            .fixedInterval(DateHistogramInterval.DAY);
+        try (Directory directory = newDirectory()) {
+            Map<Long, Long> expected = indexDays(directory, "date", true);
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                for (int i = 0; i < 2; i++) {
+                    Histogram result = searchAndReduce(reader, new AggTestConfig(builder, ft));
+                    Map<Long, Long> counts = new TreeMap<>();
+                    for (Histogram.Bucket bucket : result.getBuckets()) {
+                        counts.put(((ZonedDateTime) bucket.getKey()).toInstant().toEpochMilli(), bucket.getDocCount());
+                    }
+                    assertThat(counts, equalTo(expected));
+                    assertThat(rollupCache.count(), greaterThan(0));
+                }
+            }
+        }
+    }
+
+    public void testTerms() throws IOException {
+        MappedFieldType ft = new NumberFieldMapper.NumberFieldType("number", NumberFieldMapper.NumberType.LONG);
+        TermsAggregationBuilder builder = new TermsAggregationBuilder("t").field("number").size(10);
+        try (Directory directory = newDirectory()) {
+            Map<Long, Long> expected = indexDays(directory, "number", false);
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                for (int i = 0; i < 2; i++) {
+                    LongTerms result = searchAndReduce(reader, new AggTestConfig(builder, ft));
+                    Map<Long, Long> counts = new TreeMap<>();
+                    for (LongTerms.Bucket bucket : result.getBuckets()) {
+                        counts.put(bucket.getKeyAsNumber().longValue(), bucket.getDocCount());
+                    }
+                    assertThat(counts, equalTo(expected));
+                    assertThat(rollupCache.count(), greaterThan(0));
+                }
+            }
+        }
+    }
+
+    public void testQueryThatDoesNotMatchEverything() throws IOException {
+        MappedFieldType ft = new NumberFieldMapper.NumberFieldType("number", NumberFieldMapper.NumberType.LONG);
+        TermsAggregationBuilder builder = new TermsAggregationBuilder("t").field("number").size(10);
+        try (Directory directory = newDirectory()) {
+            indexDays(directory, "number", false);
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                LongTerms result = searchAndReduce(
+                    reader,
+                    new AggTestConfig(builder, ft).withQuery(LongPoint.newRangeQuery("number", 3 * DAY, Long.MAX_VALUE))
+                );
+                Map<Long, Long> counts = new TreeMap<>();
+                for (LongTerms.Bucket bucket : result.getBuckets()) {
+                    counts.put(bucket.getKeyAsNumber().longValue(), bucket.getDocCount());
+                }
+                assertThat(counts, equalTo(Map.of(3 * DAY, 4L, 4 * DAY, 5L)));
+            }
+        }
+    }
+
+    public void testBuildCountsLiveDocsOncePerKey() throws IOException {
+        try (Directory directory = newDirectory(); IndexWriter iw = new IndexWriter(directory, new IndexWriterConfig())) {
+            iw.addDocument(doc("0", 1, 2));
+            iw.addDocument(doc("1", 2, 3));
+            iw.addDocument(doc("2", 5));
+            iw.deleteDocuments(new Term("id", "2"));
+            try (DirectoryReader reader = DirectoryReader.open(iw)) {
+                LeafReader leaf = reader.leaves().get(0).reader();
+                // Round down to even numbers so 2 and 3 land on the same key
+                SegmentRollupCache.Rollup rollup = SegmentRollupCache.Rollup.build(
+                    BigArrays.NON_RECYCLING_INSTANCE,
+                    leaf,
+                    leaf.getSortedNumericDocValues("n"),
+                    v -> v & ~1L
+                );
+                Map<Long, Long> counts = new TreeMap<>();
+                for (int i = 0; i < rollup.size(); i++) {
+                    counts.put(rollup.key(i), rollup.docCount(i));
+                }
+                assertThat(counts, equalTo(Map.of(0L, 1L, 2L, 2L)));
+            }
+        }
+    }
+
+    private static Document doc(String id, long... values) {
+        Document doc = new Document();
+        doc.add(new StringField("id", id, Field.Store.NO));
+        for (long v : values) {
+            doc.add(new SortedNumericDocValuesField("n", v));
+        }
+        return doc;
+    }
+
+    /**
+     * Index {@code d + 1} documents on day {@code d} for five days, returning
+     * the expected count for each day.
+     *
+     * @param withTime index a random time during the day rather than its start
+     */
+    private Map<Long, Long> indexDays(Directory directory, String field, boolean withTime) throws IOException {
+        Map<Long, Long> expected = new TreeMap<>();
+        try (RandomIndexWriter iw = new RandomIndexWriter(random(), directory)) {
+            for (int d = 0; d < 5; d++) {
+                for (int i = 0; i <= d; i++) {
+                    long value = d * DAY + (withTime ? randomLongBetween(0, DAY - 1) : 0);
+                    iw.addDocument(List.of(new SortedNumericDocValuesField(field, value), new LongPoint(field, value)));
+                }
+                expected.put(d * DAY, d + 1L);
+            }
+        }
+        return expected;
+    }
+}
@@ -14,6 +14,7 @@ import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.KnnFloatVectorQuery;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.tests.index.RandomIndexWriter;
 import org.elasticsearch.search.internal.ContextIndexSearcher;
@@ -21,6 +22,7 @@ import org.elasticsearch.search.profile.Profilers;
 import org.elasticsearch.search.profile.SearchProfileDfsPhaseResult;
 import org.elasticsearch.search.profile.query.CollectorResult;
 import org.elasticsearch.search.profile.query.QueryProfileShardResult;
+import org.elasticsearch.search.vectors.ESKnnFloatVectorQuery;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.threadpool.TestThreadPool;
 import org.elasticsearch.threadpool.ThreadPool;
@@ -31,6 +33,10 @@ import java.io.IOException;
 import java.util.List;
 import java.util.concurrent.ThreadPoolExecutor;
 
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
 public class DfsPhaseTests extends ESTestCase {
 
     ThreadPoolExecutor threadPoolExecutor;
@@ -101,4 +107,57 @@ public class DfsPhaseTests extends ESTestCase {
             reader.close();
         }
     }
+
+    public void testKnnSearchDropsNonCompetitiveResults() throws IOException {
+        try (Directory dir = newDirectory(); RandomIndexWriter w = new RandomIndexWriter(random(), dir, newIndexWriterConfig())) {
+            int numDocs = randomIntBetween(900, 1000);
+            for (int i = 0; i < numDocs; i++) {
+                Document d = new Document();
+                d.add(new KnnFloatVectorField("float_vector", new float[] { i, 0, 0 }));
+                w.addDocument(d);
+            }
+            w.flush();
+
+            try (IndexReader reader = w.getReader()) {
+                ContextIndexSearcher searcher = new ContextIndexSearcher(
+                    reader,
+                    IndexSearcher.getDefaultSimilarity(),
+                    IndexSearcher.getDefaultQueryCache(),
+                    IndexSearcher.getDefaultQueryCachingPolicy(),
+                    randomBoolean()
+                );
+                int k = 10;
+                // the euclidean score of the fifth closest vector, as if another shard had returned it
+                float minScore = 1f / (1 + 4 * 4);
+                ESKnnFloatVectorQuery query = new ESKnnFloatVectorQuery("float_vector", new float[] { 0, 0, 0 }, k, null);
+
+                DfsKnnResults allResults = DfsPhase.singleKnnSearch(query, k, null, searcher, null);
+                DfsKnnResults dfsKnnResults = DfsPhase.dropNonCompetitive(allResults, minScore);
+                assertThat(dfsKnnResults.scoreDocs().length, greaterThan(0));
+                assertThat(dfsKnnResults.scoreDocs().length, lessThanOrEqualTo(k));
+                // only the tail of the results is dropped
+                for (int i = 0; i < dfsKnnResults.scoreDocs().length; i++) {
+                    ScoreDoc scoreDoc = dfsKnnResults.scoreDocs()[i];
+                    assertThat(scoreDoc.score, greaterThanOrEqualTo(minScore));
+                    assertEquals(allResults.scoreDocs()[i].doc, scoreDoc.doc);
+                }
+            }
+        }
+    }
+
+    public void testDropNonCompetitive() {
+        DfsKnnResults results = new DfsKnnResults(
+            "nested",
+            new ScoreDoc[] { new ScoreDoc(3, 0.9f), new ScoreDoc(1, 0.5f), new ScoreDoc(7, 0.5f), new ScoreDoc(2, 0.1f) }
+        );
+        assertSame(results, DfsPhase.dropNonCompetitive(results, Float.NEGATIVE_INFINITY));
+        assertSame(results, DfsPhase.dropNonCompetitive(results, 0.1f));
+
+        DfsKnnResults competitive = DfsPhase.dropNonCompetitive(results, 0.5f);
+        assertEquals("nested", competitive.getNestedPath());
+        assertEquals(3, competitive.scoreDocs().length);
+        assertEquals(7, competitive.scoreDocs()[2].doc);
+
+        assertEquals(0, DfsPhase.dropNonCompetitive(results, 1f).scoreDocs().length);
+    }
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.search.dfs;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.CollectionStatistics;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TermStatistics;
+import org.apache.lucene.store.Directory;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class DfsStatisticsCacheTests extends ESTestCase {
+    public void testKeyedOnReaderAndQueries() throws IOException {
+        DfsStatisticsCache cache = new DfsStatisticsCache(ByteSizeValue.ofMb(1).getBytes());
+        List<Query> queries = List.of(new TermQuery(new Term("f", "a")));
+        try (Directory directory = newDirectory(); IndexWriter iw = new IndexWriter(directory, new IndexWriterConfig())) {
+            iw.addDocument(doc("a"));
+            try (DirectoryReader reader = DirectoryReader.open(iw)) {
+                assertThat(cache.get(reader, queries), nullValue());
+                DfsStatisticsCache.Statistics statistics = statistics("a");
+                cache.put(reader, queries, statistics);
+                assertThat(cache.get(reader, List.of(new TermQuery(new Term("f", "a")))), sameInstance(statistics));
+                assertThat(cache.get(reader, List.of(new TermQuery(new Term("f", "b")))), nullValue());
+
+                iw.addDocument(doc("b"));
+                try (DirectoryReader refreshed = DirectoryReader.openIfChanged(reader)) {
+                    assertThat(cache.get(refreshed, queries), nullValue());
+                }
+            }
+            // closing the reader invalidates its statistics
+            assertThat(cache.count(), equalTo(0));
+        }
+    }
+
+    public void testDisabled() throws IOException {
+        DfsStatisticsCache cache = new DfsStatisticsCache(0);
+        assertFalse(cache.enabled());
+        List<Query> queries = List.of(new TermQuery(new Term("f", "a")));
+        try (Directory directory = newDirectory(); IndexWriter iw = new IndexWriter(directory, new IndexWriterConfig())) {
+            iw.addDocument(doc("a"));
+            try (DirectoryReader reader = DirectoryReader.open(iw)) {
+                cache.put(reader, queries, statistics("a"));
+                assertThat(cache.get(reader, queries), nullValue());
+                assertThat(cache.count(), equalTo(0));
+            }
+        }
+    }
+
+    private static Document doc(String value) {
+        Document doc = new Document();
+        doc.add(new StringField("f", value, Field.Store.NO));
+        return doc;
+    }
+
+    private static DfsStatisticsCache.Statistics statistics(String value) {
+        Term term = new Term("f", value);
+        return new DfsStatisticsCache.Statistics(
+            new Term[] { term },
+            new TermStatistics[] { new TermStatistics(term.bytes(), 1, 1) },
+            Map.of("f", new CollectionStatistics("f", 1, 1, 1, 1))
+        );
+    }
+}
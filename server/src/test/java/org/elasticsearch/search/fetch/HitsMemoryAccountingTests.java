@@ -0,0 +1,140 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.search.fetch;
+
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
+import org.elasticsearch.common.breaker.NoopCircuitBreaker;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.text.Text;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.fetch.subphase.highlight.HighlightField;
+import org.elasticsearch.search.internal.ShardSearchContextId;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.equalTo;
+
+public class HitsMemoryAccountingTests extends ESTestCase {
+
+    public void testBytesUsed() {
+        SearchHit hit = SearchHit.unpooled(0);
+        assertThat(FetchPhase.HitsMemoryAccounting.bytesUsed(hit), equalTo(0L));
+        hit.sourceRef(new BytesArray(new byte[100]));
+        hit.highlightFields(Map.of("f", new HighlightField("f", new Text[] { new Text("abcd"), new Text(new BytesArray("abc")) })));
+        assertThat(FetchPhase.HitsMemoryAccounting.bytesUsed(hit), equalTo(100L + 4 * Character.BYTES + 3));
+    }
+
+    public void testReservesInBatchesAndReleasesOnClose() {
+        LimitedBreaker breaker = new LimitedBreaker(Long.MAX_VALUE);
+        FetchPhase.HitsMemoryAccounting accounting = new FetchPhase.HitsMemoryAccounting(breaker);
+        int hitSize = Math.toIntExact(FetchPhase.HitsMemoryAccounting.BATCH_SIZE / 4);
+        for (int i = 0; i < 3; i++) {
+            accounting.account(hit(hitSize));
+        }
+        assertThat(breaker.getUsed(), equalTo(0L));
+        accounting.account(hit(hitSize));
+        assertThat(breaker.getUsed(), equalTo(4L * hitSize));
+        accounting.account(hit(10));
+        accounting.reserve();
+        assertThat(breaker.getUsed(), equalTo(4L * hitSize + 10));
+        assertThat(accounting.reserved(), equalTo(breaker.getUsed()));
+        accounting.close();
+        assertThat(breaker.getUsed(), equalTo(0L));
+        accounting.close();
+        assertThat(breaker.getUsed(), equalTo(0L));
+    }
+
+    public void testBreaks() {
+        long batch = FetchPhase.HitsMemoryAccounting.BATCH_SIZE;
+        LimitedBreaker breaker = new LimitedBreaker(batch + batch / 2);
+        FetchPhase.HitsMemoryAccounting accounting = new FetchPhase.HitsMemoryAccounting(breaker);
+        accounting.account(hit(Math.toIntExact(batch)));
+        expectThrows(CircuitBreakingException.class, () -> accounting.account(hit(Math.toIntExact(batch))));
+        assertThat(breaker.getUsed(), equalTo(batch));
+        accounting.close();
+        assertThat(breaker.getUsed(), equalTo(0L));
+    }
+
+    public void testReleasesHitsAsTheyAreSerialized() throws IOException {
+        LimitedBreaker breaker = new LimitedBreaker(Long.MAX_VALUE);
+        FetchPhase.HitsMemoryAccounting accounting = new FetchPhase.HitsMemoryAccounting(breaker);
+        SearchHit[] hits = new SearchHit[] { hit(100), hit(200) };
+        for (SearchHit hit : hits) {
+            accounting.account(hit);
+        }
+        accounting.reserve();
+        FetchSearchResult result = new FetchSearchResult(new ShardSearchContextId("test", 1), null);
+        try {
+            result.shardResult(SearchHits.unpooled(hits, null, Float.NaN), null, accounting);
+            assertThat(breaker.getUsed(), equalTo(300L));
+            try (BytesStreamOutput out = new BytesStreamOutput()) {
+                result.writeTo(out);
+            }
+            assertThat(breaker.getUsed(), equalTo(0L));
+        } finally {
+            result.decRef();
+        }
+        assertThat(breaker.getUsed(), equalTo(0L));
+    }
+
+    public void testReusedResultReleasesReplacedHits() {
+        LimitedBreaker breaker = new LimitedBreaker(Long.MAX_VALUE);
+        FetchSearchResult result = new FetchSearchResult();
+        try {
+            for (int i = 0; i < 3; i++) {
+                FetchPhase.HitsMemoryAccounting accounting = new FetchPhase.HitsMemoryAccounting(breaker);
+                SearchHit hit = hit(100);
+                accounting.account(hit);
+                accounting.reserve();
+                result.shardResult(SearchHits.unpooled(new SearchHit[] { hit }, null, Float.NaN), null, accounting);
+                assertThat(breaker.getUsed(), equalTo(100L));
+            }
+        } finally {
+            result.decRef();
+        }
+        assertThat(breaker.getUsed(), equalTo(0L));
+    }
+
+    private static SearchHit hit(int sourceSize) {
+        return SearchHit.unpooled(0).sourceRef(new BytesArray(new byte[sourceSize]));
+    }
+
+    private static class LimitedBreaker extends NoopCircuitBreaker {
+        private final long limit;
+        private long used;
+
+        LimitedBreaker(long limit) {
+            super(CircuitBreaker.REQUEST);
+            this.limit = limit;
+        }
+
+        @Override
+        public void addEstimateBytesAndMaybeBreak(long bytes, String label) throws CircuitBreakingException {
+            if (used + bytes > limit) {
+                throw new CircuitBreakingException("over limit", bytes, limit, getDurability());
+            }
+            used += bytes;
+        }
+
+        @Override
+        public void addWithoutBreaking(long bytes) {
+            used += bytes;
+        }
+
+        @Override
+        public long getUsed() {
+            return used;
+        }
+    }
+}
@@ -26,6 +26,8 @@ import org.apache.lucene.index.PostingsEnum;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.index.Terms;
 import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.BoostQuery;
 import org.apache.lucene.search.BulkScorer;
 import org.apache.lucene.search.Collector;
@@ -70,6 +72,8 @@ import org.elasticsearch.lucene.util.CombinedBitSet;
 import org.elasticsearch.lucene.util.MatchAllBitSet;
 import org.elasticsearch.search.aggregations.BucketCollector;
 import org.elasticsearch.search.aggregations.LeafBucketCollector;
+import org.elasticsearch.search.profile.query.QueryProfiler;
+import org.elasticsearch.search.vectors.ProfilingQuery;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.test.IndexSettingsModule;
 
@@ -554,6 +558,34 @@ public class ContextIndexSearcherTests extends ESTestCase {
         }
     }
 
+    public void testRewriteProfilesKnnQueries() throws IOException {
+        try (Directory dir = newDirectory()) {
+            indexDocs(dir);
+            try (DirectoryReader directoryReader = DirectoryReader.open(dir)) {
+                ContextIndexSearcher searcher = new ContextIndexSearcher(
+                    directoryReader,
+                    IndexSearcher.getDefaultSimilarity(),
+                    IndexSearcher.getDefaultQueryCache(),
+                    IndexSearcher.getDefaultQueryCachingPolicy(),
+                    true
+                );
+                ProfiledKnnQuery knnQuery = new ProfiledKnnQuery();
+                Query query = new BooleanQuery.Builder().add(new TermQuery(new Term("field", "value")), BooleanClause.Occur.SHOULD)
+                    .add(knnQuery, BooleanClause.Occur.SHOULD)
+                    .build();
+                searcher.rewrite(query);
+                assertFalse(knnQuery.profiledRewrite);
+
+                QueryProfiler profiler = new QueryProfiler();
+                searcher.setProfiler(profiler);
+                searcher.rewrite(query);
+                // like kNN queries, the query searches when it is rewritten, which needs to know it is profiled
+                assertTrue(knnQuery.profiledRewrite);
+                assertThat(profiler.getVectorPageFaults(), equalTo(42L));
+            }
+        }
+    }
+
     public void testTimeoutOnRewriteDuringSearch() throws IOException {
         try (Directory dir = newDirectory()) {
             indexDocs(dir);
@@ -613,6 +645,27 @@ public class ContextIndexSearcherTests extends ESTestCase {
         }
     }
 
+    private static class ProfiledKnnQuery extends TestQuery implements ProfilingQuery {
+        private boolean profilingEnabled;
+        private boolean profiledRewrite;
+
+        @Override
+        public Query rewrite(IndexSearcher indexSearcher) {
+            profiledRewrite = profilingEnabled;
+            return new MatchNoDocsQuery();
+        }
+
+        @Override
+        public void enableProfiling() {
+            profilingEnabled = true;
+        }
+
+        @Override
+        public void profile(QueryProfiler queryProfiler) {
+            queryProfiler.setVectorPageFaults(42);
+        }
+    }
+
     private SparseFixedBitSet query(LeafReaderContext leaf, String field, String value) throws IOException {
         SparseFixedBitSet sparseFixedBitSet = new SparseFixedBitSet(leaf.reader().maxDoc());
         TermsEnum tenum = leaf.reader().terms(field).iterator();
@@ -0,0 +1,140 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.search.internal;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.IndexOrDocValuesQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.Directory;
+import org.elasticsearch.search.profile.query.QueryProfiler;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+
+import static org.hamcrest.Matchers.equalTo;
+
+public class PointRangeSegmentFilterTests extends ESTestCase {
+
+    private static final int DOCS_PER_SEGMENT = 10;
+
+    public void testBuild() {
+        Query range = LongPoint.newRangeQuery("field", 0, 10);
+        assertNull(PointRangeSegmentFilter.build(new MatchAllDocsQuery()));
+        assertNull(PointRangeSegmentFilter.build(new TermQuery(new Term("foo", "bar"))));
+        assertNotNull(PointRangeSegmentFilter.build(range));
+        assertNotNull(PointRangeSegmentFilter.build(new ConstantScoreQuery(range)));
+        assertNotNull(
+            PointRangeSegmentFilter.build(
+                new IndexOrDocValuesQuery(range, SortedNumericDocValuesField.newSlowRangeQuery("field", 0, 10))
+            )
+        );
+        assertNotNull(
+            PointRangeSegmentFilter.build(
+                new BooleanQuery.Builder().add(new TermQuery(new Term("foo", "bar")), Occur.MUST).add(range, Occur.FILTER).build()
+            )
+        );
+        // optional and prohibited clauses don't restrict the set of matching segments
+        assertNull(
+            PointRangeSegmentFilter.build(
+                new BooleanQuery.Builder().add(new TermQuery(new Term("foo", "bar")), Occur.SHOULD).add(range, Occur.SHOULD).build()
+            )
+        );
+        assertNull(
+            PointRangeSegmentFilter.build(
+                new BooleanQuery.Builder().add(new MatchAllDocsQuery(), Occur.MUST).add(range, Occur.MUST_NOT).build()
+            )
+        );
+    }
+
+    public void testCanMatch() throws IOException {
+        final int numSegments = randomIntBetween(2, 6);
+        try (Directory dir = newDirectory()) {
+            indexSegments(dir, numSegments);
+            try (DirectoryReader reader = DirectoryReader.open(dir)) {
+                assertThat(reader.leaves().size(), equalTo(numSegments));
+                int target = randomIntBetween(0, numSegments - 1);
+                long from = (long) target * DOCS_PER_SEGMENT;
+                PointRangeSegmentFilter filter = PointRangeSegmentFilter.build(
+                    LongPoint.newRangeQuery("field", from, from + DOCS_PER_SEGMENT - 1)
+                );
+                int matchingSegments = 0;
+                for (LeafReaderContext ctx : reader.leaves()) {
+                    if (filter.canMatch(ctx)) {
+                        matchingSegments++;
+                    }
+                }
+                assertThat(matchingSegments, equalTo(1));
+
+                PointRangeSegmentFilter missingField = PointRangeSegmentFilter.build(LongPoint.newRangeQuery("missing", 0, Long.MAX_VALUE));
+                for (LeafReaderContext ctx : reader.leaves()) {
+                    assertFalse(missingField.canMatch(ctx));
+                }
+
+                PointRangeSegmentFilter all = PointRangeSegmentFilter.build(LongPoint.newRangeQuery("field", Long.MIN_VALUE, Long.MAX_VALUE));
+                for (LeafReaderContext ctx : reader.leaves()) {
+                    assertTrue(all.canMatch(ctx));
+                }
+            }
+        }
+    }
+
+    public void testSkippedSegmentsAreProfiled() throws IOException {
+        final int numSegments = randomIntBetween(2, 6);
+        try (Directory dir = newDirectory()) {
+            indexSegments(dir, numSegments);
+            try (DirectoryReader reader = DirectoryReader.open(dir)) {
+                ContextIndexSearcher searcher = new ContextIndexSearcher(
+                    reader,
+                    IndexSearcher.getDefaultSimilarity(),
+                    IndexSearcher.getDefaultQueryCache(),
+                    IndexSearcher.getDefaultQueryCachingPolicy(),
+                    randomBoolean()
+                );
+                QueryProfiler profiler = new QueryProfiler();
+                searcher.setProfiler(profiler);
+                Query query = new BooleanQuery.Builder().add(new TermQuery(new Term("type", "doc")), Occur.MUST)
+                    .add(LongPoint.newRangeQuery("field", 0, DOCS_PER_SEGMENT - 1), Occur.FILTER)
+                    .build();
+                assertThat(searcher.count(query), equalTo(DOCS_PER_SEGMENT));
+                assertThat(profiler.getSkippedSegments(), equalTo((long) numSegments - 1));
+            }
+        }
+    }
+
+    private static void indexSegments(Directory dir, int numSegments) throws IOException {
+        try (IndexWriter w = new IndexWriter(dir, new IndexWriterConfig().setMergePolicy(NoMergePolicy.INSTANCE))) {
+            for (int segment = 0; segment < numSegments; segment++) {
+                for (int i = 0; i < DOCS_PER_SEGMENT; i++) {
+                    long value = (long) segment * DOCS_PER_SEGMENT + i;
+                    Document doc = new Document();
+                    doc.add(new LongPoint("field", value));
+                    doc.add(new StringField("type", "doc", Field.Store.NO));
+                    w.addDocument(doc);
+                }
+                w.flush();
+            }
+        }
+    }
+}
@@ -12,14 +12,17 @@ import org.elasticsearch.common.io.stream.Writeable.Reader;
 import org.elasticsearch.search.profile.ProfileResult;
 import org.elasticsearch.search.profile.ProfileResultTests;
 import org.elasticsearch.test.AbstractXContentSerializingTestCase;
+import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.xcontent.XContentParser;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Predicate;
 
 import static org.elasticsearch.common.xcontent.XContentParserUtils.ensureExpectedToken;
+import static org.elasticsearch.core.Tuple.tuple;
 
 public class QueryProfileShardResultTests extends AbstractXContentSerializingTestCase<QueryProfileShardResult> {
     public static QueryProfileShardResult createTestItem() {
@@ -35,7 +38,20 @@ public class QueryProfileShardResultTests extends AbstractXContentSerializingTes
         }
 
         Long vectorOperationsCount = randomBoolean() ? null : randomNonNegativeLong();
-        return new QueryProfileShardResult(queryProfileResults, rewriteTime, profileCollector, vectorOperationsCount);
+        Long skippedSegments = randomBoolean() ? null : randomNonNegativeLong();
+        Map<String, Long> knnSearchStrategies = randomBoolean()
+            ? null
+            : randomMap(1, 3, () -> tuple(randomFrom("exact", "pre_filter", "post_filter"), randomNonNegativeLong()));
+        Long vectorPageFaults = randomBoolean() ? null : randomNonNegativeLong();
+        return new QueryProfileShardResult(
+            queryProfileResults,
+            rewriteTime,
+            profileCollector,
+            vectorOperationsCount,
+            skippedSegments,
+            knnSearchStrategies,
+            vectorPageFaults
+        );
     }
 
     @Override
@@ -45,7 +61,30 @@ public class QueryProfileShardResultTests extends AbstractXContentSerializingTes
 
     @Override
     protected QueryProfileShardResult mutateInstance(QueryProfileShardResult instance) {
-        return null;// TODO implement https://github.com/elastic/elasticsearch/issues/25929
+        List<ProfileResult> queryProfileResults = instance.getQueryResults();
+        long rewriteTime = instance.getRewriteTime();
+        CollectorResult profileCollector = instance.getCollectorResult();
+        Long vectorOperationsCount = instance.getVectorOperationsCount();
+        Long skippedSegments = instance.getSkippedSegments();
+        Map<String, Long> knnSearchStrategies = instance.getKnnSearchStrategies();
+        Long vectorPageFaults = instance.getVectorPageFaults();
+        switch (between(0, 4)) {
+            case 0 -> rewriteTime = randomValueOtherThan(rewriteTime, ESTestCase::randomNonNegativeLong);
+            case 1 -> vectorOperationsCount = vectorOperationsCount == null ? randomNonNegativeLong() : null;
+            case 2 -> skippedSegments = skippedSegments == null ? randomNonNegativeLong() : null;
+            case 3 -> knnSearchStrategies = knnSearchStrategies == null ? Map.of("exact", randomNonNegativeLong()) : null;
+            case 4 -> vectorPageFaults = vectorPageFaults == null ? randomNonNegativeLong() : null;
+            default -> throw new AssertionError("Illegal randomisation branch");
+        }
+        return new QueryProfileShardResult(
+            queryProfileResults,
+            rewriteTime,
+            profileCollector,
+            vectorOperationsCount,
+            skippedSegments,
+            knnSearchStrategies,
+            vectorPageFaults
+        );
     }
 
     @Override
@@ -63,6 +102,6 @@ public class QueryProfileShardResultTests extends AbstractXContentSerializingTes
 
     @Override
     protected Predicate<String> getRandomFieldsExcludeFilter() {
-        return ProfileResultTests.RANDOM_FIELDS_EXCLUDE_FILTER;
+        return ProfileResultTests.RANDOM_FIELDS_EXCLUDE_FILTER.or(s -> s.endsWith(QueryProfileShardResult.KNN_SEARCH_STRATEGIES));
     }
 }
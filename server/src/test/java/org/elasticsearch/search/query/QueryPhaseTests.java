@@ -714,6 +714,61 @@ public class QueryPhaseTests extends IndexShardTestCase {
         }
     }
 
+    public void testIndexSortSearchAfterOptimization() throws Exception {
+        final Sort indexSort = new Sort(new SortField("rank", SortField.Type.INT), new SortField("tiebreaker", SortField.Type.INT));
+        IndexWriterConfig iwc = newIndexWriterConfig().setIndexSort(indexSort);
+        RandomIndexWriter w = new RandomIndexWriter(random(), dir, iwc);
+        final int numDocs = scaledRandomIntBetween(100, 200);
+        for (int i = 0; i < numDocs; ++i) {
+            Document doc = new Document();
+            doc.add(new NumericDocValuesField("rank", random().nextInt(20)));
+            doc.add(new NumericDocValuesField("tiebreaker", i));
+            w.addDocument(doc);
+        }
+        if (randomBoolean()) {
+            w.forceMerge(randomIntBetween(1, 10));
+        }
+        w.close();
+        reader = DirectoryReader.open(dir);
+
+        final SortAndFormats sortAndFormats = new SortAndFormats(
+            indexSort,
+            new DocValueFormat[] { DocValueFormat.RAW, DocValueFormat.RAW }
+        );
+        FieldDoc after = null;
+        int collected = 0;
+        while (collected < numDocs) {
+            // reference page, computed without the search_after filter since total hits are tracked
+            final TopDocs expected;
+            try (TestSearchContext context = createContext(newContextSearcher(reader), new MatchAllDocsQuery())) {
+                context.setSize(10);
+                context.sort(sortAndFormats);
+                context.searchAfter(after);
+                assertFalse(QueryPhase.canSkipToSearchAfter(context));
+                QueryPhase.addCollectorsAndSearch(context);
+                expected = context.queryResult().topDocs().topDocs;
+            }
+            try (TestSearchContext context = createContext(earlyTerminationContextSearcher(reader, 10), new MatchAllDocsQuery())) {
+                context.setSize(10);
+                context.sort(sortAndFormats);
+                context.searchAfter(after);
+                context.trackTotalHitsUpTo(SearchContext.TRACK_TOTAL_HITS_DISABLED);
+                assertThat(QueryPhase.canSkipToSearchAfter(context), equalTo(after != null));
+                QueryPhase.addCollectorsAndSearch(context);
+                TopDocs topDocs = context.queryResult().topDocs().topDocs;
+                assertThat(topDocs.scoreDocs.length, equalTo(expected.scoreDocs.length));
+                for (int i = 0; i < topDocs.scoreDocs.length; i++) {
+                    assertArrayEquals(((FieldDoc) expected.scoreDocs[i]).fields, ((FieldDoc) topDocs.scoreDocs[i]).fields);
+                }
+                collected += topDocs.scoreDocs.length;
+                FieldDoc last = (FieldDoc) topDocs.scoreDocs[topDocs.scoreDocs.length - 1];
+                // mimics the doc id that SearchAfterBuilder sets on the after doc
+                after = new FieldDoc(Integer.MAX_VALUE, 0, last.fields);
+            }
+        }
+        assertThat(collected, equalTo(numDocs));
+    }
+
     public void testDisableTopScoreCollection() throws Exception {
         IndexWriterConfig iwc = newIndexWriterConfig(new StandardAnalyzer());
         RandomIndexWriter w = new RandomIndexWriter(random(), dir, iwc);
@@ -1075,12 +1130,79 @@ public class QueryPhaseTests extends IndexShardTestCase {
             assertEquals(context.rewrittenQuery(), executed.get(0));
             assertEquals(queries, executed.subList(1, executed.size()));
 
+            // the rank queries are collected while running the combined query when it visits all matches anyway
             executed.clear();
             context.trackTotalHitsUpTo(SearchContext.TRACK_TOTAL_HITS_DISABLED);
             context.aggregations(new SearchContextAggregations(AggregatorFactories.EMPTY, () -> null));
             QueryPhase.executeRank(context);
-            assertEquals(context.rewrittenQuery(), executed.get(0));
-            assertEquals(queries, executed.subList(1, executed.size()));
+            assertEquals(List.of(context.rewrittenQuery()), executed);
+
+            executed.clear();
+            context.trackTotalHitsUpTo(SearchContext.TRACK_TOTAL_HITS_ACCURATE);
+            context.aggregations(null);
+            QueryPhase.executeRank(context);
+            assertEquals(List.of(context.rewrittenQuery()), executed);
+        }
+    }
+
+    public void testRankQueriesCollectedAlongside() throws IOException {
+        IndexWriterConfig iwc = newIndexWriterConfig();
+        RandomIndexWriter w = new RandomIndexWriter(random(), dir, iwc);
+        int numDocs = randomIntBetween(50, 200);
+        for (int i = 0; i < numDocs; i++) {
+            Document doc = new Document();
+            doc.add(new TextField("field0", randomFrom("a", "a b", "b", "a a c"), Store.NO));
+            doc.add(new TextField("field1", randomFrom("b", "c", "b c c", "d"), Store.NO));
+            w.addDocument(doc);
+            if (rarely()) {
+                w.commit();
+            }
+        }
+        w.close();
+        reader = DirectoryReader.open(dir);
+        ContextIndexSearcher searcher = newContextSearcher(reader);
+
+        List<Query> queries = List.of(new TermQuery(new Term("field0", "a")), new TermQuery(new Term("field1", "c")));
+        Query combined = new BooleanQuery.Builder().add(queries.get(0), Occur.SHOULD).add(queries.get(1), Occur.SHOULD).build();
+        List<List<TopDocs>> results = new ArrayList<>();
+        for (int trackTotalHitsUpTo : new int[] { SearchContext.TRACK_TOTAL_HITS_DISABLED, SearchContext.TRACK_TOTAL_HITS_ACCURATE }) {
+            try (SearchContext context = new TestSearchContext(null, indexShard, searcher) {
+                @Override
+                public Query buildFilteredQuery(Query query) {
+                    return query;
+                }
+
+                @Override
+                public ReaderContext readerContext() {
+                    return new ReaderContext(new ShardSearchContextId("test", 1L), null, indexShard, null, 0L, false);
+                }
+            }) {
+                context.parsedQuery(new ParsedQuery(combined));
+                context.rankShardContext(new RankShardContext(queries, 0, 10) {
+                    @Override
+                    public RankShardResult combine(List<TopDocs> rankResults) {
+                        results.add(rankResults);
+                        return null;
+                    }
+                });
+                context.trackTotalHitsUpTo(trackTotalHitsUpTo);
+                boolean alongside = trackTotalHitsUpTo == SearchContext.TRACK_TOTAL_HITS_ACCURATE;
+                assertEquals(alongside, QueryPhase.canCollectRankQueriesAlongside(context));
+                QueryPhase.executeRank(context);
+            }
+        }
+
+        List<TopDocs> separately = results.get(0);
+        List<TopDocs> alongside = results.get(1);
+        assertEquals(queries.size(), alongside.size());
+        for (int i = 0; i < queries.size(); i++) {
+            ScoreDoc[] expected = separately.get(i).scoreDocs;
+            ScoreDoc[] actual = alongside.get(i).scoreDocs;
+            assertEquals(expected.length, actual.length);
+            for (int j = 0; j < expected.length; j++) {
+                assertEquals(expected[j].doc, actual[j].doc);
+                assertEquals(expected[j].score, actual[j].score, 0f);
+            }
         }
     }
 
@@ -0,0 +1,147 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.search.vectors;
+
+import org.apache.lucene.codecs.KnnVectorsFormat;
+import org.apache.lucene.codecs.lucene99.Lucene99Codec;
+import org.apache.lucene.codecs.lucene99.Lucene99HnswScalarQuantizedVectorsFormat;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.KnnFloatVectorField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.elasticsearch.index.codec.vectors.ES813Int8FlatVectorFormat;
+import org.elasticsearch.search.profile.query.QueryProfiler;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.Map;
+
+public class ESKnnFloatVectorQueryTests extends ESTestCase {
+
+    public void testRescoreWithRawVectors() throws IOException {
+        int dims = randomIntBetween(2, 32);
+        int numDocs = randomIntBetween(10, 200);
+        float[][] vectors = new float[numDocs][];
+        KnnVectorsFormat format = randomBoolean() ? new Lucene99HnswScalarQuantizedVectorsFormat() : new ES813Int8FlatVectorFormat();
+        IndexWriterConfig config = new IndexWriterConfig().setCodec(new Lucene99Codec() {
+            @Override
+            public KnnVectorsFormat getKnnVectorsFormatForField(String field) {
+                return format;
+            }
+        });
+        try (Directory directory = newDirectory()) {
+            try (IndexWriter writer = new IndexWriter(directory, config)) {
+                for (int i = 0; i < numDocs; i++) {
+                    vectors[i] = randomVector(dims);
+                    Document doc = new Document();
+                    doc.add(new KnnFloatVectorField("vector", vectors[i], VectorSimilarityFunction.EUCLIDEAN));
+                    writer.addDocument(doc);
+                }
+                writer.forceMerge(1);
+            }
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                IndexSearcher searcher = newSearcher(reader);
+                float[] target = randomVector(dims);
+                int k = randomIntBetween(1, 10);
+                TopDocs topDocs = searcher.search(new ESKnnFloatVectorQuery("vector", target, k, null, true), k);
+                assertEquals(k, topDocs.scoreDocs.length);
+                float previous = Float.MAX_VALUE;
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    float expected = VectorSimilarityFunction.EUCLIDEAN.compare(target, vectors[scoreDoc.doc]);
+                    assertEquals(expected, scoreDoc.score, 1e-6f);
+                    assertTrue(scoreDoc.score <= previous);
+                    previous = scoreDoc.score;
+                }
+            }
+        }
+    }
+
+    public void testFilteredSearchStrategy() throws IOException {
+        int dims = randomIntBetween(2, 32);
+        int numDocs = randomIntBetween(50, 200);
+        int numRareDocs = randomIntBetween(1, 3);
+        try (Directory directory = newDirectory()) {
+            try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig())) {
+                for (int i = 0; i < numDocs; i++) {
+                    Document doc = new Document();
+                    doc.add(new KnnFloatVectorField("vector", randomVector(dims), VectorSimilarityFunction.EUCLIDEAN));
+                    doc.add(new StringField("tag", i < numRareDocs ? "rare" : "common", Field.Store.NO));
+                    writer.addDocument(doc);
+                }
+                writer.forceMerge(1);
+            }
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                IndexSearcher searcher = new IndexSearcher(reader);
+                float[] target = randomVector(dims);
+                int k = 5;
+
+                // the filter matches almost all documents: search the graph and post-filter the candidates
+                ESKnnFloatVectorQuery common = new ESKnnFloatVectorQuery("vector", target, k, new TermQuery(new Term("tag", "common")));
+                common.enableProfiling();
+                TopDocs topDocs = searcher.search(common, k);
+                assertEquals(k, topDocs.scoreDocs.length);
+                float previous = Float.MAX_VALUE;
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    assertTrue(scoreDoc.doc >= numRareDocs);
+                    assertTrue(scoreDoc.score <= previous);
+                    previous = scoreDoc.score;
+                }
+                QueryProfiler profiler = new QueryProfiler();
+                common.profile(profiler);
+                assertEquals(Map.of("post_filter", 1L), profiler.getKnnSearchStrategies());
+                long vectorOpsCount = profiler.getVectorOpsCount();
+                assertTrue(vectorOpsCount > 0);
+
+                // searching the same query again reports the statistics of the new search only
+                common.enableProfiling();
+                searcher.search(common, k);
+                profiler = new QueryProfiler();
+                common.profile(profiler);
+                assertEquals(Map.of("post_filter", 1L), profiler.getKnnSearchStrategies());
+                assertEquals(vectorOpsCount, profiler.getVectorOpsCount());
+
+                // the filter matches fewer documents than k: score all of them
+                ESKnnFloatVectorQuery rare = new ESKnnFloatVectorQuery("vector", target, k, new TermQuery(new Term("tag", "rare")));
+                rare.enableProfiling();
+                topDocs = searcher.search(rare, k);
+                assertEquals(numRareDocs, topDocs.scoreDocs.length);
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    assertTrue(scoreDoc.doc < numRareDocs);
+                }
+                profiler = new QueryProfiler();
+                rare.profile(profiler);
+                assertEquals(Map.of("exact", 1L), profiler.getKnnSearchStrategies());
+            }
+        }
+    }
+
+    public void testEquals() {
+        float[] target = new float[] { 1f, 2f };
+        assertEquals(new ESKnnFloatVectorQuery("f", target, 5, null), new ESKnnFloatVectorQuery("f", target, 5, null, false));
+        assertNotEquals(new ESKnnFloatVectorQuery("f", target, 5, null), new ESKnnFloatVectorQuery("f", target, 5, null, true));
+    }
+
+    private static float[] randomVector(int dims) {
+        float[] vector = new float[dims];
+        for (int i = 0; i < dims; i++) {
+            vector[i] = randomFloat();
+        }
+        return vector;
+    }
+}
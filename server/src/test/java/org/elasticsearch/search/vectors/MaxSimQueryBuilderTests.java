@@ -0,0 +1,112 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.search.vectors;
+
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.util.VectorUtil;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.compress.CompressedXContent;
+import org.elasticsearch.index.mapper.MapperService;
+import org.elasticsearch.index.query.SearchExecutionContext;
+import org.elasticsearch.test.AbstractQueryTestCase;
+import org.elasticsearch.xcontent.XContentBuilder;
+import org.elasticsearch.xcontent.XContentFactory;
+
+import java.io.IOException;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+
+public class MaxSimQueryBuilderTests extends AbstractQueryTestCase<MaxSimQueryBuilder> {
+
+    private static final String VECTORS_FIELD = "vectors";
+    private static final int VECTOR_DIMENSION = 3;
+
+    @Override
+    protected void initializeAdditionalMappings(MapperService mapperService) throws IOException {
+        XContentBuilder builder = XContentFactory.jsonBuilder()
+            .startObject()
+            .startObject("properties")
+            .startObject(VECTORS_FIELD)
+            .field("type", "multi_dense_vector")
+            .field("dims", VECTOR_DIMENSION)
+            .field("similarity", "dot_product")
+            .endObject()
+            .endObject()
+            .endObject();
+        mapperService.merge(
+            MapperService.SINGLE_MAPPING_NAME,
+            new CompressedXContent(Strings.toString(builder)),
+            MapperService.MergeReason.MAPPING_UPDATE
+        );
+    }
+
+    @Override
+    protected MaxSimQueryBuilder doCreateTestQueryBuilder() {
+        float[][] queryVectors = new float[randomIntBetween(1, 5)][VECTOR_DIMENSION];
+        for (float[] queryVector : queryVectors) {
+            for (int i = 0; i < VECTOR_DIMENSION; i++) {
+                queryVector[i] = randomFloat();
+            }
+            VectorUtil.l2normalize(queryVector);
+        }
+        return new MaxSimQueryBuilder(VECTORS_FIELD, queryVectors);
+    }
+
+    @Override
+    protected void doAssertLuceneQuery(MaxSimQueryBuilder queryBuilder, Query query, SearchExecutionContext context) throws IOException {
+        assertThat(query, equalTo(new MaxSimQuery(VECTORS_FIELD, queryBuilder.getQueryVectors(), VectorSimilarityFunction.DOT_PRODUCT)));
+    }
+
+    @Override
+    public void testValidOutput() {
+        MaxSimQueryBuilder query = new MaxSimQueryBuilder("field", new float[][] { { 1.0f, 2.0f }, { 3.0f, 4.0f } });
+        String expected = """
+            {
+              "max_sim" : {
+                "field" : "field",
+                "query_vectors" : [
+                  [
+                    1.0,
+                    2.0
+                  ],
+                  [
+                    3.0,
+                    4.0
+                  ]
+                ]
+              }
+            }""";
+        assertEquals(expected, query.toString());
+    }
+
+    public void testWrongDimension() throws IOException {
+        MaxSimQueryBuilder query = new MaxSimQueryBuilder(VECTORS_FIELD, new float[][] { { 1.0f, 2.0f } });
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> query.toQuery(createSearchExecutionContext()));
+        assertThat(e.getMessage(), containsString("the query vector has a different dimension [2] than the index vectors [3]"));
+    }
+
+    public void testRequiresUnitLengthVectorsWithDotProduct() throws IOException {
+        MaxSimQueryBuilder query = new MaxSimQueryBuilder(VECTORS_FIELD, new float[][] { { 1.0f, 0.0f, 0.0f }, { 1.0f, 2.0f, 3.0f } });
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> query.toQuery(createSearchExecutionContext()));
+        assertThat(e.getMessage(), containsString("The [dot_product] similarity can only be used with unit-length vectors."));
+    }
+
+    public void testWrongFieldType() throws IOException {
+        MaxSimQueryBuilder query = new MaxSimQueryBuilder(TEXT_FIELD_NAME, new float[][] { { 1.0f, 2.0f, 3.0f } });
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> query.toQuery(createSearchExecutionContext()));
+        assertThat(e.getMessage(), containsString("[max_sim] queries are only supported on [multi_dense_vector] fields"));
+    }
+
+    public void testRequiresQueryVectors() {
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> new MaxSimQueryBuilder(VECTORS_FIELD, new float[0][]));
+        assertThat(e.getMessage(), containsString("[query_vectors] must contain at least one vector"));
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.search.vectors;
+
+import org.apache.lucene.document.BinaryDocValuesField;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.search.Explanation;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public class MaxSimQueryTests extends ESTestCase {
+
+    public void testScores() throws IOException {
+        int dims = randomIntBetween(2, 32);
+        int numDocs = randomIntBetween(1, 50);
+        VectorSimilarityFunction similarity = randomFrom(VectorSimilarityFunction.values());
+        float[][][] docVectors = new float[numDocs][][];
+        try (Directory directory = newDirectory()) {
+            try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig())) {
+                for (int i = 0; i < numDocs; i++) {
+                    Document doc = new Document();
+                    if (randomBoolean()) {
+                        docVectors[i] = randomVectors(randomIntBetween(1, 20), dims);
+                        doc.add(new BinaryDocValuesField("field", encode(docVectors[i])));
+                    }
+                    writer.addDocument(doc);
+                }
+            }
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                IndexSearcher searcher = newSearcher(reader);
+                float[][] queryVectors = randomVectors(randomIntBetween(1, 10), dims);
+                MaxSimQuery query = new MaxSimQuery("field", queryVectors, similarity);
+                TopDocs topDocs = searcher.search(query, numDocs);
+                int matches = 0;
+                for (float[][] vectors : docVectors) {
+                    if (vectors != null) {
+                        matches++;
+                    }
+                }
+                assertEquals(matches, topDocs.totalHits.value);
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    float expected = maxSim(queryVectors, docVectors[scoreDoc.doc], similarity);
+                    assertEquals(expected, scoreDoc.score, 1e-5f * Math.max(1f, expected));
+                    Explanation explanation = searcher.explain(query, scoreDoc.doc);
+                    assertTrue(explanation.isMatch());
+                    assertEquals(scoreDoc.score, explanation.getValue().floatValue(), 0f);
+                }
+            }
+        }
+    }
+
+    public void testEquals() {
+        float[][] queryVectors = new float[][] { { 1f, 2f }, { 3f, 4f } };
+        MaxSimQuery query = new MaxSimQuery("field", queryVectors, VectorSimilarityFunction.DOT_PRODUCT);
+        assertEquals(query, new MaxSimQuery("field", new float[][] { { 1f, 2f }, { 3f, 4f } }, VectorSimilarityFunction.DOT_PRODUCT));
+        assertEquals(
+            query.hashCode(),
+            new MaxSimQuery("field", new float[][] { { 1f, 2f }, { 3f, 4f } }, VectorSimilarityFunction.DOT_PRODUCT).hashCode()
+        );
+        assertNotEquals(query, new MaxSimQuery("other", queryVectors, VectorSimilarityFunction.DOT_PRODUCT));
+        assertNotEquals(query, new MaxSimQuery("field", queryVectors, VectorSimilarityFunction.COSINE));
+        assertNotEquals(query, new MaxSimQuery("field", new float[][] { { 1f, 2f } }, VectorSimilarityFunction.DOT_PRODUCT));
+    }
+
+    private static float maxSim(float[][] queryVectors, float[][] docVectors, VectorSimilarityFunction similarity) {
+        float score = 0;
+        for (float[] queryVector : queryVectors) {
+            float max = 0;
+            for (float[] docVector : docVectors) {
+                max = Math.max(max, similarity.compare(queryVector, docVector));
+            }
+            score += max;
+        }
+        return score;
+    }
+
+    private static BytesRef encode(float[][] vectors) {
+        ByteBuffer buffer = ByteBuffer.allocate(vectors.length * vectors[0].length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (float[] vector : vectors) {
+            for (float value : vector) {
+                buffer.putFloat(value);
+            }
+        }
+        return new BytesRef(buffer.array());
+    }
+
+    private static float[][] randomVectors(int count, int dims) {
+        float[][] vectors = new float[count][dims];
+        for (float[] vector : vectors) {
+            for (int i = 0; i < dims; i++) {
+                // keep away from zero vectors that cosine can't score
+                vector[i] = randomFloat() + 0.01f;
+            }
+        }
+        return vectors;
+    }
+}
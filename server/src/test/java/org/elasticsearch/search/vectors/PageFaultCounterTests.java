@@ -0,0 +1,53 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License
+ * 2.0 and the Server Side Public License, v 1; you may not use this file except
+ * in compliance with, at your election, the Elastic License 2.0 or the Server
+ * Side Public License, v 1.
+ */
+
+package org.elasticsearch.search.vectors;
+
+import org.elasticsearch.search.profile.query.QueryProfiler;
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+public class PageFaultCounterTests extends ESTestCase {
+
+    public void testCountsPageFaultsOfSearches() throws Exception {
+        AtomicLong threadPageFaults = new AtomicLong(randomLongBetween(0, 1000));
+        PageFaultCounter counter = new PageFaultCounter(threadPageFaults::get);
+        long expected = 0;
+        int searches = randomIntBetween(1, 10);
+        for (int i = 0; i < searches; i++) {
+            long faults = randomLongBetween(1, 100);
+            expected += faults;
+            assertThat(counter.count(() -> threadPageFaults.addAndGet(faults)), equalTo(threadPageFaults.get()));
+            // faults between searches aren't counted
+            threadPageFaults.addAndGet(randomLongBetween(0, 100));
+        }
+        QueryProfiler profiler = new QueryProfiler();
+        counter.profile(profiler);
+        assertThat(profiler.getVectorPageFaults(), equalTo(expected));
+    }
+
+    public void testNoPageFaults() throws Exception {
+        PageFaultCounter counter = new PageFaultCounter(() -> 42);
+        counter.count(() -> null);
+        QueryProfiler profiler = new QueryProfiler();
+        counter.profile(profiler);
+        assertThat(profiler.getVectorPageFaults(), nullValue());
+    }
+
+    public void testUnsupportedPlatform() throws Exception {
+        PageFaultCounter counter = new PageFaultCounter(() -> -1);
+        assertThat(counter.count(() -> "result"), equalTo("result"));
+        QueryProfiler profiler = new QueryProfiler();
+        counter.profile(profiler);
+        assertThat(profiler.getVectorPageFaults(), nullValue());
+    }
+}
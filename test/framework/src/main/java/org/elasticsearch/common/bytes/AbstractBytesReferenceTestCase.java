@@ -282,6 +282,19 @@ public abstract class AbstractBytesReferenceTestCase extends ESTestCase {
         }
     }
 
+    public void testStreamInputTransferTo() throws IOException {
+        int length = randomIntBetween(10, PAGE_SIZE * 4);
+        BytesReference pbr = newBytesReference(length);
+        int offset = randomIntBetween(0, length);
+        try (StreamInput input = pbr.streamInput(); BytesStreamOutput out = new BytesStreamOutput()) {
+            assertEquals(offset, input.skip(offset));
+            assertEquals(length - offset, input.transferTo(out));
+            assertArrayEquals(BytesReference.toBytes(pbr.slice(offset, length - offset)), BytesReference.toBytes(out.bytes()));
+            assertEquals(0, input.available());
+            assertEquals(-1, input.read());
+        }
+    }
+
     public void testSliceWriteToOutputStream() throws IOException {
         int length = randomIntBetween(10, PAGE_SIZE * randomIntBetween(2, 5));
         BytesReference pbr = newBytesReference(length);
@@ -68,6 +68,7 @@ import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.MockBigArrays;
 import org.elasticsearch.common.util.MockPageCacheRecycler;
 import org.elasticsearch.core.CheckedConsumer;
+import org.elasticsearch.core.Nullable;
 import org.elasticsearch.core.Releasable;
 import org.elasticsearch.core.Releasables;
 import org.elasticsearch.core.Strings;
@@ -107,6 +108,7 @@ import org.elasticsearch.index.mapper.RangeType;
 import org.elasticsearch.index.mapper.TextFieldMapper;
 import org.elasticsearch.index.mapper.TimeSeriesIdFieldMapper;
 import org.elasticsearch.index.mapper.vectors.DenseVectorFieldMapper;
+import org.elasticsearch.index.mapper.vectors.MultiDenseVectorFieldMapper;
 import org.elasticsearch.index.mapper.vectors.SparseVectorFieldMapper;
 import org.elasticsearch.index.query.SearchExecutionContext;
 import org.elasticsearch.index.shard.IndexShard;
@@ -132,6 +134,7 @@ import org.elasticsearch.search.aggregations.support.AggregationContext;
 import org.elasticsearch.search.aggregations.support.AggregationContext.ProductionAggregationContext;
 import org.elasticsearch.search.aggregations.support.CoreValuesSourceType;
 import org.elasticsearch.search.aggregations.support.SamplingContext;
+import org.elasticsearch.search.aggregations.support.SegmentRollupCache;
 import org.elasticsearch.search.aggregations.support.TimeSeriesIndexSearcher;
 import org.elasticsearch.search.aggregations.support.ValuesSourceAggregationBuilder;
 import org.elasticsearch.search.aggregations.support.ValuesSourceRegistry;
@@ -199,6 +202,7 @@ public abstract class AggregatorTestCase extends ESTestCase {
         GeoShapeFieldMapper.CONTENT_TYPE, // Cannot aggregate geoshapes (yet)
         DenseVectorFieldMapper.CONTENT_TYPE, // Cannot aggregate dense vectors
         SparseVectorFieldMapper.CONTENT_TYPE, // Sparse vectors are no longer supported
+        MultiDenseVectorFieldMapper.CONTENT_TYPE, // Cannot aggregate multi dense vectors
 
         NestedObjectMapper.CONTENT_TYPE, // TODO support for nested
         PassThroughObjectMapper.CONTENT_TYPE, // TODO support for passthrough
@@ -408,11 +412,21 @@ public abstract class AggregatorTestCase extends ESTestCase {
             () -> false,
             q -> q,
             true,
-            isInSortOrderExecutionRequired
+            isInSortOrderExecutionRequired,
+            segmentRollupCache()
         );
         return context;
     }
 
+    /**
+     * The {@link SegmentRollupCache} the aggregations can use. Disabled by
+     * default, override to test aggregations that use it.
+     */
+    @Nullable
+    protected SegmentRollupCache segmentRollupCache() {
+        return null;
+    }
+
     /**
      * Build a {@link FieldMapper} to create the {@link MappingLookup} used for the aggs.
      * {@code protected} so subclasses can have it.
@@ -488,6 +488,7 @@ public class Constants {
         "indices:admin/freeze",
         "indices:admin/get",
         "indices:admin/analyze_disk_usage",
+        "indices:admin/analyze_vectors",
         "indices:admin/ilm/explain",
         "indices:admin/ilm/remove_policy",
         "indices:admin/ilm/retry",
@@ -537,6 +538,7 @@ public class Constants {
         "indices:data/read/explain",
         "indices:data/read/field_caps",
         "indices:data/read/get",
+        "indices:data/read/knn_batch",
         "indices:data/read/mget",
         "indices:data/read/mget[shard]",
         "indices:data/read/msearch",